@@ -0,0 +1,143 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.juanmbellini.pocs.quarkus.models.Address;
+import com.github.juanmbellini.pocs.quarkus.models.Company;
+import com.github.juanmbellini.pocs.quarkus.models.Photo;
+import com.github.juanmbellini.pocs.quarkus.models.User;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Compares the encode time of the {@link BinaryFormat}s against the JSON output, for JSON Placeholder's photos
+ * and users. The payload size of each format is reported as the {@code payloadBytes} secondary result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BinaryFormatsBenchmark {
+
+    /**
+     * The format to encode with ({@code json}, or one of the {@link BinaryFormat}s).
+     */
+    @Param({"json", "cbor", "smile", "protobuf"})
+    private String format;
+
+    /**
+     * The collection to encode.
+     */
+    @Param({"photos", "users"})
+    private String collection;
+
+    private List<?> elements;
+    private BinaryFormat.Encoder encoder;
+    private ByteArrayOutputStream output;
+
+
+    @Setup
+    public void setup() {
+        elements = "photos".equals(collection) ? photos() : users();
+        if ("json".equals(format)) {
+            final var objectMapper = new ObjectMapper();
+            encoder = (list, stream) -> objectMapper.writeValue(stream, list);
+        } else {
+            encoder = BinaryFormat.valueOf(format.toUpperCase(Locale.ROOT)).encoder(new ObjectMapper());
+        }
+        output = new ByteArrayOutputStream();
+    }
+
+
+    @Benchmark
+    public int encode(final PayloadCounters counters) throws IOException {
+        output.reset();
+        encoder.write(elements, output);
+        counters.payloadBytes = output.size();
+        return output.size();
+    }
+
+
+    private static List<Photo> photos() {
+        return LongStream.rangeClosed(1, 5000)
+                .mapToObj(id -> Photo.builder()
+                        .id(id)
+                        .albumId(id / 50 + 1)
+                        .title("accusamus beatae ad facilis cum similique qui sunt " + id)
+                        .url("https://via.placeholder.com/600/" + Long.toHexString(id * 7919))
+                        .thumbnailUrl("https://via.placeholder.com/150/" + Long.toHexString(id * 7919))
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private static List<User> users() {
+        return LongStream.rangeClosed(1, 10)
+                .mapToObj(id -> User.builder()
+                        .id(id)
+                        .name("Leanne Graham " + id)
+                        .username("Bret" + id)
+                        .email("Sincere" + id + "@april.biz")
+                        .address(Address.builder()
+                                .street("Kulas Light")
+                                .suite("Apt. " + id)
+                                .city("Gwenborough")
+                                .zipcode("92998-3874")
+                                .build())
+                        .phone("1-770-736-8031 x56442")
+                        .website("hildegard.org")
+                        .company(Company.builder()
+                                .name("Romaguera-Crona")
+                                .catchPhrase("Multi-layered client-server neural-net")
+                                .bs("harness real-time e-markets")
+                                .build())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+
+    /**
+     * Reports the size of the encoded payload (i.e the same on every invocation) as a secondary result.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PayloadCounters {
+
+        public int payloadBytes;
+
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            payloadBytes = 0;
+        }
+    }
+}
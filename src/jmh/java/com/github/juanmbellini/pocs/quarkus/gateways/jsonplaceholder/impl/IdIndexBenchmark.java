@@ -0,0 +1,109 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import com.github.juanmbellini.pocs.quarkus.models.Photo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Compares looking photos up by album id through a {@link LongRangeIndex} against a {@code HashMap<Long, List<Photo>>}
+ * (i.e what {@link Collectors#groupingBy} builds). Run with {@code -prof gc} to compare allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class IdIndexBenchmark {
+
+    /**
+     * Dataset size, as a multiple of JSON Placeholder's (i.e 5000 photos in 100 albums).
+     */
+    @Param({"1", "100"})
+    private int scale;
+
+    private List<Photo> photos;
+    private Map<Long, List<Photo>> hashMapIndex;
+    private LongRangeIndex rangeIndex;
+    private long[] albumIds;
+
+
+    @Setup
+    public void setup() {
+        final var albums = ALBUMS * scale;
+        photos = LongStream.range(0, (long) PHOTOS_PER_ALBUM * albums)
+                .mapToObj(id -> Photo.builder().id(id).albumId(id % albums).build())
+                .collect(Collectors.toList());
+        hashMapIndex = photos.stream().collect(Collectors.groupingBy(Photo::getAlbumId));
+        rangeIndex = LongRangeIndex.build(photos, Photo::getAlbumId);
+        final var random = new Random(42);
+        albumIds = LongStream.generate(() -> random.nextInt(albums)).limit(LOOKUPS).toArray();
+    }
+
+
+    @Benchmark
+    public void hashMapLookup(final Blackhole blackhole) {
+        for (final var albumId : albumIds) {
+            blackhole.consume(hashMapIndex.getOrDefault(albumId, Collections.emptyList()).size());
+        }
+    }
+
+    @Benchmark
+    public void rangeIndexLookup(final Blackhole blackhole) {
+        for (final var albumId : albumIds) {
+            blackhole.consume(rangeIndex.count(albumId));
+        }
+    }
+
+    @Benchmark
+    public void hashMapJoin(final Blackhole blackhole) {
+        for (final var albumId : albumIds) {
+            for (final var photo : hashMapIndex.getOrDefault(albumId, Collections.emptyList())) {
+                blackhole.consume(photo);
+            }
+        }
+    }
+
+    @Benchmark
+    public void rangeIndexJoin(final Blackhole blackhole) {
+        for (final var albumId : albumIds) {
+            final var albumPhotos = rangeIndex.view(photos, albumId);
+            for (var i = 0; i < albumPhotos.size(); i++) {
+                blackhole.consume(albumPhotos.get(i));
+            }
+        }
+    }
+
+
+    private static final int ALBUMS = 100;
+    private static final int PHOTOS_PER_ALBUM = 50;
+    private static final int LOOKUPS = 1000;
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.juanmbellini.pocs.quarkus.models.Album;
+import com.github.juanmbellini.pocs.quarkus.models.Comment;
+import com.github.juanmbellini.pocs.quarkus.models.Photo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Compares the time to warm the mirror: parsing the upstream JSON responses (i.e the cold path, without the network)
+ * against loading a persisted snapshot file.
+ * Benchmarks return {@link Object} as {@link MirrorSnapshot} is not visible from the generated code's package.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MirrorWarmStartBenchmark {
+
+    /**
+     * Dataset size, as a multiple of JSON Placeholder's.
+     */
+    @Param({"1", "100"})
+    private int scale;
+
+    private ObjectMapper objectMapper;
+    private byte[] albumsJson;
+    private byte[] photosJson;
+    private byte[] commentsJson;
+    private Path snapshotFile;
+
+
+    @Setup
+    public void setup() throws IOException {
+        objectMapper = new ObjectMapper().findAndRegisterModules();
+        final var albums = LongStream.rangeClosed(1, 100L * scale)
+                .mapToObj(id -> Album.builder().id(id).userId(id % 10 + 1).title("quidem molestiae enim " + id).build())
+                .collect(Collectors.toList());
+        final var photos = LongStream.rangeClosed(1, 5000L * scale)
+                .mapToObj(id -> Photo.builder()
+                        .id(id)
+                        .albumId(id % (100L * scale) + 1)
+                        .title("accusamus beatae ad facilis cum similique qui sunt " + id)
+                        .url("https://via.placeholder.com/600/" + Long.toHexString(id * 7919))
+                        .thumbnailUrl("https://via.placeholder.com/150/" + Long.toHexString(id * 7919))
+                        .build())
+                .collect(Collectors.toList());
+        final var comments = LongStream.rangeClosed(1, 500L * scale)
+                .mapToObj(id -> Comment.builder()
+                        .id(id)
+                        .postId(id / 5 + 1)
+                        .name("id labore ex et quam laborum " + id)
+                        .email("Eliseo" + id + "@gardner.biz")
+                        .body("laudantium enim quasi est quidem magnam voluptate ipsam eos tempora quo necessitatibus")
+                        .build())
+                .collect(Collectors.toList());
+        albumsJson = objectMapper.writeValueAsBytes(albums);
+        photosJson = objectMapper.writeValueAsBytes(photos);
+        commentsJson = objectMapper.writeValueAsBytes(comments);
+        snapshotFile = Files.createTempFile("mirror", ".snapshot");
+        MirrorSnapshotFile.write(MirrorSnapshot.build(List.of(), albums, photos, comments), snapshotFile);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(snapshotFile);
+    }
+
+
+    @Benchmark
+    public Object coldFromJson() throws IOException {
+        return MirrorSnapshot.build(
+                List.of(),
+                objectMapper.readValue(albumsJson, ALBUM_LIST_TYPE),
+                objectMapper.readValue(photosJson, PHOTO_LIST_TYPE),
+                objectMapper.readValue(commentsJson, COMMENT_LIST_TYPE)
+        );
+    }
+
+    @Benchmark
+    public Object warmFromSnapshotFile() throws IOException {
+        return MirrorSnapshotFile.read(snapshotFile);
+    }
+
+
+    private static final TypeReference<List<Album>> ALBUM_LIST_TYPE = new TypeReference<>() {
+    };
+    private static final TypeReference<List<Photo>> PHOTO_LIST_TYPE = new TypeReference<>() {
+    };
+    private static final TypeReference<List<Comment>> COMMENT_LIST_TYPE = new TypeReference<>() {
+    };
+}
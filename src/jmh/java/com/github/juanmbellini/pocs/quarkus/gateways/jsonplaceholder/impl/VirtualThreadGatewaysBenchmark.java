@@ -0,0 +1,154 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.UsersGateway;
+import com.github.juanmbellini.pocs.quarkus.models.User;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Compares the amount of in-flight upstream calls (and the time it takes to complete a burst of them) when the
+ * gateways' blocking calls are performed on a worker pool (sized as Quarkus' default) against on virtual threads.
+ * The upstream is simulated by a gateway that blocks for a fixed latency. The max in-flight calls of each iteration
+ * are reported as a secondary result ({@code maxInFlight}, see {@link InFlightCounters}).
+ * The virtual threads case requires running on Java 21 or later.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class VirtualThreadGatewaysBenchmark {
+
+    /**
+     * Where the blocking calls are performed.
+     */
+    @Param({"worker-pool", "virtual-threads"})
+    private String execution;
+
+    /**
+     * Amount of concurrent calls in each burst.
+     */
+    @Param({"2000"})
+    private int calls;
+
+    /**
+     * Simulated upstream latency, in milliseconds.
+     */
+    @Param({"20"})
+    private long latency;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private ExecutorService executor;
+    private UsersGateway gateway;
+
+
+    @Setup
+    public void setup() {
+        executor = "virtual-threads".equals(execution) ?
+                VirtualThreads.newExecutor()
+                        .orElseThrow(() -> new IllegalStateException("Virtual threads require Java 21 or later")) :
+                Executors.newFixedThreadPool(WORKER_POOL_SIZE);
+        gateway = new VirtualThreadUsersGateway(new BlockingUsersGateway(), executor);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+
+    @Benchmark
+    public List<List<User>> burst(final InFlightCounters counters) {
+        maxInFlight.set(0);
+        final var responses = IntStream.range(0, calls)
+                .mapToObj(ignored -> gateway.getUsersAsync().toCompletableFuture())
+                .collect(Collectors.toList());
+        final var users = responses.stream().map(CompletableFuture::join).collect(Collectors.toList());
+        counters.maxInFlight = Math.max(counters.maxInFlight, maxInFlight.get());
+        return users;
+    }
+
+
+    /**
+     * The max in-flight upstream calls reached by the bursts of an iteration, reported by JMH along the score.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class InFlightCounters {
+
+        public int maxInFlight;
+
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            maxInFlight = 0;
+        }
+    }
+
+
+    /**
+     * Simulates the upstream, blocking the calling thread for the configured latency while tracking the in-flight
+     * calls.
+     */
+    private final class BlockingUsersGateway implements UsersGateway {
+
+        @Override
+        public List<User> getUsers() {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(latency);
+                return List.of();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+
+        @Override
+        public CompletionStage<List<User>> getUsersAsync() {
+            return CompletableFuture.supplyAsync(this::getUsers, executor);
+        }
+    }
+
+
+    /**
+     * Quarkus' default worker pool size (i.e {@code quarkus.thread-pool.max-threads}).
+     */
+    private static final int WORKER_POOL_SIZE = 200;
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.controllers;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufMapper;
+import com.fasterxml.jackson.dataformat.protobuf.schema.NativeProtobufSchema;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchemaLoader;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import lombok.Getter;
+
+import javax.ws.rs.NotAcceptableException;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compact binary encodings in which collections can be served (see {@link BinaryFormatsWriter}), for consumers that
+ * want to avoid JSON's encoding and parsing costs. CBOR and Smile are schemaless (i.e JSON's data model, in binary).
+ * Protobuf is schema-based: messages follow the published schema ({@value #PROTOBUF_SCHEMA}, whose field numbers
+ * are fixed, so adding or reordering a model's properties does not break existing consumers),
+ * and as Protobuf has no top-level repeated values, collections are written as a stream of length-delimited messages
+ * (i.e as read by Protobuf's {@code parseDelimitedFrom}).
+ * The encoders of every format are derived from the application's {@link ObjectMapper}, so they serialize the models
+ * the same way the JSON representation does.
+ * These media types have a lower server quality than JSON, so that they are only chosen when explicitly accepted.
+ */
+enum BinaryFormat {
+    CBOR(BinaryFormat.CBOR_TYPE) {
+        @Override
+        Encoder encoder(final ObjectMapper objectMapper) {
+            final var writer = derive(new CBORMapper(), objectMapper).writer();
+            return (elements, output) -> writer.writeValue(output, elements);
+        }
+    },
+    SMILE(BinaryFormat.SMILE_TYPE) {
+        @Override
+        Encoder encoder(final ObjectMapper objectMapper) {
+            final var writer = derive(new SmileMapper(), objectMapper).writer();
+            return (elements, output) -> writer.writeValue(output, elements);
+        }
+    },
+    PROTOBUF(BinaryFormat.PROTOBUF_TYPE) {
+        @Override
+        Encoder encoder(final ObjectMapper objectMapper) {
+            final var mapper = derive(new ProtobufMapper(), objectMapper);
+            final var schema = loadProtobufSchema();
+            final Map<Class<?>, ObjectWriter> messageWriters = new ConcurrentHashMap<>();
+            return (elements, output) -> {
+                for (final var element : elements) {
+                    // Messages are named after the models (fails if the schema does not define the element's)
+                    final var message = messageWriters
+                            .computeIfAbsent(
+                                    element.getClass(),
+                                    type -> mapper.writer(schema.forType(type.getSimpleName()))
+                            )
+                            .writeValueAsBytes(element);
+                    writeVarint(output, message.length);
+                    output.write(message);
+                }
+            };
+        }
+    };
+
+
+    @Getter
+    private final MediaType mediaType;
+
+
+    BinaryFormat(final String mediaType) {
+        this.mediaType = MediaType.valueOf(mediaType);
+    }
+
+
+    /**
+     * Creates an {@link Encoder} of this format, with the configuration of the given {@code objectMapper}
+     * (i.e its features, inclusion rules, naming strategy and registered serializers).
+     *
+     * @param objectMapper The application's {@link ObjectMapper}.
+     * @return The {@link Encoder}.
+     * @throws UncheckedIOException If the format's schema cannot be loaded.
+     */
+    abstract Encoder encoder(final ObjectMapper objectMapper);
+
+
+    /**
+     * Finds the format with the given {@link MediaType}.
+     *
+     * @param mediaType The {@link MediaType}.
+     * @return The {@link BinaryFormat}, or empty if the media type is not a binary format (or is a wildcard).
+     */
+    static Optional<BinaryFormat> of(final MediaType mediaType) {
+        if (mediaType.isWildcardType() || mediaType.isWildcardSubtype()) {
+            return Optional.empty();
+        }
+        return Arrays.stream(values()).filter(format -> format.mediaType.isCompatible(mediaType)).findFirst();
+    }
+
+    /**
+     * Negotiates the format of a request selected to be answered in a binary format
+     * (i.e the most acceptable binary format).
+     *
+     * @param headers The request's {@link HttpHeaders}.
+     * @return The {@link BinaryFormat}.
+     * @throws NotAcceptableException If the request does not accept any binary format.
+     */
+    static BinaryFormat negotiate(final HttpHeaders headers) {
+        return headers.getAcceptableMediaTypes().stream()
+                .map(BinaryFormat::of)
+                .flatMap(Optional::stream)
+                .findFirst()
+                .orElseThrow(NotAcceptableException::new);
+    }
+
+
+    /**
+     * Copies the serialization configuration of the given {@code objectMapper} into the given format's
+     * {@code mapper}, which keeps its own factory (i.e its encoding), configured to leave the outputs open.
+     *
+     * @param mapper       The format's mapper.
+     * @param objectMapper The {@link ObjectMapper} whose configuration is copied.
+     * @param <M>          The concrete type of the format's mapper.
+     * @return The given {@code mapper}.
+     */
+    private static <M extends ObjectMapper> M derive(final M mapper, final ObjectMapper objectMapper) {
+        mapper.setConfig(objectMapper.getSerializationConfig());
+        mapper.setSerializerFactory(objectMapper.getSerializerFactory());
+        mapper.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+        return mapper;
+    }
+
+    private static NativeProtobufSchema loadProtobufSchema() {
+        final var schema = BinaryFormat.class.getResource(PROTOBUF_SCHEMA);
+        if (schema == null) {
+            throw new IllegalStateException("Missing the Protobuf schema " + PROTOBUF_SCHEMA);
+        }
+        try {
+            return ProtobufSchemaLoader.std.loadNative(schema);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeVarint(final OutputStream output, final int value) throws IOException {
+        var remaining = value;
+        while ((remaining & ~0x7F) != 0) {
+            output.write((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        output.write(remaining);
+    }
+
+
+    /**
+     * Writes collections in a {@link BinaryFormat}.
+     */
+    @FunctionalInterface
+    interface Encoder {
+
+        /**
+         * Writes the given {@code elements}, leaving the {@code output} open.
+         *
+         * @param elements The elements to write.
+         * @param output   The {@link OutputStream} to write to.
+         * @throws IOException If writing fails.
+         */
+        void write(final List<?> elements, final OutputStream output) throws IOException;
+    }
+
+
+    /**
+     * The classpath location of the Protobuf schema of the models (which messages are named after).
+     */
+    static final String PROTOBUF_SCHEMA = "/protobuf/jsonplaceholder.proto";
+
+    static final String CBOR_TYPE = "application/cbor";
+    static final String SMILE_TYPE = "application/x-jackson-smile";
+    static final String PROTOBUF_TYPE = "application/x-protobuf";
+
+    /**
+     * The binary formats as produced by resources (i.e with a lower server quality than JSON).
+     */
+    static final String PRODUCES_CBOR = CBOR_TYPE + ";qs=0.5";
+    static final String PRODUCES_SMILE = SMILE_TYPE + ";qs=0.5";
+    static final String PRODUCES_PROTOBUF = PROTOBUF_TYPE + ";qs=0.5";
+}
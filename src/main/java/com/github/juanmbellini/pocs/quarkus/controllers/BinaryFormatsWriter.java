@@ -0,0 +1,78 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * {@link MessageBodyWriter} of collections in the {@link BinaryFormat}s,
+ * with encoders derived from the application's {@link ObjectMapper}.
+ */
+@Provider
+@Produces({BinaryFormat.CBOR_TYPE, BinaryFormat.SMILE_TYPE, BinaryFormat.PROTOBUF_TYPE})
+public class BinaryFormatsWriter implements MessageBodyWriter<List<?>> {
+
+    private final Map<BinaryFormat, BinaryFormat.Encoder> encoders;
+
+
+    public BinaryFormatsWriter(final ObjectMapper objectMapper) {
+        this.encoders = Arrays.stream(BinaryFormat.values()).collect(Collectors.toMap(
+                Function.identity(),
+                format -> format.encoder(objectMapper),
+                (first, second) -> first,
+                () -> new EnumMap<>(BinaryFormat.class)
+        ));
+    }
+
+
+    @Override
+    public boolean isWriteable(
+            final Class<?> type,
+            final Type genericType,
+            final Annotation[] annotations,
+            final MediaType mediaType) {
+        return List.class.isAssignableFrom(type) && BinaryFormat.of(mediaType).isPresent();
+    }
+
+    @Override
+    public void writeTo(
+            final List<?> elements,
+            final Class<?> type,
+            final Type genericType,
+            final Annotation[] annotations,
+            final MediaType mediaType,
+            final MultivaluedMap<String, Object> httpHeaders,
+            final OutputStream entityStream) throws IOException {
+        encoders.get(BinaryFormat.of(mediaType).orElseThrow()).write(elements, entityStream);
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.controllers;
+
+import com.github.juanmbellini.pocs.quarkus.exceptions.GatewayException;
+
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.ExceptionMapper;
+import javax.ws.rs.ext.Provider;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+
+/**
+ * {@link ExceptionMapper} of {@link GatewayException}s. Calls rejected by the gateways' guards
+ * (i.e the circuit breaker, the bulkhead or the concurrency limiter) and upstream unavailability
+ * carry a 503 response, which is answered as such, so clients know they can back off and retry.
+ * Any other gateway failure is answered with a 500.
+ */
+@Provider
+public class GatewayExceptionMapper implements ExceptionMapper<GatewayException> {
+
+    @Override
+    public Response toResponse(final GatewayException exception) {
+        return Response.status(statusOf(exception)).build();
+    }
+
+
+    /**
+     * Resolves the status with which a request failed with the given {@code throwable} must be answered.
+     *
+     * @param throwable The {@link Throwable} the request failed with (possibly wrapped in a
+     *                  {@link CompletionException}).
+     * @return The status code.
+     */
+    static int statusOf(final Throwable throwable) {
+        final var cause = throwable instanceof CompletionException && throwable.getCause() != null
+                ? throwable.getCause()
+                : throwable;
+        if (!(cause instanceof GatewayException)) {
+            return INTERNAL_SERVER_ERROR;
+        }
+        return Optional.ofNullable(((GatewayException) cause).getResponse())
+                .map(Response::getStatus)
+                .filter(status -> status == SERVICE_UNAVAILABLE)
+                .orElse(INTERNAL_SERVER_ERROR);
+    }
+
+
+    private static final int SERVICE_UNAVAILABLE = Response.Status.SERVICE_UNAVAILABLE.getStatusCode();
+    private static final int INTERNAL_SERVER_ERROR = Response.Status.INTERNAL_SERVER_ERROR.getStatusCode();
+}
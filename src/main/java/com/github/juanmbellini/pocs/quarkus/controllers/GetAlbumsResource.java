@@ -16,14 +16,19 @@
 
 package com.github.juanmbellini.pocs.quarkus.controllers;
 
-import com.github.juanmbellini.pocs.quarkus.usecases.GetAlbums;
+import com.github.juanmbellini.pocs.quarkus.usecases.GetAlbumsAsync;
 import lombok.AllArgsConstructor;
 
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseEventSink;
+import java.util.concurrent.CompletionStage;
 
 /**
  * Rest endpoint for getting albums from JSON Placeholder.
@@ -32,12 +37,32 @@ import javax.ws.rs.core.Response;
 @AllArgsConstructor
 public class GetAlbumsResource {
 
-    private final GetAlbums getAlbums;
+    private final GetAlbumsAsync getAlbums;
+    private final SerializedResponses serializedResponses;
+    private final StreamedResponses streamedResponses;
 
     @GET
     @Produces(MediaType.APPLICATION_JSON)
-    public Response getAlbums() {
-        final var albums = getAlbums.get();
-        return Response.ok(albums).build();
+    public CompletionStage<Response> getAlbums(@Context final HttpHeaders headers) {
+        return getAlbums.get().thenApply(albums -> serializedResponses.ok("albums", albums, headers));
+    }
+
+    @GET
+    @Produces(StreamedResponses.PRODUCES_NDJSON)
+    public Response getAlbumsNdjson() {
+        return streamedResponses.ndjson(StreamedResponses.each(getAlbums));
+    }
+
+    @GET
+    @Produces(StreamedResponses.PRODUCES_EVENTS)
+    public void getAlbumsEvents(@Context final SseEventSink sink, @Context final Sse sse) {
+        streamedResponses.events(sink, sse, StreamedResponses.each(getAlbums));
+    }
+
+    @GET
+    @Produces({BinaryFormat.PRODUCES_CBOR, BinaryFormat.PRODUCES_SMILE, BinaryFormat.PRODUCES_PROTOBUF})
+    public CompletionStage<Response> getAlbumsBinary(@Context final HttpHeaders headers) {
+        final var format = BinaryFormat.negotiate(headers);
+        return getAlbums.get().thenApply(albums -> Response.ok(albums, format.getMediaType()).build());
     }
 }
@@ -16,15 +16,26 @@
 
 package com.github.juanmbellini.pocs.quarkus.controllers;
 
-import com.github.juanmbellini.pocs.quarkus.usecases.GetComments;
+import com.github.juanmbellini.pocs.quarkus.models.Comment;
+import com.github.juanmbellini.pocs.quarkus.models.CommentMatch;
+import com.github.juanmbellini.pocs.quarkus.usecases.GetCommentsAsync;
+import com.github.juanmbellini.pocs.quarkus.usecases.GetCommentsPageAsync;
 import lombok.AllArgsConstructor;
 
+import javax.validation.constraints.Min;
+import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.UriInfo;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseEventSink;
+import java.util.concurrent.CompletionStage;
 
 /**
  * Rest endpoint for getting comments from JSON Placeholder.
@@ -33,14 +44,67 @@ import javax.ws.rs.core.Response;
 @AllArgsConstructor
 public class GetCommentsResource {
 
-    private final GetComments getComments;
+    private final GetCommentsAsync getComments;
+    private final GetCommentsPageAsync getCommentsPage;
+    private final Pagination pagination;
+    private final StreamedResponses streamedResponses;
 
     @GET
     @Produces(MediaType.APPLICATION_JSON)
-    public Response getComments(
+    public CompletionStage<Response> getComments(
             @QueryParam("name") final String name,
-            @QueryParam("email") final String email) {
-        final var users = getComments.apply(name, email);
-        return Response.ok(users).build();
+            @QueryParam("email") final String email,
+            @QueryParam("match") @DefaultValue("exact") final CommentMatch match,
+            @QueryParam(Pagination.AFTER_PARAM) final Long after,
+            @QueryParam(Pagination.LIMIT_PARAM) @Min(1) final Integer limit,
+            @Context final UriInfo uriInfo) {
+        if (pagination.isRequested(after, limit)) {
+            final var page = pagination.pageRequest(after, limit);
+            return getCommentsPage.apply(name, email, match, page)
+                    .thenApply(comments -> pagination.pagedResponse(comments, page, Comment::getId, uriInfo));
+        }
+        return getComments.apply(name, email, match).thenApply(comments -> Response.ok(comments).build());
+    }
+
+    @GET
+    @Produces(StreamedResponses.PRODUCES_NDJSON)
+    public Response getCommentsNdjson(
+            @QueryParam("name") final String name,
+            @QueryParam("email") final String email,
+            @QueryParam("match") @DefaultValue("exact") final CommentMatch match) {
+        return streamedResponses.ndjson(StreamedResponses.each(() -> getComments.apply(name, email, match)));
+    }
+
+    @GET
+    @Produces(StreamedResponses.PRODUCES_EVENTS)
+    public void getCommentsEvents(
+            @QueryParam("name") final String name,
+            @QueryParam("email") final String email,
+            @QueryParam("match") @DefaultValue("exact") final CommentMatch match,
+            @Context final SseEventSink sink,
+            @Context final Sse sse) {
+        streamedResponses.events(sink, sse, StreamedResponses.each(() -> getComments.apply(name, email, match)));
+    }
+
+    @GET
+    @Produces({BinaryFormat.PRODUCES_CBOR, BinaryFormat.PRODUCES_SMILE, BinaryFormat.PRODUCES_PROTOBUF})
+    public CompletionStage<Response> getCommentsBinary(
+            @QueryParam("name") final String name,
+            @QueryParam("email") final String email,
+            @QueryParam("match") @DefaultValue("exact") final CommentMatch match,
+            @QueryParam(Pagination.AFTER_PARAM) final Long after,
+            @QueryParam(Pagination.LIMIT_PARAM) @Min(1) final Integer limit,
+            @Context final UriInfo uriInfo,
+            @Context final HttpHeaders headers) {
+        final var format = BinaryFormat.negotiate(headers);
+        if (pagination.isRequested(after, limit)) {
+            final var page = pagination.pageRequest(after, limit);
+            return getCommentsPage.apply(name, email, match, page).thenApply(comments -> Response
+                    .fromResponse(pagination.pagedResponse(comments, page, Comment::getId, uriInfo))
+                    .type(format.getMediaType())
+                    .build());
+        }
+        return getComments.apply(name, email, match)
+                .thenApply(comments -> Response.ok(comments, format.getMediaType()).build());
     }
 }
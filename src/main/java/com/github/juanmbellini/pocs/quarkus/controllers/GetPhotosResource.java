@@ -16,14 +16,27 @@
 
 package com.github.juanmbellini.pocs.quarkus.controllers;
 
-import com.github.juanmbellini.pocs.quarkus.usecases.GetPhotos;
+import com.github.juanmbellini.pocs.quarkus.models.Photo;
+import com.github.juanmbellini.pocs.quarkus.usecases.GetPhotosAsync;
+import com.github.juanmbellini.pocs.quarkus.usecases.GetPhotosPageAsync;
+import com.github.juanmbellini.pocs.quarkus.usecases.StreamPhotos;
 import lombok.AllArgsConstructor;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
+import javax.validation.constraints.Min;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.UriInfo;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseEventSink;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 /**
  * Rest endpoint for getting photos from JSON Placeholder.
@@ -32,12 +45,60 @@ import javax.ws.rs.core.Response;
 @AllArgsConstructor
 public class GetPhotosResource {
 
-    private final GetPhotos getPhotos;
+    private final GetPhotosAsync getPhotos;
+    private final GetPhotosPageAsync getPhotosPage;
+    private final StreamPhotos streamPhotos;
+    private final Pagination pagination;
+    private final SerializedResponses serializedResponses;
+    private final StreamedResponses streamedResponses;
+    @ConfigProperty(name = "jsonplaceholder.photos.streaming", defaultValue = "false")
+    private final boolean streaming;
 
     @GET
     @Produces(MediaType.APPLICATION_JSON)
-    public Response getPhotos() {
-        final var photos = getPhotos.get();
-        return Response.ok(photos).build();
+    public CompletionStage<Response> getPhotos(
+            @QueryParam(Pagination.AFTER_PARAM) final Long after,
+            @QueryParam(Pagination.LIMIT_PARAM) @Min(1) final Integer limit,
+            @Context final UriInfo uriInfo,
+            @Context final HttpHeaders headers) {
+        if (pagination.isRequested(after, limit)) {
+            final var page = pagination.pageRequest(after, limit);
+            return getPhotosPage.apply(page)
+                    .thenApply(photos -> pagination.pagedResponse(photos, page, Photo::getId, uriInfo));
+        }
+        if (streaming) {
+            return CompletableFuture.completedFuture(Response.ok(streamedResponses.jsonArray(streamPhotos)).build());
+        }
+        return getPhotos.get().thenApply(photos -> serializedResponses.ok("photos", photos, headers));
+    }
+
+    @GET
+    @Produces(StreamedResponses.PRODUCES_NDJSON)
+    public Response getPhotosNdjson() {
+        return streamedResponses.ndjson(streamPhotos);
+    }
+
+    @GET
+    @Produces(StreamedResponses.PRODUCES_EVENTS)
+    public void getPhotosEvents(@Context final SseEventSink sink, @Context final Sse sse) {
+        streamedResponses.events(sink, sse, streamPhotos);
+    }
+
+    @GET
+    @Produces({BinaryFormat.PRODUCES_CBOR, BinaryFormat.PRODUCES_SMILE, BinaryFormat.PRODUCES_PROTOBUF})
+    public CompletionStage<Response> getPhotosBinary(
+            @QueryParam(Pagination.AFTER_PARAM) final Long after,
+            @QueryParam(Pagination.LIMIT_PARAM) @Min(1) final Integer limit,
+            @Context final UriInfo uriInfo,
+            @Context final HttpHeaders headers) {
+        final var format = BinaryFormat.negotiate(headers);
+        if (pagination.isRequested(after, limit)) {
+            final var page = pagination.pageRequest(after, limit);
+            return getPhotosPage.apply(page).thenApply(photos -> Response
+                    .fromResponse(pagination.pagedResponse(photos, page, Photo::getId, uriInfo))
+                    .type(format.getMediaType())
+                    .build());
+        }
+        return getPhotos.get().thenApply(photos -> Response.ok(photos, format.getMediaType()).build());
     }
 }
@@ -16,7 +16,7 @@
 
 package com.github.juanmbellini.pocs.quarkus.controllers;
 
-import com.github.juanmbellini.pocs.quarkus.usecases.GetUserAlbums;
+import com.github.juanmbellini.pocs.quarkus.usecases.GetUserAlbumsAsync;
 import lombok.AllArgsConstructor;
 import lombok.NonNull;
 
@@ -26,6 +26,7 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import java.util.concurrent.CompletionStage;
 
 /**
  * Rest endpoint for getting a user's albums from JSON Placeholder.
@@ -34,12 +35,11 @@ import javax.ws.rs.core.Response;
 @AllArgsConstructor
 public class GetUserAlbumsResource {
 
-    private final GetUserAlbums getUserAlbums;
+    private final GetUserAlbumsAsync getUserAlbums;
 
     @GET
     @Produces(MediaType.APPLICATION_JSON)
-    public Response getUserAlbums(@PathParam("id") @NonNull final Long userId) {
-        final var albums = getUserAlbums.apply(userId);
-        return Response.ok(albums).build();
+    public CompletionStage<Response> getUserAlbums(@PathParam("id") @NonNull final Long userId) {
+        return getUserAlbums.apply(userId).thenApply(albums -> Response.ok(albums).build());
     }
 }
@@ -16,7 +16,7 @@
 
 package com.github.juanmbellini.pocs.quarkus.controllers;
 
-import com.github.juanmbellini.pocs.quarkus.usecases.GetUserPhotos;
+import com.github.juanmbellini.pocs.quarkus.usecases.GetUserPhotosAsync;
 import lombok.AllArgsConstructor;
 import lombok.NonNull;
 
@@ -26,6 +26,7 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import java.util.concurrent.CompletionStage;
 
 /**
  * Rest endpoint for getting a user's photos from JSON Placeholder.
@@ -34,12 +35,11 @@ import javax.ws.rs.core.Response;
 @AllArgsConstructor
 public class GetUserPhotosResource {
 
-    private final GetUserPhotos getUserPhotos;
+    private final GetUserPhotosAsync getUserPhotos;
 
     @GET
     @Produces(MediaType.APPLICATION_JSON)
-    public Response getUserPhotos(@PathParam("id") @NonNull final Long userId) {
-        final var albums = getUserPhotos.apply(userId);
-        return Response.ok(albums).build();
+    public CompletionStage<Response> getUserPhotos(@PathParam("id") @NonNull final Long userId) {
+        return getUserPhotos.apply(userId).thenApply(photos -> Response.ok(photos).build());
     }
 }
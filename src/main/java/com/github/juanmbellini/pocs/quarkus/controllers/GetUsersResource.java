@@ -16,14 +16,19 @@
 
 package com.github.juanmbellini.pocs.quarkus.controllers;
 
-import com.github.juanmbellini.pocs.quarkus.usecases.GetUsers;
+import com.github.juanmbellini.pocs.quarkus.usecases.GetUsersAsync;
 import lombok.AllArgsConstructor;
 
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseEventSink;
+import java.util.concurrent.CompletionStage;
 
 /**
  * Rest endpoint for getting users from JSON Placeholder.
@@ -32,12 +37,32 @@ import javax.ws.rs.core.Response;
 @AllArgsConstructor
 public class GetUsersResource {
 
-    private final GetUsers getUsers;
+    private final GetUsersAsync getUsers;
+    private final SerializedResponses serializedResponses;
+    private final StreamedResponses streamedResponses;
 
     @GET
     @Produces(MediaType.APPLICATION_JSON)
-    public Response getUsers() {
-        final var users = getUsers.get();
-        return Response.ok(users).build();
+    public CompletionStage<Response> getUsers(@Context final HttpHeaders headers) {
+        return getUsers.get().thenApply(users -> serializedResponses.ok("users", users, headers));
+    }
+
+    @GET
+    @Produces(StreamedResponses.PRODUCES_NDJSON)
+    public Response getUsersNdjson() {
+        return streamedResponses.ndjson(StreamedResponses.each(getUsers));
+    }
+
+    @GET
+    @Produces(StreamedResponses.PRODUCES_EVENTS)
+    public void getUsersEvents(@Context final SseEventSink sink, @Context final Sse sse) {
+        streamedResponses.events(sink, sse, StreamedResponses.each(getUsers));
+    }
+
+    @GET
+    @Produces({BinaryFormat.PRODUCES_CBOR, BinaryFormat.PRODUCES_SMILE, BinaryFormat.PRODUCES_PROTOBUF})
+    public CompletionStage<Response> getUsersBinary(@Context final HttpHeaders headers) {
+        final var format = BinaryFormat.negotiate(headers);
+        return getUsers.get().thenApply(users -> Response.ok(users, format.getMediaType()).build());
     }
 }
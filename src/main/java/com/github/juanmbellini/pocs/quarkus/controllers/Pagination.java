@@ -0,0 +1,121 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.controllers;
+
+import com.github.juanmbellini.pocs.quarkus.models.PageRequest;
+import lombok.AllArgsConstructor;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.ws.rs.core.Link;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.UriBuilder;
+import javax.ws.rs.core.UriInfo;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Translates the keyset pagination query parameters into {@link PageRequest}s, enforcing the server-side limits,
+ * and builds the paged responses.
+ */
+@ApplicationScoped
+@AllArgsConstructor
+class Pagination {
+
+    @ConfigProperty(name = "jsonplaceholder.pagination.default-limit", defaultValue = "20")
+    private final int defaultLimit;
+    @ConfigProperty(name = "jsonplaceholder.pagination.max-limit", defaultValue = "100")
+    private final int maxLimit;
+
+
+    /**
+     * Indicates whether the request asked for a page (i.e at least one of the pagination parameters is present).
+     *
+     * @param after The id after which the page starts.
+     * @param limit The requested page size.
+     * @return {@code true} if a page was requested, or {@code false} otherwise.
+     */
+    boolean isRequested(final Long after, final Integer limit) {
+        return after != null || limit != null;
+    }
+
+    /**
+     * Builds the {@link PageRequest}, defaulting the limit when missing and clamping it to the configured maximum.
+     *
+     * @param after The id after which the page starts.
+     * @param limit The requested page size.
+     * @return The {@link PageRequest}.
+     */
+    PageRequest pageRequest(final Long after, final Integer limit) {
+        return PageRequest.builder()
+                .after(after)
+                .limit(Math.min(Optional.ofNullable(limit).orElse(defaultLimit), maxLimit))
+                .build();
+    }
+
+    /**
+     * Builds the {@link Response} for the given page, adding a {@code next} {@link Link} pointing to the following
+     * page when the returned page is full.
+     *
+     * @param elements    The elements in the page.
+     * @param page        The {@link PageRequest} that produced the elements.
+     * @param idExtractor A {@link Function} that returns the id of an element.
+     * @param uriInfo     The {@link UriInfo} of the request, used to build the {@code next} link.
+     * @param <T>         The concrete type of the elements.
+     * @return The {@link Response}.
+     */
+    <T> Response pagedResponse(
+            final List<T> elements,
+            final PageRequest page,
+            final Function<T, Long> idExtractor,
+            final UriInfo uriInfo) {
+        final var response = Response.ok(elements);
+        nextLink(elements, page, idExtractor, uriInfo.getRequestUriBuilder()).ifPresent(response::links);
+        return response.build();
+    }
+
+    /**
+     * Builds the {@code next} {@link Link} pointing to the page following the given one, if the given page is full.
+     *
+     * @param elements    The elements in the page.
+     * @param page        The {@link PageRequest} that produced the elements.
+     * @param idExtractor A {@link Function} that returns the id of an element.
+     * @param requestUri  A {@link UriBuilder} initialized with the request's URI.
+     * @param <T>         The concrete type of the elements.
+     * @return The {@code next} {@link Link}, or empty if there is no following page.
+     */
+    <T> Optional<Link> nextLink(
+            final List<T> elements,
+            final PageRequest page,
+            final Function<T, Long> idExtractor,
+            final UriBuilder requestUri) {
+        if (elements.isEmpty() || elements.size() < page.getLimit()) {
+            return Optional.empty();
+        }
+        final var next = requestUri
+                .replaceQueryParam(AFTER_PARAM, idExtractor.apply(elements.get(elements.size() - 1)))
+                .replaceQueryParam(LIMIT_PARAM, page.getLimit())
+                .build();
+        return Optional.of(Link.fromUri(next).rel(NEXT_REL).build());
+    }
+
+
+    static final String AFTER_PARAM = "after";
+    static final String LIMIT_PARAM = "limit";
+    private static final String NEXT_REL = "next";
+}
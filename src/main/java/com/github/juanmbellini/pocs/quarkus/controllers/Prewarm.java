@@ -0,0 +1,169 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.controllers;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.juanmbellini.pocs.quarkus.models.CommentMatch;
+import com.github.juanmbellini.pocs.quarkus.models.PageRequest;
+import com.github.juanmbellini.pocs.quarkus.usecases.GetAlbumsAsync;
+import com.github.juanmbellini.pocs.quarkus.usecases.GetCommentsAsync;
+import com.github.juanmbellini.pocs.quarkus.usecases.GetPhotosAsync;
+import com.github.juanmbellini.pocs.quarkus.usecases.GetPhotosPageAsync;
+import com.github.juanmbellini.pocs.quarkus.usecases.GetUserAlbumsAsync;
+import com.github.juanmbellini.pocs.quarkus.usecases.GetUserPhotosAsync;
+import com.github.juanmbellini.pocs.quarkus.usecases.GetUsersAsync;
+import com.github.juanmbellini.pocs.quarkus.usecases.SearchAsync;
+import io.quarkus.runtime.StartupEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.jbosslog.JBossLog;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Prewarms the application at startup, before it is reported as ready (see {@link PrewarmReadinessCheck}):
+ * first every gateway is called through its use case, which opens the upstream connections and fills the caches,
+ * and then synthetic requests are run through the use cases (and serialized, as the endpoints do),
+ * so that the hot paths are JIT compiled before real traffic arrives.
+ * Prewarming is bounded by a time budget ({@code jsonplaceholder.prewarm.budget}): once exhausted (or if prewarming
+ * fails), the application is reported as ready anyway, as a cold application is better than an unavailable one.
+ * Prewarming is opt-in ({@code jsonplaceholder.prewarm.enabled}), as the synthetic requests reach upstream
+ * (up to five calls per iteration) when data is not served from caches or local data.
+ */
+@JBossLog
+@ApplicationScoped
+@RequiredArgsConstructor
+class Prewarm {
+
+    private final GetUsersAsync getUsers;
+    private final GetAlbumsAsync getAlbums;
+    private final GetPhotosAsync getPhotos;
+    private final GetCommentsAsync getComments;
+    private final GetUserAlbumsAsync getUserAlbums;
+    private final GetUserPhotosAsync getUserPhotos;
+    private final GetPhotosPageAsync getPhotosPage;
+    private final SearchAsync search;
+    private final ObjectMapper objectMapper;
+    @ConfigProperty(name = "jsonplaceholder.prewarm.enabled", defaultValue = "false")
+    private final boolean enabled;
+    @ConfigProperty(name = "jsonplaceholder.prewarm.budget", defaultValue = "30S")
+    private final Duration budget;
+    @ConfigProperty(name = "jsonplaceholder.prewarm.iterations", defaultValue = "200")
+    private final int iterations;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        final var thread = new Thread(runnable, "prewarm");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean done;
+
+
+    /**
+     * @return {@code true} if prewarming finished (or was given up), or {@code false} otherwise.
+     */
+    boolean isDone() {
+        return done;
+    }
+
+    void onStart(@Observes final StartupEvent event) {
+        if (!enabled) {
+            done = true;
+            return;
+        }
+        executor.execute(this::run);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow(); // Interrupts an ongoing prewarm
+    }
+
+    /**
+     * Runs the prewarm on the calling thread, flagging it as done once it finishes (or is given up).
+     */
+    void run() {
+        final var start = System.nanoTime();
+        final var deadline = start + budget.toNanos();
+        var completed = 0;
+        try {
+            await(deadline,
+                    getUsers.get(),
+                    getAlbums.get(),
+                    getPhotos.get(),
+                    getComments.apply(null, null)
+            );
+            for (; completed < iterations && System.nanoTime() < deadline; completed++) {
+                final var userId = (long) (completed % SYNTHETIC_USERS) + 1;
+                await(deadline,
+                        getUserAlbums.apply(userId).thenApply(this::serialize),
+                        getUserPhotos.apply(userId).thenApply(this::serialize),
+                        getPhotosPage.apply(PageRequest.builder().after((long) completed).limit(20).build())
+                                .thenApply(this::serialize),
+                        getComments.apply("et", null, CommentMatch.PREFIX).thenApply(this::serialize),
+                        search.apply("lorem ipsum", 10).thenApply(this::serialize)
+                );
+            }
+        } catch (final TimeoutException e) {
+            log.warnf("Prewarm budget (%s) exhausted. Reporting ready anyway", budget);
+        } catch (final ExecutionException | RuntimeException e) {
+            log.warn("Prewarm failed. Reporting ready anyway", e);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            done = true;
+            log.infof(
+                    "Prewarm finished in %d ms (%d of %d synthetic iterations)",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                    completed,
+                    iterations
+            );
+        }
+    }
+
+    private byte[] serialize(final Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (final JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void await(final long deadline, final CompletionStage<?>... stages)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        final var futures = new CompletableFuture<?>[stages.length];
+        for (var i = 0; i < stages.length; i++) {
+            futures[i] = stages[i].toCompletableFuture();
+        }
+        CompletableFuture.allOf(futures).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+
+
+    private static final int SYNTHETIC_USERS = 10;
+}
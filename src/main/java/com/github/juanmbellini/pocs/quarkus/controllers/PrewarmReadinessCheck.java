@@ -0,0 +1,41 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.controllers;
+
+import lombok.AllArgsConstructor;
+import org.eclipse.microprofile.health.HealthCheck;
+import org.eclipse.microprofile.health.HealthCheckResponse;
+import org.eclipse.microprofile.health.Readiness;
+
+import javax.enterprise.context.ApplicationScoped;
+
+/**
+ * Reports the application as ready only once the {@link Prewarm} finished.
+ */
+@Readiness
+@ApplicationScoped
+@AllArgsConstructor
+class PrewarmReadinessCheck implements HealthCheck {
+
+    private final Prewarm prewarm;
+
+
+    @Override
+    public HealthCheckResponse call() {
+        return HealthCheckResponse.named("prewarm").state(prewarm.isDone()).build();
+    }
+}
@@ -0,0 +1,350 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.controllers;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.juanmbellini.pocs.quarkus.models.Comment;
+import com.github.juanmbellini.pocs.quarkus.models.CommentMatch;
+import com.github.juanmbellini.pocs.quarkus.models.PageRequest;
+import com.github.juanmbellini.pocs.quarkus.models.Photo;
+import com.github.juanmbellini.pocs.quarkus.usecases.GetAlbumsAsync;
+import com.github.juanmbellini.pocs.quarkus.usecases.GetCommentsAsync;
+import com.github.juanmbellini.pocs.quarkus.usecases.GetCommentsPageAsync;
+import com.github.juanmbellini.pocs.quarkus.usecases.GetPhotosAsync;
+import com.github.juanmbellini.pocs.quarkus.usecases.GetPhotosPageAsync;
+import com.github.juanmbellini.pocs.quarkus.usecases.GetUserAlbumsAsync;
+import com.github.juanmbellini.pocs.quarkus.usecases.GetUserPhotosAsync;
+import com.github.juanmbellini.pocs.quarkus.usecases.GetUsersAsync;
+import io.quarkus.vertx.web.Route;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.web.RoutingContext;
+import lombok.RequiredArgsConstructor;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Link;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.UriBuilder;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Vert.x reactive routes serving the same endpoints as the JAX-RS resources in this package, on the I/O event loop
+ * (i.e without dispatching each request to a worker thread). The use cases are non-blocking (their async variants),
+ * so when data is served from a cache or from local data the whole request runs on the event loop,
+ * and when it is not, the response is written back on the event loop once the upstream call completes.
+ * Truly blocking work (i.e streaming photos, see {@code jsonplaceholder.photos.streaming}) is passed on to the
+ * JAX-RS resources, which run on worker threads, as is every request when these routes are disabled
+ * (through {@code jsonplaceholder.routes.reactive.enabled}). Collections are only served as JSON here: requests
+ * that prefer their streamed (see {@link StreamedResponses}) or binary (see {@link BinaryFormat}) representations
+ * (i.e by the same quality times server quality rule the resources are negotiated with) are passed on as well.
+ */
+@ApplicationScoped
+@RequiredArgsConstructor
+class ReactiveRoutes {
+
+    private final GetUsersAsync getUsers;
+    private final GetAlbumsAsync getAlbums;
+    private final GetPhotosAsync getPhotos;
+    private final GetPhotosPageAsync getPhotosPage;
+    private final GetCommentsAsync getComments;
+    private final GetCommentsPageAsync getCommentsPage;
+    private final GetUserAlbumsAsync getUserAlbums;
+    private final GetUserPhotosAsync getUserPhotos;
+    private final Pagination pagination;
+    private final SerializedResponses serializedResponses;
+    private final ObjectMapper objectMapper;
+    @ConfigProperty(name = "jsonplaceholder.routes.reactive.enabled", defaultValue = "true")
+    private final boolean enabled;
+    @ConfigProperty(name = "jsonplaceholder.photos.streaming", defaultValue = "false")
+    private final boolean streaming;
+
+
+    @Route(path = "/users", methods = HttpMethod.GET, produces = MediaType.APPLICATION_JSON)
+    void getUsers(final RoutingContext context) {
+        if (enabled && prefersJson(context)) {
+            respondSerialized(context, "users", getUsers.get());
+        } else {
+            context.next();
+        }
+    }
+
+    @Route(path = "/albums", methods = HttpMethod.GET, produces = MediaType.APPLICATION_JSON)
+    void getAlbums(final RoutingContext context) {
+        if (enabled && prefersJson(context)) {
+            respondSerialized(context, "albums", getAlbums.get());
+        } else {
+            context.next();
+        }
+    }
+
+    @Route(path = "/photos", methods = HttpMethod.GET, produces = MediaType.APPLICATION_JSON)
+    void getPhotos(final RoutingContext context) {
+        final var after = context.request().getParam(Pagination.AFTER_PARAM);
+        final var limit = context.request().getParam(Pagination.LIMIT_PARAM);
+        final var paged = after != null || limit != null;
+        if (!enabled || !prefersJson(context) || (streaming && !paged)) {
+            context.next();
+            return;
+        }
+        if (paged) {
+            pageRequest(context, after, limit)
+                    .ifPresent(page -> respondPage(context, getPhotosPage.apply(page), page, Photo::getId));
+            return;
+        }
+        respondSerialized(context, "photos", getPhotos.get());
+    }
+
+    @Route(path = "/comments", methods = HttpMethod.GET, produces = MediaType.APPLICATION_JSON)
+    void getComments(final RoutingContext context) {
+        if (!enabled || !prefersJson(context)) {
+            context.next();
+            return;
+        }
+        final var name = context.request().getParam("name");
+        final var email = context.request().getParam("email");
+        final var after = context.request().getParam(Pagination.AFTER_PARAM);
+        final var limit = context.request().getParam(Pagination.LIMIT_PARAM);
+        final CommentMatch match;
+        try {
+            match = CommentMatch.fromString(Optional.ofNullable(context.request().getParam("match")).orElse("exact"));
+        } catch (final IllegalArgumentException e) {
+            badRequest(context, e.getMessage());
+            return;
+        }
+        if (after != null || limit != null) {
+            pageRequest(context, after, limit).ifPresent(page -> respondPage(
+                    context,
+                    getCommentsPage.apply(name, email, match, page),
+                    page,
+                    Comment::getId
+            ));
+            return;
+        }
+        respond(context, getComments.apply(name, email, match));
+    }
+
+    @Route(path = "/users/:id/albums", methods = HttpMethod.GET, produces = MediaType.APPLICATION_JSON)
+    void getUserAlbums(final RoutingContext context) {
+        final var userId = parseId(context.pathParam("id"));
+        if (enabled && userId.isPresent()) {
+            respond(context, getUserAlbums.apply(userId.get()));
+        } else {
+            context.next(); // Invalid ids are not found, as with the JAX-RS resources
+        }
+    }
+
+    @Route(path = "/users/:id/photos", methods = HttpMethod.GET, produces = MediaType.APPLICATION_JSON)
+    void getUserPhotos(final RoutingContext context) {
+        final var userId = parseId(context.pathParam("id"));
+        if (enabled && userId.isPresent()) {
+            respond(context, getUserPhotos.apply(userId.get()));
+        } else {
+            context.next(); // Invalid ids are not found, as with the JAX-RS resources
+        }
+    }
+
+
+    /**
+     * Parses the pagination parameters into a {@link PageRequest}, answering a bad request if they are not valid.
+     */
+    private Optional<PageRequest> pageRequest(final RoutingContext context, final String after, final String limit) {
+        try {
+            final var limitValue = limit == null ? null : Integer.valueOf(limit);
+            if (limitValue != null && limitValue < 1) {
+                throw new IllegalArgumentException("The limit must be at least 1");
+            }
+            return Optional.of(pagination.pageRequest(after == null ? null : Long.valueOf(after), limitValue));
+        } catch (final IllegalArgumentException e) {
+            badRequest(context, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void respondSerialized(
+            final RoutingContext context,
+            final String key,
+            final CompletionStage<? extends List<?>> result) {
+        onContext(context, result, list -> {
+            final var acceptEncodings = context.request().headers().getAll(HttpHeaders.ACCEPT_ENCODING);
+            final var serialized = serializedResponses.serialize(
+                    key,
+                    list,
+                    SerializedResponses.acceptsGzip(acceptEncodings)
+            );
+            final var response = context.response().putHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (serialized.isGzipped()) {
+                response.putHeader(HttpHeaders.CONTENT_ENCODING, SerializedResponses.GZIP);
+            }
+            end(context, serialized.getBytes());
+        });
+    }
+
+    private <T> void respondPage(
+            final RoutingContext context,
+            final CompletionStage<List<T>> result,
+            final PageRequest page,
+            final Function<T, Long> idExtractor) {
+        onContext(context, result, elements -> {
+            final var requestUri = UriBuilder.fromUri(context.request().absoluteURI());
+            pagination.nextLink(elements, page, idExtractor, requestUri)
+                    .map(Link::toString)
+                    .ifPresent(link -> context.response().putHeader(HttpHeaders.LINK, link));
+            end(context, serialize(elements));
+        });
+    }
+
+    private void respond(final RoutingContext context, final CompletionStage<? extends List<?>> result) {
+        onContext(context, result, elements -> end(context, serialize(elements)));
+    }
+
+    /**
+     * Handles the given {@code result} on the request's event loop (right away if it is already complete),
+     * failing the request if the result is a failure (with the status {@link GatewayExceptionMapper} would use).
+     */
+    private static <T> void onContext(
+            final RoutingContext context,
+            final CompletionStage<T> result,
+            final Consumer<T> handler) {
+        final Context requestContext = Vertx.currentContext();
+        result.whenComplete((value, throwable) -> {
+            final Runnable completion = () -> {
+                if (throwable != null) {
+                    context.fail(GatewayExceptionMapper.statusOf(throwable), throwable);
+                    return;
+                }
+                try {
+                    handler.accept(value);
+                } catch (final RuntimeException e) {
+                    context.fail(e);
+                }
+            };
+            if (requestContext == null || Vertx.currentContext() == requestContext) {
+                completion.run();
+            } else {
+                requestContext.runOnContext(ignored -> completion.run());
+            }
+        });
+    }
+
+    private byte[] serialize(final Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (final JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void end(final RoutingContext context, final byte[] body) {
+        context.response()
+                .putHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON)
+                .end(Buffer.buffer(body));
+    }
+
+    /**
+     * Parses the given path parameter as an id, which must be a non negative {@code long}
+     * (i.e non numeric ids, as well as those out of range, are not valid).
+     */
+    private static Optional<Long> parseId(final String id) {
+        if (!DIGITS.matcher(id).matches()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Long.valueOf(id));
+        } catch (final NumberFormatException e) {
+            return Optional.empty(); // Out of range
+        }
+    }
+
+    private static void badRequest(final RoutingContext context, final String message) {
+        context.response()
+                .setStatusCode(400)
+                .putHeader(HttpHeaders.CONTENT_TYPE, MediaType.TEXT_PLAIN)
+                .end(Optional.ofNullable(message).orElse("Bad request"));
+    }
+
+    /**
+     * Tells whether JSON is the representation the JAX-RS resources would answer the request with
+     * (i.e the quality with which it is accepted, times its server quality, is not lower than that of any of
+     * the other representations they produce). Requests with a malformed {@code Accept} header are left to them.
+     */
+    private static boolean prefersJson(final RoutingContext context) {
+        try {
+            final var accepted = context.request().headers().getAll(HttpHeaders.ACCEPT).stream()
+                    .flatMap(header -> Arrays.stream(header.split(",")))
+                    .map(String::trim)
+                    .filter(range -> !range.isEmpty())
+                    .map(MediaType::valueOf)
+                    .collect(Collectors.toList());
+            if (accepted.isEmpty()) {
+                return true; // Any representation is acceptable
+            }
+            final var json = quality(accepted, MediaType.APPLICATION_JSON_TYPE);
+            return json > 0 && ALTERNATIVE_TYPES.stream()
+                    .allMatch(type -> quality(accepted, type) * parameter(type, SERVER_QUALITY) <= json);
+        } catch (final IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Resolves the quality with which the given {@code type} is accepted (i.e that of the most specific of the
+     * {@code accepted} ranges it matches), which is 0 if it is not accepted at all.
+     */
+    private static double quality(final List<MediaType> accepted, final MediaType type) {
+        return accepted.stream()
+                .filter(range -> range.isCompatible(type))
+                .max(Comparator.comparingInt(range -> range.isWildcardType() ? 0 : range.isWildcardSubtype() ? 1 : 2))
+                .map(range -> parameter(range, QUALITY))
+                .orElse(0d);
+    }
+
+    private static double parameter(final MediaType mediaType, final String name) {
+        return Double.parseDouble(mediaType.getParameters().getOrDefault(name, "1"));
+    }
+
+
+    private static final Pattern DIGITS = Pattern.compile("\\d+");
+
+    private static final String QUALITY = "q";
+    private static final String SERVER_QUALITY = "qs";
+
+    /**
+     * The other representations in which the JAX-RS resources serve collections (with their server quality).
+     */
+    private static final List<MediaType> ALTERNATIVE_TYPES = Stream.of(
+            StreamedResponses.PRODUCES_NDJSON,
+            StreamedResponses.PRODUCES_EVENTS,
+            BinaryFormat.PRODUCES_CBOR,
+            BinaryFormat.PRODUCES_SMILE,
+            BinaryFormat.PRODUCES_PROTOBUF
+    ).map(MediaType::valueOf).collect(Collectors.toList());
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.controllers;
+
+import com.github.juanmbellini.pocs.quarkus.usecases.SearchAsync;
+import lombok.AllArgsConstructor;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Rest endpoint for full-text search over JSON Placeholder's comments, photos and albums.
+ */
+@Path("/search")
+@AllArgsConstructor
+public class SearchResource {
+
+    private final SearchAsync search;
+
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    public CompletionStage<Response> search(
+            @QueryParam("q") @NotBlank final String query,
+            @QueryParam("limit") @DefaultValue("10") @Min(1) @Max(100) final int limit) {
+        return search.apply(query, limit).thenApply(hits -> Response.ok(hits).build());
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.controllers;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Caches the serialized JSON of whole-collection responses (plain, and gzip-compressed for clients accepting it),
+ * so that an unchanged collection is not serialized again on every request, and its bytes are written as they are.
+ * The version of a collection is the identity of the {@link List} returned by its use case: gateways keep returning
+ * the same instance while their data does not change (e.g the caching gateways, or the mirror), and return a new one
+ * when it does, which replaces the cached bytes. Gateways that return a new instance on every call
+ * (e.g the database ones) get no benefit, but are still served correctly.
+ */
+@ApplicationScoped
+@RequiredArgsConstructor
+class SerializedResponses {
+
+    private final ObjectMapper objectMapper;
+    @ConfigProperty(name = "jsonplaceholder.responses.serialized-cache.enabled", defaultValue = "true")
+    private final boolean enabled;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+
+    /**
+     * Builds an {@code OK} {@link Response} with the given collection as JSON, reusing its serialized form
+     * if it was already serialized.
+     *
+     * @param key     The key of the collection (e.g the endpoint), which holds only its latest version.
+     * @param body    The collection.
+     * @param headers The request's {@link HttpHeaders}, to check whether the client accepts gzip.
+     * @return The {@link Response}.
+     */
+    Response ok(final String key, final List<?> body, final HttpHeaders headers) {
+        if (!enabled) {
+            return Response.ok(body).build();
+        }
+        final var serialized = serialize(key, body, acceptsGzip(headers.getRequestHeader(HttpHeaders.ACCEPT_ENCODING)));
+        final var response = Response.ok(serialized.bytes)
+                .type(MediaType.APPLICATION_JSON_TYPE)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        return serialized.gzipped ?
+                response.header(HttpHeaders.CONTENT_ENCODING, GZIP).build() :
+                response.build();
+    }
+
+    /**
+     * Serializes the given collection as JSON, reusing its serialized form if it was already serialized
+     * (unless the cache is disabled). Meant for callers that write the bytes by themselves (e.g the reactive routes).
+     *
+     * @param key         The key of the collection (e.g the endpoint), which holds only its latest version.
+     * @param body        The collection.
+     * @param acceptsGzip Whether the client accepts gzip (see {@link #acceptsGzip(List)}).
+     * @return The {@link Serialized} collection.
+     */
+    Serialized serialize(final String key, final List<?> body, final boolean acceptsGzip) {
+        if (!enabled) {
+            return new Serialized(serialize(body), false);
+        }
+        final var entry = entry(key, body);
+        return acceptsGzip ? new Serialized(entry.getGzipped(), true) : new Serialized(entry.plain, false);
+    }
+
+    /**
+     * Checks whether the given {@code Accept-Encoding} header values list gzip (and do not give it a zero quality).
+     *
+     * @param acceptEncodings The request's {@code Accept-Encoding} header values (can be {@code null}).
+     * @return {@code true} if the client accepts gzip, or {@code false} otherwise.
+     */
+    static boolean acceptsGzip(final List<String> acceptEncodings) {
+        return Optional.ofNullable(acceptEncodings)
+                .stream()
+                .flatMap(List::stream)
+                .flatMap(value -> Arrays.stream(value.split(",")))
+                .map(coding -> coding.split(";"))
+                .filter(parts -> parts[0].trim().equalsIgnoreCase(GZIP))
+                .anyMatch(parts -> Arrays.stream(parts).skip(1).noneMatch(SerializedResponses::isZeroQuality));
+    }
+
+
+    private Entry entry(final String key, final List<?> body) {
+        final var current = entries.get(key);
+        if (current != null && current.source == body) {
+            return current;
+        }
+        final var created = new Entry(body, serialize(body));
+        entries.put(key, created);
+        return created;
+    }
+
+    private byte[] serialize(final Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (final JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean isZeroQuality(final String parameter) {
+        final var trimmed = parameter.trim();
+        if (!trimmed.startsWith(QUALITY_PREFIX)) {
+            return false;
+        }
+        try {
+            return Double.parseDouble(trimmed.substring(QUALITY_PREFIX.length())) == 0;
+        } catch (final NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static byte[] gzip(final byte[] bytes) {
+        final var output = new ByteArrayOutputStream(bytes.length / 4);
+        try (final var gzip = new GZIPOutputStream(output)) {
+            gzip.write(bytes);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return output.toByteArray();
+    }
+
+
+    static final String GZIP = "gzip";
+    private static final String QUALITY_PREFIX = "q=";
+
+
+    /**
+     * A serialized collection, as returned by {@link #serialize(String, List, boolean)}.
+     * The bytes must not be modified, as they might be shared.
+     */
+    @Getter
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    static final class Serialized {
+
+        private final byte[] bytes;
+        private final boolean gzipped;
+    }
+
+    /**
+     * A serialized version of a collection. The arrays are never modified once built.
+     * The gzip-compressed form is built on first use, as not every collection is requested by gzip-accepting
+     * clients (computing it twice under contention is harmless).
+     */
+    private static final class Entry {
+
+        private final Object source;
+        private final byte[] plain;
+        private volatile byte[] gzipped;
+
+
+        private Entry(final Object source, final byte[] plain) {
+            this.source = source;
+            this.plain = plain;
+        }
+
+
+        private byte[] getGzipped() {
+            var current = gzipped;
+            if (current == null) {
+                current = gzip(plain);
+                gzipped = current;
+            }
+            return current;
+        }
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.controllers;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.jbosslog.JBossLog;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseEventSink;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Builds the streamed representations of collections (i.e newline delimited JSON, server-sent events
+ * and streamed JSON arrays), in which each element is written to the client as soon as it is available,
+ * instead of serializing the whole collection at once. Only sources that produce elements incrementally
+ * (i.e streamed photos) are streamed end to end: collections adapted through {@link #each(Supplier)}
+ * are retrieved as a whole first, and then streamed to the client element by element.
+ * Elements are written from the worker thread serving the request, which blocks while the client is not keeping up
+ * (i.e until the connection can take more data), so a slow client paces the source of elements instead of having
+ * the rest of the collection buffered for it. The newline delimited JSON and server-sent events media types
+ * have a lower server quality than JSON, so that they are only chosen when explicitly accepted.
+ */
+@JBossLog
+@ApplicationScoped
+@RequiredArgsConstructor
+class StreamedResponses {
+
+    private final ObjectMapper objectMapper;
+
+
+    /**
+     * Builds a newline delimited JSON {@link Response}, flushing each element as soon as it is written.
+     *
+     * @param elements The source of elements (i.e hands each element to the given {@link Consumer}).
+     * @param <T>      The concrete type of elements.
+     * @return The {@link Response}.
+     */
+    <T> Response ndjson(final Consumer<Consumer<T>> elements) {
+        final StreamingOutput output = stream -> {
+            try (final var generator = objectMapper.getFactory().createGenerator(stream)) {
+                generator.setRootValueSeparator(null);
+                writeEach(elements, element -> {
+                    generator.writeObject(element);
+                    generator.writeRaw('\n');
+                    generator.flush();
+                });
+            }
+        };
+        return Response.ok(output, NDJSON_TYPE).build();
+    }
+
+    /**
+     * Builds a {@link StreamingOutput} that writes the elements as a JSON array, each as soon as it is available,
+     * so that the whole collection is never materialized.
+     *
+     * @param elements The source of elements (i.e hands each element to the given {@link Consumer}).
+     * @param <T>      The concrete type of elements.
+     * @return The {@link StreamingOutput}.
+     */
+    <T> StreamingOutput jsonArray(final Consumer<Consumer<T>> elements) {
+        return stream -> {
+            try (final var generator = objectMapper.getFactory().createGenerator(stream)) {
+                generator.writeStartArray();
+                if (writeEach(elements, generator::writeObject)) {
+                    generator.writeEndArray();
+                }
+            }
+        };
+    }
+
+    /**
+     * Sends each element as a server-sent event (with the element's JSON as data), waiting for each event
+     * to be written before taking the next one, and closes the {@code sink} afterwards.
+     *
+     * @param sink     The {@link SseEventSink} of the request.
+     * @param sse      The {@link Sse} to build events with.
+     * @param elements The source of elements (i.e hands each element to the given {@link Consumer}).
+     * @param <T>      The concrete type of elements.
+     */
+    <T> void events(final SseEventSink sink, final Sse sse, final Consumer<Consumer<T>> elements) {
+        try (sink) {
+            writeEach(elements, element -> {
+                final var event = sse.newEvent(serialize(element));
+                if (sink.isClosed()) {
+                    throw new IOException("The event sink is closed");
+                }
+                try {
+                    sink.send(event).toCompletableFuture().join();
+                } catch (final CompletionException e) {
+                    throw new IOException("Could not send the event", e.getCause());
+                }
+            });
+        }
+    }
+
+
+    /**
+     * Adapts a whole-collection use case into a source of elements, waiting for the collection to be retrieved.
+     *
+     * @param collection The {@link Supplier} of the collection (i.e the use case call).
+     * @param <T>        The concrete type of elements.
+     * @return The source of elements.
+     */
+    static <T> Consumer<Consumer<T>> each(final Supplier<? extends CompletionStage<List<T>>> collection) {
+        return consumer -> {
+            final List<T> elements;
+            try {
+                elements = collection.get().toCompletableFuture().join();
+            } catch (final CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+            elements.forEach(consumer);
+        };
+    }
+
+
+    private String serialize(final Object element) {
+        try {
+            return objectMapper.writeValueAsString(element);
+        } catch (final JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Hands each element to the given {@code writer}, stopping the source of elements once writing fails
+     * (i.e the client disconnected): a {@link ClientDisconnectedException} is thrown to the source (which,
+     * not being an {@link IOException}, is not taken as an upstream failure if the source is a gateway call),
+     * and swallowed once the source lets it through, as there is no one left to answer to.
+     *
+     * @param elements The source of elements (i.e hands each element to the given {@link Consumer}).
+     * @param writer   The {@link ElementWriter} that writes each element to the client.
+     * @param <T>      The concrete type of elements.
+     * @return {@code true} if all the elements were written, or {@code false} if the client disconnected.
+     */
+    private static <T> boolean writeEach(final Consumer<Consumer<T>> elements, final ElementWriter<T> writer) {
+        final var disconnected = new AtomicBoolean();
+        try {
+            elements.accept(element -> {
+                if (disconnected.get()) {
+                    throw new ClientDisconnectedException();
+                }
+                try {
+                    writer.write(element);
+                } catch (final JsonProcessingException e) {
+                    throw new UncheckedIOException(e); // Could not serialize the element, the client is still there
+                } catch (final IOException e) {
+                    disconnected.set(true);
+                    throw new ClientDisconnectedException();
+                }
+            });
+            return true;
+        } catch (final RuntimeException e) {
+            if (!disconnected.get()) {
+                throw e;
+            }
+            log.debug("The client disconnected. Stopped streaming elements to it");
+            return false;
+        }
+    }
+
+
+    /**
+     * Writes an element to the client.
+     *
+     * @param <T> The concrete type of elements.
+     */
+    @FunctionalInterface
+    private interface ElementWriter<T> {
+
+        /**
+         * Writes the given {@code element}.
+         *
+         * @param element The element to write.
+         * @throws IOException If the element could not be written (i.e the client disconnected).
+         */
+        void write(final T element) throws IOException;
+    }
+
+    /**
+     * Thrown to the source of elements to stop it once the client disconnected.
+     */
+    private static final class ClientDisconnectedException extends RuntimeException {
+
+        private ClientDisconnectedException() {
+            super("The client disconnected", null, false, false); // No stack trace, as it is not an error
+        }
+    }
+
+
+    /**
+     * The newline delimited JSON media type.
+     */
+    static final String NDJSON = "application/x-ndjson";
+    private static final MediaType NDJSON_TYPE = MediaType.valueOf(NDJSON);
+
+    /**
+     * {@link #NDJSON} as produced by resources (i.e with a lower server quality than JSON).
+     */
+    static final String PRODUCES_NDJSON = NDJSON + ";qs=0.5";
+
+    /**
+     * Server-sent events as produced by resources (i.e with a lower server quality than JSON).
+     */
+    static final String PRODUCES_EVENTS = MediaType.SERVER_SENT_EVENTS + ";qs=0.5";
+}
@@ -20,6 +20,7 @@ import com.github.juanmbellini.pocs.quarkus.models.Album;
 import com.github.juanmbellini.pocs.quarkus.models.User;
 
 import java.util.List;
+import java.util.concurrent.CompletionStage;
 
 /**
  * JSON Placeholder's albums gateway.
@@ -40,4 +41,19 @@ public interface AlbumsGateway {
      * @return The {@link List} of {@link Album}s.
      */
     List<Album> getUserAlbums(final Long userId);
+
+    /**
+     * Retrieves all {@link Album}s from JSON Placeholder, without blocking the calling thread.
+     *
+     * @return A {@link CompletionStage} that completes with the {@link List} of {@link Album}s.
+     */
+    CompletionStage<List<Album>> getAlbumsAsync();
+
+    /**
+     * Retrieves a {@link User}'s {@link Album}s from JSON Placeholder, without blocking the calling thread.
+     *
+     * @param userId The user's id.
+     * @return A {@link CompletionStage} that completes with the {@link List} of {@link Album}s.
+     */
+    CompletionStage<List<Album>> getUserAlbumsAsync(final Long userId);
 }
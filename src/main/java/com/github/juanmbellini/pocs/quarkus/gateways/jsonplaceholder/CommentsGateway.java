@@ -17,13 +17,14 @@
 package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder;
 
 import com.github.juanmbellini.pocs.quarkus.models.Comment;
+import com.github.juanmbellini.pocs.quarkus.models.PageRequest;
 
 import java.util.List;
+import java.util.concurrent.CompletionStage;
 
 /**
  * JSON Placeholder's comments gateway.
  */
-@FunctionalInterface
 public interface CommentsGateway {
 
     /**
@@ -34,4 +35,43 @@ public interface CommentsGateway {
      * @return The {@link List} of {@link Comment}s matching the criteria.
      */
     List<Comment> getComments(final String name, final String email);
+
+    /**
+     * Retrieves {@link Comment}s from JSON Placeholder, allowing to apply filters, without blocking the calling thread.
+     *
+     * @param name  Filter for name.
+     * @param email Filter for email.
+     * @return A {@link CompletionStage} that completes with the {@link List} of {@link Comment}s matching the criteria.
+     */
+    CompletionStage<List<Comment>> getCommentsAsync(final String name, final String email);
+
+    /**
+     * Retrieves a page of {@link Comment}s from JSON Placeholder, sorted by id, allowing to apply filters.
+     * The default implementation pages the whole {@link List} of {@link Comment}s matching the criteria.
+     *
+     * @param name  Filter for name.
+     * @param email Filter for email.
+     * @param page  The requested page.
+     * @return The {@link List} of {@link Comment}s in the page.
+     */
+    default List<Comment> getComments(final String name, final String email, final PageRequest page) {
+        return page.slice(getComments(name, email), Comment::getId);
+    }
+
+    /**
+     * Retrieves a page of {@link Comment}s from JSON Placeholder, sorted by id, allowing to apply filters,
+     * without blocking the calling thread.
+     * The default implementation pages the whole {@link List} of {@link Comment}s matching the criteria.
+     *
+     * @param name  Filter for name.
+     * @param email Filter for email.
+     * @param page  The requested page.
+     * @return A {@link CompletionStage} that completes with the {@link List} of {@link Comment}s in the page.
+     */
+    default CompletionStage<List<Comment>> getCommentsAsync(
+            final String name,
+            final String email,
+            final PageRequest page) {
+        return getCommentsAsync(name, email).thenApply(comments -> page.slice(comments, Comment::getId));
+    }
 }
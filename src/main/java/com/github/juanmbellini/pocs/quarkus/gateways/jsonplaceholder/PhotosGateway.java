@@ -17,9 +17,14 @@
 package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder;
 
 import com.github.juanmbellini.pocs.quarkus.models.Album;
+import com.github.juanmbellini.pocs.quarkus.models.PageRequest;
 import com.github.juanmbellini.pocs.quarkus.models.Photo;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
 
 /**
  * JSON Placeholder's users gateway.
@@ -40,4 +45,77 @@ public interface PhotosGateway {
      * @return The {@link List} of {@link Photo}s.
      */
     List<Photo> getAlbumsPhotos(final List<Long> albumId);
+
+    /**
+     * Retrieves all {@link Photo}s from JSON Placeholder, without blocking the calling thread.
+     *
+     * @return A {@link CompletionStage} that completes with the {@link List} of {@link Photo}s.
+     */
+    CompletionStage<List<Photo>> getPhotosAsync();
+
+    /**
+     * Retrieves an {@link Album}'s {@link Photo}s from JSON Placeholder, without blocking the calling thread.
+     *
+     * @param albumId The album's id.
+     * @return A {@link CompletionStage} that completes with the {@link List} of {@link Photo}s.
+     */
+    CompletionStage<List<Photo>> getAlbumsPhotosAsync(final List<Long> albumId);
+
+    /**
+     * Retrieves a page of {@link Photo}s from JSON Placeholder, sorted by id.
+     * The default implementation pages the whole {@link List} of {@link Photo}s.
+     *
+     * @param page The requested page.
+     * @return The {@link List} of {@link Photo}s in the page.
+     */
+    default List<Photo> getPhotos(final PageRequest page) {
+        return page.slice(getPhotos(), Photo::getId);
+    }
+
+    /**
+     * Retrieves a page of {@link Photo}s from JSON Placeholder, sorted by id, without blocking the calling thread.
+     * The default implementation pages the whole {@link List} of {@link Photo}s.
+     *
+     * @param page The requested page.
+     * @return A {@link CompletionStage} that completes with the {@link List} of {@link Photo}s in the page.
+     */
+    default CompletionStage<List<Photo>> getPhotosAsync(final PageRequest page) {
+        return getPhotosAsync().thenApply(photos -> page.slice(photos, Photo::getId));
+    }
+
+    /**
+     * Retrieves the {@link Photo}s of every {@link Album} of the given user, if this gateway can join them by itself
+     * (i.e without the user's {@link Album}s being retrieved first).
+     * The default implementation can not.
+     *
+     * @param userId The user's id.
+     * @return The {@link List} of {@link Photo}s, or empty if this gateway can not join them.
+     */
+    default Optional<List<Photo>> getUserPhotos(final Long userId) {
+        return Optional.empty();
+    }
+
+    /**
+     * Retrieves the {@link Photo}s of every {@link Album} of the given user, if this gateway can join them by itself
+     * (i.e without the user's {@link Album}s being retrieved first), without blocking the calling thread.
+     * The default implementation can not.
+     *
+     * @param userId The user's id.
+     * @return A {@link CompletionStage} that completes with the {@link List} of {@link Photo}s,
+     * or with empty if this gateway can not join them.
+     */
+    default CompletionStage<Optional<List<Photo>>> getUserPhotosAsync(final Long userId) {
+        return CompletableFuture.completedFuture(Optional.empty());
+    }
+
+    /**
+     * Retrieves all {@link Photo}s from JSON Placeholder, handing each of them to the given {@code consumer}
+     * as soon as it is available, so that implementations can avoid materializing the whole {@link List}.
+     * This method blocks until all {@link Photo}s are consumed.
+     *
+     * @param consumer The {@link Consumer} of {@link Photo}s.
+     */
+    default void streamPhotos(final Consumer<Photo> consumer) {
+        getPhotos().forEach(consumer);
+    }
 }
@@ -19,11 +19,11 @@ package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder;
 import com.github.juanmbellini.pocs.quarkus.models.User;
 
 import java.util.List;
+import java.util.concurrent.CompletionStage;
 
 /**
  * JSON Placeholder's users gateway.
  */
-@FunctionalInterface
 public interface UsersGateway {
 
     /**
@@ -32,4 +32,11 @@ public interface UsersGateway {
      * @return The {@link List} of {@link User}s.
      */
     List<User> getUsers();
+
+    /**
+     * Retrieves all {@link User}s from JSON Placeholder, without blocking the calling thread.
+     *
+     * @return A {@link CompletionStage} that completes with the {@link List} of {@link User}s.
+     */
+    CompletionStage<List<User>> getUsersAsync();
 }
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import java.util.function.LongSupplier;
+
+/**
+ * An adaptive concurrency limiter, following an AIMD scheme driven by a Vegas-like latency signal.
+ * The limit grows additively (by {@code 1 / limit} per success, i.e roughly one per "round trip")
+ * while it is being used and latency stays close to the lowest observed one,
+ * and shrinks multiplicatively (by {@code backoffRatio}) when calls fail or latency exceeds
+ * {@code latencyTolerance} times the lowest observed one (i.e requests started queueing upstream).
+ * The limit shrinks at most once per "round trip": only calls started after the last decrease can trigger another one,
+ * so a short latency spike seen by many concurrent calls costs a single decrease instead of one per call.
+ * The lowest observed latency is forgotten every {@code SAMPLES_PER_PROBE} samples, so the baseline can move.
+ */
+class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double latencyTolerance;
+    private final LongSupplier nanoClock;
+
+    private double limit;
+    private int inFlight;
+    private long minLatencyNanos = Long.MAX_VALUE;
+    private int samples;
+    private boolean decreased;
+    private long lastDecreaseAt;
+
+
+    AdaptiveConcurrencyLimiter(
+            final int initialLimit,
+            final int minLimit,
+            final int maxLimit,
+            final double backoffRatio,
+            final double latencyTolerance,
+            final LongSupplier nanoClock) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.backoffRatio = backoffRatio;
+        this.latencyTolerance = latencyTolerance;
+        this.nanoClock = nanoClock;
+        this.limit = Math.min(Math.max(initialLimit, this.minLimit), this.maxLimit);
+    }
+
+
+    /**
+     * Requests permission to perform a call.
+     *
+     * @return {@code true} if the call can be performed, or {@code false} if the limit was reached.
+     */
+    synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Records a successful call, which took {@code latencyNanos}.
+     *
+     * @param latencyNanos The latency of the call, in nanoseconds.
+     */
+    synchronized void onSuccess(final long latencyNanos) {
+        final var utilized = inFlight * 2 >= limit;
+        inFlight--;
+        if (++samples >= SAMPLES_PER_PROBE) {
+            samples = 0;
+            minLatencyNanos = Long.MAX_VALUE;
+        }
+        minLatencyNanos = Math.min(minLatencyNanos, latencyNanos);
+        if (latencyNanos > minLatencyNanos * latencyTolerance) {
+            decrease(latencyNanos);
+        } else if (utilized) {
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+
+    /**
+     * Records a failed call, which took {@code latencyNanos}.
+     *
+     * @param latencyNanos The latency of the call, in nanoseconds.
+     */
+    synchronized void onFailure(final long latencyNanos) {
+        inFlight--;
+        decrease(latencyNanos);
+    }
+
+    /**
+     * Records a call whose outcome says nothing about upstream's health (e.g it was cancelled).
+     */
+    synchronized void onIgnored() {
+        inFlight--;
+    }
+
+    /**
+     * @return The current limit.
+     */
+    synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * @return The amount of calls currently in flight.
+     */
+    synchronized int getInFlight() {
+        return inFlight;
+    }
+
+
+    /**
+     * Shrinks the limit, unless the call that took {@code latencyNanos} was started before the last decrease
+     * (i.e that decrease already accounted for it).
+     *
+     * @param latencyNanos The latency of the call triggering the decrease, in nanoseconds.
+     */
+    private void decrease(final long latencyNanos) {
+        final var now = nanoClock.getAsLong();
+        if (decreased && now - latencyNanos - lastDecreaseAt < 0) {
+            return;
+        }
+        decreased = true;
+        lastDecreaseAt = now;
+        limit = Math.max(minLimit, limit * backoffRatio);
+    }
+
+
+    private static final int SAMPLES_PER_PROBE = 1000;
+}
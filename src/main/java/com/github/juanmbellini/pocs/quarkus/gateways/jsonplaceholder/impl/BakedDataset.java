@@ -0,0 +1,193 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl.dtos.AlbumDto;
+import com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl.dtos.CommentDto;
+import com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl.dtos.PhotoDto;
+import com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl.dtos.UserDto;
+import lombok.extern.jbosslog.JBossLog;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Holds the JSON Placeholder dataset baked into the application at build time (see the {@code bakeDataset} Gradle
+ * task, which runs {@link #main(String[])}), as a {@link MirrorSnapshotFile} resource.
+ * The resource is read in this class' static initializer. In native mode, Quarkus initializes classes at image build
+ * time, so the baked {@link MirrorSnapshot} ends up in the image heap, and the mirror can answer from it
+ * as soon as the process starts, without reading nor parsing anything.
+ * The time at which the dataset was baked is kept in a companion resource, so that the mirror can tell whether
+ * a persisted snapshot is more recent than the baked one.
+ */
+@JBossLog
+final class BakedDataset {
+
+    private BakedDataset() {
+    }
+
+
+    /**
+     * @return The baked {@link MirrorSnapshot}, or empty if the application was built without one.
+     */
+    static Optional<MirrorSnapshot> get() {
+        return Optional.ofNullable(SNAPSHOT);
+    }
+
+    /**
+     * @return The time at which the dataset was baked, or empty if the application was built without one.
+     */
+    static Optional<Instant> getBakedAt() {
+        return Optional.ofNullable(BAKED_AT);
+    }
+
+    /**
+     * Bakes the dataset: fetches it and writes it as a {@link MirrorSnapshotFile}.
+     *
+     * @param args The source (either the JSON Placeholder base URL,
+     *             or a local directory with {@code users.json}, {@code albums.json}, {@code photos.json}
+     *             and {@code comments.json} fixtures), and the path of the file to be written
+     *             (the bake time is written next to it, with the {@code .baked-at} suffix).
+     * @throws IOException          If the dataset can not be fetched, or the file can not be written.
+     * @throws InterruptedException If interrupted while fetching the dataset.
+     */
+    public static void main(final String[] args) throws IOException, InterruptedException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: BakedDataset <base url or fixtures directory> <output file>");
+        }
+        final var source = args[0];
+        final var objectMapper = new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        final var fetcher = source.startsWith("http://") || source.startsWith("https://")
+                ? remoteFetcher(source)
+                : localFetcher(Path.of(source));
+        final var snapshot = MirrorSnapshot.build(
+                parse(objectMapper, fetcher.fetch("users"), USER_DTO_LIST_TYPE, UserDto::toUser),
+                parse(objectMapper, fetcher.fetch("albums"), ALBUM_DTO_LIST_TYPE, AlbumDto::toAlbum),
+                parse(objectMapper, fetcher.fetch("photos"), PHOTO_DTO_LIST_TYPE, PhotoDto::toPhoto),
+                parse(objectMapper, fetcher.fetch("comments"), COMMENT_DTO_LIST_TYPE, CommentDto::toComment)
+        );
+        MirrorSnapshotFile.write(snapshot, Path.of(args[1]));
+        Files.writeString(Path.of(args[1] + BAKED_AT_SUFFIX), Instant.now().toString(), StandardCharsets.UTF_8);
+        log.infof(
+                "Baked the JSON Placeholder dataset from %s into %s (%d users, %d albums, %d photos, %d comments)",
+                source,
+                args[1],
+                snapshot.getUsers().size(),
+                snapshot.getAlbums().size(),
+                snapshot.getPhotos().size(),
+                snapshot.getComments().size()
+        );
+    }
+
+
+    private static MirrorSnapshot load() {
+        try (final InputStream resource = BakedDataset.class.getClassLoader().getResourceAsStream(RESOURCE)) {
+            if (resource == null) {
+                return null;
+            }
+            return MirrorSnapshotFile.read(ByteBuffer.wrap(resource.readAllBytes()));
+        } catch (final IOException e) {
+            log.warn("Could not read the baked JSON Placeholder dataset. Ignoring it", e);
+            return null;
+        }
+    }
+
+    private static Instant loadBakedAt() {
+        try (final InputStream resource = BakedDataset.class.getClassLoader()
+                .getResourceAsStream(RESOURCE + BAKED_AT_SUFFIX)) {
+            if (resource == null) {
+                return null;
+            }
+            return Instant.parse(new String(resource.readAllBytes(), StandardCharsets.UTF_8).trim());
+        } catch (final IOException | DateTimeParseException e) {
+            log.warn("Could not read the baked JSON Placeholder dataset's bake time. Ignoring it", e);
+            return null;
+        }
+    }
+
+    private static Fetcher remoteFetcher(final String baseUrl) {
+        final var httpClient = HttpClient.newBuilder().followRedirects(HttpClient.Redirect.NORMAL).build();
+        return resource -> {
+            final var request = HttpRequest.newBuilder(URI.create(baseUrl + "/" + resource)).GET().build();
+            final var response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 200) {
+                throw new IOException("Could not fetch " + request.uri() + " (status " + response.statusCode() + ")");
+            }
+            return response.body();
+        };
+    }
+
+    private static Fetcher localFetcher(final Path directory) {
+        return resource -> Files.readAllBytes(directory.resolve(resource + ".json"));
+    }
+
+    private static <D, T> List<T> parse(
+            final ObjectMapper objectMapper,
+            final byte[] body,
+            final TypeReference<List<D>> type,
+            final Function<D, T> mapper) throws IOException {
+        return objectMapper.readValue(body, type)
+                .stream()
+                .map(mapper)
+                .collect(Collectors.toList());
+    }
+
+
+    /**
+     * The classpath location of the baked dataset.
+     */
+    static final String RESOURCE = "jsonplaceholder/dataset.snapshot";
+
+    private static final String BAKED_AT_SUFFIX = ".baked-at";
+
+    private static final TypeReference<List<UserDto>> USER_DTO_LIST_TYPE = new TypeReference<>() {
+    };
+    private static final TypeReference<List<AlbumDto>> ALBUM_DTO_LIST_TYPE = new TypeReference<>() {
+    };
+    private static final TypeReference<List<PhotoDto>> PHOTO_DTO_LIST_TYPE = new TypeReference<>() {
+    };
+    private static final TypeReference<List<CommentDto>> COMMENT_DTO_LIST_TYPE = new TypeReference<>() {
+    };
+
+    // Must be declared last, as they are initialized by reading the resources
+    private static final MirrorSnapshot SNAPSHOT = load();
+    private static final Instant BAKED_AT = loadBakedAt();
+
+
+    @FunctionalInterface
+    private interface Fetcher {
+
+        byte[] fetch(final String resource) throws IOException, InterruptedException;
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.AlbumsGateway;
+import com.github.juanmbellini.pocs.quarkus.models.Album;
+import lombok.NonNull;
+
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * {@link AlbumsGateway} decorator that caches the results of another {@link AlbumsGateway}.
+ */
+class CachingAlbumsGateway implements AlbumsGateway {
+
+    private final GatewayCache<String, List<Album>> albumsCache;
+    private final GatewayCache<Long, List<Album>> userAlbumsCache;
+
+
+    CachingAlbumsGateway(final AlbumsGateway delegate, final GatewayCaches gatewayCaches) {
+        this.albumsCache = gatewayCaches.create("albums", ignored -> delegate.getAlbumsAsync());
+        this.userAlbumsCache = gatewayCaches.create("user-albums", delegate::getUserAlbumsAsync);
+    }
+
+
+    @Override
+    public List<Album> getAlbums() {
+        return albumsCache.get(ALL);
+    }
+
+    @Override
+    public List<Album> getUserAlbums(@NonNull final Long userId) {
+        return userAlbumsCache.get(userId);
+    }
+
+    @Override
+    public CompletionStage<List<Album>> getAlbumsAsync() {
+        return albumsCache.getAsync(ALL);
+    }
+
+    @Override
+    public CompletionStage<List<Album>> getUserAlbumsAsync(@NonNull final Long userId) {
+        return userAlbumsCache.getAsync(userId);
+    }
+
+
+    private static final String ALL = "all";
+}
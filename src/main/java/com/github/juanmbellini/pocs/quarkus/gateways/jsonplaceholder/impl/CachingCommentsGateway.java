@@ -0,0 +1,70 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.CommentsGateway;
+import com.github.juanmbellini.pocs.quarkus.models.Comment;
+import com.github.juanmbellini.pocs.quarkus.models.PageRequest;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * {@link CommentsGateway} decorator that caches the results of another {@link CommentsGateway}.
+ */
+class CachingCommentsGateway implements CommentsGateway {
+
+    private final GatewayCache<List<String>, List<Comment>> commentsCache;
+    private final GatewayCache<List<Object>, List<Comment>> commentsPageCache;
+
+
+    CachingCommentsGateway(final CommentsGateway delegate, final GatewayCaches gatewayCaches) {
+        this.commentsCache = gatewayCaches.create(
+                "comments",
+                filters -> delegate.getCommentsAsync(filters.get(0), filters.get(1))
+        );
+        this.commentsPageCache = gatewayCaches.create(
+                "comments-page",
+                key -> delegate.getCommentsAsync((String) key.get(0), (String) key.get(1), (PageRequest) key.get(2))
+        );
+    }
+
+
+    @Override
+    public List<Comment> getComments(final String name, final String email) {
+        return commentsCache.get(Arrays.asList(name, email)); // Filters can be null
+    }
+
+    @Override
+    public CompletionStage<List<Comment>> getCommentsAsync(final String name, final String email) {
+        return commentsCache.getAsync(Arrays.asList(name, email)); // Filters can be null
+    }
+
+    @Override
+    public List<Comment> getComments(final String name, final String email, final PageRequest page) {
+        return commentsPageCache.get(Arrays.asList(name, email, page)); // Filters can be null
+    }
+
+    @Override
+    public CompletionStage<List<Comment>> getCommentsAsync(
+            final String name,
+            final String email,
+            final PageRequest page) {
+        return commentsPageCache.getAsync(Arrays.asList(name, email, page)); // Filters can be null
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.PhotosGateway;
+import com.github.juanmbellini.pocs.quarkus.models.PageRequest;
+import com.github.juanmbellini.pocs.quarkus.models.Photo;
+
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
+
+/**
+ * {@link PhotosGateway} decorator that caches the results of another {@link PhotosGateway}.
+ */
+class CachingPhotosGateway implements PhotosGateway {
+
+    private final PhotosGateway delegate;
+    private final GatewayCache<String, List<Photo>> photosCache;
+    private final GatewayCache<List<Long>, List<Photo>> albumsPhotosCache;
+    private final GatewayCache<PageRequest, List<Photo>> photosPageCache;
+
+
+    CachingPhotosGateway(final PhotosGateway delegate, final GatewayCaches gatewayCaches) {
+        this.delegate = delegate;
+        // Whole collections are cached by columns, which take a fraction of the heap
+        this.photosCache = gatewayCaches.create(
+                "photos",
+                ignored -> delegate.getPhotosAsync().thenApply(PhotoColumns::of)
+        );
+        this.albumsPhotosCache = gatewayCaches.create(
+                "albums-photos",
+                albumIds -> delegate.getAlbumsPhotosAsync(albumIds).thenApply(PhotoColumns::of)
+        );
+        this.photosPageCache = gatewayCaches.create("photos-page", delegate::getPhotosAsync);
+    }
+
+
+    @Override
+    public List<Photo> getPhotos() {
+        return photosCache.get(ALL);
+    }
+
+    @Override
+    public List<Photo> getAlbumsPhotos(final List<Long> albumIds) {
+        return albumsPhotosCache.get(List.copyOf(albumIds));
+    }
+
+    @Override
+    public CompletionStage<List<Photo>> getPhotosAsync() {
+        return photosCache.getAsync(ALL);
+    }
+
+    @Override
+    public CompletionStage<List<Photo>> getAlbumsPhotosAsync(final List<Long> albumIds) {
+        return albumsPhotosCache.getAsync(List.copyOf(albumIds));
+    }
+
+    @Override
+    public List<Photo> getPhotos(final PageRequest page) {
+        return photosPageCache.get(page);
+    }
+
+    @Override
+    public CompletionStage<List<Photo>> getPhotosAsync(final PageRequest page) {
+        return photosPageCache.getAsync(page);
+    }
+
+    /**
+     * Hands the cached photos to the given {@code consumer} if they are already cached,
+     * or streams them from the delegate otherwise (without caching them, so the whole list is never materialized).
+     *
+     * @param consumer The {@link Consumer} of {@link Photo}s.
+     */
+    @Override
+    public void streamPhotos(final Consumer<Photo> consumer) {
+        photosCache.getIfPresent(ALL).ifPresentOrElse(
+                photos -> photos.forEach(consumer),
+                () -> delegate.streamPhotos(consumer)
+        );
+    }
+
+
+    private static final String ALL = "all";
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.UsersGateway;
+import com.github.juanmbellini.pocs.quarkus.models.User;
+
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * {@link UsersGateway} decorator that caches the results of another {@link UsersGateway}.
+ */
+class CachingUsersGateway implements UsersGateway {
+
+    private final GatewayCache<String, List<User>> usersCache;
+
+
+    CachingUsersGateway(final UsersGateway delegate, final GatewayCaches gatewayCaches) {
+        this.usersCache = gatewayCaches.create("users", ignored -> delegate.getUsersAsync());
+    }
+
+
+    @Override
+    public List<User> getUsers() {
+        return usersCache.get(ALL);
+    }
+
+    @Override
+    public CompletionStage<List<User>> getUsersAsync() {
+        return usersCache.getAsync(ALL);
+    }
+
+
+    private static final String ALL = "all";
+}
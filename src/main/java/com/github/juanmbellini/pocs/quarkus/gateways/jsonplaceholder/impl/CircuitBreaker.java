@@ -0,0 +1,180 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * A count based circuit breaker. It opens when, among the last {@code windowSize} calls (and once at least
+ * {@code minimumCalls} were recorded), the ratio of failures reaches {@code failureRatio}.
+ * After {@code openDelay} it lets {@code halfOpenCalls} trial calls go through,
+ * closing again if all of them succeed, or opening again as soon as one of them fails.
+ */
+class CircuitBreaker {
+
+    private final int minimumCalls;
+    private final double failureRatio;
+    private final long openDelayNanos;
+    private final int halfOpenCalls;
+    private final LongSupplier nanoClock;
+    private final Consumer<State> transitionListener;
+
+    private final boolean[] outcomes;
+    private int outcomesIndex;
+    private int outcomesCount;
+    private int failuresCount;
+
+    @Getter
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+
+    CircuitBreaker(
+            final int windowSize,
+            final int minimumCalls,
+            final double failureRatio,
+            final Duration openDelay,
+            final int halfOpenCalls,
+            final LongSupplier nanoClock,
+            final Consumer<State> transitionListener) {
+        this.outcomes = new boolean[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRatio = failureRatio;
+        this.openDelayNanos = openDelay.toNanos();
+        this.halfOpenCalls = halfOpenCalls;
+        this.nanoClock = nanoClock;
+        this.transitionListener = transitionListener;
+    }
+
+
+    /**
+     * Requests permission to perform a call.
+     *
+     * @return {@code true} if the call can be performed, or {@code false} if the circuit is open.
+     */
+    synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (nanoClock.getAsLong() - openedAt < openDelayNanos) {
+                return false;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits == 0) {
+                return false;
+            }
+            halfOpenPermits--;
+        }
+        return true;
+    }
+
+    /**
+     * Records a successful call (i.e upstream answered, regardless of the answer being an error on our side).
+     */
+    synchronized void onSuccess() {
+        if (state == State.OPEN) {
+            return; // A late outcome of a call started before opening
+        }
+        if (state == State.HALF_OPEN) {
+            halfOpenSuccesses++;
+            if (halfOpenSuccesses >= halfOpenCalls) {
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+        record(false);
+    }
+
+    /**
+     * Records a failed call (i.e upstream errored or could not be reached).
+     */
+    synchronized void onFailure() {
+        if (state == State.OPEN) {
+            return; // A late outcome of a call started before opening
+        }
+        if (state == State.HALF_OPEN) {
+            transitionTo(State.OPEN);
+            return;
+        }
+        record(true);
+        if (outcomesCount >= minimumCalls && failuresCount >= failureRatio * outcomesCount) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    /**
+     * Records a call whose outcome says nothing about upstream's health (e.g it was cancelled),
+     * giving back its permit.
+     */
+    synchronized void onIgnored() {
+        if (state == State.HALF_OPEN) {
+            halfOpenPermits++;
+        }
+    }
+
+
+    private void record(final boolean failure) {
+        if (outcomesCount == outcomes.length) {
+            if (outcomes[outcomesIndex]) {
+                failuresCount--;
+            }
+        } else {
+            outcomesCount++;
+        }
+        outcomes[outcomesIndex] = failure;
+        if (failure) {
+            failuresCount++;
+        }
+        outcomesIndex = (outcomesIndex + 1) % outcomes.length;
+    }
+
+    private void transitionTo(final State newState) {
+        state = newState;
+        switch (newState) {
+            case OPEN:
+                openedAt = nanoClock.getAsLong();
+                break;
+            case HALF_OPEN:
+                halfOpenPermits = halfOpenCalls;
+                halfOpenSuccesses = 0;
+                break;
+            case CLOSED:
+            default:
+                outcomesIndex = 0;
+                outcomesCount = 0;
+                failuresCount = 0;
+                break;
+        }
+        transitionListener.accept(newState);
+    }
+
+
+    /**
+     * The states of a {@link CircuitBreaker}.
+     */
+    enum State {
+        CLOSED,
+        HALF_OPEN,
+        OPEN,
+    }
+}
@@ -21,11 +21,15 @@ import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
 import java.util.List;
+import java.util.concurrent.CompletionStage;
 
 class CommentsRestClient {
 
@@ -37,5 +41,56 @@ class CommentsRestClient {
         @Path("/comments")
         @Produces(MediaType.APPLICATION_JSON)
         List<Comment> perform(@QueryParam("name") final String name, @QueryParam("email") final String email);
+
+        @GET
+        @Path("/comments")
+        @Produces(MediaType.APPLICATION_JSON)
+        CompletionStage<List<Comment>> performAsync(
+                @QueryParam("name") final String name,
+                @QueryParam("email") final String email);
+    }
+
+    @ApplicationScoped
+    @RegisterRestClient(baseUri = "https://jsonplaceholder.typicode.com")
+    public interface GetAllComments {
+
+        @GET
+        @Path("/comments")
+        @Produces(MediaType.APPLICATION_JSON)
+        Response perform(
+                @HeaderParam(HttpHeaders.IF_NONE_MATCH) final String ifNoneMatch,
+                @HeaderParam(HttpHeaders.IF_MODIFIED_SINCE) final String ifModifiedSince);
+
+        @GET
+        @Path("/comments")
+        @Produces(MediaType.APPLICATION_JSON)
+        CompletionStage<Response> performAsync(
+                @HeaderParam(HttpHeaders.IF_NONE_MATCH) final String ifNoneMatch,
+                @HeaderParam(HttpHeaders.IF_MODIFIED_SINCE) final String ifModifiedSince);
+    }
+
+    @ApplicationScoped
+    @RegisterRestClient(baseUri = "https://jsonplaceholder.typicode.com")
+    public interface GetCommentsPage {
+
+        @GET
+        @Path("/comments")
+        @Produces(MediaType.APPLICATION_JSON)
+        List<Comment> perform(
+                @QueryParam("name") final String name,
+                @QueryParam("email") final String email,
+                @QueryParam("id_gte") final Long minId,
+                @QueryParam("_sort") final String sort,
+                @QueryParam("_limit") final int limit);
+
+        @GET
+        @Path("/comments")
+        @Produces(MediaType.APPLICATION_JSON)
+        CompletionStage<List<Comment>> performAsync(
+                @QueryParam("name") final String name,
+                @QueryParam("email") final String email,
+                @QueryParam("id_gte") final Long minId,
+                @QueryParam("_sort") final String sort,
+                @QueryParam("_limit") final int limit);
     }
 }
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.juanmbellini.pocs.quarkus.exceptions.GatewayException;
+import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import org.eclipse.microprofile.metrics.MetricUnits;
+import org.eclipse.microprofile.metrics.annotation.Gauge;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+/**
+ * Performs conditional upstream requests, keeping the last {@code ETag}/{@code Last-Modified} validators of each
+ * endpoint together with the already deserialized result, which is reused (without reparsing anything)
+ * when upstream answers with {@code 304 Not Modified}.
+ * As the same result is handed to every caller until upstream changes, {@link List} results are made unmodifiable.
+ */
+@ApplicationScoped
+@RequiredArgsConstructor
+class ConditionalRequests {
+
+    private final ObjectMapper objectMapper;
+
+    private final ConcurrentMap<String, Representation<?>> representations = new ConcurrentHashMap<>();
+    private final AtomicLong notModifiedResponses = new AtomicLong();
+    private final AtomicLong bytesSaved = new AtomicLong();
+    private final AtomicLong parseTimeAvoided = new AtomicLong();
+
+
+    /**
+     * Performs a blocking conditional request.
+     *
+     * @param endpoint The endpoint being called (i.e the key under which validators are stored).
+     * @param call     Performs the call, given the {@code If-None-Match} and {@code If-Modified-Since} values
+     *                 (which are {@code null} when there are no validators yet).
+     * @param parser   Parses (and maps) the response body.
+     * @param <T>      The type of result.
+     * @return The result.
+     */
+    <T> T fetch(final String endpoint, final BiFunction<String, String, Response> call, final Parser<T> parser) {
+        final var representation = this.<T>getRepresentation(endpoint);
+        final var response = call.apply(ifNoneMatch(representation), ifModifiedSince(representation));
+        return handle(endpoint, representation, response, parser);
+    }
+
+    /**
+     * Performs a non-blocking conditional request.
+     *
+     * @param endpoint The endpoint being called (i.e the key under which validators are stored).
+     * @param call     Performs the call, given the {@code If-None-Match} and {@code If-Modified-Since} values
+     *                 (which are {@code null} when there are no validators yet).
+     * @param parser   Parses (and maps) the response body.
+     * @param <T>      The type of result.
+     * @return A {@link CompletionStage} that completes with the result.
+     */
+    <T> CompletionStage<T> fetchAsync(
+            final String endpoint,
+            final BiFunction<String, String, CompletionStage<Response>> call,
+            final Parser<T> parser) {
+        final var representation = this.<T>getRepresentation(endpoint);
+        return call.apply(ifNoneMatch(representation), ifModifiedSince(representation))
+                .thenApply(response -> handle(endpoint, representation, response, parser));
+    }
+
+
+    @Gauge(
+            name = "jsonplaceholder.conditional-requests.not-modified",
+            unit = MetricUnits.NONE,
+            absolute = true,
+            description = "Amount of upstream responses that were not modified, and thus reused")
+    long getNotModifiedResponses() {
+        return notModifiedResponses.get();
+    }
+
+    @Gauge(
+            name = "jsonplaceholder.conditional-requests.bytes-saved",
+            unit = MetricUnits.BYTES,
+            absolute = true,
+            description = "Amount of response body bytes that were not transferred thanks to conditional requests")
+    long getBytesSaved() {
+        return bytesSaved.get();
+    }
+
+    @Gauge(
+            name = "jsonplaceholder.conditional-requests.parse-time-avoided",
+            unit = MetricUnits.NANOSECONDS,
+            absolute = true,
+            description = "Time not spent parsing response bodies thanks to conditional requests")
+    long getParseTimeAvoided() {
+        return parseTimeAvoided.get();
+    }
+
+
+    private <T> T handle(
+            final String endpoint,
+            final Representation<T> current,
+            final Response response,
+            final Parser<T> parser) {
+        try {
+            if (response.getStatus() == Response.Status.NOT_MODIFIED.getStatusCode()) {
+                if (current == null) {
+                    throw new GatewayException(response, "Got a 304 response for an unconditional request");
+                }
+                notModifiedResponses.incrementAndGet();
+                bytesSaved.addAndGet(current.size);
+                parseTimeAvoided.addAndGet(current.parseTime);
+                return current.value;
+            }
+            final var body = response.readEntity(byte[].class);
+            final var start = System.nanoTime();
+            final var value = readOnly(parser.parse(objectMapper, body));
+            final var parseTime = System.nanoTime() - start;
+            final var etag = response.getHeaderString(HttpHeaders.ETAG);
+            final var lastModified = response.getHeaderString(HttpHeaders.LAST_MODIFIED);
+            if (etag != null || lastModified != null) {
+                representations.put(endpoint, new Representation<>(etag, lastModified, value, body.length, parseTime));
+            }
+            return value;
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            response.close();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Representation<T> getRepresentation(final String endpoint) {
+        return (Representation<T>) representations.get(endpoint);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T readOnly(final T value) {
+        return value instanceof List ? (T) Collections.unmodifiableList((List<?>) value) : value;
+    }
+
+    private static String ifNoneMatch(final Representation<?> representation) {
+        return representation == null ? null : representation.etag;
+    }
+
+    private static String ifModifiedSince(final Representation<?> representation) {
+        // If-None-Match takes precedence, so only send If-Modified-Since when there is no ETag
+        return representation == null || representation.etag != null ? null : representation.lastModified;
+    }
+
+
+    /**
+     * Parses a response body.
+     *
+     * @param <T> The type of result.
+     */
+    @FunctionalInterface
+    interface Parser<T> {
+
+        /**
+         * Parses the given {@code body}.
+         *
+         * @param objectMapper The {@link ObjectMapper} to be used.
+         * @param body         The response body.
+         * @return The parsed result.
+         * @throws IOException If the body can not be parsed.
+         */
+        T parse(final ObjectMapper objectMapper, final byte[] body) throws IOException;
+    }
+
+    @AllArgsConstructor
+    private static final class Representation<T> {
+        private final String etag;
+        private final String lastModified;
+        private final T value;
+        private final long size;
+        private final long parseTime;
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.AlbumsGateway;
+import com.github.juanmbellini.pocs.quarkus.models.Album;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * {@link AlbumsGateway} backed by the local copy of the dataset in the database (see {@link JsonPlaceholderDatabase}).
+ * Calls go to the {@code fallback} gateway until the albums table is loaded.
+ * Async calls read the database on its executor (see {@link JsonPlaceholderDatabase#getExecutor()}).
+ */
+@AllArgsConstructor
+class DatabaseAlbumsGateway implements AlbumsGateway {
+
+    private final JsonPlaceholderDatabase database;
+    private final JsonPlaceholderStore store;
+    private final AlbumsGateway fallback;
+
+
+    @Override
+    public List<Album> getAlbums() {
+        return isLoaded() ? store.getAlbums() : fallback.getAlbums();
+    }
+
+    @Override
+    public List<Album> getUserAlbums(final Long userId) {
+        return isLoaded() ? store.getUserAlbums(userId) : fallback.getUserAlbums(userId);
+    }
+
+    @Override
+    public CompletionStage<List<Album>> getAlbumsAsync() {
+        return isLoaded() ?
+                CompletableFuture.supplyAsync(store::getAlbums, database.getExecutor()) :
+                fallback.getAlbumsAsync();
+    }
+
+    @Override
+    public CompletionStage<List<Album>> getUserAlbumsAsync(final Long userId) {
+        return isLoaded() ?
+                CompletableFuture.supplyAsync(() -> store.getUserAlbums(userId), database.getExecutor()) :
+                fallback.getUserAlbumsAsync(userId);
+    }
+
+
+    private boolean isLoaded() {
+        return database.isLoaded(JsonPlaceholderDatabase.Table.ALBUMS);
+    }
+}
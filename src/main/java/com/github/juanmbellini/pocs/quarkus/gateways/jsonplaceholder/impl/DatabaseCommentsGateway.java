@@ -0,0 +1,73 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.CommentsGateway;
+import com.github.juanmbellini.pocs.quarkus.models.Comment;
+import com.github.juanmbellini.pocs.quarkus.models.PageRequest;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * {@link CommentsGateway} backed by the local copy of the dataset in the database
+ * (see {@link JsonPlaceholderDatabase}), where comments are indexed by name and by email.
+ * Calls go to the {@code fallback} gateway until the comments table is loaded.
+ * Async calls read the database on its executor (see {@link JsonPlaceholderDatabase#getExecutor()}).
+ */
+@AllArgsConstructor
+class DatabaseCommentsGateway implements CommentsGateway {
+
+    private final JsonPlaceholderDatabase database;
+    private final JsonPlaceholderStore store;
+    private final CommentsGateway fallback;
+
+
+    @Override
+    public List<Comment> getComments(final String name, final String email) {
+        return isLoaded() ? store.getComments(name, email) : fallback.getComments(name, email);
+    }
+
+    @Override
+    public CompletionStage<List<Comment>> getCommentsAsync(final String name, final String email) {
+        return isLoaded() ?
+                CompletableFuture.supplyAsync(() -> store.getComments(name, email), database.getExecutor()) :
+                fallback.getCommentsAsync(name, email);
+    }
+
+    @Override
+    public List<Comment> getComments(final String name, final String email, final PageRequest page) {
+        return isLoaded() ? store.getComments(name, email, page) : fallback.getComments(name, email, page);
+    }
+
+    @Override
+    public CompletionStage<List<Comment>> getCommentsAsync(
+            final String name,
+            final String email,
+            final PageRequest page) {
+        return isLoaded() ?
+                CompletableFuture.supplyAsync(() -> store.getComments(name, email, page), database.getExecutor()) :
+                fallback.getCommentsAsync(name, email, page);
+    }
+
+
+    private boolean isLoaded() {
+        return database.isLoaded(JsonPlaceholderDatabase.Table.COMMENTS);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.PhotosGateway;
+import com.github.juanmbellini.pocs.quarkus.models.PageRequest;
+import com.github.juanmbellini.pocs.quarkus.models.Photo;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * {@link PhotosGateway} backed by the local copy of the dataset in the database (see {@link JsonPlaceholderDatabase}).
+ * Calls go to the {@code fallback} gateway until the photos table is loaded.
+ * Async calls read the database on its executor (see {@link JsonPlaceholderDatabase#getExecutor()}).
+ * Once both the albums and photos tables are loaded, a user's photos are retrieved with a single join.
+ */
+@AllArgsConstructor
+class DatabasePhotosGateway implements PhotosGateway {
+
+    private final JsonPlaceholderDatabase database;
+    private final JsonPlaceholderStore store;
+    private final PhotosGateway fallback;
+
+
+    @Override
+    public List<Photo> getPhotos() {
+        return isLoaded() ? store.getPhotos() : fallback.getPhotos();
+    }
+
+    @Override
+    public List<Photo> getAlbumsPhotos(final List<Long> albumIds) {
+        return isLoaded() ? store.getAlbumsPhotos(albumIds) : fallback.getAlbumsPhotos(albumIds);
+    }
+
+    @Override
+    public CompletionStage<List<Photo>> getPhotosAsync() {
+        return isLoaded() ?
+                CompletableFuture.supplyAsync(store::getPhotos, database.getExecutor()) :
+                fallback.getPhotosAsync();
+    }
+
+    @Override
+    public CompletionStage<List<Photo>> getAlbumsPhotosAsync(final List<Long> albumIds) {
+        return isLoaded() ?
+                CompletableFuture.supplyAsync(() -> store.getAlbumsPhotos(albumIds), database.getExecutor()) :
+                fallback.getAlbumsPhotosAsync(albumIds);
+    }
+
+    @Override
+    public List<Photo> getPhotos(final PageRequest page) {
+        return isLoaded() ? store.getPhotos(page) : fallback.getPhotos(page);
+    }
+
+    @Override
+    public CompletionStage<List<Photo>> getPhotosAsync(final PageRequest page) {
+        return isLoaded() ?
+                CompletableFuture.supplyAsync(() -> store.getPhotos(page), database.getExecutor()) :
+                fallback.getPhotosAsync(page);
+    }
+
+    @Override
+    public Optional<List<Photo>> getUserPhotos(final Long userId) {
+        return canJoin() ? Optional.of(store.getUserPhotos(userId)) : Optional.empty();
+    }
+
+    @Override
+    public CompletionStage<Optional<List<Photo>>> getUserPhotosAsync(final Long userId) {
+        return canJoin() ?
+                CompletableFuture.supplyAsync(() -> Optional.of(store.getUserPhotos(userId)), database.getExecutor()) :
+                CompletableFuture.completedFuture(Optional.empty());
+    }
+
+
+    private boolean isLoaded() {
+        return database.isLoaded(JsonPlaceholderDatabase.Table.PHOTOS);
+    }
+
+    private boolean canJoin() {
+        return database.isLoaded(JsonPlaceholderDatabase.Table.ALBUMS) && isLoaded();
+    }
+}
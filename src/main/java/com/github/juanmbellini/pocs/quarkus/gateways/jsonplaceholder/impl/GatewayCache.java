@@ -0,0 +1,79 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * A bounded, per-endpoint cache of gateway results, which serves stale entries while they are being refreshed.
+ *
+ * @param <K> The type of key (i.e the call parameters).
+ * @param <V> The type of value (i.e the call result).
+ */
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+class GatewayCache<K, V> {
+
+    private final AsyncLoadingCache<K, V> cache;
+
+
+    /**
+     * Retrieves the value for the given {@code key}, blocking until it is loaded if it was not cached.
+     *
+     * @param key The key.
+     * @return The value.
+     */
+    V get(final K key) {
+        try {
+            return cache.get(key).join();
+        } catch (final CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Retrieves the value for the given {@code key}, without blocking the calling thread.
+     *
+     * @param key The key.
+     * @return A {@link CompletionStage} that completes with the value.
+     */
+    CompletionStage<V> getAsync(final K key) {
+        return cache.get(key).copy(); // Avoid exposing the cached future
+    }
+
+    /**
+     * Retrieves the value for the given {@code key} only if it is already loaded, without loading it otherwise.
+     *
+     * @param key The key.
+     * @return The value, or empty if it is not cached (or is still being loaded, or failed to load).
+     */
+    Optional<V> getIfPresent(final K key) {
+        final var future = cache.getIfPresent(key);
+        if (future == null || !future.isDone() || future.isCompletedExceptionally()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(future.join());
+    }
+}
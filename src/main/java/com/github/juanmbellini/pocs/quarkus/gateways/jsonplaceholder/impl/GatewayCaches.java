@@ -0,0 +1,99 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.AllArgsConstructor;
+import lombok.extern.jbosslog.JBossLog;
+import org.eclipse.microprofile.config.Config;
+
+import javax.enterprise.context.ApplicationScoped;
+import java.time.Duration;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+
+/**
+ * Builds {@link GatewayCache}s, configured per endpoint.
+ * Each setting is read from {@code jsonplaceholder.cache.<endpoint>.<setting>},
+ * falling back to {@code jsonplaceholder.cache.<setting>}:
+ * <ul>
+ * <li>{@code ttl}: how long an entry can be served at all after being loaded.</li>
+ * <li>{@code refresh-after}: how long an entry is considered fresh. Stale entries are served right away
+ * while a background refresh takes place. It must be shorter than the {@code ttl}, as entries would otherwise
+ * expire before being refreshed: when it is not, half the {@code ttl} is used instead (logging a warning).</li>
+ * <li>{@code max-size}: the maximum amount of entries (evicted using W-TinyLFU).</li>
+ * </ul>
+ */
+@JBossLog
+@ApplicationScoped
+@AllArgsConstructor
+class GatewayCaches {
+
+    private final Config config;
+
+
+    /**
+     * @return Whether caching is enabled.
+     */
+    boolean isEnabled() {
+        return config.getOptionalValue(PREFIX + "enabled", Boolean.class).orElse(true);
+    }
+
+    /**
+     * Creates a {@link GatewayCache} for the given {@code endpoint}.
+     *
+     * @param endpoint The endpoint being cached.
+     * @param loader   The non-blocking function that loads values from upstream.
+     * @param <K>      The type of key.
+     * @param <V>      The type of value.
+     * @return The created {@link GatewayCache}.
+     */
+    <K, V> GatewayCache<K, V> create(final String endpoint, final Function<K, CompletionStage<V>> loader) {
+        final var ttl = getSetting(endpoint, "ttl", Duration.class, DEFAULT_TTL);
+        final var refreshAfter = getSetting(endpoint, "refresh-after", Duration.class, DEFAULT_REFRESH_AFTER);
+        final var maxSize = getSetting(endpoint, "max-size", Long.class, DEFAULT_MAX_SIZE);
+        if (refreshAfter.compareTo(ttl) >= 0) {
+            log.warnf(
+                    "The %s cache's refresh-after (%s) is not shorter than its ttl (%s). Using %s instead",
+                    endpoint,
+                    refreshAfter,
+                    ttl,
+                    ttl.dividedBy(2)
+            );
+        }
+        final var cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .refreshAfterWrite(refreshAfter.compareTo(ttl) < 0 ? refreshAfter : ttl.dividedBy(2))
+                .maximumSize(maxSize)
+                .<K, V>buildAsync((key, executor) -> loader.apply(key).toCompletableFuture());
+        return new GatewayCache<>(cache);
+    }
+
+
+    private <T> T getSetting(final String endpoint, final String name, final Class<T> type, final T defaultValue) {
+        return config.getOptionalValue(PREFIX + endpoint + "." + name, type)
+                .or(() -> config.getOptionalValue(PREFIX + name, type))
+                .orElse(defaultValue);
+    }
+
+
+    private static final String PREFIX = "jsonplaceholder.cache.";
+
+    private static final Duration DEFAULT_TTL = Duration.ofMinutes(10);
+    private static final Duration DEFAULT_REFRESH_AFTER = Duration.ofMinutes(1);
+    private static final Long DEFAULT_MAX_SIZE = 1_000L;
+}
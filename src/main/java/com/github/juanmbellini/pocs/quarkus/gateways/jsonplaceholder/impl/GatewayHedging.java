@@ -0,0 +1,222 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.metrics.Counter;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.Tag;
+
+import javax.enterprise.context.ApplicationScoped;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Hedges idempotent, non-blocking upstream calls: if a call has not completed after the endpoint's observed
+ * latency percentile (p95 by default), a second one is sent. The first successful response wins,
+ * and the other call is cancelled. Hedges are capped by a {@link TokenBudget} shared by all endpoints,
+ * so that a slow upstream can not get its load multiplied.
+ * Latencies are measured from the start of the call (not of the winning attempt), so a hedge that wins
+ * samples a lower bound of the cancelled attempt's latency, and the tracked percentile does not drift down.
+ * Hedging is opt-in: each setting is read from {@code jsonplaceholder.hedging.<endpoint>.<setting>},
+ * falling back to {@code jsonplaceholder.hedging.<setting>}.
+ */
+@ApplicationScoped
+class GatewayHedging {
+
+    private final Config config;
+    private final MetricRegistry metricRegistry;
+    private final TokenBudget budget;
+
+    private final ConcurrentMap<String, EndpointPolicy> policies = new ConcurrentHashMap<>();
+
+
+    GatewayHedging(final Config config, final MetricRegistry metricRegistry) {
+        this.config = config;
+        this.metricRegistry = metricRegistry;
+        this.budget = new TokenBudget(
+                config.getOptionalValue(PREFIX + "budget.ratio", Double.class).orElse(DEFAULT_BUDGET_RATIO),
+                config.getOptionalValue(PREFIX + "budget.max-tokens", Double.class).orElse(DEFAULT_BUDGET_MAX_TOKENS)
+        );
+    }
+
+
+    /**
+     * Performs the given non-blocking {@code operation}, hedging it if the {@code endpoint}'s policy says so.
+     *
+     * @param endpoint  The endpoint being called.
+     * @param operation The non-blocking, idempotent operation performing the upstream call.
+     * @param <T>       The type of result.
+     * @return A {@link CompletionStage} that completes with the result of the first successful call.
+     */
+    <T> CompletionStage<T> executeAsync(final String endpoint, final Supplier<CompletionStage<T>> operation) {
+        final var policy = policies.computeIfAbsent(endpoint, EndpointPolicy::new);
+        if (!policy.enabled) {
+            return operation.get();
+        }
+        budget.deposit();
+        final var call = new HedgedCall<>(policy, operation);
+        call.launch(false);
+        final var delay = policy.latencyTracker.getValue();
+        if (delay >= 0) {
+            CompletableFuture.delayedExecutor(Math.max(delay, policy.minDelayNanos), TimeUnit.NANOSECONDS)
+                    .execute(call::launchHedge);
+        }
+        return call.result;
+    }
+
+
+    private <T> T getSetting(final String endpoint, final String name, final Class<T> type, final T defaultValue) {
+        return config.getOptionalValue(PREFIX + endpoint + "." + name, type)
+                .or(() -> config.getOptionalValue(PREFIX + name, type))
+                .orElse(defaultValue);
+    }
+
+
+    private static final String PREFIX = "jsonplaceholder.hedging.";
+
+    private static final double DEFAULT_PERCENTILE = 0.95;
+    private static final int DEFAULT_WINDOW_SIZE = 256;
+    private static final int DEFAULT_MIN_SAMPLES = 20;
+    private static final long DEFAULT_MIN_DELAY_MILLIS = 5;
+    private static final double DEFAULT_BUDGET_RATIO = 0.1;
+    private static final double DEFAULT_BUDGET_MAX_TOKENS = 10;
+
+    private static final String HEDGES = "jsonplaceholder.gateway.hedges";
+
+
+    /**
+     * The hedging settings and state of a given endpoint.
+     */
+    private final class EndpointPolicy {
+
+        private final boolean enabled;
+        private final long minDelayNanos;
+        private final LatencyTracker latencyTracker;
+        private final Counter sent;
+        private final Counter won;
+        private final Counter budgetExhausted;
+
+
+        private EndpointPolicy(final String endpoint) {
+            this.enabled = getSetting(endpoint, "enabled", Boolean.class, false);
+            this.minDelayNanos = TimeUnit.MILLISECONDS.toNanos(
+                    getSetting(endpoint, "min-delay-millis", Long.class, DEFAULT_MIN_DELAY_MILLIS)
+            );
+            this.latencyTracker = new LatencyTracker(
+                    getSetting(endpoint, "window-size", Integer.class, DEFAULT_WINDOW_SIZE),
+                    getSetting(endpoint, "percentile", Double.class, DEFAULT_PERCENTILE),
+                    getSetting(endpoint, "min-samples", Integer.class, DEFAULT_MIN_SAMPLES)
+            );
+            this.sent = metricRegistry.counter(HEDGES, new Tag("endpoint", endpoint), new Tag("kind", "sent"));
+            this.won = metricRegistry.counter(HEDGES, new Tag("endpoint", endpoint), new Tag("kind", "won"));
+            this.budgetExhausted = metricRegistry.counter(
+                    HEDGES,
+                    new Tag("endpoint", endpoint),
+                    new Tag("kind", "budget-exhausted")
+            );
+        }
+    }
+
+    /**
+     * A call, made of the original attempt and, eventually, its hedge.
+     *
+     * @param <T> The type of result.
+     */
+    private final class HedgedCall<T> {
+
+        private final EndpointPolicy policy;
+        private final Supplier<CompletionStage<T>> operation;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final List<CompletableFuture<T>> attempts = new ArrayList<>(2);
+        private final long startedAt = System.nanoTime();
+
+
+        private HedgedCall(final EndpointPolicy policy, final Supplier<CompletionStage<T>> operation) {
+            this.policy = policy;
+            this.operation = operation;
+        }
+
+
+        /**
+         * Sends the hedge, unless the call already completed or the budget is exhausted.
+         */
+        private void launchHedge() {
+            if (result.isDone()) {
+                return;
+            }
+            if (!budget.tryWithdraw()) {
+                policy.budgetExhausted.inc();
+                return;
+            }
+            policy.sent.inc();
+            launch(true);
+        }
+
+        private void launch(final boolean hedge) {
+            CompletableFuture<T> attempt;
+            try {
+                attempt = operation.get().toCompletableFuture();
+            } catch (final RuntimeException e) {
+                attempt = CompletableFuture.failedFuture(e);
+            }
+            synchronized (this) {
+                if (result.isDone()) {
+                    attempt.cancel(true); // Lost the race against the other attempt
+                    return;
+                }
+                attempts.add(attempt);
+            }
+            final var launched = attempt;
+            attempt.whenComplete((value, throwable) -> onComplete(launched, hedge, value, throwable));
+        }
+
+        private void onComplete(
+                final CompletableFuture<T> attempt,
+                final boolean hedge,
+                final T value,
+                final Throwable throwable) {
+            final List<CompletableFuture<T>> losers;
+            synchronized (this) {
+                if (result.isDone()) {
+                    return;
+                }
+                if (throwable != null) {
+                    // A failure only wins if there is no other attempt that could still succeed
+                    if (attempts.stream().allMatch(CompletableFuture::isDone)) {
+                        result.completeExceptionally(throwable);
+                    }
+                    return;
+                }
+                policy.latencyTracker.record(System.nanoTime() - startedAt);
+                result.complete(value);
+                if (hedge) {
+                    policy.won.inc();
+                }
+                losers = attempts.stream().filter(other -> other != attempt).collect(Collectors.toList());
+            }
+            losers.forEach(loser -> loser.cancel(true));
+        }
+    }
+}
@@ -0,0 +1,463 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.github.juanmbellini.pocs.quarkus.exceptions.GatewayException;
+import lombok.extern.jbosslog.JBossLog;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.metrics.Counter;
+import org.eclipse.microprofile.metrics.Gauge;
+import org.eclipse.microprofile.metrics.Metadata;
+import org.eclipse.microprofile.metrics.MetricID;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.MetricType;
+import org.eclipse.microprofile.metrics.Tag;
+
+import javax.enterprise.context.ApplicationScoped;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response;
+
+/**
+ * Guards upstream calls, per endpoint, with a {@link CircuitBreaker}, a bulkhead (a hard cap of concurrent calls)
+ * and an {@link AdaptiveConcurrencyLimiter}, so that a slow or failing JSON Placeholder
+ * can not hold every worker thread. Calls that can not be performed fail fast with a {@link GatewayException}
+ * carrying a 503 response. Only upstream 5xx responses, I/O errors and timeouts count as failures.
+ * Failures are retried according to the endpoint's {@link RetryPolicy} (exponential backoff with full jitter),
+ * as long as the {@link TokenBudget} shared by all endpoints allows it, so that retries can not turn into a storm.
+ * Each setting is read from {@code jsonplaceholder.resilience.<endpoint>.<setting>},
+ * falling back to {@code jsonplaceholder.resilience.<setting>}.
+ */
+@JBossLog
+@ApplicationScoped
+class GatewayResilience {
+
+    private final Config config;
+    private final MetricRegistry metricRegistry;
+    private final TokenBudget retryBudget;
+
+    private final ConcurrentMap<String, EndpointGuard> guards = new ConcurrentHashMap<>();
+
+
+    GatewayResilience(final Config config, final MetricRegistry metricRegistry) {
+        this.config = config;
+        this.metricRegistry = metricRegistry;
+        this.retryBudget = new TokenBudget(
+                config.getOptionalValue(PREFIX + "retry.budget.ratio", Double.class).orElse(DEFAULT_RETRY_BUDGET_RATIO),
+                config.getOptionalValue(PREFIX + "retry.budget.max-tokens", Double.class)
+                        .orElse(DEFAULT_RETRY_BUDGET_MAX_TOKENS)
+        );
+    }
+
+
+    /**
+     * Performs the given blocking {@code operation}, if the {@code endpoint}'s guard allows it,
+     * retrying it (after sleeping the calling thread) on transient failures.
+     *
+     * @param endpoint  The endpoint being called.
+     * @param operation The blocking operation performing the upstream call.
+     * @param <T>       The type of result.
+     * @return The result of the operation.
+     * @throws GatewayException If the call is rejected.
+     */
+    <T> T execute(final String endpoint, final Supplier<T> operation) {
+        final var guard = guard(endpoint);
+        if (guard == null) {
+            return operation.get();
+        }
+        retryBudget.deposit();
+        for (var attempt = 1; ; attempt++) {
+            try {
+                final var result = guard.execute(operation);
+                if (attempt > 1) {
+                    guard.retriesSucceeded.inc();
+                }
+                return result;
+            } catch (final RuntimeException e) {
+                if (!shouldRetry(guard, attempt, e)) {
+                    throw e;
+                }
+                try {
+                    TimeUnit.NANOSECONDS.sleep(guard.retryPolicy.backoffNanos(attempt));
+                } catch (final InterruptedException interruptedException) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Performs the given non-blocking {@code operation}, if the {@code endpoint}'s guard allows it,
+     * retrying it (after a delay, without blocking any thread) on transient failures.
+     *
+     * @param endpoint  The endpoint being called.
+     * @param operation The non-blocking operation performing the upstream call.
+     * @param <T>       The type of result.
+     * @return A {@link CompletionStage} that completes with the result of the operation,
+     * or with a {@link GatewayException} if the call is rejected.
+     */
+    <T> CompletionStage<T> executeAsync(final String endpoint, final Supplier<CompletionStage<T>> operation) {
+        final var guard = guard(endpoint);
+        if (guard == null) {
+            return operation.get();
+        }
+        retryBudget.deposit();
+        final var result = new CompletableFuture<T>();
+        attemptAsync(guard, operation, 1, result);
+        return result;
+    }
+
+
+    private <T> void attemptAsync(
+            final EndpointGuard guard,
+            final Supplier<CompletionStage<T>> operation,
+            final int attempt,
+            final CompletableFuture<T> result) {
+        if (result.isDone()) {
+            return; // Cancelled while waiting to retry
+        }
+        final var current = guard.executeAsync(operation);
+        MicroProfileRestClientHelper.propagateCancellation(result, current);
+        current.whenComplete((value, throwable) -> {
+            if (throwable == null) {
+                if (attempt > 1) {
+                    guard.retriesSucceeded.inc();
+                }
+                result.complete(value);
+            } else if (shouldRetry(guard, attempt, throwable)) {
+                CompletableFuture.delayedExecutor(guard.retryPolicy.backoffNanos(attempt), TimeUnit.NANOSECONDS)
+                        .execute(() -> attemptAsync(guard, operation, attempt + 1, result));
+            } else {
+                result.completeExceptionally(throwable);
+            }
+        });
+    }
+
+    private boolean shouldRetry(final EndpointGuard guard, final int attempt, final Throwable throwable) {
+        if (attempt >= guard.retryPolicy.getMaxAttempts() || !isRetryable(throwable)) {
+            return false;
+        }
+        if (!retryBudget.tryWithdraw()) {
+            guard.retryBudgetExhausted.inc();
+            return false;
+        }
+        guard.retriesAttempted.inc();
+        return true;
+    }
+
+    private EndpointGuard guard(final String endpoint) {
+        final var guard = guards.computeIfAbsent(endpoint, this::buildGuard);
+        return guard.enabled ? guard : null;
+    }
+
+    private EndpointGuard buildGuard(final String endpoint) {
+        return new EndpointGuard(endpoint);
+    }
+
+    private <T> T getSetting(final String endpoint, final String name, final Class<T> type, final T defaultValue) {
+        return config.getOptionalValue(PREFIX + endpoint + "." + name, type)
+                .or(() -> config.getOptionalValue(PREFIX + name, type))
+                .orElse(defaultValue);
+    }
+
+    private void registerGauge(final String name, final String endpoint, final Gauge<?> gauge) {
+        final var tag = new Tag("endpoint", endpoint);
+        metricRegistry.remove(new MetricID(name, tag)); // Replaces any previous registration (e.g on live reload)
+        metricRegistry.register(Metadata.builder().withName(name).withType(MetricType.GAUGE).build(), gauge, tag);
+    }
+
+    private Counter counter(final String name, final String endpoint, final String tagName, final String tagValue) {
+        return metricRegistry.counter(name, new Tag("endpoint", endpoint), new Tag(tagName, tagValue));
+    }
+
+    /**
+     * Tells whether the given {@code throwable} is a transient upstream failure, worth retrying.
+     * Rejections are never retried, as they are issued precisely to take load off upstream.
+     *
+     * @param throwable The {@link Throwable} to be checked.
+     * @return {@code true} if the call can be retried, or {@code false} otherwise.
+     */
+    private static boolean isRetryable(final Throwable throwable) {
+        var cause = throwable;
+        while (cause != null) {
+            if (cause instanceof RejectionException) {
+                return false;
+            }
+            cause = cause.getCause();
+        }
+        return classify(throwable) == Outcome.FAILURE;
+    }
+
+    /**
+     * Tells whether the given {@code throwable} means upstream is unhealthy.
+     *
+     * @param throwable The {@link Throwable} to be checked.
+     * @return The {@link Outcome} it represents.
+     */
+    private static Outcome classify(final Throwable throwable) {
+        var cause = throwable;
+        while (cause != null) {
+            if (cause instanceof CancellationException) {
+                return Outcome.IGNORED;
+            }
+            if (cause instanceof WebApplicationException) {
+                final var status = ((WebApplicationException) cause).getResponse().getStatus();
+                return status >= 500 ? Outcome.FAILURE : Outcome.SUCCESS;
+            }
+            if (cause instanceof GatewayException && ((GatewayException) cause).getResponse() != null) {
+                final var status = ((GatewayException) cause).getResponse().getStatus();
+                return status >= 500 ? Outcome.FAILURE : Outcome.SUCCESS;
+            }
+            if (cause instanceof JsonProcessingException) {
+                return Outcome.SUCCESS; // Upstream answered, we just could not understand it
+            }
+            if (cause instanceof ProcessingException || cause instanceof IOException
+                    || cause instanceof TimeoutException) {
+                return Outcome.FAILURE;
+            }
+            cause = cause.getCause();
+        }
+        return Outcome.SUCCESS;
+    }
+
+
+    private static final String PREFIX = "jsonplaceholder.resilience.";
+
+    private static final int DEFAULT_WINDOW_SIZE = 20;
+    private static final int DEFAULT_MINIMUM_CALLS = 10;
+    private static final double DEFAULT_FAILURE_RATIO = 0.5;
+    private static final Duration DEFAULT_OPEN_DELAY = Duration.ofSeconds(5);
+    private static final int DEFAULT_HALF_OPEN_CALLS = 3;
+    private static final int DEFAULT_MAX_CONCURRENCY = 32;
+    private static final int DEFAULT_MIN_LIMIT = 1;
+    private static final double DEFAULT_BACKOFF_RATIO = 0.9;
+    private static final double DEFAULT_LATENCY_TOLERANCE = 2.0;
+    private static final int DEFAULT_RETRY_MAX_ATTEMPTS = 3;
+    private static final long DEFAULT_RETRY_BASE_DELAY_MILLIS = 50;
+    private static final long DEFAULT_RETRY_MAX_DELAY_MILLIS = 1000;
+    private static final double DEFAULT_RETRY_BUDGET_RATIO = 0.1;
+    private static final double DEFAULT_RETRY_BUDGET_MAX_TOKENS = 10;
+
+    private static final String REJECTIONS = "jsonplaceholder.gateway.rejections";
+    private static final String CIRCUIT_BREAKER_TRANSITIONS = "jsonplaceholder.gateway.circuit-breaker.transitions";
+    private static final String CIRCUIT_BREAKER_STATE = "jsonplaceholder.gateway.circuit-breaker.state";
+    private static final String CONCURRENCY_LIMIT = "jsonplaceholder.gateway.concurrency-limit";
+    private static final String IN_FLIGHT = "jsonplaceholder.gateway.in-flight";
+    private static final String RETRIES = "jsonplaceholder.gateway.retries";
+
+
+    /**
+     * The outcome of a call, from upstream's health point of view.
+     */
+    private enum Outcome {
+        SUCCESS,
+        FAILURE,
+        IGNORED,
+    }
+
+    /**
+     * The circuit breaker, bulkhead and limiter of a given endpoint.
+     */
+    private final class EndpointGuard {
+
+        private final String endpoint;
+        private final boolean enabled;
+        private final CircuitBreaker circuitBreaker;
+        private final Semaphore bulkhead;
+        private final AdaptiveConcurrencyLimiter limiter;
+        private final RetryPolicy retryPolicy;
+        private final Counter circuitOpenRejections;
+        private final Counter bulkheadFullRejections;
+        private final Counter limitReachedRejections;
+        private final Counter retriesAttempted;
+        private final Counter retriesSucceeded;
+        private final Counter retryBudgetExhausted;
+
+
+        private EndpointGuard(final String endpoint) {
+            this.endpoint = endpoint;
+            this.enabled = getSetting(endpoint, "enabled", Boolean.class, true);
+            this.circuitBreaker = new CircuitBreaker(
+                    getSetting(endpoint, "circuit-breaker.window-size", Integer.class, DEFAULT_WINDOW_SIZE),
+                    getSetting(endpoint, "circuit-breaker.minimum-calls", Integer.class, DEFAULT_MINIMUM_CALLS),
+                    getSetting(endpoint, "circuit-breaker.failure-ratio", Double.class, DEFAULT_FAILURE_RATIO),
+                    getSetting(endpoint, "circuit-breaker.open-delay", Duration.class, DEFAULT_OPEN_DELAY),
+                    getSetting(endpoint, "circuit-breaker.half-open-calls", Integer.class, DEFAULT_HALF_OPEN_CALLS),
+                    System::nanoTime,
+                    this::onTransition
+            );
+            final var maxConcurrency = getSetting(
+                    endpoint,
+                    "bulkhead.max-concurrency",
+                    Integer.class,
+                    DEFAULT_MAX_CONCURRENCY
+            );
+            this.bulkhead = new Semaphore(maxConcurrency);
+            this.limiter = new AdaptiveConcurrencyLimiter(
+                    getSetting(endpoint, "limiter.initial-limit", Integer.class, maxConcurrency),
+                    getSetting(endpoint, "limiter.min-limit", Integer.class, DEFAULT_MIN_LIMIT),
+                    maxConcurrency,
+                    getSetting(endpoint, "limiter.backoff-ratio", Double.class, DEFAULT_BACKOFF_RATIO),
+                    getSetting(endpoint, "limiter.latency-tolerance", Double.class, DEFAULT_LATENCY_TOLERANCE),
+                    System::nanoTime
+            );
+            this.retryPolicy = new RetryPolicy(
+                    getSetting(endpoint, "retry.max-attempts", Integer.class, DEFAULT_RETRY_MAX_ATTEMPTS),
+                    TimeUnit.MILLISECONDS.toNanos(
+                            getSetting(endpoint, "retry.base-delay-millis", Long.class, DEFAULT_RETRY_BASE_DELAY_MILLIS)
+                    ),
+                    TimeUnit.MILLISECONDS.toNanos(
+                            getSetting(endpoint, "retry.max-delay-millis", Long.class, DEFAULT_RETRY_MAX_DELAY_MILLIS)
+                    )
+            );
+            this.circuitOpenRejections = counter(REJECTIONS, endpoint, "reason", "circuit-open");
+            this.bulkheadFullRejections = counter(REJECTIONS, endpoint, "reason", "bulkhead-full");
+            this.limitReachedRejections = counter(REJECTIONS, endpoint, "reason", "limit-reached");
+            this.retriesAttempted = counter(RETRIES, endpoint, "kind", "attempted");
+            this.retriesSucceeded = counter(RETRIES, endpoint, "kind", "succeeded");
+            this.retryBudgetExhausted = counter(RETRIES, endpoint, "kind", "budget-exhausted");
+            if (enabled) {
+                registerGauge(CIRCUIT_BREAKER_STATE, endpoint, () -> circuitBreaker.getState().ordinal());
+                registerGauge(CONCURRENCY_LIMIT, endpoint, limiter::getLimit);
+                registerGauge(IN_FLIGHT, endpoint, limiter::getInFlight);
+            }
+        }
+
+
+        /**
+         * Performs a single attempt of the given blocking {@code operation}, holding a permit while it runs.
+         */
+        private <T> T execute(final Supplier<T> operation) {
+            final var startedAt = acquire();
+            try {
+                final var result = operation.get();
+                release(startedAt, null);
+                return result;
+            } catch (final RuntimeException | Error e) {
+                release(startedAt, e);
+                throw e;
+            }
+        }
+
+        /**
+         * Performs a single attempt of the given non-blocking {@code operation},
+         * holding a permit until it completes.
+         */
+        private <T> CompletableFuture<T> executeAsync(final Supplier<CompletionStage<T>> operation) {
+            final long startedAt;
+            final CompletionStage<T> stage;
+            try {
+                startedAt = acquire();
+            } catch (final GatewayException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+            try {
+                stage = operation.get();
+            } catch (final RuntimeException e) {
+                release(startedAt, e);
+                return CompletableFuture.failedFuture(e);
+            }
+            final var guarded = stage.whenComplete((ignored, throwable) -> release(startedAt, throwable))
+                    .toCompletableFuture();
+            MicroProfileRestClientHelper.propagateCancellation(guarded, stage);
+            return guarded;
+        }
+
+        /**
+         * Acquires a permit from the circuit breaker, the bulkhead and the limiter, in that order.
+         *
+         * @return The time at which the permit was acquired, in nanoseconds.
+         * @throws GatewayException If any of them rejects the call.
+         */
+        private long acquire() {
+            if (!circuitBreaker.tryAcquire()) {
+                circuitOpenRejections.inc();
+                throw reject("has its circuit open");
+            }
+            if (!bulkhead.tryAcquire()) {
+                circuitBreaker.onIgnored();
+                bulkheadFullRejections.inc();
+                throw reject("has too many calls in flight");
+            }
+            if (!limiter.tryAcquire()) {
+                bulkhead.release();
+                circuitBreaker.onIgnored();
+                limitReachedRejections.inc();
+                throw reject("reached its concurrency limit");
+            }
+            return System.nanoTime();
+        }
+
+        /**
+         * Releases the permit acquired at {@code startedAt}, recording the call's outcome.
+         *
+         * @param startedAt The time at which the permit was acquired, in nanoseconds.
+         * @param throwable The {@link Throwable} the call failed with, or {@code null} if it succeeded.
+         */
+        private void release(final long startedAt, final Throwable throwable) {
+            final var latency = System.nanoTime() - startedAt;
+            bulkhead.release();
+            switch (throwable == null ? Outcome.SUCCESS : classify(throwable)) {
+                case FAILURE:
+                    circuitBreaker.onFailure();
+                    limiter.onFailure(latency);
+                    break;
+                case IGNORED:
+                    circuitBreaker.onIgnored();
+                    limiter.onIgnored();
+                    break;
+                case SUCCESS:
+                default:
+                    circuitBreaker.onSuccess();
+                    limiter.onSuccess(latency);
+                    break;
+            }
+        }
+
+        private GatewayException reject(final String reason) {
+            return new RejectionException("JSON Placeholder's " + endpoint + " endpoint " + reason);
+        }
+
+        private void onTransition(final CircuitBreaker.State state) {
+            log.infof("Circuit breaker of JSON Placeholder's %s endpoint is now %s", endpoint, state);
+            counter(CIRCUIT_BREAKER_TRANSITIONS, endpoint, "state", state.name().toLowerCase()).inc();
+        }
+    }
+
+    /**
+     * Thrown when a call is rejected by a guard (i.e it is not even sent upstream).
+     */
+    private static final class RejectionException extends GatewayException {
+
+        private RejectionException(final String message) {
+            super(Response.status(Response.Status.SERVICE_UNAVAILABLE).build(), message);
+        }
+    }
+}
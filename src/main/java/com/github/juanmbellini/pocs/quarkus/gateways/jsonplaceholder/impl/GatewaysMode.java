@@ -0,0 +1,56 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * The different ways in which the JSON Placeholder's gateways can be backed,
+ * selected through the {@code jsonplaceholder.gateways.mode} configuration property.
+ */
+enum GatewaysMode {
+    /**
+     * Every call goes upstream (optionally through a cache).
+     */
+    REST,
+    /**
+     * Calls are served from an in-process, indexed copy of the whole dataset, which is refreshed on a schedule.
+     */
+    MIRROR,
+    /**
+     * Calls are served from a local copy of the dataset in the database, which is loaded (read-through)
+     * and refreshed from upstream.
+     */
+    DATABASE,
+    ;
+
+
+    /**
+     * Resolves the {@link GatewaysMode} for the given configuration {@code value} (case insensitive).
+     *
+     * @param value The configuration value.
+     * @return The matching {@link GatewaysMode}.
+     * @throws IllegalArgumentException If there is no {@link GatewaysMode} for the given {@code value}.
+     */
+    static GatewaysMode fromValue(final String value) {
+        return Arrays.stream(values())
+                .filter(mode -> mode.name().equals(value.trim().toUpperCase(Locale.ROOT)))
+                .findAny()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown gateways mode: " + value));
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import lombok.extern.jbosslog.JBossLog;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keeps the local copy of the JSON Placeholder dataset in the database (see {@link JsonPlaceholderStore})
+ * loaded from upstream (only when the gateways are in database mode).
+ * Each table is read-through as a whole: until it is loaded, gateways go upstream, and the first call
+ * (or the startup) loads the whole table in the background. Once loaded, gateways only read from the database,
+ * so they are not affected by upstream slowness, while tables are refreshed (replaced as a whole) on a schedule.
+ * Tables that already have rows at startup (e.g when the database is a file shared across restarts)
+ * are served right away.
+ * Database calls (both loads and the gateways' async reads) are blocking, so they run on a dedicated executor,
+ * bounded by {@code jsonplaceholder.database.max-concurrency} (which should not exceed the datasource's pool size),
+ * and never on the common pool nor on I/O threads.
+ */
+@JBossLog
+@ApplicationScoped
+class JsonPlaceholderDatabase {
+
+    private final RestUsersGateway restUsersGateway;
+    private final RestAlbumsGateway restAlbumsGateway;
+    private final RestPhotosGateway restPhotosGateway;
+    private final RestCommentsGateway restCommentsGateway;
+    private final JsonPlaceholderStore store;
+    private final String mode;
+    private final ExecutorService executor;
+
+    private final Set<Table> loaded = ConcurrentHashMap.newKeySet();
+    private final Map<Table, AtomicReference<CompletableFuture<Void>>> inFlight = inFlightLoads();
+
+
+    JsonPlaceholderDatabase(
+            final RestUsersGateway restUsersGateway,
+            final RestAlbumsGateway restAlbumsGateway,
+            final RestPhotosGateway restPhotosGateway,
+            final RestCommentsGateway restCommentsGateway,
+            final JsonPlaceholderStore store,
+            @ConfigProperty(name = "jsonplaceholder.gateways.mode", defaultValue = "rest") final String mode,
+            @ConfigProperty(name = "jsonplaceholder.database.max-concurrency", defaultValue = "8")
+            final int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("The database max concurrency must be positive");
+        }
+        this.restUsersGateway = restUsersGateway;
+        this.restAlbumsGateway = restAlbumsGateway;
+        this.restPhotosGateway = restPhotosGateway;
+        this.restCommentsGateway = restCommentsGateway;
+        this.store = store;
+        this.mode = mode;
+        final var threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(maxConcurrency, runnable -> {
+            final var thread = new Thread(runnable, "jsonplaceholder-database-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+
+    /**
+     * Checks whether the given {@code table} is loaded, starting to load it if it is not
+     * (and it is not being loaded already).
+     *
+     * @param table The {@link Table} to be checked.
+     * @return {@code true} if the table is loaded (i.e it can be read), or {@code false} otherwise.
+     */
+    boolean isLoaded(final Table table) {
+        if (loaded.contains(table)) {
+            return true;
+        }
+        load(table);
+        return false;
+    }
+
+    /**
+     * @return The {@link Executor} on which database calls must run.
+     */
+    Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Loads the whole {@code table} from upstream, replacing its rows. If there is a load of the table in progress,
+     * no new one is started. If loading fails, the current rows are kept.
+     *
+     * @param table The {@link Table} to be loaded.
+     * @return A {@link CompletionStage} that completes when the table is loaded.
+     */
+    CompletionStage<Void> load(final Table table) {
+        final var load = new CompletableFuture<Void>();
+        final var current = inFlight.get(table).compareAndExchange(null, load);
+        if (current != null) {
+            return current;
+        }
+        final var start = System.nanoTime();
+        fetchAndSave(table).whenComplete((ignored, throwable) -> {
+            if (throwable == null) {
+                loaded.add(table);
+                log.debugf(
+                        "JSON Placeholder %s table loaded from upstream in %d ms",
+                        table,
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+                );
+            } else {
+                log.warnf(throwable, "Could not load the JSON Placeholder %s table. Keeping the current rows", table);
+            }
+            inFlight.get(table).set(null);
+            if (throwable == null) {
+                load.complete(null);
+            } else {
+                load.completeExceptionally(throwable);
+            }
+        });
+        return load;
+    }
+
+
+    void onStart(@Observes final StartupEvent event) {
+        if (isEnabled()) {
+            Arrays.stream(Table.values())
+                    .filter(table -> !store.isEmpty(table))
+                    .forEach(loaded::add);
+            refresh();
+        }
+    }
+
+    @Scheduled(every = "{jsonplaceholder.database.refresh-interval}", identity = "jsonplaceholder-database-refresh")
+    void scheduledRefresh() {
+        if (isEnabled()) {
+            refresh();
+        }
+    }
+
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+
+    private void refresh() {
+        Arrays.stream(Table.values()).forEach(this::load);
+    }
+
+    /**
+     * Fetches the whole table from upstream, and saves it on the executor (i.e off the thread completing the fetch,
+     * which might be an I/O one).
+     */
+    private CompletionStage<Void> fetchAndSave(final Table table) {
+        switch (table) {
+            case USERS:
+                return restUsersGateway.getUsersAsync().thenAcceptAsync(store::saveUsers, executor);
+            case ALBUMS:
+                return restAlbumsGateway.getAlbumsAsync().thenAcceptAsync(store::saveAlbums, executor);
+            case PHOTOS:
+                return restPhotosGateway.getPhotosAsync().thenAcceptAsync(store::savePhotos, executor);
+            case COMMENTS:
+                return restCommentsGateway.getCommentsAsync(null, null).thenAcceptAsync(store::saveComments, executor);
+            default:
+                throw new IllegalArgumentException("Unknown table: " + table);
+        }
+    }
+
+    private boolean isEnabled() {
+        return GatewaysMode.fromValue(mode) == GatewaysMode.DATABASE;
+    }
+
+    private static Map<Table, AtomicReference<CompletableFuture<Void>>> inFlightLoads() {
+        final var inFlight = new EnumMap<Table, AtomicReference<CompletableFuture<Void>>>(Table.class);
+        Arrays.stream(Table.values()).forEach(table -> inFlight.put(table, new AtomicReference<>()));
+        return inFlight;
+    }
+
+
+    /**
+     * The tables in which the dataset is kept, each one loaded as a whole.
+     */
+    enum Table {
+        USERS,
+        ALBUMS,
+        PHOTOS,
+        COMMENTS,
+    }
+}
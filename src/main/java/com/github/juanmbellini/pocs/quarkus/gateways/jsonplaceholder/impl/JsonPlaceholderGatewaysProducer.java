@@ -0,0 +1,146 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.AlbumsGateway;
+import com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.CommentsGateway;
+import com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.PhotosGateway;
+import com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.UsersGateway;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.Produces;
+
+/**
+ * Assembles the JSON Placeholder's gateways that are exposed to the rest of the application,
+ * according to the configured {@link GatewaysMode}.
+ */
+@ApplicationScoped
+class JsonPlaceholderGatewaysProducer {
+
+    @Produces
+    @ApplicationScoped
+    UsersGateway usersGateway(
+            @ConfigProperty(name = MODE_PROPERTY, defaultValue = DEFAULT_MODE) final String mode,
+            final RestUsersGateway restUsersGateway,
+            final GatewayCaches gatewayCaches,
+            final JsonPlaceholderMirror mirror,
+            final JsonPlaceholderDatabase database,
+            final JsonPlaceholderStore store,
+            final VirtualThreads virtualThreads) {
+        final UsersGateway rest = virtualThreads.getExecutor()
+                .<UsersGateway>map(executor -> new VirtualThreadUsersGateway(restUsersGateway, executor))
+                .orElse(restUsersGateway);
+        final UsersGateway upstream = gatewayCaches.isEnabled() ?
+                new CachingUsersGateway(rest, gatewayCaches) :
+                rest;
+        switch (GatewaysMode.fromValue(mode)) {
+            case MIRROR:
+                return new MirrorUsersGateway(mirror, upstream);
+            case DATABASE:
+                return new DatabaseUsersGateway(database, store, upstream);
+            case REST:
+            default:
+                return upstream;
+        }
+    }
+
+    @Produces
+    @ApplicationScoped
+    AlbumsGateway albumsGateway(
+            @ConfigProperty(name = MODE_PROPERTY, defaultValue = DEFAULT_MODE) final String mode,
+            final RestAlbumsGateway restAlbumsGateway,
+            final GatewayCaches gatewayCaches,
+            final JsonPlaceholderMirror mirror,
+            final JsonPlaceholderDatabase database,
+            final JsonPlaceholderStore store,
+            final VirtualThreads virtualThreads) {
+        final AlbumsGateway rest = virtualThreads.getExecutor()
+                .<AlbumsGateway>map(executor -> new VirtualThreadAlbumsGateway(restAlbumsGateway, executor))
+                .orElse(restAlbumsGateway);
+        final AlbumsGateway upstream = gatewayCaches.isEnabled() ?
+                new CachingAlbumsGateway(rest, gatewayCaches) :
+                rest;
+        switch (GatewaysMode.fromValue(mode)) {
+            case MIRROR:
+                return new MirrorAlbumsGateway(mirror, upstream);
+            case DATABASE:
+                return new DatabaseAlbumsGateway(database, store, upstream);
+            case REST:
+            default:
+                return upstream;
+        }
+    }
+
+    @Produces
+    @ApplicationScoped
+    PhotosGateway photosGateway(
+            @ConfigProperty(name = MODE_PROPERTY, defaultValue = DEFAULT_MODE) final String mode,
+            final RestPhotosGateway restPhotosGateway,
+            final GatewayCaches gatewayCaches,
+            final JsonPlaceholderMirror mirror,
+            final JsonPlaceholderDatabase database,
+            final JsonPlaceholderStore store,
+            final VirtualThreads virtualThreads) {
+        final PhotosGateway rest = virtualThreads.getExecutor()
+                .<PhotosGateway>map(executor -> new VirtualThreadPhotosGateway(restPhotosGateway, executor))
+                .orElse(restPhotosGateway);
+        final PhotosGateway upstream = gatewayCaches.isEnabled() ?
+                new CachingPhotosGateway(rest, gatewayCaches) :
+                rest;
+        switch (GatewaysMode.fromValue(mode)) {
+            case MIRROR:
+                return new MirrorPhotosGateway(mirror, upstream);
+            case DATABASE:
+                return new DatabasePhotosGateway(database, store, upstream);
+            case REST:
+            default:
+                return upstream;
+        }
+    }
+
+    @Produces
+    @ApplicationScoped
+    CommentsGateway commentsGateway(
+            @ConfigProperty(name = MODE_PROPERTY, defaultValue = DEFAULT_MODE) final String mode,
+            final RestCommentsGateway restCommentsGateway,
+            final GatewayCaches gatewayCaches,
+            final JsonPlaceholderMirror mirror,
+            final JsonPlaceholderDatabase database,
+            final JsonPlaceholderStore store,
+            final VirtualThreads virtualThreads) {
+        final CommentsGateway rest = virtualThreads.getExecutor()
+                .<CommentsGateway>map(executor -> new VirtualThreadCommentsGateway(restCommentsGateway, executor))
+                .orElse(restCommentsGateway);
+        final CommentsGateway upstream = gatewayCaches.isEnabled() ?
+                new CachingCommentsGateway(rest, gatewayCaches) :
+                rest;
+        switch (GatewaysMode.fromValue(mode)) {
+            case MIRROR:
+                return new MirrorCommentsGateway(mirror, upstream);
+            case DATABASE:
+                return new DatabaseCommentsGateway(database, store, upstream);
+            case REST:
+            default:
+                return upstream;
+        }
+    }
+
+
+    private static final String MODE_PROPERTY = "jsonplaceholder.gateways.mode";
+    private static final String DEFAULT_MODE = "rest";
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.jbosslog.JBossLog;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keeps an in-process {@link MirrorSnapshot} of the whole JSON Placeholder dataset,
+ * bulk-loading it at startup and refreshing it on a schedule (only when the gateways are in mirror mode).
+ * If {@code jsonplaceholder.mirror.snapshot.path} is configured, every refreshed snapshot is persisted
+ * (see {@link MirrorSnapshotFile}), and the persisted one is loaded at startup, so that calls are served from it
+ * right away while the first refresh reconciles it with upstream.
+ * If the application was built with a baked dataset (see {@link BakedDataset}), it is used as the initial snapshot
+ * (unless the persisted one was written after the dataset was baked, as it is more recent).
+ * Refreshes do not overlap (i.e a refresh requested while one is in progress joins it), and snapshots are persisted
+ * one at a time, on a dedicated thread.
+ */
+@JBossLog
+@ApplicationScoped
+@RequiredArgsConstructor
+class JsonPlaceholderMirror {
+
+    private final RestUsersGateway restUsersGateway;
+    private final RestAlbumsGateway restAlbumsGateway;
+    private final RestPhotosGateway restPhotosGateway;
+    private final RestCommentsGateway restCommentsGateway;
+    @ConfigProperty(name = "jsonplaceholder.gateways.mode", defaultValue = "rest")
+    private final String mode;
+    @ConfigProperty(name = "jsonplaceholder.mirror.snapshot.path")
+    private final Optional<String> snapshotPath;
+
+    private final AtomicReference<CompletableFuture<Void>> inFlight = new AtomicReference<>();
+    private final ExecutorService persistence = Executors.newSingleThreadExecutor(runnable -> {
+        final var thread = new Thread(runnable, "jsonplaceholder-mirror-persistence");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile MirrorSnapshot snapshot;
+
+
+    /**
+     * @return The current {@link MirrorSnapshot}, or empty if it was not loaded yet.
+     */
+    Optional<MirrorSnapshot> getSnapshot() {
+        return Optional.ofNullable(snapshot);
+    }
+
+    /**
+     * Bulk-loads the whole dataset from upstream, replacing the current {@link MirrorSnapshot} once done.
+     * If loading fails, the current {@link MirrorSnapshot} is kept.
+     * If there is a refresh in progress, no new one is started.
+     *
+     * @return A {@link CompletionStage} that completes when the refresh finishes.
+     */
+    CompletionStage<Void> refresh() {
+        final var refresh = new CompletableFuture<Void>();
+        final var current = inFlight.compareAndExchange(null, refresh);
+        if (current != null) {
+            return current;
+        }
+        final var start = System.nanoTime();
+        final var users = restUsersGateway.getUsersAsync().toCompletableFuture();
+        final var albums = restAlbumsGateway.getAlbumsAsync().toCompletableFuture();
+        final var photos = restPhotosGateway.getPhotosAsync().toCompletableFuture();
+        final var comments = restCommentsGateway.getCommentsAsync(null, null).toCompletableFuture();
+        CompletableFuture.allOf(users, albums, photos, comments)
+                .thenAccept(ignored -> {
+                    final var refreshed = MirrorSnapshot.build(
+                            users.join(),
+                            albums.join(),
+                            photos.join(),
+                            comments.join()
+                    );
+                    snapshot = refreshed;
+                    log.debugf(
+                            "JSON Placeholder mirror refreshed from upstream in %d ms (%d photos)",
+                            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                            refreshed.getPhotos().size()
+                    );
+                    snapshotPath.map(Path::of).ifPresent(path -> persist(refreshed, path));
+                })
+                .whenComplete((ignored, throwable) -> {
+                    if (throwable != null) {
+                        log.warn("Could not refresh the JSON Placeholder mirror. Keeping the current one", throwable);
+                    }
+                    inFlight.set(null);
+                    refresh.complete(null);
+                });
+        return refresh;
+    }
+
+
+    void onStart(@Observes final StartupEvent event) {
+        if (isEnabled()) {
+            BakedDataset.get().ifPresent(baked -> {
+                snapshot = baked;
+                log.infof(
+                        "JSON Placeholder mirror started from the baked dataset (%d photos)",
+                        baked.getPhotos().size()
+                );
+            });
+            snapshotPath.map(Path::of).filter(this::isNewerThanBakedDataset).ifPresent(this::load);
+            refresh();
+        }
+    }
+
+    @Scheduled(every = "{jsonplaceholder.mirror.refresh-interval}", identity = "jsonplaceholder-mirror-refresh")
+    void scheduledRefresh() {
+        if (isEnabled()) {
+            refresh();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        persistence.shutdown();
+    }
+
+
+    /**
+     * Loads the persisted snapshot (if any). Must be called before the first refresh is started.
+     */
+    private void load(final Path path) {
+        if (!Files.isReadable(path)) {
+            log.infof("There is no JSON Placeholder mirror snapshot at %s. Skipping it", path);
+            return;
+        }
+        final var start = System.nanoTime();
+        try {
+            final var loaded = MirrorSnapshotFile.read(path);
+            snapshot = loaded;
+            log.infof(
+                    "JSON Placeholder mirror warm-started from %s in %d ms (%d photos, persisted at %s)",
+                    path,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                    loaded.getPhotos().size(),
+                    Files.getLastModifiedTime(path)
+            );
+        } catch (final IOException e) {
+            log.warn("Could not load the JSON Placeholder mirror snapshot. Skipping it", e);
+        }
+    }
+
+    /**
+     * Tells whether the snapshot persisted at the given {@code path} is more recent than the baked dataset
+     * (which is the case if there is no baked dataset, or if its bake time is unknown).
+     */
+    private boolean isNewerThanBakedDataset(final Path path) {
+        if (BakedDataset.get().isEmpty() || BakedDataset.getBakedAt().isEmpty() || !Files.isReadable(path)) {
+            return true;
+        }
+        final var bakedAt = BakedDataset.getBakedAt().get();
+        try {
+            final var persistedAt = Files.getLastModifiedTime(path).toInstant();
+            if (persistedAt.isAfter(bakedAt)) {
+                return true;
+            }
+            log.infof(
+                    "JSON Placeholder mirror snapshot at %s (persisted at %s) is older than the baked dataset"
+                            + " (baked at %s). Skipping it",
+                    path,
+                    persistedAt,
+                    bakedAt
+            );
+            return false;
+        } catch (final IOException e) {
+            log.warn("Could not read the JSON Placeholder mirror snapshot's modification time. Skipping it", e);
+            return false;
+        }
+    }
+
+    /**
+     * Persists the given snapshot on the persistence thread (i.e off the calling one, which might be an I/O one).
+     */
+    private void persist(final MirrorSnapshot snapshot, final Path path) {
+        persistence.execute(() -> {
+            try {
+                MirrorSnapshotFile.write(snapshot, path);
+            } catch (final IOException e) {
+                log.warn("Could not persist the JSON Placeholder mirror snapshot", e);
+            }
+        });
+    }
+
+    private boolean isEnabled() {
+        return GatewaysMode.fromValue(mode) == GatewaysMode.MIRROR;
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl.entities.AlbumEntity;
+import com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl.entities.CommentEntity;
+import com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl.entities.PhotoEntity;
+import com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl.entities.UserEntity;
+import com.github.juanmbellini.pocs.quarkus.models.Album;
+import com.github.juanmbellini.pocs.quarkus.models.Comment;
+import com.github.juanmbellini.pocs.quarkus.models.PageRequest;
+import com.github.juanmbellini.pocs.quarkus.models.Photo;
+import com.github.juanmbellini.pocs.quarkus.models.User;
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import io.quarkus.hibernate.orm.panache.PanacheQuery;
+import io.quarkus.panache.common.Page;
+import io.quarkus.panache.common.Sort;
+import lombok.AllArgsConstructor;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Reads and writes the local copy of the JSON Placeholder dataset, kept in the database
+ * (see the entities in the {@code entities} package).
+ * Every method runs in a transaction, so that it can be called from any thread (e.g a gateway's async call),
+ * and saving a table replaces all of its rows at once.
+ */
+@ApplicationScoped
+@Transactional
+@AllArgsConstructor
+class JsonPlaceholderStore {
+
+    private final EntityManager entityManager;
+
+
+    /**
+     * @param table The {@link JsonPlaceholderDatabase.Table} to be checked.
+     * @return {@code true} if the given table has no rows, or {@code false} otherwise.
+     */
+    boolean isEmpty(final JsonPlaceholderDatabase.Table table) {
+        switch (table) {
+            case USERS:
+                return UserEntity.count() == 0;
+            case ALBUMS:
+                return AlbumEntity.count() == 0;
+            case PHOTOS:
+                return PhotoEntity.count() == 0;
+            case COMMENTS:
+                return CommentEntity.count() == 0;
+            default:
+                throw new IllegalArgumentException("Unknown table: " + table);
+        }
+    }
+
+    List<User> getUsers() {
+        return map(UserEntity.<UserEntity>listAll(ID_SORT), UserEntity::toUser);
+    }
+
+    List<Album> getAlbums() {
+        return map(AlbumEntity.<AlbumEntity>listAll(ID_SORT), AlbumEntity::toAlbum);
+    }
+
+    List<Album> getUserAlbums(final Long userId) {
+        return map(AlbumEntity.<AlbumEntity>list("userId", ID_SORT, userId), AlbumEntity::toAlbum);
+    }
+
+    List<Photo> getPhotos() {
+        return map(PhotoEntity.<PhotoEntity>listAll(ID_SORT), PhotoEntity::toPhoto);
+    }
+
+    List<Photo> getPhotos(final PageRequest page) {
+        final PanacheQuery<PhotoEntity> query = page.getAfter() == null ?
+                PhotoEntity.findAll(ID_SORT) :
+                PhotoEntity.find("id > ?1", ID_SORT, page.getAfter());
+        return map(query.page(Page.ofSize(page.getLimit())).list(), PhotoEntity::toPhoto);
+    }
+
+    /**
+     * Retrieves the photos of the given albums, in the order in which albums are requested.
+     */
+    List<Photo> getAlbumsPhotos(final List<Long> albumIds) {
+        final var ids = albumIds.stream().filter(Objects::nonNull).collect(Collectors.toCollection(LinkedHashSet::new));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        final Map<Long, List<Photo>> photosByAlbumId = PhotoEntity.<PhotoEntity>list("albumId in ?1", ID_SORT, ids)
+                .stream()
+                .map(PhotoEntity::toPhoto)
+                .collect(Collectors.groupingBy(Photo::getAlbumId));
+        return ids.stream()
+                .flatMap(albumId -> photosByAlbumId.getOrDefault(albumId, List.of()).stream())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Retrieves the photos of every album of the given user, joining albums and photos in a single query
+     * (through the albums' user index and the photos' album index).
+     */
+    List<Photo> getUserPhotos(final Long userId) {
+        final var photos = entityManager.createQuery(USER_PHOTOS_QUERY, PhotoEntity.class)
+                .setParameter("userId", userId)
+                .getResultList();
+        return map(photos, PhotoEntity::toPhoto);
+    }
+
+    List<Comment> getComments(final String name, final String email) {
+        return map(findComments(name, email, null).list(), CommentEntity::toComment);
+    }
+
+    List<Comment> getComments(final String name, final String email, final PageRequest page) {
+        final var query = findComments(name, email, page.getAfter()).page(Page.ofSize(page.getLimit()));
+        return map(query.list(), CommentEntity::toComment);
+    }
+
+    void saveUsers(final List<User> users) {
+        replace(UserEntity.class, users, UserEntity::of);
+    }
+
+    void saveAlbums(final List<Album> albums) {
+        replace(AlbumEntity.class, albums, AlbumEntity::of);
+    }
+
+    void savePhotos(final List<Photo> photos) {
+        replace(PhotoEntity.class, photos, PhotoEntity::of);
+    }
+
+    void saveComments(final List<Comment> comments) {
+        replace(CommentEntity.class, comments, CommentEntity::of);
+    }
+
+
+    private static PanacheQuery<CommentEntity> findComments(final String name, final String email, final Long after) {
+        final var conditions = new ArrayList<String>();
+        final var parameters = new HashMap<String, Object>();
+        if (name != null) {
+            conditions.add("name = :name");
+            parameters.put("name", name);
+        }
+        if (email != null) {
+            conditions.add("email = :email");
+            parameters.put("email", email);
+        }
+        if (after != null) {
+            conditions.add("id > :after");
+            parameters.put("after", after);
+        }
+        return conditions.isEmpty() ?
+                CommentEntity.findAll(ID_SORT) :
+                CommentEntity.find(String.join(" and ", conditions), ID_SORT, parameters);
+    }
+
+    /**
+     * Replaces the rows of the given {@code entityType} with the given elements, in the calling method's transaction
+     * (i.e readers see either the previous rows or the new ones, and rows that are gone upstream are deleted).
+     */
+    private <T, E extends PanacheEntityBase> void replace(
+            final Class<E> entityType,
+            final List<T> elements,
+            final Function<T, E> toEntity) {
+        entityManager.createQuery("delete from " + entityType.getSimpleName()).executeUpdate();
+        elements.stream()
+                .filter(Objects::nonNull)
+                .map(toEntity)
+                .forEach(entityManager::persist);
+    }
+
+    private static <E, T> List<T> map(final List<E> entities, final Function<E, T> mapper) {
+        return entities.stream().map(mapper).collect(Collectors.toList());
+    }
+
+
+    private static final Sort ID_SORT = Sort.by("id");
+    private static final String USER_PHOTOS_QUERY = "select p from PhotoEntity p"
+            + " join AlbumEntity a on p.albumId = a.id"
+            + " where a.userId = :userId"
+            + " order by a.id, p.id";
+}
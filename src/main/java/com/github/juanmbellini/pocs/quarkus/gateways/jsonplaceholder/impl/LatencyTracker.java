@@ -0,0 +1,69 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import java.util.Arrays;
+
+/**
+ * Tracks a percentile of the latencies of the last {@code windowSize} samples.
+ * The percentile is recomputed every {@code windowSize / 8} samples, so reading it is cheap.
+ */
+class LatencyTracker {
+
+    private final double percentile;
+    private final int minSamples;
+    private final long[] samples;
+    private final int recomputeEvery;
+
+    private int index;
+    private int count;
+    private int sinceRecompute;
+    private long value = -1;
+
+
+    LatencyTracker(final int windowSize, final double percentile, final int minSamples) {
+        this.percentile = percentile;
+        this.minSamples = Math.min(Math.max(1, minSamples), windowSize);
+        this.samples = new long[windowSize];
+        this.recomputeEvery = Math.max(1, windowSize / 8);
+    }
+
+
+    /**
+     * Records a latency sample.
+     *
+     * @param latencyNanos The latency, in nanoseconds.
+     */
+    synchronized void record(final long latencyNanos) {
+        samples[index] = latencyNanos;
+        index = (index + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+        if (count >= minSamples && (value < 0 || ++sinceRecompute >= recomputeEvery)) {
+            sinceRecompute = 0;
+            final var sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            value = sorted[Math.min(count - 1, (int) Math.ceil(percentile * count) - 1)];
+        }
+    }
+
+    /**
+     * @return The tracked percentile, in nanoseconds, or {@code -1} if there are not enough samples yet.
+     */
+    synchronized long getValue() {
+        return value;
+    }
+}
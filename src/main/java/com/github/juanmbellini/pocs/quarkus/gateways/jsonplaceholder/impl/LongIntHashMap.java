@@ -0,0 +1,124 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import java.util.Arrays;
+
+/**
+ * A hash map from primitive {@code long} keys to non-negative {@code int} values, using open addressing
+ * with linear probing over parallel arrays, so that neither keys nor values are boxed, and lookups do not allocate.
+ * It is not thread safe: it must be fully built before being shared.
+ */
+final class LongIntHashMap {
+
+    private long[] keys;
+    private int[] values; // ABSENT marks free slots
+    private int mask;
+    private int size;
+
+
+    /**
+     * @param expectedSize The amount of entries the map is expected to hold (used to size it).
+     */
+    LongIntHashMap(final int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+
+    /**
+     * @param key The key.
+     * @return The value mapped to the given {@code key}, or {@link #ABSENT} if there is none.
+     */
+    int get(final long key) {
+        for (var slot = slot(key); ; slot = (slot + 1) & mask) {
+            final var value = values[slot];
+            if (value == ABSENT || keys[slot] == key) {
+                return value;
+            }
+        }
+    }
+
+    /**
+     * Maps the given {@code key} to the given {@code value}, replacing the current mapping (if any).
+     *
+     * @param key   The key.
+     * @param value The value (must not be negative).
+     */
+    void put(final long key, final int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Values must not be negative");
+        }
+        var slot = slot(key);
+        while (values[slot] != ABSENT && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (values[slot] == ABSENT) {
+            size++;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (size * 2 > values.length) {
+            rehash();
+        }
+    }
+
+    /**
+     * @return The amount of entries.
+     */
+    int size() {
+        return size;
+    }
+
+
+    private int slot(final long key) {
+        final var hash = key * 0x9E3779B97F4A7C15L; // Fibonacci hashing, spreading sequential ids
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private void allocate(final int tableSize) {
+        this.keys = new long[tableSize];
+        this.values = new int[tableSize];
+        Arrays.fill(values, ABSENT);
+        this.mask = tableSize - 1;
+        this.size = 0;
+    }
+
+    private void rehash() {
+        final var oldKeys = keys;
+        final var oldValues = values;
+        allocate(oldValues.length * 2);
+        for (var i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != ABSENT) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    /**
+     * @return The smallest power of two that keeps the load factor at most 0.5 for the given size.
+     */
+    private static int tableSizeFor(final int expectedSize) {
+        return Math.max(MIN_TABLE_SIZE, Integer.highestOneBit(Math.max(1, expectedSize) * 2 - 1) << 1);
+    }
+
+
+    /**
+     * Value returned by {@link #get(long)} when there is no mapping for the key.
+     */
+    static final int ABSENT = -1;
+    private static final int MIN_TABLE_SIZE = 8;
+}
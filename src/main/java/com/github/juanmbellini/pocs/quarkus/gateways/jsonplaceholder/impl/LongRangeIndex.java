@@ -0,0 +1,136 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * An index from primitive {@code long} keys to the rows (i.e positions) of a {@link List} having that key.
+ * Rows are stored grouped by key in a single {@code int[]}, and each key is mapped (through a {@link LongIntHashMap})
+ * to the range of that array holding its rows, so that neither keys nor rows are boxed.
+ * Counting a key's rows does not allocate, and viewing them only allocates a small fixed-size wrapper
+ * (no rows or elements are copied, and absent keys get the shared empty list).
+ */
+final class LongRangeIndex {
+
+    private final LongIntHashMap groups;
+    private final int[] starts; // Group g's rows are rows[starts[g]] to rows[starts[g + 1] - 1]
+    private final int[] rows;
+
+
+    private LongRangeIndex(final LongIntHashMap groups, final int[] starts, final int[] rows) {
+        this.groups = groups;
+        this.starts = starts;
+        this.rows = rows;
+    }
+
+
+    /**
+     * Indexes the given {@code elements} by the key returned by {@code keyExtractor}.
+     * Elements with a {@code null} key are not indexed. Rows with the same key keep their relative order.
+     *
+     * @param elements     The elements to be indexed.
+     * @param keyExtractor A {@link Function} that returns the key of an element.
+     * @param <T>          The type of elements.
+     * @return The built {@link LongRangeIndex}.
+     */
+    static <T> LongRangeIndex build(final List<T> elements, final Function<T, Long> keyExtractor) {
+        final var keys = elements.stream().map(keyExtractor).toArray(Long[]::new);
+        final var rows = IntStream.range(0, keys.length)
+                .filter(row -> keys[row] != null)
+                .boxed()
+                .sorted(Comparator.comparing(row -> keys[row])) // Stable, so rows keep their order within a key
+                .mapToInt(Integer::intValue)
+                .toArray();
+        final var groups = new LongIntHashMap(rows.length);
+        final var starts = new int[rows.length + 1];
+        var groupCount = 0;
+        for (var i = 0; i < rows.length; i++) {
+            if (i == 0 || !keys[rows[i]].equals(keys[rows[i - 1]])) {
+                groups.put(keys[rows[i]], groupCount);
+                starts[groupCount++] = i;
+            }
+        }
+        starts[groupCount] = rows.length;
+        return new LongRangeIndex(groups, Arrays.copyOf(starts, groupCount + 1), rows);
+    }
+
+    /**
+     * Counts the rows with the given {@code key}.
+     *
+     * @param key The key.
+     * @return The amount of rows with the given {@code key}.
+     */
+    int count(final long key) {
+        final var group = groups.get(key);
+        return group == LongIntHashMap.ABSENT ? 0 : starts[group + 1] - starts[group];
+    }
+
+    /**
+     * Returns a view of the {@code elements} with the given {@code key}, without copying them
+     * (i.e only a wrapper holding the range of rows is allocated, or none if the key is absent).
+     *
+     * @param elements The indexed elements.
+     * @param key      The key.
+     * @param <T>      The type of elements.
+     * @return A {@link List} with the elements with the given {@code key}, in their original relative order.
+     */
+    <T> List<T> view(final List<T> elements, final long key) {
+        final var group = groups.get(key);
+        return group == LongIntHashMap.ABSENT ?
+                Collections.emptyList() :
+                new Rows<>(elements, rows, starts[group], starts[group + 1]);
+    }
+
+
+    /**
+     * A view of a range of the grouped rows.
+     */
+    private static final class Rows<T> extends AbstractList<T> implements RandomAccess {
+        private final List<T> elements;
+        private final int[] rows;
+        private final int from;
+        private final int to;
+
+        private Rows(final List<T> elements, final int[] rows, final int from, final int to) {
+            this.elements = elements;
+            this.rows = rows;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public T get(final int index) {
+            if (index < 0 || index >= to - from) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", size: " + (to - from));
+            }
+            return elements.get(rows[from + index]);
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+}
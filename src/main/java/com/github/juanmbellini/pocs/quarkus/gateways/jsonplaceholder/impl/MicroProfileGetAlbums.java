@@ -16,6 +16,8 @@
 
 package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl.dtos.AlbumDto;
 import com.github.juanmbellini.pocs.quarkus.models.Album;
 import lombok.AllArgsConstructor;
@@ -24,10 +26,15 @@ import org.eclipse.microprofile.rest.client.inject.RestClient;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CompletionStage;
 import java.util.stream.Collectors;
 
 @ApplicationScoped
@@ -36,17 +43,50 @@ class MicroProfileGetAlbums {
 
     @RestClient
     private final MicroProfileGetAlbumsRestClient microProfileGetAlbumsRestClient;
+    private final ConditionalRequests conditionalRequests;
+    private final GatewayResilience gatewayResilience;
+    private final GatewayHedging gatewayHedging;
 
 
     List<Album> perform() {
         return MicroProfileRestClientHelper.wrapForGatewayException(
-                () -> microProfileGetAlbumsRestClient.perform()
-                        .stream()
-                        .map(AlbumDto::toAlbum)
-                        .collect(Collectors.toList())
+                gatewayResilience,
+                "albums",
+                () -> conditionalRequests.fetch(
+                        "albums",
+                        microProfileGetAlbumsRestClient::perform,
+                        MicroProfileGetAlbums::parse
+                )
         );
     }
 
+    CompletionStage<List<Album>> performAsync() {
+        return gatewayHedging.executeAsync(
+                "albums",
+                () -> MicroProfileRestClientHelper.wrapForGatewayExceptionAsync(
+                        gatewayResilience,
+                        "albums",
+                        () -> conditionalRequests.fetchAsync(
+                                "albums",
+                                microProfileGetAlbumsRestClient::performAsync,
+                                MicroProfileGetAlbums::parse
+                        )
+                )
+        );
+    }
+
+
+    private static List<Album> parse(final ObjectMapper objectMapper, final byte[] body) throws IOException {
+        return objectMapper.readValue(body, ALBUM_DTO_LIST_TYPE)
+                .stream()
+                .map(AlbumDto::toAlbum)
+                .collect(Collectors.toList());
+    }
+
+
+    private static final TypeReference<List<AlbumDto>> ALBUM_DTO_LIST_TYPE = new TypeReference<>() {
+    };
+
 
     @ApplicationScoped
     @RegisterRestClient(baseUri = "https://jsonplaceholder.typicode.com")
@@ -55,6 +95,15 @@ class MicroProfileGetAlbums {
         @GET
         @Path("/albums")
         @Produces(MediaType.APPLICATION_JSON)
-        List<AlbumDto> perform();
+        Response perform(
+                @HeaderParam(HttpHeaders.IF_NONE_MATCH) final String ifNoneMatch,
+                @HeaderParam(HttpHeaders.IF_MODIFIED_SINCE) final String ifModifiedSince);
+
+        @GET
+        @Path("/albums")
+        @Produces(MediaType.APPLICATION_JSON)
+        CompletionStage<Response> performAsync(
+                @HeaderParam(HttpHeaders.IF_NONE_MATCH) final String ifNoneMatch,
+                @HeaderParam(HttpHeaders.IF_MODIFIED_SINCE) final String ifModifiedSince);
     }
 }
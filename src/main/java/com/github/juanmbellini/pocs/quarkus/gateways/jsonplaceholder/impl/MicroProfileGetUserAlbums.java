@@ -28,7 +28,9 @@ import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletionStage;
 import java.util.stream.Collectors;
 
 @ApplicationScoped
@@ -37,10 +39,14 @@ class MicroProfileGetUserAlbums {
 
     @RestClient
     private final MicroProfileGetUserAlbumsRestClient microProfileGetUserAlbumsRestClient;
+    private final GatewayResilience gatewayResilience;
+    private final GatewayHedging gatewayHedging;
 
 
     List<Album> perform(final long id) {
         return MicroProfileRestClientHelper.wrapForGatewayException(
+                gatewayResilience,
+                "user-albums",
                 () -> microProfileGetUserAlbumsRestClient.perform(id)
                         .stream()
                         .map(AlbumDto::toAlbum)
@@ -48,6 +54,34 @@ class MicroProfileGetUserAlbums {
         );
     }
 
+    CompletionStage<List<Album>> performAsync(final long id) {
+        return gatewayHedging.executeAsync(
+                "user-albums",
+                () -> MicroProfileRestClientHelper.wrapForGatewayExceptionAsync(
+                        gatewayResilience,
+                        "user-albums",
+                        () -> microProfileGetUserAlbumsRestClient.performAsync(id)
+                                .thenApply(albums -> albums.stream()
+                                        .map(AlbumDto::toAlbum)
+                                        .collect(Collectors.toList()))
+                )
+        );
+    }
+
+    CompletionStage<List<Album>> performBatchAsync(final Collection<Long> ids) {
+        return gatewayHedging.executeAsync(
+                "user-albums",
+                () -> MicroProfileRestClientHelper.wrapForGatewayExceptionAsync(
+                        gatewayResilience,
+                        "user-albums",
+                        () -> microProfileGetUserAlbumsRestClient.performBatchAsync(List.copyOf(ids))
+                                .thenApply(albums -> albums.stream()
+                                        .map(AlbumDto::toAlbum)
+                                        .collect(Collectors.toList()))
+                )
+        );
+    }
+
 
     @ApplicationScoped
     @RegisterRestClient(baseUri = "https://jsonplaceholder.typicode.com")
@@ -57,5 +91,15 @@ class MicroProfileGetUserAlbums {
         @Path("/albums")
         @Produces(MediaType.APPLICATION_JSON)
         List<AlbumDto> perform(@QueryParam("userId") final long id);
+
+        @GET
+        @Path("/albums")
+        @Produces(MediaType.APPLICATION_JSON)
+        CompletionStage<List<AlbumDto>> performAsync(@QueryParam("userId") final long id);
+
+        @GET
+        @Path("/albums")
+        @Produces(MediaType.APPLICATION_JSON)
+        CompletionStage<List<AlbumDto>> performBatchAsync(@QueryParam("userId") final List<Long> ids);
     }
 }
@@ -16,19 +16,26 @@
 
 package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl.dtos.UserDto;
 import com.github.juanmbellini.pocs.quarkus.models.User;
 import lombok.AllArgsConstructor;
 import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CompletionStage;
 import java.util.stream.Collectors;
 import javax.enterprise.context.ApplicationScoped;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
 
 @ApplicationScoped
 @AllArgsConstructor
@@ -36,17 +43,46 @@ class MicroProfileGetUsers {
 
     @RestClient
     private final MicroProfileGetUsersRestClient getUsers;
+    private final ConditionalRequests conditionalRequests;
+    private final GatewayResilience gatewayResilience;
+    private final GatewayHedging gatewayHedging;
 
 
     List<User> perform() {
         return MicroProfileRestClientHelper.wrapForGatewayException(
-                () -> getUsers.perform()
-                        .stream()
-                        .map(UserDto::toUser)
-                        .collect(Collectors.toList())
+                gatewayResilience,
+                "users",
+                () -> conditionalRequests.fetch("users", getUsers::perform, MicroProfileGetUsers::parse)
         );
     }
 
+    CompletionStage<List<User>> performAsync() {
+        return gatewayHedging.executeAsync(
+                "users",
+                () -> MicroProfileRestClientHelper.wrapForGatewayExceptionAsync(
+                        gatewayResilience,
+                        "users",
+                        () -> conditionalRequests.fetchAsync(
+                                "users",
+                                getUsers::performAsync,
+                                MicroProfileGetUsers::parse
+                        )
+                )
+        );
+    }
+
+
+    private static List<User> parse(final ObjectMapper objectMapper, final byte[] body) throws IOException {
+        return objectMapper.readValue(body, USER_DTO_LIST_TYPE)
+                .stream()
+                .map(UserDto::toUser)
+                .collect(Collectors.toList());
+    }
+
+
+    private static final TypeReference<List<UserDto>> USER_DTO_LIST_TYPE = new TypeReference<>() {
+    };
+
 
     @ApplicationScoped
     @RegisterRestClient(baseUri = "https://jsonplaceholder.typicode.com")
@@ -55,6 +91,15 @@ class MicroProfileGetUsers {
         @GET
         @Path("/users")
         @Produces(MediaType.APPLICATION_JSON)
-        List<UserDto> perform();
+        Response perform(
+                @HeaderParam(HttpHeaders.IF_NONE_MATCH) final String ifNoneMatch,
+                @HeaderParam(HttpHeaders.IF_MODIFIED_SINCE) final String ifModifiedSince);
+
+        @GET
+        @Path("/users")
+        @Produces(MediaType.APPLICATION_JSON)
+        CompletionStage<Response> performAsync(
+                @HeaderParam(HttpHeaders.IF_NONE_MATCH) final String ifNoneMatch,
+                @HeaderParam(HttpHeaders.IF_MODIFIED_SINCE) final String ifModifiedSince);
     }
 }
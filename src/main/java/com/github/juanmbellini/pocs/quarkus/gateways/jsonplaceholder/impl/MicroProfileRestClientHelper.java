@@ -19,6 +19,10 @@ package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
 import com.github.juanmbellini.pocs.quarkus.exceptions.GatewayException;
 import lombok.experimental.UtilityClass;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
 import java.util.function.Supplier;
 import javax.ws.rs.WebApplicationException;
 
@@ -28,10 +32,72 @@ class MicroProfileRestClientHelper {
     /* package */ <T> T wrapForGatewayException(final Supplier<T> supplier) {
         try {
             return supplier.get();
-        } catch (final WebApplicationException e) {
-            throw new GatewayException(e);
         } catch (final Exception e) {
-            throw new GatewayException("Unexpected exception", e);
+            throw toGatewayException(e);
         }
     }
+
+    /* package */ <T> CompletionStage<T> wrapForGatewayExceptionAsync(final Supplier<CompletionStage<T>> supplier) {
+        final var result = new CompletableFuture<T>();
+        try {
+            final var stage = supplier.get();
+            stage.whenComplete((value, throwable) -> {
+                if (throwable == null) {
+                    result.complete(value);
+                } else {
+                    result.completeExceptionally(toGatewayException(throwable));
+                }
+            });
+            propagateCancellation(result, stage);
+        } catch (final Exception e) {
+            result.completeExceptionally(toGatewayException(e));
+        }
+        return result;
+    }
+
+    /* package */ <T> T wrapForGatewayException(
+            final GatewayResilience resilience,
+            final String endpoint,
+            final Supplier<T> supplier) {
+        return wrapForGatewayException(() -> resilience.execute(endpoint, supplier));
+    }
+
+    /* package */ <T> CompletionStage<T> wrapForGatewayExceptionAsync(
+            final GatewayResilience resilience,
+            final String endpoint,
+            final Supplier<CompletionStage<T>> supplier) {
+        return wrapForGatewayExceptionAsync(() -> resilience.executeAsync(endpoint, supplier));
+    }
+
+    /* package */ GatewayException toGatewayException(final Throwable throwable) {
+        final var cause = unwrap(throwable);
+        if (cause instanceof GatewayException) {
+            return (GatewayException) cause;
+        }
+        if (cause instanceof WebApplicationException) {
+            return new GatewayException((WebApplicationException) cause);
+        }
+        return new GatewayException("Unexpected exception", cause);
+    }
+
+    /**
+     * Makes the cancellation of {@code future} (e.g a hedge that lost) reach the {@code stage} it depends on,
+     * so that the underlying upstream call is aborted if the client supports it.
+     */
+    /* package */ void propagateCancellation(final CompletableFuture<?> future, final CompletionStage<?> stage) {
+        future.whenComplete((ignored, throwable) -> {
+            if (future.isCancelled()) {
+                stage.toCompletableFuture().cancel(true);
+            }
+        });
+    }
+
+    private Throwable unwrap(final Throwable throwable) {
+        var cause = throwable;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
 }
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.AlbumsGateway;
+import com.github.juanmbellini.pocs.quarkus.models.Album;
+import lombok.AllArgsConstructor;
+import lombok.NonNull;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * {@link AlbumsGateway} backed by the {@link JsonPlaceholderMirror}.
+ * Calls go to the {@code fallback} gateway until the mirror is loaded.
+ */
+@AllArgsConstructor
+class MirrorAlbumsGateway implements AlbumsGateway {
+
+    private final JsonPlaceholderMirror mirror;
+    private final AlbumsGateway fallback;
+
+
+    @Override
+    public List<Album> getAlbums() {
+        return mirror.getSnapshot()
+                .map(MirrorSnapshot::getAlbums)
+                .orElseGet(fallback::getAlbums);
+    }
+
+    @Override
+    public List<Album> getUserAlbums(@NonNull final Long userId) {
+        return mirror.getSnapshot()
+                .map(snapshot -> snapshot.getUserAlbums(userId))
+                .orElseGet(() -> fallback.getUserAlbums(userId));
+    }
+
+    @Override
+    public CompletionStage<List<Album>> getAlbumsAsync() {
+        return mirror.getSnapshot()
+                .<CompletionStage<List<Album>>>map(snapshot -> CompletableFuture.completedFuture(snapshot.getAlbums()))
+                .orElseGet(fallback::getAlbumsAsync);
+    }
+
+    @Override
+    public CompletionStage<List<Album>> getUserAlbumsAsync(@NonNull final Long userId) {
+        return mirror.getSnapshot()
+                .<CompletionStage<List<Album>>>map(
+                        snapshot -> CompletableFuture.completedFuture(snapshot.getUserAlbums(userId))
+                )
+                .orElseGet(() -> fallback.getUserAlbumsAsync(userId));
+    }
+}
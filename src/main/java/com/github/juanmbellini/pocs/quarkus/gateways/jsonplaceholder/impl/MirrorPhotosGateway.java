@@ -0,0 +1,84 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.PhotosGateway;
+import com.github.juanmbellini.pocs.quarkus.models.PageRequest;
+import com.github.juanmbellini.pocs.quarkus.models.Photo;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * {@link PhotosGateway} backed by the {@link JsonPlaceholderMirror}.
+ * Calls go to the {@code fallback} gateway until the mirror is loaded.
+ */
+@AllArgsConstructor
+class MirrorPhotosGateway implements PhotosGateway {
+
+    private final JsonPlaceholderMirror mirror;
+    private final PhotosGateway fallback;
+
+
+    @Override
+    public List<Photo> getPhotos() {
+        return mirror.getSnapshot()
+                .map(MirrorSnapshot::getPhotos)
+                .orElseGet(fallback::getPhotos);
+    }
+
+    @Override
+    public List<Photo> getAlbumsPhotos(final List<Long> albumIds) {
+        return mirror.getSnapshot()
+                .map(snapshot -> snapshot.getAlbumsPhotos(albumIds))
+                .orElseGet(() -> fallback.getAlbumsPhotos(albumIds));
+    }
+
+    @Override
+    public CompletionStage<List<Photo>> getPhotosAsync() {
+        return mirror.getSnapshot()
+                .<CompletionStage<List<Photo>>>map(snapshot -> CompletableFuture.completedFuture(snapshot.getPhotos()))
+                .orElseGet(fallback::getPhotosAsync);
+    }
+
+    @Override
+    public CompletionStage<List<Photo>> getAlbumsPhotosAsync(final List<Long> albumIds) {
+        return mirror.getSnapshot()
+                .<CompletionStage<List<Photo>>>map(
+                        snapshot -> CompletableFuture.completedFuture(snapshot.getAlbumsPhotos(albumIds))
+                )
+                .orElseGet(() -> fallback.getAlbumsPhotosAsync(albumIds));
+    }
+
+    @Override
+    public List<Photo> getPhotos(final PageRequest page) {
+        return mirror.getSnapshot()
+                .map(snapshot -> snapshot.getPhotos(page))
+                .orElseGet(() -> fallback.getPhotos(page));
+    }
+
+    @Override
+    public CompletionStage<List<Photo>> getPhotosAsync(final PageRequest page) {
+        return mirror.getSnapshot()
+                .<CompletionStage<List<Photo>>>map(
+                        snapshot -> CompletableFuture.completedFuture(snapshot.getPhotos(page))
+                )
+                .orElseGet(() -> fallback.getPhotosAsync(page));
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import com.github.juanmbellini.pocs.quarkus.models.Album;
+import com.github.juanmbellini.pocs.quarkus.models.Comment;
+import com.github.juanmbellini.pocs.quarkus.models.PageRequest;
+import com.github.juanmbellini.pocs.quarkus.models.Photo;
+import com.github.juanmbellini.pocs.quarkus.models.User;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.IntToLongFunction;
+import java.util.stream.Collectors;
+
+/**
+ * An immutable copy of the whole JSON Placeholder dataset, together with the secondary indexes needed
+ * to answer the gateways' filtered queries without scanning.
+ * Photos and comments are kept sorted by id, together with arrays of their ids,
+ * so that a page is found with a binary search (i.e in {@code O(log n + limit)}).
+ * Photos are stored by columns (see {@link PhotoColumns}), as they are by far the largest part of the dataset.
+ * Albums by user and photos by album are indexed by primitive ids (see {@link LongRangeIndex}), so that joins do not
+ * box ids while looking them up.
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+class MirrorSnapshot {
+
+    @Getter(AccessLevel.PACKAGE)
+    private final List<User> users;
+    @Getter(AccessLevel.PACKAGE)
+    private final List<Album> albums;
+    @Getter(AccessLevel.PACKAGE)
+    private final List<Photo> photos;
+    @Getter(AccessLevel.PACKAGE)
+    private final List<Comment> comments;
+
+    private final LongRangeIndex albumsByUserId;
+    private final LongRangeIndex photosByAlbumId;
+    private final Map<String, List<Comment>> commentsByName;
+    private final Map<String, List<Comment>> commentsByEmail;
+    private final long[] photoIds;
+    private final long[] commentIds;
+
+
+    /**
+     * Builds a {@link MirrorSnapshot}, indexing the given data.
+     *
+     * @param users    The {@link User}s.
+     * @param albums   The {@link Album}s.
+     * @param photos   The {@link Photo}s.
+     * @param comments The {@link Comment}s.
+     * @return The built {@link MirrorSnapshot}.
+     */
+    static MirrorSnapshot build(
+            final List<User> users,
+            final List<Album> albums,
+            final List<Photo> photos,
+            final List<Comment> comments) {
+        final var sortedPhotos = sortById(photos, Photo::getId);
+        final var sortedComments = sortById(comments, Comment::getId);
+        return new MirrorSnapshot(
+                List.copyOf(users),
+                List.copyOf(albums),
+                PhotoColumns.of(sortedPhotos),
+                sortedComments,
+                LongRangeIndex.build(albums, Album::getUserId),
+                LongRangeIndex.build(sortedPhotos, Photo::getAlbumId),
+                index(sortedComments, Comment::getName),
+                index(sortedComments, Comment::getEmail),
+                ids(sortedPhotos, Photo::getId),
+                ids(sortedComments, Comment::getId)
+        );
+    }
+
+
+    /**
+     * Retrieves the {@link Album}s belonging to the given user.
+     *
+     * @param userId The user's id.
+     * @return The user's {@link Album}s.
+     */
+    List<Album> getUserAlbums(final Long userId) {
+        return userId == null ? Collections.emptyList() : albumsByUserId.view(albums, userId);
+    }
+
+    /**
+     * Retrieves the {@link Photo}s belonging to the given albums, in the order in which albums are requested.
+     *
+     * @param albumIds The albums' ids.
+     * @return The albums' {@link Photo}s.
+     */
+    List<Photo> getAlbumsPhotos(final List<Long> albumIds) {
+        final var albumsPhotos = new ArrayList<Photo>();
+        final var added = new LongIntHashMap(albumIds.size());
+        for (final var albumId : albumIds) {
+            if (albumId != null && added.get(albumId) == LongIntHashMap.ABSENT) {
+                added.put(albumId, 0);
+                albumsPhotos.addAll(photosByAlbumId.view(photos, albumId));
+            }
+        }
+        return albumsPhotos;
+    }
+
+    /**
+     * Retrieves a page of {@link Photo}s.
+     *
+     * @param page The requested page.
+     * @return The {@link Photo}s in the page.
+     */
+    List<Photo> getPhotos(final PageRequest page) {
+        return page(photos, i -> photoIds[i], page);
+    }
+
+    /**
+     * Retrieves the {@link Comment}s matching exactly the given filters (as upstream does).
+     * A {@code null} filter is not applied.
+     *
+     * @param name  Filter for name.
+     * @param email Filter for email.
+     * @return The {@link Comment}s matching the criteria.
+     */
+    List<Comment> getComments(final String name, final String email) {
+        if (name == null && email == null) {
+            return comments;
+        }
+        if (name == null) {
+            return commentsByEmail.getOrDefault(email, Collections.emptyList());
+        }
+        final var byName = commentsByName.getOrDefault(name, Collections.emptyList());
+        return email == null ?
+                byName :
+                byName.stream().filter(comment -> email.equals(comment.getEmail())).collect(Collectors.toList());
+    }
+
+    /**
+     * Retrieves a page of the {@link Comment}s matching exactly the given filters (as upstream does).
+     * A {@code null} filter is not applied.
+     *
+     * @param name  Filter for name.
+     * @param email Filter for email.
+     * @param page  The requested page.
+     * @return The {@link Comment}s in the page.
+     */
+    List<Comment> getComments(final String name, final String email, final PageRequest page) {
+        if (name == null && email == null) {
+            return page(comments, i -> commentIds[i], page);
+        }
+        final var matching = getComments(name, email); // Sorted by id, as indexes are built from sorted comments
+        return page(matching, i -> idOf(matching.get(i).getId()), page);
+    }
+
+
+    /**
+     * Returns the page of the given {@code elements}, which must be sorted by id.
+     *
+     * @param elements The elements, sorted by id.
+     * @param idAt     A function that returns the id of the element at a given index.
+     * @param page     The requested page.
+     * @param <T>      The type of elements.
+     * @return The elements in the page.
+     */
+    private static <T> List<T> page(final List<T> elements, final IntToLongFunction idAt, final PageRequest page) {
+        // Binary search for the first element whose id is greater than the cursor (skipping null ids)
+        final var after = page.getAfter() == null ? Long.MIN_VALUE : page.getAfter();
+        var from = 0;
+        var to = elements.size();
+        while (from < to) {
+            final var middle = (from + to) >>> 1;
+            if (idAt.applyAsLong(middle) <= after) {
+                from = middle + 1;
+            } else {
+                to = middle;
+            }
+        }
+        return elements.subList(from, (int) Math.min(elements.size(), (long) from + Math.max(0, page.getLimit())));
+    }
+
+    private static <T> List<T> sortById(final List<T> elements, final Function<T, Long> idExtractor) {
+        return elements.stream()
+                .sorted(Comparator.comparing(idExtractor, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    private static <T> long[] ids(final List<T> sortedElements, final Function<T, Long> idExtractor) {
+        return sortedElements.stream().map(idExtractor).mapToLong(MirrorSnapshot::idOf).toArray();
+    }
+
+    private static long idOf(final Long id) {
+        return id == null ? Long.MIN_VALUE : id; // Null ids are sorted first
+    }
+
+    private static <K, T> Map<K, List<T>> index(final List<T> elements, final Function<T, K> keyExtractor) {
+        return elements.stream()
+                .filter(element -> Objects.nonNull(keyExtractor.apply(element)))
+                .collect(Collectors.collectingAndThen(
+                        Collectors.groupingBy(keyExtractor, Collectors.toUnmodifiableList()),
+                        Collections::unmodifiableMap
+                ));
+    }
+}
@@ -0,0 +1,336 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import com.github.juanmbellini.pocs.quarkus.models.Address;
+import com.github.juanmbellini.pocs.quarkus.models.Album;
+import com.github.juanmbellini.pocs.quarkus.models.Comment;
+import com.github.juanmbellini.pocs.quarkus.models.Company;
+import com.github.juanmbellini.pocs.quarkus.models.GeoLocation;
+import com.github.juanmbellini.pocs.quarkus.models.Photo;
+import com.github.juanmbellini.pocs.quarkus.models.User;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Persists {@link MirrorSnapshot}s in a compact binary file, so that the mirror can be warm-started from disk.
+ * The file starts with a magic number and a format version, followed by the users, albums, photos and comments
+ * (each section prefixed with its size), and ends with a CRC32 of everything before it.
+ * Strings are stored as their UTF-8 length and bytes, and nullable values are prefixed with a presence byte.
+ * Files are written to a uniquely named temporary file that is then atomically moved, and read through a memory-mapped
+ * {@link FileChannel}, so that loading is a sequential scan of the page cache without any parsing.
+ */
+final class MirrorSnapshotFile {
+
+    private MirrorSnapshotFile() {
+    }
+
+
+    /**
+     * Writes the given {@code snapshot} to the given {@code path}, replacing its content.
+     *
+     * @param snapshot The {@link MirrorSnapshot} to be written.
+     * @param path     The file's {@link Path}.
+     * @throws IOException If the file can not be written.
+     */
+    static void write(final MirrorSnapshot snapshot, final Path path) throws IOException {
+        final var absolutePath = path.toAbsolutePath();
+        Files.createDirectories(absolutePath.getParent());
+        // Each writer gets its own temporary file, so that concurrent writers can not interleave their content
+        final var temporary = Files.createTempFile(absolutePath.getParent(), absolutePath.getFileName() + ".", ".tmp");
+        try {
+            try (final var file = new BufferedOutputStream(Files.newOutputStream(temporary), BUFFER_SIZE)) {
+                final var checksum = new CRC32();
+                final var output = new DataOutputStream(new CheckedOutputStream(file, checksum));
+                output.writeInt(MAGIC);
+                output.writeShort(VERSION);
+                writeAll(output, snapshot.getUsers(), MirrorSnapshotFile::writeUser);
+                writeAll(output, snapshot.getAlbums(), MirrorSnapshotFile::writeAlbum);
+                writeAll(output, snapshot.getPhotos(), MirrorSnapshotFile::writePhoto);
+                writeAll(output, snapshot.getComments(), MirrorSnapshotFile::writeComment);
+                output.flush();
+                new DataOutputStream(file).writeLong(checksum.getValue()); // Not part of the checksum
+            }
+            Files.move(temporary, absolutePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary); // Only left behind if writing or moving failed
+        }
+    }
+
+    /**
+     * Reads a {@link MirrorSnapshot} from the given {@code path}.
+     *
+     * @param path The file's {@link Path}.
+     * @return The read {@link MirrorSnapshot}.
+     * @throws IOException If the file can not be read, or if it is not a valid snapshot file.
+     */
+    static MirrorSnapshot read(final Path path) throws IOException {
+        try (final var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final var size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Invalid snapshot file size: " + size);
+            }
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        }
+    }
+
+    /**
+     * Reads a {@link MirrorSnapshot} from the given {@code buffer}, which must contain a whole snapshot file
+     * (from its position to its limit).
+     *
+     * @param buffer The {@link ByteBuffer} with the file's content.
+     * @return The read {@link MirrorSnapshot}.
+     * @throws IOException If the content is not a valid snapshot file.
+     */
+    static MirrorSnapshot read(final ByteBuffer buffer) throws IOException {
+        final var content = buffer.slice();
+        final var size = content.limit();
+        if (size < HEADER_SIZE + CHECKSUM_SIZE) {
+            throw new IOException("Invalid snapshot file size: " + size);
+        }
+        final var checksum = new CRC32();
+        checksum.update(content.duplicate().limit(size - CHECKSUM_SIZE));
+        if (checksum.getValue() != content.getLong(size - CHECKSUM_SIZE)) {
+            throw new IOException("Corrupted snapshot file (checksum mismatch)");
+        }
+        if (content.getInt() != MAGIC || content.getShort() != VERSION) {
+            throw new IOException("Not a snapshot file, or written with another format version");
+        }
+        try {
+            return MirrorSnapshot.build(
+                    readAll(content, MirrorSnapshotFile::readUser),
+                    readAll(content, MirrorSnapshotFile::readAlbum),
+                    readAll(content, MirrorSnapshotFile::readPhoto),
+                    readAll(content, MirrorSnapshotFile::readComment)
+            );
+        } catch (final BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Malformed snapshot file", e);
+        }
+    }
+
+
+    private static <T> void writeAll(
+            final DataOutputStream output,
+            final List<T> elements,
+            final Writer<T> writer) throws IOException {
+        output.writeInt(elements.size());
+        for (final var element : elements) {
+            writer.write(output, element);
+        }
+    }
+
+    private static void writeUser(final DataOutputStream output, final User user) throws IOException {
+        writeLong(output, user.getId());
+        writeString(output, user.getName());
+        writeString(output, user.getUsername());
+        writeString(output, user.getEmail());
+        writeString(output, user.getPhone());
+        writeString(output, user.getWebsite());
+        final var address = user.getAddress();
+        output.writeBoolean(address != null);
+        if (address != null) {
+            writeString(output, address.getStreet());
+            writeString(output, address.getSuite());
+            writeString(output, address.getCity());
+            writeString(output, address.getZipcode());
+            final var geoLocation = address.getGeoLocation();
+            output.writeBoolean(geoLocation != null);
+            if (geoLocation != null) {
+                writeDouble(output, geoLocation.getLatitude());
+                writeDouble(output, geoLocation.getLongitude());
+            }
+        }
+        final var company = user.getCompany();
+        output.writeBoolean(company != null);
+        if (company != null) {
+            writeString(output, company.getName());
+            writeString(output, company.getCatchPhrase());
+            writeString(output, company.getBs());
+        }
+    }
+
+    private static void writeAlbum(final DataOutputStream output, final Album album) throws IOException {
+        writeLong(output, album.getId());
+        writeLong(output, album.getUserId());
+        writeString(output, album.getTitle());
+    }
+
+    private static void writePhoto(final DataOutputStream output, final Photo photo) throws IOException {
+        writeLong(output, photo.getId());
+        writeLong(output, photo.getAlbumId());
+        writeString(output, photo.getTitle());
+        writeString(output, photo.getUrl());
+        writeString(output, photo.getThumbnailUrl());
+    }
+
+    private static void writeComment(final DataOutputStream output, final Comment comment) throws IOException {
+        writeLong(output, comment.getId());
+        writeLong(output, comment.getPostId());
+        writeString(output, comment.getName());
+        writeString(output, comment.getEmail());
+        writeString(output, comment.getBody());
+    }
+
+    private static void writeLong(final DataOutputStream output, final Long value) throws IOException {
+        output.writeBoolean(value != null);
+        if (value != null) {
+            output.writeLong(value);
+        }
+    }
+
+    private static void writeDouble(final DataOutputStream output, final Double value) throws IOException {
+        output.writeBoolean(value != null);
+        if (value != null) {
+            output.writeDouble(value);
+        }
+    }
+
+    private static void writeString(final DataOutputStream output, final String value) throws IOException {
+        if (value == null) {
+            output.writeInt(-1);
+            return;
+        }
+        final var bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+
+    private static <T> List<T> readAll(final ByteBuffer buffer, final Function<ByteBuffer, T> reader) {
+        final var size = buffer.getInt();
+        if (size < 0 || size > buffer.remaining()) {
+            throw new IllegalArgumentException("Invalid section size: " + size);
+        }
+        final var elements = new ArrayList<T>(size);
+        for (var i = 0; i < size; i++) {
+            elements.add(reader.apply(buffer));
+        }
+        return elements;
+    }
+
+    private static User readUser(final ByteBuffer buffer) {
+        final var user = User.builder()
+                .id(readLong(buffer))
+                .name(readString(buffer))
+                .username(readString(buffer))
+                .email(readString(buffer))
+                .phone(readString(buffer))
+                .website(readString(buffer));
+        if (buffer.get() != 0) {
+            final var address = Address.builder()
+                    .street(readString(buffer))
+                    .suite(readString(buffer))
+                    .city(readString(buffer))
+                    .zipcode(readString(buffer));
+            if (buffer.get() != 0) {
+                address.geoLocation(GeoLocation.builder()
+                        .latitude(readDouble(buffer))
+                        .longitude(readDouble(buffer))
+                        .build());
+            }
+            user.address(address.build());
+        }
+        if (buffer.get() != 0) {
+            user.company(Company.builder()
+                    .name(readString(buffer))
+                    .catchPhrase(readString(buffer))
+                    .bs(readString(buffer))
+                    .build());
+        }
+        return user.build();
+    }
+
+    private static Album readAlbum(final ByteBuffer buffer) {
+        return Album.builder()
+                .id(readLong(buffer))
+                .userId(readLong(buffer))
+                .title(readString(buffer))
+                .build();
+    }
+
+    private static Photo readPhoto(final ByteBuffer buffer) {
+        return Photo.builder()
+                .id(readLong(buffer))
+                .albumId(readLong(buffer))
+                .title(readString(buffer))
+                .url(readString(buffer))
+                .thumbnailUrl(readString(buffer))
+                .build();
+    }
+
+    private static Comment readComment(final ByteBuffer buffer) {
+        return Comment.builder()
+                .id(readLong(buffer))
+                .postId(readLong(buffer))
+                .name(readString(buffer))
+                .email(readString(buffer))
+                .body(readString(buffer))
+                .build();
+    }
+
+    private static Long readLong(final ByteBuffer buffer) {
+        return buffer.get() == 0 ? null : buffer.getLong();
+    }
+
+    private static Double readDouble(final ByteBuffer buffer) {
+        return buffer.get() == 0 ? null : buffer.getDouble();
+    }
+
+    private static String readString(final ByteBuffer buffer) {
+        final var length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > buffer.remaining()) {
+            throw new IllegalArgumentException("Invalid string length: " + length);
+        }
+        final var bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+
+    private static final int MAGIC = 0x4A504D53; // "JPMS"
+    private static final short VERSION = 1;
+    private static final int HEADER_SIZE = Integer.BYTES + Short.BYTES;
+    private static final int CHECKSUM_SIZE = Long.BYTES;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+
+    /**
+     * Writes an element.
+     */
+    @FunctionalInterface
+    private interface Writer<T> {
+        void write(final DataOutputStream output, final T element) throws IOException;
+    }
+}
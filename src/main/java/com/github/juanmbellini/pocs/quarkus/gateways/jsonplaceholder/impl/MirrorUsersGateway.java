@@ -0,0 +1,51 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.UsersGateway;
+import com.github.juanmbellini.pocs.quarkus.models.User;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * {@link UsersGateway} backed by the {@link JsonPlaceholderMirror}.
+ * Calls go to the {@code fallback} gateway until the mirror is loaded.
+ */
+@AllArgsConstructor
+class MirrorUsersGateway implements UsersGateway {
+
+    private final JsonPlaceholderMirror mirror;
+    private final UsersGateway fallback;
+
+
+    @Override
+    public List<User> getUsers() {
+        return mirror.getSnapshot()
+                .map(MirrorSnapshot::getUsers)
+                .orElseGet(fallback::getUsers);
+    }
+
+    @Override
+    public CompletionStage<List<User>> getUsersAsync() {
+        return mirror.getSnapshot()
+                .<CompletionStage<List<User>>>map(snapshot -> CompletableFuture.completedFuture(snapshot.getUsers()))
+                .orElseGet(fallback::getUsersAsync);
+    }
+}
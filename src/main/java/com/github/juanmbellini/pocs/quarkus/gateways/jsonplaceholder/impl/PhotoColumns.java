@@ -0,0 +1,222 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import com.github.juanmbellini.pocs.quarkus.models.Photo;
+
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * A compact, immutable {@link List} of {@link Photo}s, stored by columns instead of as {@link Photo} objects.
+ * Ids and album ids are kept in {@code long[]}s, titles in a deduplicated string table, and urls split in a shared
+ * (deduplicated) prefix, up to the last {@code '/'}, and their own suffix. Strings are stored as UTF-8 bytes.
+ * {@link Photo}s are built lazily (i.e on {@link #get(int)}), so they are short-lived,
+ * while the retained heap is several times smaller than the one of a {@link List} of {@link Photo}s.
+ */
+final class PhotoColumns extends AbstractList<Photo> implements RandomAccess {
+
+    private final long[] ids;
+    private final BitSet nullIds;
+    private final long[] albumIds;
+    private final BitSet nullAlbumIds;
+    private final int[] titleRefs;
+    private final StringTable titles;
+    private final PrefixedStrings urls;
+    private final PrefixedStrings thumbnailUrls;
+
+
+    private PhotoColumns(final List<Photo> photos) {
+        final var size = photos.size();
+        this.ids = new long[size];
+        this.nullIds = new BitSet();
+        this.albumIds = new long[size];
+        this.nullAlbumIds = new BitSet();
+        this.titleRefs = new int[size];
+        final var titlesBuilder = new StringTable.Builder(true);
+        final var urlsBuilder = new PrefixedStrings.Builder(size);
+        final var thumbnailUrlsBuilder = new PrefixedStrings.Builder(size);
+        for (var row = 0; row < size; row++) {
+            final var photo = photos.get(row);
+            setLong(ids, nullIds, row, photo.getId());
+            setLong(albumIds, nullAlbumIds, row, photo.getAlbumId());
+            titleRefs[row] = titlesBuilder.add(photo.getTitle());
+            urlsBuilder.add(photo.getUrl());
+            thumbnailUrlsBuilder.add(photo.getThumbnailUrl());
+        }
+        this.titles = titlesBuilder.build();
+        this.urls = urlsBuilder.build();
+        this.thumbnailUrls = thumbnailUrlsBuilder.build();
+    }
+
+
+    /**
+     * Stores the given {@link Photo}s by columns.
+     *
+     * @param photos The {@link Photo}s.
+     * @return A {@link PhotoColumns} with the given {@link Photo}s, in the same order.
+     */
+    static PhotoColumns of(final List<Photo> photos) {
+        return photos instanceof PhotoColumns ? (PhotoColumns) photos : new PhotoColumns(photos);
+    }
+
+    @Override
+    public Photo get(final int index) {
+        return Photo.builder()
+                .id(nullIds.get(index) ? null : ids[index])
+                .albumId(nullAlbumIds.get(index) ? null : albumIds[index])
+                .title(titles.get(titleRefs[index]))
+                .url(urls.get(index))
+                .thumbnailUrl(thumbnailUrls.get(index))
+                .build();
+    }
+
+    @Override
+    public int size() {
+        return ids.length;
+    }
+
+
+    private static void setLong(final long[] column, final BitSet nulls, final int row, final Long value) {
+        if (value == null) {
+            nulls.set(row);
+        } else {
+            column[row] = value;
+        }
+    }
+
+
+    /**
+     * Strings stored back to back as UTF-8 bytes, referenced by their position in the table.
+     */
+    private static final class StringTable {
+        private final byte[] data;
+        private final int[] offsets;
+
+        private StringTable(final byte[] data, final int[] offsets) {
+            this.data = data;
+            this.offsets = offsets;
+        }
+
+        /**
+         * @param ref The string's reference, or a negative one for {@code null}.
+         * @return The referenced string.
+         */
+        private String get(final int ref) {
+            if (ref < 0) {
+                return null;
+            }
+            return new String(data, offsets[ref], offsets[ref + 1] - offsets[ref], StandardCharsets.UTF_8);
+        }
+
+        private static final class Builder {
+            private final Map<String, Integer> refs;
+            private byte[] data = new byte[64];
+            private int[] offsets = new int[16];
+            private int size;
+
+            /**
+             * @param deduplicate Whether equal strings share the same reference.
+             */
+            private Builder(final boolean deduplicate) {
+                this.refs = deduplicate ? new HashMap<>() : null;
+            }
+
+            /**
+             * @param value The string to be added.
+             * @return Its reference (negative for {@code null}).
+             */
+            private int add(final String value) {
+                if (value == null) {
+                    return -1;
+                }
+                if (refs != null) {
+                    final var existing = refs.get(value);
+                    if (existing != null) {
+                        return existing;
+                    }
+                }
+                final var bytes = value.getBytes(StandardCharsets.UTF_8);
+                final var start = offsets[size];
+                if (start + bytes.length > data.length) {
+                    data = Arrays.copyOf(data, Math.max(data.length * 2, start + bytes.length));
+                }
+                System.arraycopy(bytes, 0, data, start, bytes.length);
+                if (size + 2 > offsets.length) {
+                    offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                }
+                offsets[size + 1] = start + bytes.length;
+                if (refs != null) {
+                    refs.put(value, size);
+                }
+                return size++;
+            }
+
+            private StringTable build() {
+                return new StringTable(Arrays.copyOf(data, offsets[size]), Arrays.copyOf(offsets, size + 1));
+            }
+        }
+    }
+
+    /**
+     * A column of strings split in a shared prefix (up to the last {@code '/'}) and their own suffix.
+     */
+    private static final class PrefixedStrings {
+        private final int[] prefixRefs;
+        private final StringTable prefixes;
+        private final StringTable suffixes;
+
+        private PrefixedStrings(final int[] prefixRefs, final StringTable prefixes, final StringTable suffixes) {
+            this.prefixRefs = prefixRefs;
+            this.prefixes = prefixes;
+            this.suffixes = suffixes;
+        }
+
+        private String get(final int row) {
+            final var prefixRef = prefixRefs[row];
+            return prefixRef < 0 ? null : prefixes.get(prefixRef) + suffixes.get(row);
+        }
+
+        private static final class Builder {
+            private final int[] prefixRefs;
+            private final StringTable.Builder prefixes = new StringTable.Builder(true);
+            private final StringTable.Builder suffixes = new StringTable.Builder(false);
+            private int size;
+
+            private Builder(final int capacity) {
+                this.prefixRefs = new int[capacity];
+            }
+
+            private void add(final String value) {
+                // Suffixes are added even for nulls, so that a row's suffix reference is the row itself
+                final var split = value == null ? 0 : value.lastIndexOf('/') + 1;
+                prefixRefs[size++] = value == null ? -1 : prefixes.add(value.substring(0, split));
+                suffixes.add(value == null ? "" : value.substring(split));
+            }
+
+            private PrefixedStrings build() {
+                return new PrefixedStrings(prefixRefs, prefixes.build(), suffixes.build());
+            }
+        }
+    }
+}
@@ -21,11 +21,15 @@ import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
 import java.util.List;
+import java.util.concurrent.CompletionStage;
 
 
 class PhotosRestClient {
@@ -37,7 +41,16 @@ class PhotosRestClient {
         @GET
         @Path("/photos")
         @Produces(MediaType.APPLICATION_JSON)
-        List<Photo> perform();
+        Response perform(
+                @HeaderParam(HttpHeaders.IF_NONE_MATCH) final String ifNoneMatch,
+                @HeaderParam(HttpHeaders.IF_MODIFIED_SINCE) final String ifModifiedSince);
+
+        @GET
+        @Path("/photos")
+        @Produces(MediaType.APPLICATION_JSON)
+        CompletionStage<Response> performAsync(
+                @HeaderParam(HttpHeaders.IF_NONE_MATCH) final String ifNoneMatch,
+                @HeaderParam(HttpHeaders.IF_MODIFIED_SINCE) final String ifModifiedSince);
     }
 
     @ApplicationScoped
@@ -48,5 +61,31 @@ class PhotosRestClient {
         @Path("/photos")
         @Produces(MediaType.APPLICATION_JSON)
         List<Photo> perform(@QueryParam("albumId") final List<Long> id);
+
+        @GET
+        @Path("/photos")
+        @Produces(MediaType.APPLICATION_JSON)
+        CompletionStage<List<Photo>> performAsync(@QueryParam("albumId") final List<Long> id);
+    }
+
+    @ApplicationScoped
+    @RegisterRestClient(baseUri = "https://jsonplaceholder.typicode.com")
+    public interface GetPhotosPage {
+
+        @GET
+        @Path("/photos")
+        @Produces(MediaType.APPLICATION_JSON)
+        List<Photo> perform(
+                @QueryParam("id_gte") final Long minId,
+                @QueryParam("_sort") final String sort,
+                @QueryParam("_limit") final int limit);
+
+        @GET
+        @Path("/photos")
+        @Produces(MediaType.APPLICATION_JSON)
+        CompletionStage<List<Photo>> performAsync(
+                @QueryParam("id_gte") final Long minId,
+                @QueryParam("_sort") final String sort,
+                @QueryParam("_limit") final int limit);
     }
 }
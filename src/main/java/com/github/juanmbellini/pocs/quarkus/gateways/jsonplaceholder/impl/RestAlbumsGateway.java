@@ -22,26 +22,44 @@ import lombok.AllArgsConstructor;
 import lombok.NonNull;
 
 import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.Typed;
 import java.util.List;
+import java.util.concurrent.CompletionStage;
 
 /**
  * JSON Placeholder's REST albums gateway.
  */
 @ApplicationScoped
 @AllArgsConstructor
+@Typed(RestAlbumsGateway.class) // Exposed as AlbumsGateway through JsonPlaceholderGatewaysProducer
 public class RestAlbumsGateway implements AlbumsGateway {
 
     private final MicroProfileGetAlbums microProfileGetAlbums;
-    private final MicroProfileGetUserAlbums microProfileGetUserAlbums;
+    private final UserAlbumsBatcher userAlbumsBatcher;
+    private final SingleFlights singleFlights;
 
 
     @Override
     public List<Album> getAlbums() {
-        return microProfileGetAlbums.perform();
+        return singleFlights.execute("albums", microProfileGetAlbums::perform);
     }
 
     @Override
     public List<Album> getUserAlbums(@NonNull final Long userId) {
-        return microProfileGetUserAlbums.perform(userId);
+        return singleFlights.execute("user-albums", () -> userAlbumsBatcher.load(userId), userId);
+    }
+
+    @Override
+    public CompletionStage<List<Album>> getAlbumsAsync() {
+        return singleFlights.executeAsync("albums", microProfileGetAlbums::performAsync);
+    }
+
+    @Override
+    public CompletionStage<List<Album>> getUserAlbumsAsync(@NonNull final Long userId) {
+        return singleFlights.executeAsync(
+                "user-albums",
+                () -> userAlbumsBatcher.loadAsync(userId),
+                userId
+        );
     }
 }
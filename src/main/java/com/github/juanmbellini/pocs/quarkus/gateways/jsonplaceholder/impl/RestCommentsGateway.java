@@ -16,27 +16,188 @@
 
 package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.CommentsGateway;
 import com.github.juanmbellini.pocs.quarkus.models.Comment;
+import com.github.juanmbellini.pocs.quarkus.models.PageRequest;
 import lombok.AllArgsConstructor;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 
 import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.Typed;
+import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 /**
  * JSON Placeholder's REST comments gateway.
  */
 @ApplicationScoped
 @AllArgsConstructor
+@Typed(RestCommentsGateway.class) // Exposed as CommentsGateway through JsonPlaceholderGatewaysProducer
 public class RestCommentsGateway implements CommentsGateway {
 
     @RestClient
     private final CommentsRestClient.GetComments getCommentsRestClient;
+    @RestClient
+    private final CommentsRestClient.GetAllComments getAllCommentsRestClient;
+    @RestClient
+    private final CommentsRestClient.GetCommentsPage getCommentsPageRestClient;
+    private final SingleFlights singleFlights;
+    private final ConditionalRequests conditionalRequests;
+    private final GatewayResilience gatewayResilience;
+    private final GatewayHedging gatewayHedging;
 
 
     @Override
     public List<Comment> getComments(final String name, final String email) {
-        return getCommentsRestClient.perform(name, email);
+        if (name == null && email == null) {
+            // Only the unfiltered collection is fetched conditionally, in order to keep validators' state bounded
+            return singleFlights.execute(
+                    "comments",
+                    () -> MicroProfileRestClientHelper.wrapForGatewayException(
+                            gatewayResilience,
+                            "comments",
+                            () -> conditionalRequests.fetch(
+                                    "comments",
+                                    getAllCommentsRestClient::perform,
+                                    RestCommentsGateway::parse
+                            )
+                    ),
+                    name,
+                    email
+            );
+        }
+        return singleFlights.execute(
+                "comments",
+                () -> MicroProfileRestClientHelper.wrapForGatewayException(
+                        gatewayResilience,
+                        "comments",
+                        () -> getCommentsRestClient.perform(name, email)
+                ),
+                name,
+                email
+        );
+    }
+
+    @Override
+    public CompletionStage<List<Comment>> getCommentsAsync(final String name, final String email) {
+        if (name == null && email == null) {
+            return singleFlights.executeAsync(
+                    "comments",
+                    () -> gatewayHedging.executeAsync(
+                            "comments",
+                            () -> MicroProfileRestClientHelper.wrapForGatewayExceptionAsync(
+                                    gatewayResilience,
+                                    "comments",
+                                    () -> conditionalRequests.fetchAsync(
+                                            "comments",
+                                            getAllCommentsRestClient::performAsync,
+                                            RestCommentsGateway::parse
+                                    )
+                            )
+                    ),
+                    name,
+                    email
+            );
+        }
+        return singleFlights.executeAsync(
+                "comments",
+                () -> gatewayHedging.executeAsync(
+                        "comments",
+                        () -> MicroProfileRestClientHelper.wrapForGatewayExceptionAsync(
+                                gatewayResilience,
+                                "comments",
+                                () -> getCommentsRestClient.performAsync(name, email)
+                        )
+                ),
+                name,
+                email
+        );
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The page is requested upstream (i.e {@code ?id_gte=<after + 1>&_sort=id&_limit=<limit>}).
+     */
+    @Override
+    public List<Comment> getComments(final String name, final String email, final PageRequest page) {
+        if (isPastLastId(page)) {
+            return List.of();
+        }
+        return singleFlights.execute(
+                "comments-page",
+                () -> MicroProfileRestClientHelper.wrapForGatewayException(
+                        gatewayResilience,
+                        "comments-page",
+                        () -> getCommentsPageRestClient.perform(name, email, minId(page), SORT_BY_ID, page.getLimit())
+                ),
+                name,
+                email,
+                page.getAfter(),
+                page.getLimit()
+        );
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The page is requested upstream (i.e {@code ?id_gte=<after + 1>&_sort=id&_limit=<limit>}).
+     */
+    @Override
+    public CompletionStage<List<Comment>> getCommentsAsync(
+            final String name,
+            final String email,
+            final PageRequest page) {
+        if (isPastLastId(page)) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        return singleFlights.executeAsync(
+                "comments-page",
+                () -> gatewayHedging.executeAsync(
+                        "comments-page",
+                        () -> MicroProfileRestClientHelper.wrapForGatewayExceptionAsync(
+                                gatewayResilience,
+                                "comments-page",
+                                () -> getCommentsPageRestClient.performAsync(
+                                        name,
+                                        email,
+                                        minId(page),
+                                        SORT_BY_ID,
+                                        page.getLimit()
+                                )
+                        )
+                ),
+                name,
+                email,
+                page.getAfter(),
+                page.getLimit()
+        );
     }
+
+
+    /**
+     * @return Whether the page starts after the greatest possible id (i.e it is empty, and {@code after + 1}
+     * would overflow).
+     */
+    private static boolean isPastLastId(final PageRequest page) {
+        return page.getAfter() != null && page.getAfter() == Long.MAX_VALUE;
+    }
+
+    private static Long minId(final PageRequest page) {
+        return page.getAfter() == null ? null : page.getAfter() + 1;
+    }
+
+    private static List<Comment> parse(final ObjectMapper objectMapper, final byte[] body) throws IOException {
+        return objectMapper.readValue(body, COMMENT_LIST_TYPE);
+    }
+
+
+    private static final String SORT_BY_ID = "id";
+
+    private static final TypeReference<List<Comment>> COMMENT_LIST_TYPE = new TypeReference<>() {
+    };
 }
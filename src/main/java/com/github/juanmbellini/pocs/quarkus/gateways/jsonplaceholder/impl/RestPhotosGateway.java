@@ -16,34 +16,230 @@
 
 package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
 
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.juanmbellini.pocs.quarkus.exceptions.GatewayException;
 import com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.PhotosGateway;
+import com.github.juanmbellini.pocs.quarkus.models.PageRequest;
 import com.github.juanmbellini.pocs.quarkus.models.Photo;
 import lombok.AllArgsConstructor;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 
 import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.Typed;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
 
 /**
  * JSON Placeholder's REST photos gateway.
  */
 @ApplicationScoped
 @AllArgsConstructor
+@Typed(RestPhotosGateway.class) // Exposed as PhotosGateway through JsonPlaceholderGatewaysProducer
 public class RestPhotosGateway implements PhotosGateway {
 
     @RestClient
     private final PhotosRestClient.GetPhotos getPhotos;
     @RestClient
     private final PhotosRestClient.GetAlbumPhotos getAlbumPhotos;
+    @RestClient
+    private final PhotosRestClient.GetPhotosPage getPhotosPage;
+    private final SingleFlights singleFlights;
+    private final ConditionalRequests conditionalRequests;
+    private final GatewayResilience gatewayResilience;
+    private final GatewayHedging gatewayHedging;
+    private final ObjectMapper objectMapper;
 
 
     @Override
     public List<Photo> getPhotos() {
-        return getPhotos.perform();
+        return singleFlights.execute(
+                "photos",
+                () -> MicroProfileRestClientHelper.wrapForGatewayException(
+                        gatewayResilience,
+                        "photos",
+                        () -> conditionalRequests.fetch("photos", getPhotos::perform, RestPhotosGateway::parse)
+                )
+        );
     }
 
     @Override
     public List<Photo> getAlbumsPhotos(final List<Long> albumIds) {
-        return getAlbumPhotos.perform(albumIds);
+        return singleFlights.execute(
+                "albums-photos",
+                () -> MicroProfileRestClientHelper.wrapForGatewayException(
+                        gatewayResilience,
+                        "albums-photos",
+                        () -> getAlbumPhotos.perform(albumIds)
+                ),
+                albumIds
+        );
+    }
+
+    @Override
+    public CompletionStage<List<Photo>> getPhotosAsync() {
+        return singleFlights.executeAsync(
+                "photos",
+                () -> gatewayHedging.executeAsync(
+                        "photos",
+                        () -> MicroProfileRestClientHelper.wrapForGatewayExceptionAsync(
+                                gatewayResilience,
+                                "photos",
+                                () -> conditionalRequests.fetchAsync(
+                                        "photos",
+                                        getPhotos::performAsync,
+                                        RestPhotosGateway::parse
+                                )
+                        )
+                )
+        );
+    }
+
+    @Override
+    public CompletionStage<List<Photo>> getAlbumsPhotosAsync(final List<Long> albumIds) {
+        return singleFlights.executeAsync(
+                "albums-photos",
+                () -> gatewayHedging.executeAsync(
+                        "albums-photos",
+                        () -> MicroProfileRestClientHelper.wrapForGatewayExceptionAsync(
+                                gatewayResilience,
+                                "albums-photos",
+                                () -> getAlbumPhotos.performAsync(albumIds)
+                        )
+                ),
+                albumIds
+        );
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The page is requested upstream (i.e {@code ?id_gte=<after + 1>&_sort=id&_limit=<limit>}).
+     */
+    @Override
+    public List<Photo> getPhotos(final PageRequest page) {
+        if (isPastLastId(page)) {
+            return List.of();
+        }
+        return singleFlights.execute(
+                "photos-page",
+                () -> MicroProfileRestClientHelper.wrapForGatewayException(
+                        gatewayResilience,
+                        "photos-page",
+                        () -> getPhotosPage.perform(minId(page), SORT_BY_ID, page.getLimit())
+                ),
+                page.getAfter(),
+                page.getLimit()
+        );
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The page is requested upstream (i.e {@code ?id_gte=<after + 1>&_sort=id&_limit=<limit>}).
+     */
+    @Override
+    public CompletionStage<List<Photo>> getPhotosAsync(final PageRequest page) {
+        if (isPastLastId(page)) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+
+        return singleFlights.executeAsync(
+                "photos-page",
+                () -> gatewayHedging.executeAsync(
+                        "photos-page",
+                        () -> MicroProfileRestClientHelper.wrapForGatewayExceptionAsync(
+                                gatewayResilience,
+                                "photos-page",
+                                () -> getPhotosPage.performAsync(minId(page), SORT_BY_ID, page.getLimit())
+                        )
+                ),
+                page.getAfter(),
+                page.getLimit()
+        );
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The upstream body is parsed token by token, and each {@link Photo} is handed to the {@code consumer}
+     * as soon as it is mapped, so heap usage does not depend on the amount of {@link Photo}s.
+     * As the body is consumed while it is being read, these calls are neither coalesced nor revalidated.
+     * If the {@code consumer} fails (e.g the client it writes to disconnected), the call is cancelled,
+     * so the failure does not count against upstream's health, and the {@code consumer}'s exception is thrown as is.
+     */
+    @Override
+    public void streamPhotos(final Consumer<Photo> consumer) {
+        try {
+            // Guarded as a separate endpoint, as the call lasts as long as the consumer takes
+            MicroProfileRestClientHelper.wrapForGatewayException(gatewayResilience, "photos-stream", () -> {
+                try (final var response = getPhotos.perform(null, null);
+                     final var body = response.readEntity(InputStream.class);
+                     final var parser = objectMapper.getFactory().createParser(body)) {
+                    if (parser.nextToken() != JsonToken.START_ARRAY) {
+                        throw new IOException("Expected a JSON array of photos");
+                    }
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        final var photo = objectMapper.readValue(parser, Photo.class);
+                        try {
+                            consumer.accept(photo);
+                        } catch (final RuntimeException e) {
+                            throw new ConsumerFailedException(e);
+                        }
+                    }
+                    return null;
+                } catch (final IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (final GatewayException e) {
+            if (e.getCause() instanceof ConsumerFailedException) {
+                throw (RuntimeException) e.getCause().getCause();
+            }
+            throw e;
+        }
+    }
+
+
+    /**
+     * @return Whether the page starts after the greatest possible id (i.e it is empty, and {@code after + 1}
+     * would overflow).
+     */
+    private static boolean isPastLastId(final PageRequest page) {
+        return page.getAfter() != null && page.getAfter() == Long.MAX_VALUE;
+    }
+
+    private static Long minId(final PageRequest page) {
+        return page.getAfter() == null ? null : page.getAfter() + 1;
+    }
+
+    private static List<Photo> parse(final ObjectMapper objectMapper, final byte[] body) throws IOException {
+        return objectMapper.readValue(body, PHOTO_LIST_TYPE);
+    }
+
+
+    private static final String SORT_BY_ID = "id";
+
+    private static final TypeReference<List<Photo>> PHOTO_LIST_TYPE = new TypeReference<>() {
+    };
+
+
+    /**
+     * Cancels a streaming call whose consumer failed (i.e a failure that is not upstream's),
+     * carrying the consumer's exception as its cause.
+     */
+    private static final class ConsumerFailedException extends CancellationException {
+
+        private ConsumerFailedException(final RuntimeException cause) {
+            super("The consumer of the stream failed");
+            initCause(cause);
+        }
     }
 }
@@ -21,20 +21,29 @@ import com.github.juanmbellini.pocs.quarkus.models.User;
 import lombok.AllArgsConstructor;
 
 import java.util.List;
+import java.util.concurrent.CompletionStage;
 import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.Typed;
 
 /**
  * JSON Placeholder's REST users gateway.
  */
 @ApplicationScoped
 @AllArgsConstructor
+@Typed(RestUsersGateway.class) // Exposed as UsersGateway through JsonPlaceholderGatewaysProducer
 public class RestUsersGateway implements UsersGateway {
 
     private final MicroProfileGetUsers microProfileGetUsers;
+    private final SingleFlights singleFlights;
 
 
     @Override
     public List<User> getUsers() {
-        return microProfileGetUsers.perform();
+        return singleFlights.execute("users", microProfileGetUsers::perform);
+    }
+
+    @Override
+    public CompletionStage<List<User>> getUsersAsync() {
+        return singleFlights.executeAsync("users", microProfileGetUsers::performAsync);
     }
 }
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * How many times a call is attempted, and how long to wait between attempts:
+ * exponential backoff with full jitter (i.e a random delay between zero and {@code baseDelay * 2^(attempt - 1)},
+ * capped at {@code maxDelay}), so that clients that failed together do not retry together.
+ */
+@AllArgsConstructor
+class RetryPolicy {
+
+    @Getter
+    private final int maxAttempts;
+    private final long baseDelayNanos;
+    private final long maxDelayNanos;
+
+
+    /**
+     * Computes how long to wait before the next attempt.
+     *
+     * @param attempt The attempt that just failed (starting from 1).
+     * @return The delay, in nanoseconds.
+     */
+    long backoffNanos(final int attempt) {
+        final var exponential = baseDelayNanos << Math.min(attempt - 1, MAX_SHIFT);
+        final var ceiling = Math.min(maxDelayNanos, exponential < 0 ? maxDelayNanos : exponential);
+        return ceiling <= 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+
+    private static final int MAX_SHIFT = 30;
+}
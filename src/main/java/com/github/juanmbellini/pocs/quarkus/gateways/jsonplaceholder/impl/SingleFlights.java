@@ -0,0 +1,159 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.eclipse.microprofile.metrics.Counter;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.Tag;
+
+import javax.enterprise.context.ApplicationScoped;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent gateway calls targeting the same endpoint with the same parameters,
+ * so that they share a single in-flight upstream request and its deserialized result.
+ * Note that the result instance is shared among all the coalesced callers, so it must be treated as read-only.
+ */
+@ApplicationScoped
+@RequiredArgsConstructor
+class SingleFlights {
+
+    private final MetricRegistry metricRegistry;
+
+    private final ConcurrentMap<List<Object>, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Counter> originatingCounters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Counter> coalescedCounters = new ConcurrentHashMap<>();
+
+
+    /**
+     * Performs the given blocking {@code operation}, unless there is already an in-flight one for the same
+     * {@code endpoint} and {@code params}, in which case this method waits for it and returns its result.
+     *
+     * @param endpoint  The endpoint being called.
+     * @param operation The blocking operation performing the upstream call.
+     * @param params    The parameters of the call.
+     * @param <T>       The type of result.
+     * @return The result of the operation.
+     */
+    <T> T execute(final String endpoint, final Supplier<T> operation, final Object... params) {
+        final var key = buildKey(endpoint, params);
+        final var promise = new CompletableFuture<Object>();
+        final var existing = inFlight.putIfAbsent(key, promise);
+        if (existing != null) {
+            coalescedCounter(endpoint).inc();
+            return join(existing);
+        }
+        originatingCounter(endpoint).inc();
+        try {
+            final var result = operation.get();
+            promise.complete(result);
+            return result;
+        } catch (final RuntimeException | Error e) {
+            promise.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, promise);
+        }
+    }
+
+    /**
+     * Performs the given non-blocking {@code operation}, unless there is already an in-flight one for the same
+     * {@code endpoint} and {@code params}, in which case the returned stage completes with its result.
+     *
+     * @param endpoint  The endpoint being called.
+     * @param operation The non-blocking operation performing the upstream call.
+     * @param params    The parameters of the call.
+     * @param <T>       The type of result.
+     * @return A {@link CompletionStage} that completes with the result of the operation.
+     */
+    <T> CompletionStage<T> executeAsync(
+            final String endpoint,
+            final Supplier<CompletionStage<T>> operation,
+            final Object... params) {
+        final var key = buildKey(endpoint, params);
+        final var promise = new CompletableFuture<Object>();
+        final var existing = inFlight.putIfAbsent(key, promise);
+        if (existing != null) {
+            coalescedCounter(endpoint).inc();
+            return cast(existing.copy());
+        }
+        originatingCounter(endpoint).inc();
+        try {
+            operation.get().whenComplete((result, throwable) -> {
+                inFlight.remove(key, promise);
+                if (throwable == null) {
+                    promise.complete(result);
+                } else {
+                    promise.completeExceptionally(throwable);
+                }
+            });
+        } catch (final RuntimeException e) {
+            inFlight.remove(key, promise);
+            promise.completeExceptionally(e);
+        }
+        return cast(promise.copy());
+    }
+
+
+    private Counter originatingCounter(final String endpoint) {
+        return originatingCounters.computeIfAbsent(endpoint, ignored -> buildCounter(endpoint, "originating"));
+    }
+
+    private Counter coalescedCounter(final String endpoint) {
+        return coalescedCounters.computeIfAbsent(endpoint, ignored -> buildCounter(endpoint, "coalesced"));
+    }
+
+    private Counter buildCounter(final String endpoint, final String kind) {
+        return metricRegistry.counter(
+                "jsonplaceholder.gateway.calls",
+                new Tag("endpoint", endpoint),
+                new Tag("kind", kind)
+        );
+    }
+
+    private static List<Object> buildKey(final String endpoint, final Object... params) {
+        final var key = new Object[params.length + 1];
+        key[0] = endpoint;
+        System.arraycopy(params, 0, key, 1, params.length);
+        return Arrays.asList(key); // Allows null params (i.e unused filters)
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T join(final CompletableFuture<Object> future) {
+        try {
+            return (T) future.join();
+        } catch (final CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> CompletionStage<T> cast(final CompletableFuture<Object> future) {
+        return (CompletionStage<T>) (CompletionStage<?>) future;
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+/**
+ * A token bucket that caps extra upstream calls (e.g hedges or retries) to a ratio of the regular ones:
+ * each regular call deposits {@code ratio} tokens (up to {@code maxTokens}), and each extra call withdraws one.
+ */
+class TokenBudget {
+
+    private final double ratio;
+    private final double maxTokens;
+
+    private double tokens;
+
+
+    TokenBudget(final double ratio, final double maxTokens) {
+        this.ratio = ratio;
+        this.maxTokens = maxTokens;
+        this.tokens = maxTokens;
+    }
+
+
+    /**
+     * Records a regular call, depositing {@code ratio} tokens.
+     */
+    synchronized void deposit() {
+        tokens = Math.min(maxTokens, tokens + ratio);
+    }
+
+    /**
+     * Requests permission to perform an extra call.
+     *
+     * @return {@code true} if a token was withdrawn, or {@code false} if the budget is exhausted.
+     */
+    synchronized boolean tryWithdraw() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens--;
+        return true;
+    }
+}
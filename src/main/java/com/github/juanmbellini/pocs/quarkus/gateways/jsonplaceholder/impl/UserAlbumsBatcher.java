@@ -0,0 +1,157 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import com.github.juanmbellini.pocs.quarkus.models.Album;
+import lombok.RequiredArgsConstructor;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import javax.enterprise.context.ApplicationScoped;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Batches user albums lookups (DataLoader style): lookups arriving within a small time window
+ * ({@code jsonplaceholder.albums.batching.window-millis}) are sent upstream as a single
+ * {@code /albums?userId=1&userId=2&...} call, whose result is then sliced and handed to each caller.
+ * A batch is dispatched earlier if it reaches {@code jsonplaceholder.albums.batching.max-batch-size} users.
+ * When batching is disabled (the default), each lookup is performed on its own. Note that when it is enabled,
+ * every lookup waits for the window, even if there is no other lookup to batch it with.
+ */
+@ApplicationScoped
+@RequiredArgsConstructor
+class UserAlbumsBatcher {
+
+    private final MicroProfileGetUserAlbums microProfileGetUserAlbums;
+    @ConfigProperty(name = "jsonplaceholder.albums.batching.enabled", defaultValue = "false")
+    private final boolean enabled;
+    @ConfigProperty(name = "jsonplaceholder.albums.batching.window-millis", defaultValue = "5")
+    private final long windowMillis;
+    @ConfigProperty(name = "jsonplaceholder.albums.batching.max-batch-size", defaultValue = "50")
+    private final int maxBatchSize;
+
+    private final Object lock = new Object();
+    private Map<Long, CompletableFuture<List<Album>>> pending = new LinkedHashMap<>();
+    private long generation;
+
+
+    /**
+     * Looks up the given user's albums, blocking until they are retrieved.
+     *
+     * @param userId The user's id.
+     * @return The user's {@link Album}s.
+     */
+    List<Album> load(final long userId) {
+        if (!enabled) {
+            return microProfileGetUserAlbums.perform(userId);
+        }
+        try {
+            return loadAsync(userId).toCompletableFuture().join();
+        } catch (final CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Looks up the given user's albums, without blocking the calling thread.
+     *
+     * @param userId The user's id.
+     * @return A {@link CompletionStage} that completes with the user's {@link Album}s.
+     */
+    CompletionStage<List<Album>> loadAsync(final long userId) {
+        if (!enabled) {
+            return microProfileGetUserAlbums.performAsync(userId);
+        }
+        final CompletableFuture<List<Album>> future;
+        Map<Long, CompletableFuture<List<Album>>> full = null;
+        synchronized (lock) {
+            final var existing = pending.get(userId);
+            if (existing != null) {
+                return existing.copy();
+            }
+            future = new CompletableFuture<>();
+            pending.put(userId, future);
+            if (pending.size() == 1) {
+                final var batchGeneration = generation;
+                CompletableFuture.runAsync(
+                        () -> flush(batchGeneration),
+                        CompletableFuture.delayedExecutor(windowMillis, TimeUnit.MILLISECONDS)
+                );
+            }
+            if (pending.size() >= maxBatchSize) {
+                full = takePending();
+            }
+        }
+        if (full != null) {
+            dispatch(full);
+        }
+        return future.copy();
+    }
+
+
+    private void flush(final long batchGeneration) {
+        final Map<Long, CompletableFuture<List<Album>>> batch;
+        synchronized (lock) {
+            if (batchGeneration != generation || pending.isEmpty()) {
+                return; // Already dispatched because it got full
+            }
+            batch = takePending();
+        }
+        dispatch(batch);
+    }
+
+    private Map<Long, CompletableFuture<List<Album>>> takePending() {
+        final var batch = pending;
+        pending = new LinkedHashMap<>();
+        generation++;
+        return batch;
+    }
+
+    private void dispatch(final Map<Long, CompletableFuture<List<Album>>> batch) {
+        final CompletionStage<List<Album>> albums;
+        try {
+            albums = batch.size() == 1 ?
+                    microProfileGetUserAlbums.performAsync(batch.keySet().iterator().next()) :
+                    microProfileGetUserAlbums.performBatchAsync(batch.keySet());
+        } catch (final RuntimeException e) {
+            batch.values().forEach(future -> future.completeExceptionally(e));
+            return;
+        }
+        albums.whenComplete((result, throwable) -> {
+            if (throwable != null) {
+                batch.values().forEach(future -> future.completeExceptionally(throwable));
+                return;
+            }
+            final var albumsByUserId = result.stream()
+                    .filter(album -> album.getUserId() != null)
+                    .collect(Collectors.groupingBy(Album::getUserId));
+            batch.forEach((userId, future) ->
+                    future.complete(albumsByUserId.getOrDefault(userId, Collections.emptyList()))
+            );
+        });
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.AlbumsGateway;
+import com.github.juanmbellini.pocs.quarkus.models.Album;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+
+/**
+ * {@link AlbumsGateway} whose async calls perform the {@code delegate}'s blocking calls on virtual threads
+ * (see {@link VirtualThreads}).
+ */
+@AllArgsConstructor
+class VirtualThreadAlbumsGateway implements AlbumsGateway {
+
+    private final AlbumsGateway delegate;
+    private final Executor executor;
+
+
+    @Override
+    public List<Album> getAlbums() {
+        return delegate.getAlbums();
+    }
+
+    @Override
+    public List<Album> getUserAlbums(final Long userId) {
+        return delegate.getUserAlbums(userId);
+    }
+
+    @Override
+    public CompletionStage<List<Album>> getAlbumsAsync() {
+        return CompletableFuture.supplyAsync(delegate::getAlbums, executor);
+    }
+
+    @Override
+    public CompletionStage<List<Album>> getUserAlbumsAsync(final Long userId) {
+        return CompletableFuture.supplyAsync(() -> delegate.getUserAlbums(userId), executor);
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.CommentsGateway;
+import com.github.juanmbellini.pocs.quarkus.models.Comment;
+import com.github.juanmbellini.pocs.quarkus.models.PageRequest;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+
+/**
+ * {@link CommentsGateway} whose async calls perform the {@code delegate}'s blocking calls on virtual threads
+ * (see {@link VirtualThreads}).
+ */
+@AllArgsConstructor
+class VirtualThreadCommentsGateway implements CommentsGateway {
+
+    private final CommentsGateway delegate;
+    private final Executor executor;
+
+
+    @Override
+    public List<Comment> getComments(final String name, final String email) {
+        return delegate.getComments(name, email);
+    }
+
+    @Override
+    public CompletionStage<List<Comment>> getCommentsAsync(final String name, final String email) {
+        return CompletableFuture.supplyAsync(() -> delegate.getComments(name, email), executor);
+    }
+
+    @Override
+    public List<Comment> getComments(final String name, final String email, final PageRequest page) {
+        return delegate.getComments(name, email, page);
+    }
+
+    @Override
+    public CompletionStage<List<Comment>> getCommentsAsync(
+            final String name,
+            final String email,
+            final PageRequest page) {
+        return CompletableFuture.supplyAsync(() -> delegate.getComments(name, email, page), executor);
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.PhotosGateway;
+import com.github.juanmbellini.pocs.quarkus.models.PageRequest;
+import com.github.juanmbellini.pocs.quarkus.models.Photo;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * {@link PhotosGateway} whose async calls perform the {@code delegate}'s blocking calls on virtual threads
+ * (see {@link VirtualThreads}).
+ */
+@AllArgsConstructor
+class VirtualThreadPhotosGateway implements PhotosGateway {
+
+    private final PhotosGateway delegate;
+    private final Executor executor;
+
+
+    @Override
+    public List<Photo> getPhotos() {
+        return delegate.getPhotos();
+    }
+
+    @Override
+    public List<Photo> getAlbumsPhotos(final List<Long> albumIds) {
+        return delegate.getAlbumsPhotos(albumIds);
+    }
+
+    @Override
+    public CompletionStage<List<Photo>> getPhotosAsync() {
+        return CompletableFuture.supplyAsync(delegate::getPhotos, executor);
+    }
+
+    @Override
+    public CompletionStage<List<Photo>> getAlbumsPhotosAsync(final List<Long> albumIds) {
+        return CompletableFuture.supplyAsync(() -> delegate.getAlbumsPhotos(albumIds), executor);
+    }
+
+    @Override
+    public List<Photo> getPhotos(final PageRequest page) {
+        return delegate.getPhotos(page);
+    }
+
+    @Override
+    public CompletionStage<List<Photo>> getPhotosAsync(final PageRequest page) {
+        return CompletableFuture.supplyAsync(() -> delegate.getPhotos(page), executor);
+    }
+
+    @Override
+    public Optional<List<Photo>> getUserPhotos(final Long userId) {
+        return delegate.getUserPhotos(userId);
+    }
+
+    @Override
+    public CompletionStage<Optional<List<Photo>>> getUserPhotosAsync(final Long userId) {
+        return CompletableFuture.supplyAsync(() -> delegate.getUserPhotos(userId), executor);
+    }
+
+    @Override
+    public void streamPhotos(final Consumer<Photo> consumer) {
+        delegate.streamPhotos(consumer);
+    }
+}
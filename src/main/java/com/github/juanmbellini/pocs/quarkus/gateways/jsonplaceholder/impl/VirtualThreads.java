@@ -0,0 +1,92 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import lombok.extern.jbosslog.JBossLog;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Provides the virtual thread per task {@link Executor} on which gateway calls are performed when the
+ * virtual threads execution mode is enabled (through {@code jsonplaceholder.gateways.virtual-threads.enabled}).
+ * In that mode, async gateway calls run the blocking REST client calls on a virtual thread each, so the amount of
+ * in-flight upstream calls is not capped by the size of a thread pool (it is still capped per endpoint by the
+ * {@link GatewayResilience} bulkhead and limiter, which must be raised for this mode to make a difference).
+ * The project targets Java 11, so the executor is created reflectively, and is only available when running
+ * on a JVM that has virtual threads (i.e Java 21 or later). Otherwise, the mode falls back to the usual async calls.
+ */
+@JBossLog
+@ApplicationScoped
+class VirtualThreads {
+
+    private final ExecutorService executor;
+
+
+    VirtualThreads(
+            @ConfigProperty(name = "jsonplaceholder.gateways.virtual-threads.enabled", defaultValue = "false")
+            final boolean enabled) {
+        this.executor = enabled ? newExecutor().orElse(null) : null;
+        if (enabled && executor == null) {
+            log.warnf(
+                    "Virtual threads are not available in this JVM (%s). Gateway calls keep their async execution",
+                    Runtime.version()
+            );
+        }
+    }
+
+
+    /**
+     * @return The virtual thread per task {@link Executor}, or empty if the virtual threads mode is disabled
+     * (or not available).
+     */
+    Optional<Executor> getExecutor() {
+        return Optional.ofNullable(executor);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+
+    /**
+     * Creates a virtual thread per task {@link ExecutorService}, if the running JVM has virtual threads.
+     *
+     * @return The {@link ExecutorService}, or empty if virtual threads are not available.
+     */
+    static Optional<ExecutorService> newExecutor() {
+        try {
+            final var factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return Optional.of((ExecutorService) factory.invoke(null));
+        } catch (final NoSuchMethodException e) {
+            return Optional.empty();
+        } catch (final IllegalAccessException | InvocationTargetException e) {
+            // e.g a JVM where virtual threads are a preview feature that is not enabled
+            log.debug("Could not create a virtual thread per task executor", e);
+            return Optional.empty();
+        }
+    }
+}
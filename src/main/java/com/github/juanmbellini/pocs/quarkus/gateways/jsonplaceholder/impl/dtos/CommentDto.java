@@ -0,0 +1,29 @@
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl.dtos;
+
+import com.github.juanmbellini.pocs.quarkus.models.Comment;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+@NoArgsConstructor(force = true, access = AccessLevel.PACKAGE)
+public class CommentDto {
+
+    private final Long id;
+    private final String name;
+    private final String body;
+    private final String email;
+    private final Long postId;
+
+    public Comment toComment() {
+        return Comment.builder()
+                .id(id)
+                .name(name)
+                .body(body)
+                .email(email)
+                .postId(postId)
+                .build();
+    }
+}
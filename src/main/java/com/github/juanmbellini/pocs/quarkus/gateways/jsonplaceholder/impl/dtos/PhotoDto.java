@@ -0,0 +1,29 @@
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl.dtos;
+
+import com.github.juanmbellini.pocs.quarkus.models.Photo;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+@NoArgsConstructor(force = true, access = AccessLevel.PACKAGE)
+public class PhotoDto {
+
+    private final Long id;
+    private final String title;
+    private final Long albumId;
+    private final String url;
+    private final String thumbnailUrl;
+
+    public Photo toPhoto() {
+        return Photo.builder()
+                .id(id)
+                .title(title)
+                .albumId(albumId)
+                .url(url)
+                .thumbnailUrl(thumbnailUrl)
+                .build();
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl.entities;
+
+import com.github.juanmbellini.pocs.quarkus.models.Album;
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+
+import javax.persistence.Cacheable;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+/**
+ * Local copy of a JSON Placeholder {@link Album}, indexed by user.
+ */
+@Entity
+@Cacheable
+@Table(name = "albums", indexes = @Index(name = "albums_user_id_index", columnList = "userId"))
+public class AlbumEntity extends PanacheEntityBase {
+
+    @Id
+    public Long id;
+    public String title;
+    public Long userId;
+
+    public static AlbumEntity of(final Album album) {
+        final var entity = new AlbumEntity();
+        entity.id = album.getId();
+        entity.title = album.getTitle();
+        entity.userId = album.getUserId();
+        return entity;
+    }
+
+    public Album toAlbum() {
+        return Album.builder()
+                .id(id)
+                .title(title)
+                .userId(userId)
+                .build();
+    }
+}
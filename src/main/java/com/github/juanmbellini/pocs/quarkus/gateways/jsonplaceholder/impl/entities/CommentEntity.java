@@ -0,0 +1,70 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl.entities;
+
+import com.github.juanmbellini.pocs.quarkus.models.Comment;
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+
+import javax.persistence.Cacheable;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+/**
+ * Local copy of a JSON Placeholder {@link Comment}, indexed by name and by email (the gateway's filters).
+ */
+@Entity
+@Cacheable
+@Table(
+        name = "comments",
+        indexes = {
+                @Index(name = "comments_name_index", columnList = "name"),
+                @Index(name = "comments_email_index", columnList = "email"),
+        }
+)
+public class CommentEntity extends PanacheEntityBase {
+
+    @Id
+    public Long id;
+    public String name;
+    @Column(length = 4096)
+    public String body;
+    public String email;
+    public Long postId;
+
+    public static CommentEntity of(final Comment comment) {
+        final var entity = new CommentEntity();
+        entity.id = comment.getId();
+        entity.name = comment.getName();
+        entity.body = comment.getBody();
+        entity.email = comment.getEmail();
+        entity.postId = comment.getPostId();
+        return entity;
+    }
+
+    public Comment toComment() {
+        return Comment.builder()
+                .id(id)
+                .name(name)
+                .body(body)
+                .email(email)
+                .postId(postId)
+                .build();
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl.entities;
+
+import com.github.juanmbellini.pocs.quarkus.models.Photo;
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+
+import javax.persistence.Cacheable;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+/**
+ * Local copy of a JSON Placeholder {@link Photo}, indexed by album.
+ */
+@Entity
+@Cacheable
+@Table(name = "photos", indexes = @Index(name = "photos_album_id_index", columnList = "albumId"))
+public class PhotoEntity extends PanacheEntityBase {
+
+    @Id
+    public Long id;
+    public String title;
+    public Long albumId;
+    public String url;
+    public String thumbnailUrl;
+
+    public static PhotoEntity of(final Photo photo) {
+        final var entity = new PhotoEntity();
+        entity.id = photo.getId();
+        entity.title = photo.getTitle();
+        entity.albumId = photo.getAlbumId();
+        entity.url = photo.getUrl();
+        entity.thumbnailUrl = photo.getThumbnailUrl();
+        return entity;
+    }
+
+    public Photo toPhoto() {
+        return Photo.builder()
+                .id(id)
+                .title(title)
+                .albumId(albumId)
+                .url(url)
+                .thumbnailUrl(thumbnailUrl)
+                .build();
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl.entities;
+
+import com.github.juanmbellini.pocs.quarkus.models.Address;
+import com.github.juanmbellini.pocs.quarkus.models.Company;
+import com.github.juanmbellini.pocs.quarkus.models.GeoLocation;
+import com.github.juanmbellini.pocs.quarkus.models.User;
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+
+import javax.persistence.Cacheable;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Local copy of a JSON Placeholder {@link User}. The address and the company are flattened into the users table.
+ */
+@Entity
+@Cacheable
+@Table(name = "users")
+public class UserEntity extends PanacheEntityBase {
+
+    @Id
+    public Long id;
+    public String name;
+    public String username;
+    public String email;
+    public String phone;
+    public String website;
+    public String street;
+    public String suite;
+    public String city;
+    public String zipcode;
+    public Double latitude;
+    public Double longitude;
+    public String companyName;
+    public String companyCatchPhrase;
+    public String companyBs;
+
+    public static UserEntity of(final User user) {
+        final var entity = new UserEntity();
+        entity.id = user.getId();
+        entity.name = user.getName();
+        entity.username = user.getUsername();
+        entity.email = user.getEmail();
+        entity.phone = user.getPhone();
+        entity.website = user.getWebsite();
+        Optional.ofNullable(user.getAddress()).ifPresent(address -> {
+            entity.street = address.getStreet();
+            entity.suite = address.getSuite();
+            entity.city = address.getCity();
+            entity.zipcode = address.getZipcode();
+            Optional.ofNullable(address.getGeoLocation()).ifPresent(geoLocation -> {
+                entity.latitude = geoLocation.getLatitude();
+                entity.longitude = geoLocation.getLongitude();
+            });
+        });
+        Optional.ofNullable(user.getCompany()).ifPresent(company -> {
+            entity.companyName = company.getName();
+            entity.companyCatchPhrase = company.getCatchPhrase();
+            entity.companyBs = company.getBs();
+        });
+        return entity;
+    }
+
+    public User toUser() {
+        return User.builder()
+                .id(id)
+                .name(name)
+                .username(username)
+                .email(email)
+                .address(toAddress())
+                .phone(phone)
+                .website(website)
+                .company(toCompany())
+                .build();
+    }
+
+    private Address toAddress() {
+        final var geoLocation = latitude == null && longitude == null ?
+                null :
+                GeoLocation.builder().latitude(latitude).longitude(longitude).build();
+        return geoLocation == null && Stream.of(street, suite, city, zipcode).allMatch(Objects::isNull) ?
+                null :
+                Address.builder()
+                        .street(street)
+                        .suite(suite)
+                        .city(city)
+                        .zipcode(zipcode)
+                        .geoLocation(geoLocation)
+                        .build();
+    }
+
+    private Company toCompany() {
+        return Stream.of(companyName, companyCatchPhrase, companyBs).allMatch(Objects::isNull) ?
+                null :
+                Company.builder()
+                        .name(companyName)
+                        .catchPhrase(companyCatchPhrase)
+                        .bs(companyBs)
+                        .build();
+    }
+}
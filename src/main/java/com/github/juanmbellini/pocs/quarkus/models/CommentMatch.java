@@ -0,0 +1,90 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.models;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * The ways in which a comment's name or email can be matched against a filter.
+ */
+public enum CommentMatch {
+    /**
+     * The value must be equal to the filter (as JSON Placeholder does).
+     */
+    EXACT {
+        @Override
+        public boolean matches(final String value, final String filter) {
+            return filter.equals(value);
+        }
+    },
+    /**
+     * The value must be equal to the filter, ignoring case.
+     */
+    CASE_INSENSITIVE {
+        @Override
+        public boolean matches(final String value, final String filter) {
+            return value != null && normalize(value).equals(normalize(filter));
+        }
+    },
+    /**
+     * The value must start with the filter, ignoring case.
+     */
+    PREFIX {
+        @Override
+        public boolean matches(final String value, final String filter) {
+            return value != null && normalize(value).startsWith(normalize(filter));
+        }
+    },
+    ;
+
+
+    /**
+     * Indicates whether the given {@code value} matches the given {@code filter}.
+     *
+     * @param value  The value (might be {@code null}).
+     * @param filter The filter (not {@code null}).
+     * @return {@code true} if the {@code value} matches, or {@code false} otherwise.
+     */
+    public abstract boolean matches(final String value, final String filter);
+
+    /**
+     * Normalizes the given {@code value} in the way in which case insensitive matching is performed.
+     *
+     * @param value The value to be normalized.
+     * @return The normalized value.
+     */
+    public static String normalize(final String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Resolves the {@link CommentMatch} for the given {@code value} (case insensitive, allowing dashes),
+     * so that it can be used as a query parameter.
+     *
+     * @param value The value.
+     * @return The matching {@link CommentMatch}.
+     * @throws IllegalArgumentException If there is no {@link CommentMatch} for the given {@code value}.
+     */
+    public static CommentMatch fromString(final String value) {
+        final var name = value.trim().replace('-', '_').toUpperCase(Locale.ROOT);
+        return Arrays.stream(values())
+                .filter(match -> match.name().equals(name))
+                .findAny()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown comment match: " + value));
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.models;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * A keyset (a.k.a cursor) page request: up to {@code limit} elements, sorted by id,
+ * whose id is greater than {@code after} (or from the beginning if it is {@code null}).
+ */
+@Getter
+@Builder
+@EqualsAndHashCode
+public class PageRequest {
+
+    private final Long after;
+    private final int limit;
+
+
+    /**
+     * Applies this page request to the given {@code elements}, which do not need to be sorted.
+     * Note that this is a linear operation, meant for when there is no sorted index available.
+     *
+     * @param elements    The elements to be paged.
+     * @param idExtractor A {@link Function} that extracts the id of an element.
+     * @param <T>         The type of elements.
+     * @return The elements in the page.
+     */
+    public <T> List<T> slice(final List<T> elements, final Function<T, Long> idExtractor) {
+        return elements.stream()
+                .filter(element -> Objects.nonNull(idExtractor.apply(element)))
+                .filter(element -> after == null || idExtractor.apply(element) > after)
+                .sorted(Comparator.comparing(idExtractor))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.models;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * A document matching a full-text search, together with its relevance score.
+ */
+@Getter
+@Builder
+@RegisterForReflection
+public class SearchHit {
+
+    private final Type type;
+    private final Long id;
+    private final String title;
+    private final double score;
+
+
+    /**
+     * The kinds of documents that can be searched.
+     */
+    public enum Type {
+        COMMENT,
+        PHOTO,
+        ALBUM,
+    }
+}
@@ -17,6 +17,7 @@
 package com.github.juanmbellini.pocs.quarkus.usecases;
 
 import com.github.juanmbellini.pocs.quarkus.models.Comment;
+import com.github.juanmbellini.pocs.quarkus.models.CommentMatch;
 
 import java.util.List;
 import java.util.function.BiFunction;
@@ -28,6 +29,25 @@ import java.util.function.BiFunction;
 public interface GetComments extends BiFunction<String, String, List<Comment>> {
 
 
+    /**
+     * Retrieves the {@link Comment}s matching exactly the given filters.
+     *
+     * @param name  Filter for name.
+     * @param email Filter for email.
+     * @return The {@link Comment}s matching the criteria.
+     */
     @Override
-    List<Comment> apply(final String name, final String email); // Overridden in order to name params
+    default List<Comment> apply(final String name, final String email) {
+        return apply(name, email, CommentMatch.EXACT);
+    }
+
+    /**
+     * Retrieves the {@link Comment}s matching the given filters. A {@code null} filter is not applied.
+     *
+     * @param name  Filter for name.
+     * @param email Filter for email.
+     * @param match How filters are matched.
+     * @return The {@link Comment}s matching the criteria.
+     */
+    List<Comment> apply(final String name, final String email, final CommentMatch match);
 }
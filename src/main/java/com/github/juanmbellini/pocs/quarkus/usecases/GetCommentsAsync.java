@@ -0,0 +1,55 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.usecases;
+
+import com.github.juanmbellini.pocs.quarkus.models.Comment;
+import com.github.juanmbellini.pocs.quarkus.models.CommentMatch;
+
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.function.BiFunction;
+
+/**
+ * The non-blocking get comments use case.
+ */
+@FunctionalInterface
+public interface GetCommentsAsync extends BiFunction<String, String, CompletionStage<List<Comment>>> {
+
+
+    /**
+     * Retrieves the {@link Comment}s matching exactly the given filters, without blocking the calling thread.
+     *
+     * @param name  Filter for name.
+     * @param email Filter for email.
+     * @return A {@link CompletionStage} that completes with the {@link Comment}s matching the criteria.
+     */
+    @Override
+    default CompletionStage<List<Comment>> apply(final String name, final String email) {
+        return apply(name, email, CommentMatch.EXACT);
+    }
+
+    /**
+     * Retrieves the {@link Comment}s matching the given filters, without blocking the calling thread.
+     * A {@code null} filter is not applied.
+     *
+     * @param name  Filter for name.
+     * @param email Filter for email.
+     * @param match How filters are matched.
+     * @return A {@link CompletionStage} that completes with the {@link Comment}s matching the criteria.
+     */
+    CompletionStage<List<Comment>> apply(final String name, final String email, final CommentMatch match);
+}
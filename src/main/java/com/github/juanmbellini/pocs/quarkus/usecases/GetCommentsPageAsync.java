@@ -0,0 +1,59 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.usecases;
+
+import com.github.juanmbellini.pocs.quarkus.models.Comment;
+import com.github.juanmbellini.pocs.quarkus.models.CommentMatch;
+import com.github.juanmbellini.pocs.quarkus.models.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * The non-blocking get comments page use case.
+ */
+@FunctionalInterface
+public interface GetCommentsPageAsync {
+
+    /**
+     * Retrieves a page of the {@link Comment}s matching exactly the given filters, without blocking the calling thread.
+     *
+     * @param name  Filter for name.
+     * @param email Filter for email.
+     * @param page  The requested page.
+     * @return A {@link CompletionStage} that completes with the {@link Comment}s in the page.
+     */
+    default CompletionStage<List<Comment>> apply(final String name, final String email, final PageRequest page) {
+        return apply(name, email, CommentMatch.EXACT, page);
+    }
+
+    /**
+     * Retrieves a page of the {@link Comment}s matching the given filters, without blocking the calling thread.
+     * A {@code null} filter is not applied.
+     *
+     * @param name  Filter for name.
+     * @param email Filter for email.
+     * @param match How filters are matched.
+     * @param page  The requested page.
+     * @return A {@link CompletionStage} that completes with the {@link Comment}s in the page.
+     */
+    CompletionStage<List<Comment>> apply(
+            final String name,
+            final String email,
+            final CommentMatch match,
+            final PageRequest page);
+}
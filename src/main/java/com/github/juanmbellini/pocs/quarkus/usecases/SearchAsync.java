@@ -0,0 +1,41 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.usecases;
+
+import com.github.juanmbellini.pocs.quarkus.models.SearchHit;
+
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.function.BiFunction;
+
+/**
+ * The non-blocking full-text search use case, over comments' names and bodies, and photos' and albums' titles.
+ */
+@FunctionalInterface
+public interface SearchAsync extends BiFunction<String, Integer, CompletionStage<List<SearchHit>>> {
+
+
+    /**
+     * Searches the documents matching the given {@code query}, most relevant first.
+     *
+     * @param query The free-text query.
+     * @param limit The maximum amount of hits to be returned.
+     * @return A {@link CompletionStage} that completes with the {@link SearchHit}s.
+     */
+    @Override
+    CompletionStage<List<SearchHit>> apply(final String query, final Integer limit);
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.usecases.impl;
+
+import com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.PhotosGateway;
+import com.github.juanmbellini.pocs.quarkus.models.Photo;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import javax.enterprise.context.ApplicationScoped;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.IntStream;
+
+/**
+ * Fetches the photos of several albums, splitting the album ids into bounded chunks
+ * (configured through {@code jsonplaceholder.user-photos.chunk-size}) that are fetched in parallel, with at most
+ * {@code jsonplaceholder.user-photos.max-concurrency} chunks in flight at the same time.
+ * Results are merged in album order. If any chunk fails, the whole fetch fails with the failure of the
+ * lowest-indexed failed chunk, regardless of the order in which chunks complete.
+ * Both settings must be at least 1.
+ */
+@ApplicationScoped
+class AlbumsPhotosFetcher {
+
+    private final PhotosGateway photosGateway;
+    private final int chunkSize;
+    private final int maxConcurrency;
+
+
+    AlbumsPhotosFetcher(
+            final PhotosGateway photosGateway,
+            @ConfigProperty(name = "jsonplaceholder.user-photos.chunk-size", defaultValue = "20")
+            final int chunkSize,
+            @ConfigProperty(name = "jsonplaceholder.user-photos.max-concurrency", defaultValue = "4")
+            final int maxConcurrency) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("The user photos chunk size must be at least 1, but was " + chunkSize);
+        }
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException(
+                    "The user photos max concurrency must be at least 1, but was " + maxConcurrency
+            );
+        }
+        this.photosGateway = photosGateway;
+        this.chunkSize = chunkSize;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+
+    /**
+     * Fetches the photos of the given albums, blocking until all of them are retrieved.
+     *
+     * @param albumIds The albums' ids.
+     * @return The albums' {@link Photo}s.
+     */
+    List<Photo> fetch(final List<Long> albumIds) {
+        if (albumIds.size() <= chunkSize) {
+            return photosGateway.getAlbumsPhotos(albumIds);
+        }
+        try {
+            return fetchAsync(albumIds).toCompletableFuture().join();
+        } catch (final CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Fetches the photos of the given albums, without blocking the calling thread.
+     *
+     * @param albumIds The albums' ids.
+     * @return A {@link CompletionStage} that completes with the albums' {@link Photo}s.
+     */
+    CompletionStage<List<Photo>> fetchAsync(final List<Long> albumIds) {
+        if (albumIds.size() <= chunkSize) {
+            return photosGateway.getAlbumsPhotosAsync(albumIds);
+        }
+        final var fanOut = new FanOut(chunk(albumIds));
+        final var lanes = IntStream.range(0, Math.min(maxConcurrency, fanOut.chunks.size()))
+                .mapToObj(ignored -> runLane(fanOut))
+                .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(lanes).thenApply(ignored -> fanOut.merge());
+    }
+
+
+    private List<List<Long>> chunk(final List<Long> albumIds) {
+        final var chunks = new ArrayList<List<Long>>((albumIds.size() + chunkSize - 1) / chunkSize);
+        for (var from = 0; from < albumIds.size(); from += chunkSize) {
+            chunks.add(List.copyOf(albumIds.subList(from, Math.min(from + chunkSize, albumIds.size()))));
+        }
+        return chunks;
+    }
+
+    /**
+     * Keeps fetching chunks (in order) until there are no chunks left,
+     * or until the remaining ones can not change the outcome because a lower-indexed chunk already failed.
+     */
+    private CompletableFuture<Void> runLane(final FanOut fanOut) {
+        final var index = fanOut.next.getAndIncrement();
+        if (index >= fanOut.chunks.size() || index > fanOut.lowestFailedIndex.get()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletionStage<List<Photo>> chunkPhotos;
+        try {
+            chunkPhotos = photosGateway.getAlbumsPhotosAsync(fanOut.chunks.get(index));
+        } catch (final RuntimeException e) {
+            chunkPhotos = CompletableFuture.failedFuture(e);
+        }
+        return chunkPhotos.toCompletableFuture()
+                .handle((photos, throwable) -> {
+                    if (throwable == null) {
+                        fanOut.results.set(index, photos);
+                    } else {
+                        fanOut.failures.set(index, throwable);
+                        fanOut.lowestFailedIndex.accumulateAndGet(index, Math::min);
+                    }
+                    return null;
+                })
+                .thenCompose(ignored -> runLane(fanOut));
+    }
+
+
+    /**
+     * The state of a single chunked fetch.
+     */
+    private static final class FanOut {
+        private final List<List<Long>> chunks;
+        private final AtomicReferenceArray<List<Photo>> results;
+        private final AtomicReferenceArray<Throwable> failures;
+        private final AtomicInteger next;
+        private final AtomicInteger lowestFailedIndex;
+
+        private FanOut(final List<List<Long>> chunks) {
+            this.chunks = chunks;
+            this.results = new AtomicReferenceArray<>(chunks.size());
+            this.failures = new AtomicReferenceArray<>(chunks.size());
+            this.next = new AtomicInteger();
+            this.lowestFailedIndex = new AtomicInteger(Integer.MAX_VALUE);
+        }
+
+        private List<Photo> merge() {
+            final var lowestFailed = lowestFailedIndex.get();
+            if (lowestFailed != Integer.MAX_VALUE) {
+                final var failure = failures.get(lowestFailed);
+                throw failure instanceof CompletionException ?
+                        (CompletionException) failure :
+                        new CompletionException(failure);
+            }
+            final var photos = new ArrayList<Photo>();
+            for (var i = 0; i < chunks.size(); i++) {
+                photos.addAll(results.get(i));
+            }
+            return photos;
+        }
+    }
+}
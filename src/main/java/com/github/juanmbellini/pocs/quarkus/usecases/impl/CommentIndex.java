@@ -0,0 +1,247 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.usecases.impl;
+
+import com.github.juanmbellini.pocs.quarkus.models.Comment;
+import com.github.juanmbellini.pocs.quarkus.models.CommentMatch;
+import lombok.AllArgsConstructor;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * An in-memory inverted index of {@link Comment}s by name and by email, supporting every {@link CommentMatch}.
+ * Postings (i.e sorted arrays of comment ids) are keyed by the normalized value (see {@link CommentMatch#normalize}),
+ * in sorted maps, so that prefixes are answered with a range scan. Candidates are then verified against the original
+ * values, so that exact matches stay case sensitive.
+ * Readers always see a consistent version of the index: {@link #update(Collection)} diffs the new comments against
+ * the indexed ones, and publishes a new version in which only the postings of the changed keys are rebuilt.
+ * Comments without id can not be indexed, and are thus ignored.
+ */
+final class CommentIndex {
+
+    private volatile State state = new State(
+            Collections.emptyNavigableMap(),
+            Collections.emptyList(),
+            Collections.emptyNavigableMap(),
+            Collections.emptyNavigableMap()
+    );
+
+
+    /**
+     * Makes the index reflect the given {@code comments}.
+     *
+     * @param comments The whole set of {@link Comment}s.
+     * @return The amount of comments that were added, removed, or had their name or email changed.
+     */
+    synchronized int update(final Collection<Comment> comments) {
+        final var current = state;
+        final var byId = new TreeMap<Long, Comment>();
+        comments.stream()
+                .filter(comment -> comment.getId() != null)
+                .forEach(comment -> byId.put(comment.getId(), comment));
+
+        final var nameChanges = new PostingChanges();
+        final var emailChanges = new PostingChanges();
+        var changed = 0;
+        for (final var previous : current.byId.values()) {
+            final var next = byId.get(previous.getId());
+            final var nameChanged = next == null || !Objects.equals(previous.getName(), next.getName());
+            final var emailChanged = next == null || !Objects.equals(previous.getEmail(), next.getEmail());
+            if (nameChanged) {
+                nameChanges.remove(previous.getName(), previous.getId());
+            }
+            if (emailChanged) {
+                emailChanges.remove(previous.getEmail(), previous.getId());
+            }
+            if (nameChanged || emailChanged) {
+                changed++;
+            }
+        }
+        for (final var next : byId.values()) {
+            final var previous = current.byId.get(next.getId());
+            if (previous == null || !Objects.equals(previous.getName(), next.getName())) {
+                nameChanges.add(next.getName(), next.getId());
+            }
+            if (previous == null || !Objects.equals(previous.getEmail(), next.getEmail())) {
+                emailChanges.add(next.getEmail(), next.getId());
+            }
+            if (previous == null) {
+                changed++;
+            }
+        }
+        state = new State(
+                Collections.unmodifiableNavigableMap(byId),
+                List.copyOf(byId.values()),
+                nameChanges.applyTo(current.byName),
+                emailChanges.applyTo(current.byEmail)
+        );
+        return changed;
+    }
+
+    /**
+     * @return The amount of indexed comments.
+     */
+    int size() {
+        return state.all.size();
+    }
+
+    /**
+     * Finds the {@link Comment}s matching the given filters, sorted by id. A {@code null} filter is not applied.
+     *
+     * @param name  Filter for name.
+     * @param email Filter for email.
+     * @param match How filters are matched.
+     * @return The {@link Comment}s matching the criteria.
+     */
+    List<Comment> find(final String name, final String email, final CommentMatch match) {
+        final var current = state; // All the lookups are performed against the same version
+        if (name == null && email == null) {
+            return current.all;
+        }
+        final long[] candidates;
+        if (name == null) {
+            candidates = postings(current.byEmail, email, match);
+        } else if (email == null) {
+            candidates = postings(current.byName, name, match);
+        } else {
+            final var byName = postings(current.byName, name, match);
+            final var byEmail = postings(current.byEmail, email, match);
+            candidates = byName.length <= byEmail.length ? byName : byEmail;
+        }
+        return Arrays.stream(candidates)
+                .mapToObj(current.byId::get)
+                .filter(comment -> matches(comment, name, email, match))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Filters the given {@code comments} by scanning them, keeping their order. A {@code null} filter is not applied.
+     * Used when the index is not available.
+     *
+     * @param comments The {@link Comment}s to be filtered.
+     * @param name     Filter for name.
+     * @param email    Filter for email.
+     * @param match    How filters are matched.
+     * @return The {@link Comment}s matching the criteria.
+     */
+    static List<Comment> scan(
+            final List<Comment> comments,
+            final String name,
+            final String email,
+            final CommentMatch match) {
+        return comments.stream()
+                .filter(comment -> matches(comment, name, email, match))
+                .collect(Collectors.toList());
+    }
+
+
+    private static boolean matches(
+            final Comment comment,
+            final String name,
+            final String email,
+            final CommentMatch match) {
+        return (name == null || match.matches(comment.getName(), name))
+                && (email == null || match.matches(comment.getEmail(), email));
+    }
+
+    private static long[] postings(
+            final NavigableMap<String, long[]> index,
+            final String filter,
+            final CommentMatch match) {
+        final var key = CommentMatch.normalize(filter);
+        if (match != CommentMatch.PREFIX) {
+            return index.getOrDefault(key, NO_IDS);
+        }
+        return index.tailMap(key, true).entrySet().stream()
+                .takeWhile(entry -> entry.getKey().startsWith(key))
+                .flatMapToLong(entry -> Arrays.stream(entry.getValue()))
+                .sorted()
+                .toArray();
+    }
+
+
+    private static final long[] NO_IDS = new long[0];
+
+
+    /**
+     * A version of the index.
+     */
+    @AllArgsConstructor
+    private static final class State {
+        private final NavigableMap<Long, Comment> byId;
+        private final List<Comment> all;
+        private final NavigableMap<String, long[]> byName;
+        private final NavigableMap<String, long[]> byEmail;
+    }
+
+    /**
+     * The ids to be removed from and added to each key's postings.
+     */
+    private static final class PostingChanges {
+        private final Map<String, Set<Long>> removed = new HashMap<>();
+        private final Map<String, Set<Long>> added = new HashMap<>();
+
+        private void remove(final String value, final Long id) {
+            if (value != null) {
+                removed.computeIfAbsent(CommentMatch.normalize(value), ignored -> new HashSet<>()).add(id);
+            }
+        }
+
+        private void add(final String value, final Long id) {
+            if (value != null) {
+                added.computeIfAbsent(CommentMatch.normalize(value), ignored -> new HashSet<>()).add(id);
+            }
+        }
+
+        /**
+         * Builds the new postings, copying the unchanged ones from the given {@code postings}.
+         */
+        private NavigableMap<String, long[]> applyTo(final NavigableMap<String, long[]> postings) {
+            if (removed.isEmpty() && added.isEmpty()) {
+                return postings;
+            }
+            final var result = new TreeMap<>(postings);
+            final var keys = new HashSet<>(removed.keySet());
+            keys.addAll(added.keySet());
+            for (final var key : keys) {
+                final var toRemove = removed.getOrDefault(key, Collections.emptySet());
+                final var ids = LongStream.concat(
+                        Arrays.stream(result.getOrDefault(key, NO_IDS)).filter(id -> !toRemove.contains(id)),
+                        added.getOrDefault(key, Collections.emptySet()).stream().mapToLong(Long::longValue)
+                ).sorted().distinct().toArray();
+                if (ids.length == 0) {
+                    result.remove(key);
+                } else {
+                    result.put(key, ids);
+                }
+            }
+            return Collections.unmodifiableNavigableMap(result);
+        }
+    }
+}
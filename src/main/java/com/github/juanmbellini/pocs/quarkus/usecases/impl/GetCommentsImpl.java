@@ -16,8 +16,8 @@
 
 package com.github.juanmbellini.pocs.quarkus.usecases.impl;
 
-import com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.CommentsGateway;
 import com.github.juanmbellini.pocs.quarkus.models.Comment;
+import com.github.juanmbellini.pocs.quarkus.models.CommentMatch;
 import com.github.juanmbellini.pocs.quarkus.usecases.GetComments;
 import lombok.AllArgsConstructor;
 
@@ -28,11 +28,11 @@ import java.util.List;
 @AllArgsConstructor
 class GetCommentsImpl implements GetComments {
 
-    private final CommentsGateway commentsGateway;
+    private final IndexedComments indexedComments;
 
 
     @Override
-    public List<Comment> apply(final String name, final String email) {
-        return commentsGateway.getComments(name, email);
+    public List<Comment> apply(final String name, final String email, final CommentMatch match) {
+        return indexedComments.getComments(name, email, match);
     }
 }
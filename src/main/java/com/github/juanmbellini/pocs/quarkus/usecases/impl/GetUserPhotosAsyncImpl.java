@@ -0,0 +1,62 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.usecases.impl;
+
+import com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.AlbumsGateway;
+import com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.PhotosGateway;
+import com.github.juanmbellini.pocs.quarkus.models.Album;
+import com.github.juanmbellini.pocs.quarkus.models.Photo;
+import com.github.juanmbellini.pocs.quarkus.usecases.GetUserPhotosAsync;
+import lombok.AllArgsConstructor;
+import lombok.NonNull;
+
+import javax.enterprise.context.ApplicationScoped;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Collectors;
+
+@ApplicationScoped
+@AllArgsConstructor
+class GetUserPhotosAsyncImpl implements GetUserPhotosAsync {
+
+    private final AlbumsGateway albumsGateway;
+    private final PhotosGateway photosGateway;
+    private final AlbumsPhotosFetcher albumsPhotosFetcher;
+
+
+    @Override
+    public CompletionStage<List<Photo>> apply(@NonNull final Long userId) {
+        return photosGateway.getUserPhotosAsync(userId)
+                .thenCompose(joined -> joined
+                        .<CompletionStage<List<Photo>>>map(CompletableFuture::completedFuture)
+                        .orElseGet(() -> getAlbumsPhotos(userId))
+                );
+    }
+
+
+    private CompletionStage<List<Photo>> getAlbumsPhotos(final Long userId) {
+        return albumsGateway.getUserAlbumsAsync(userId)
+                .thenCompose(albums -> albums.isEmpty() ?
+                        CompletableFuture.<List<Photo>>completedFuture(Collections.emptyList()) :
+                        albumsPhotosFetcher.fetchAsync(
+                                albums.stream().map(Album::getId).collect(Collectors.toList())
+                        )
+                );
+    }
+}
@@ -35,15 +35,21 @@ class GetUserPhotosImpl implements GetUserPhotos {
 
     private final AlbumsGateway albumsGateway;
     private final PhotosGateway photosGateway;
+    private final AlbumsPhotosFetcher albumsPhotosFetcher;
 
 
     @Override
     public List<Photo> apply(@NonNull final Long userId) {
+        return photosGateway.getUserPhotos(userId).orElseGet(() -> getAlbumsPhotos(userId));
+    }
+
+
+    private List<Photo> getAlbumsPhotos(final Long userId) {
         final var albums = albumsGateway.getUserAlbums(userId);
         return albums.isEmpty() ?
                 Collections.emptyList() :
                 albums.stream()
                         .map(Album::getId)
-                        .collect(Collectors.collectingAndThen(Collectors.toList(), photosGateway::getAlbumsPhotos));
+                        .collect(Collectors.collectingAndThen(Collectors.toList(), albumsPhotosFetcher::fetch));
     }
 }
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.usecases.impl;
+
+import com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.CommentsGateway;
+import com.github.juanmbellini.pocs.quarkus.models.Comment;
+import com.github.juanmbellini.pocs.quarkus.models.CommentMatch;
+import com.github.juanmbellini.pocs.quarkus.models.PageRequest;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.jbosslog.JBossLog;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Answers the comments' filtered queries locally, through a {@link CommentIndex} that is loaded at startup and
+ * updated incrementally on a schedule (configured through {@code jsonplaceholder.comments.index.*}).
+ * Until the index is loaded (or if it is disabled), exact queries are pushed down to the {@link CommentsGateway},
+ * while the rest are answered by scanning the whole set of comments.
+ */
+@JBossLog
+@ApplicationScoped
+@RequiredArgsConstructor
+class IndexedComments {
+
+    private final CommentsGateway commentsGateway;
+    @ConfigProperty(name = "jsonplaceholder.comments.index.enabled", defaultValue = "true")
+    private final boolean enabled;
+
+    private final CommentIndex index = new CommentIndex();
+    private volatile boolean loaded;
+
+
+    /**
+     * Retrieves the {@link Comment}s matching the given filters. A {@code null} filter is not applied.
+     *
+     * @param name  Filter for name.
+     * @param email Filter for email.
+     * @param match How filters are matched.
+     * @return The {@link Comment}s matching the criteria.
+     */
+    List<Comment> getComments(final String name, final String email, final CommentMatch match) {
+        return getIndex()
+                .map(commentIndex -> commentIndex.find(name, email, match))
+                .orElseGet(() -> match == CommentMatch.EXACT ?
+                        commentsGateway.getComments(name, email) :
+                        CommentIndex.scan(commentsGateway.getComments(null, null), name, email, match));
+    }
+
+    /**
+     * Retrieves the {@link Comment}s matching the given filters, without blocking the calling thread.
+     * A {@code null} filter is not applied.
+     *
+     * @param name  Filter for name.
+     * @param email Filter for email.
+     * @param match How filters are matched.
+     * @return A {@link CompletionStage} that completes with the {@link Comment}s matching the criteria.
+     */
+    CompletionStage<List<Comment>> getCommentsAsync(final String name, final String email, final CommentMatch match) {
+        return getIndex()
+                .<CompletionStage<List<Comment>>>map(
+                        commentIndex -> CompletableFuture.completedFuture(commentIndex.find(name, email, match))
+                )
+                .orElseGet(() -> match == CommentMatch.EXACT ?
+                        commentsGateway.getCommentsAsync(name, email) :
+                        commentsGateway.getCommentsAsync(null, null)
+                                .thenApply(comments -> CommentIndex.scan(comments, name, email, match)));
+    }
+
+    /**
+     * Retrieves a page of the {@link Comment}s matching the given filters. A {@code null} filter is not applied.
+     *
+     * @param name  Filter for name.
+     * @param email Filter for email.
+     * @param match How filters are matched.
+     * @param page  The requested page.
+     * @return The {@link Comment}s in the page.
+     */
+    List<Comment> getComments(
+            final String name,
+            final String email,
+            final CommentMatch match,
+            final PageRequest page) {
+        if (match == CommentMatch.EXACT && getIndex().isEmpty()) {
+            return commentsGateway.getComments(name, email, page);
+        }
+        return page.slice(getComments(name, email, match), Comment::getId);
+    }
+
+    /**
+     * Retrieves a page of the {@link Comment}s matching the given filters, without blocking the calling thread.
+     * A {@code null} filter is not applied.
+     *
+     * @param name  Filter for name.
+     * @param email Filter for email.
+     * @param match How filters are matched.
+     * @param page  The requested page.
+     * @return A {@link CompletionStage} that completes with the {@link Comment}s in the page.
+     */
+    CompletionStage<List<Comment>> getCommentsAsync(
+            final String name,
+            final String email,
+            final CommentMatch match,
+            final PageRequest page) {
+        if (match == CommentMatch.EXACT && getIndex().isEmpty()) {
+            return commentsGateway.getCommentsAsync(name, email, page);
+        }
+        return getCommentsAsync(name, email, match).thenApply(comments -> page.slice(comments, Comment::getId));
+    }
+
+    /**
+     * Loads the whole set of comments, updating the index with the changes. If loading fails, the index is kept.
+     *
+     * @return A {@link CompletionStage} that completes when the refresh finishes.
+     */
+    CompletionStage<Void> refresh() {
+        return commentsGateway.getCommentsAsync(null, null)
+                .thenAccept(comments -> {
+                    final var changed = index.update(comments);
+                    loaded = true;
+                    log.debugf("Comment index refreshed (%d changed, %d indexed)", changed, index.size());
+                })
+                .exceptionally(throwable -> {
+                    log.warn("Could not refresh the comment index. Keeping the current one", throwable);
+                    return null;
+                });
+    }
+
+
+    void onStart(@Observes final StartupEvent event) {
+        if (enabled) {
+            refresh();
+        }
+    }
+
+    @Scheduled(every = "{jsonplaceholder.comments.index.refresh-interval}", identity = "comment-index-refresh")
+    void scheduledRefresh() {
+        if (enabled) {
+            refresh();
+        }
+    }
+
+
+    private Optional<CommentIndex> getIndex() {
+        return enabled && loaded ? Optional.of(index) : Optional.empty();
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.usecases.impl;
+
+import com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.AlbumsGateway;
+import com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.CommentsGateway;
+import com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.PhotosGateway;
+import com.github.juanmbellini.pocs.quarkus.models.Album;
+import com.github.juanmbellini.pocs.quarkus.models.Comment;
+import com.github.juanmbellini.pocs.quarkus.models.Photo;
+import com.github.juanmbellini.pocs.quarkus.models.SearchHit;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.jbosslog.JBossLog;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keeps the {@link TextIndex} over comments, photos and albums used for full-text search, built from the gateways.
+ * It is built at startup and rebuilt on a schedule (configured through {@code jsonplaceholder.search.*}),
+ * or lazily by the first search if it is not built yet. Concurrent builds are coalesced,
+ * and searches keep using the current index while a new one is being built.
+ */
+@JBossLog
+@ApplicationScoped
+@RequiredArgsConstructor
+class SearchIndex {
+
+    private final AlbumsGateway albumsGateway;
+    private final PhotosGateway photosGateway;
+    private final CommentsGateway commentsGateway;
+    @ConfigProperty(name = "jsonplaceholder.search.enabled", defaultValue = "true")
+    private final boolean enabled;
+
+    private final AtomicReference<CompletableFuture<TextIndex>> inFlight = new AtomicReference<>();
+    private volatile TextIndex index;
+
+
+    /**
+     * @return A {@link CompletionStage} that completes with the current {@link TextIndex},
+     * building it if there is none yet.
+     */
+    CompletionStage<TextIndex> getIndex() {
+        final var current = index;
+        return current != null ? CompletableFuture.completedFuture(current) : refresh();
+    }
+
+    /**
+     * Builds a new {@link TextIndex}, replacing the current one once done. If building fails, the current one is kept.
+     * If there is a build in progress, no new one is started.
+     *
+     * @return A {@link CompletionStage} that completes with the built {@link TextIndex}.
+     */
+    CompletionStage<TextIndex> refresh() {
+        final var build = new CompletableFuture<TextIndex>();
+        final var current = inFlight.compareAndExchange(null, build);
+        if (current != null) {
+            return current;
+        }
+        final var albums = albumsGateway.getAlbumsAsync().toCompletableFuture();
+        final var photos = photosGateway.getPhotosAsync().toCompletableFuture();
+        final var comments = commentsGateway.getCommentsAsync(null, null).toCompletableFuture();
+        CompletableFuture.allOf(albums, photos, comments)
+                .thenApply(ignored -> build(albums.join(), photos.join(), comments.join()))
+                .whenComplete((built, throwable) -> {
+                    if (throwable == null) {
+                        index = built;
+                        log.debugf("Search index built (%d documents)", built.size());
+                    }
+                    inFlight.set(null);
+                    if (throwable == null) {
+                        build.complete(built);
+                    } else {
+                        build.completeExceptionally(throwable);
+                    }
+                });
+        return build;
+    }
+
+
+    void onStart(@Observes final StartupEvent event) {
+        if (enabled) {
+            logFailures(refresh());
+        }
+    }
+
+    @Scheduled(every = "{jsonplaceholder.search.refresh-interval}", identity = "search-index-refresh")
+    void scheduledRefresh() {
+        if (enabled) {
+            logFailures(refresh());
+        }
+    }
+
+
+    private static TextIndex build(final List<Album> albums, final List<Photo> photos, final List<Comment> comments) {
+        final var builder = TextIndex.builder();
+        albums.stream()
+                .filter(album -> Objects.nonNull(album.getId()))
+                .forEach(album -> builder.add(SearchHit.Type.ALBUM, album.getId(), album.getTitle(), album.getTitle()));
+        photos.stream()
+                .filter(photo -> Objects.nonNull(photo.getId()))
+                .forEach(photo -> builder.add(SearchHit.Type.PHOTO, photo.getId(), photo.getTitle(), photo.getTitle()));
+        comments.stream()
+                .filter(comment -> Objects.nonNull(comment.getId()))
+                .forEach(comment -> builder.add(
+                        SearchHit.Type.COMMENT,
+                        comment.getId(),
+                        comment.getName(),
+                        comment.getName(),
+                        comment.getBody()
+                ));
+        return builder.build();
+    }
+
+    private static void logFailures(final CompletionStage<?> refresh) {
+        refresh.exceptionally(throwable -> {
+            log.warn("Could not build the search index. Keeping the current one", throwable);
+            return null;
+        });
+    }
+}
@@ -0,0 +1,346 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.usecases.impl;
+
+import com.github.juanmbellini.pocs.quarkus.models.SearchHit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+
+/**
+ * An immutable, in-memory inverted index for full-text search, ranking documents with BM25.
+ * Text is tokenized into lower-cased runs of letters and digits. Each term's posting list is stored as a single
+ * {@code byte[]} of variable-length encoded (document delta, term frequency) pairs, which is decoded on the fly
+ * while querying. Queries are evaluated document-at-a-time, keeping only the best {@code limit} documents in a heap,
+ * so that no per-document state is allocated.
+ */
+final class TextIndex {
+
+    private final Map<String, Postings> postings;
+    private final SearchHit.Type[] types;
+    private final long[] ids;
+    private final String[] titles;
+    private final byte[] lengths;
+    private final float[] lengthNorms;
+
+
+    private TextIndex(
+            final Map<String, Postings> postings,
+            final SearchHit.Type[] types,
+            final long[] ids,
+            final String[] titles,
+            final int[] lengths) {
+        this.postings = postings;
+        this.types = types;
+        this.ids = ids;
+        this.titles = titles;
+        // Lengths are kept in a byte per document (capped), so that the whole array stays in cache while querying,
+        // and their BM25 normalization is precomputed for every possible value
+        // (the average is computed over the capped lengths too, so that it matches the lengths it normalizes)
+        this.lengths = new byte[lengths.length];
+        var totalLength = 0L;
+        for (var i = 0; i < lengths.length; i++) {
+            final var length = Math.min(lengths[i], MAX_LENGTH);
+            this.lengths[i] = (byte) length;
+            totalLength += length;
+        }
+        final var averageLength = Math.max(1d, lengths.length == 0 ? 1d : (double) totalLength / lengths.length);
+        this.lengthNorms = new float[MAX_LENGTH + 1];
+        for (var length = 0; length <= MAX_LENGTH; length++) {
+            lengthNorms[length] = (float) (K1 * (1 - B + B * length / averageLength));
+        }
+    }
+
+
+    /**
+     * @return A new {@link Builder}.
+     */
+    static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return The amount of indexed documents.
+     */
+    int size() {
+        return ids.length;
+    }
+
+    /**
+     * Searches the documents matching any of the {@code query} terms, ranked by their BM25 score.
+     *
+     * @param query The free-text query.
+     * @param limit The maximum amount of hits to be returned.
+     * @return The {@link SearchHit}s, most relevant first.
+     */
+    List<SearchHit> search(final String query, final int limit) {
+        final var cursors = tokenize(query).stream()
+                .distinct()
+                .map(postings::get)
+                .filter(Objects::nonNull)
+                .map(termPostings -> new Cursor(termPostings, idf(termPostings.documentFrequency)))
+                .filter(Cursor::next)
+                .toArray(Cursor[]::new);
+        if (cursors.length == 0 || limit <= 0) {
+            return Collections.emptyList();
+        }
+        // A min-heap with the best documents so far (the worst one on top)
+        final var best = new PriorityQueue<ScoredDocument>(limit + 1, WORST_FIRST);
+        var active = cursors.length; // Exhausted cursors are swapped past the active ones
+        while (active > 0) {
+            var document = Integer.MAX_VALUE;
+            for (var i = 0; i < active; i++) {
+                document = Math.min(document, cursors[i].document);
+            }
+            var score = 0d;
+            for (var i = 0; i < active; ) {
+                final var cursor = cursors[i];
+                if (cursor.document == document) {
+                    score += cursor.weight * cursor.frequency
+                            / (cursor.frequency + lengthNorms[lengths[document] & MAX_LENGTH]);
+                    if (!cursor.next()) {
+                        cursors[i] = cursors[--active];
+                        continue;
+                    }
+                }
+                i++;
+            }
+            if (best.size() < limit) {
+                best.add(new ScoredDocument(document, score));
+            } else if (score > best.peek().score) {
+                best.poll();
+                best.add(new ScoredDocument(document, score));
+            }
+        }
+        final var hits = new ArrayList<SearchHit>(best.size());
+        while (!best.isEmpty()) {
+            final var scored = best.poll();
+            hits.add(SearchHit.builder()
+                    .type(types[scored.document])
+                    .id(ids[scored.document])
+                    .title(titles[scored.document])
+                    .score(scored.score)
+                    .build());
+        }
+        Collections.reverse(hits);
+        return hits;
+    }
+
+
+    private double idf(final int documentFrequency) {
+        return Math.log(1 + (ids.length - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    /**
+     * Splits the given {@code text} into lower-cased runs of letters and digits.
+     *
+     * @param text The text to be tokenized.
+     * @return The terms, in order of appearance.
+     */
+    static List<String> tokenize(final String text) {
+        final var terms = new ArrayList<String>();
+        if (text == null) {
+            return terms;
+        }
+        var start = -1;
+        for (var i = 0; i <= text.length(); i++) {
+            final var isTermChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (isTermChar && start < 0) {
+                start = i;
+            } else if (!isTermChar && start >= 0) {
+                terms.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int MAX_LENGTH = 0xFF;
+    private static final Comparator<ScoredDocument> WORST_FIRST = Comparator
+            .comparingDouble((ScoredDocument scored) -> scored.score)
+            .thenComparing(scored -> scored.document, Comparator.reverseOrder());
+
+
+    /**
+     * Builds a {@link TextIndex}, adding documents one at a time.
+     */
+    static final class Builder {
+        private final Map<String, PostingsWriter> writers = new HashMap<>();
+        private final List<SearchHit.Type> types = new ArrayList<>();
+        private final List<Long> ids = new ArrayList<>();
+        private final List<String> titles = new ArrayList<>();
+        private final List<Integer> lengths = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a document.
+         *
+         * @param type  The document's type.
+         * @param id    The document's id.
+         * @param title The document's title, returned in the {@link SearchHit}s.
+         * @param texts The document's texts to be indexed ({@code null}s are skipped).
+         * @return This builder.
+         */
+        Builder add(final SearchHit.Type type, final long id, final String title, final String... texts) {
+            final var document = ids.size();
+            final var frequencies = new HashMap<String, Integer>();
+            var length = 0;
+            for (final var text : texts) {
+                for (final var term : tokenize(text)) {
+                    frequencies.merge(term, 1, Integer::sum);
+                    length++;
+                }
+            }
+            frequencies.forEach((term, frequency) ->
+                    writers.computeIfAbsent(term, ignored -> new PostingsWriter()).write(document, frequency));
+            types.add(type);
+            ids.add(id);
+            titles.add(title);
+            lengths.add(length);
+            return this;
+        }
+
+        /**
+         * @return The built {@link TextIndex}.
+         */
+        TextIndex build() {
+            final var postings = new HashMap<String, Postings>(writers.size() * 4 / 3 + 1);
+            writers.forEach((term, writer) -> postings.put(term, writer.toPostings()));
+            return new TextIndex(
+                    postings,
+                    types.toArray(new SearchHit.Type[0]),
+                    ids.stream().mapToLong(Long::longValue).toArray(),
+                    titles.toArray(new String[0]),
+                    lengths.stream().mapToInt(Integer::intValue).toArray()
+            );
+        }
+    }
+
+    /**
+     * A term's posting list: (document delta, frequency) pairs, each number encoded as a variable-length integer
+     * (7 bits per byte, the highest bit telling whether more bytes follow).
+     */
+    private static final class Postings {
+        private final byte[] data;
+        private final int documentFrequency;
+
+        private Postings(final byte[] data, final int documentFrequency) {
+            this.data = data;
+            this.documentFrequency = documentFrequency;
+        }
+    }
+
+    /**
+     * Encodes a term's posting list. Documents must be written in increasing order.
+     */
+    private static final class PostingsWriter {
+        private byte[] data = new byte[8];
+        private int size;
+        private int lastDocument;
+        private int documentFrequency;
+
+        private void write(final int document, final int frequency) {
+            writeVarInt(document - lastDocument);
+            writeVarInt(frequency);
+            lastDocument = document;
+            documentFrequency++;
+        }
+
+        private void writeVarInt(final int value) {
+            if (size + 5 > data.length) {
+                data = Arrays.copyOf(data, data.length * 2);
+            }
+            var remaining = value;
+            while ((remaining & ~0x7F) != 0) {
+                data[size++] = (byte) ((remaining & 0x7F) | 0x80);
+                remaining >>>= 7;
+            }
+            data[size++] = (byte) remaining;
+        }
+
+        private Postings toPostings() {
+            return new Postings(Arrays.copyOf(data, size), documentFrequency);
+        }
+    }
+
+    /**
+     * Decodes a term's posting list while querying.
+     */
+    private static final class Cursor {
+        private final byte[] data;
+        private final double weight;
+        private int position;
+        private int document;
+        private int frequency;
+
+        private Cursor(final Postings postings, final double idf) {
+            this.data = postings.data;
+            this.weight = idf * (K1 + 1);
+        }
+
+        /**
+         * Moves to the next document.
+         *
+         * @return {@code true} if there was a next document, or {@code false} if the posting list is exhausted.
+         */
+        private boolean next() {
+            if (position >= data.length) {
+                return false;
+            }
+            document += readVarInt();
+            frequency = readVarInt();
+            return true;
+        }
+
+        private int readVarInt() {
+            var value = 0;
+            for (var shift = 0; ; shift += 7) {
+                final var current = data[position++];
+                value |= (current & 0x7F) << shift;
+                if ((current & 0x80) == 0) {
+                    return value;
+                }
+            }
+        }
+    }
+
+    /**
+     * A document together with its score for a given query.
+     */
+    private static final class ScoredDocument {
+        private final int document;
+        private final double score;
+
+        private ScoredDocument(final int document, final double score) {
+            this.document = document;
+            this.score = score;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Starts the native executable (built with a baked dataset, i.e {@code -PbakeDataset}) in mirror mode,
+ * and checks how long it takes to answer its first request, and how much memory it uses once it did.
+ * Limits can be changed through the {@code startup.max-first-response-ms} and {@code startup.max-rss-mb}
+ * system properties.
+ */
+class NativeStartupIT {
+
+    private Process process;
+    private int port;
+
+
+    @BeforeEach
+    void start() throws IOException {
+        final var image = System.getProperty("native.image.path");
+        assumeTrue(image != null && Files.isExecutable(Path.of(image)), "There is no native executable to start");
+        assumeTrue(Files.isDirectory(Path.of("/proc")), "The process' RSS can only be read from procfs");
+        try (final var socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        process = new ProcessBuilder(
+                image,
+                "-Dquarkus.http.port=" + port,
+                "-Djsonplaceholder.gateways.mode=mirror",
+                "-Djsonplaceholder.prewarm.enabled=false"
+        ).inheritIO().start();
+    }
+
+    @AfterEach
+    void stop() throws InterruptedException {
+        if (process != null) {
+            process.destroy();
+            process.waitFor(10, TimeUnit.SECONDS);
+        }
+    }
+
+
+    @Test
+    void whenStarted_thenFirstResponseIsFastAndMemoryIsLow() throws IOException, InterruptedException {
+        // Given
+        final var maxFirstResponse = Duration.ofMillis(Long.getLong("startup.max-first-response-ms", 250));
+        final var maxRssKb = Long.getLong("startup.max-rss-mb", 96) * 1024;
+        final var client = HttpClient.newHttpClient();
+        final var request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/users")).build();
+        final var start = process.info().startInstant().map(Instant::toEpochMilli)
+                .orElseGet(System::currentTimeMillis);
+        // When
+        final var elapsed = awaitFirstResponse(client, request, start);
+        final var rssKb = rssKb(process.pid());
+        // Then
+        assertTrue(
+                elapsed.compareTo(maxFirstResponse) <= 0,
+                "The first response took " + elapsed.toMillis() + " ms (max is " + maxFirstResponse.toMillis() + ")"
+        );
+        assertTrue(rssKb <= maxRssKb, "The RSS is " + rssKb + " kB (max is " + maxRssKb + ")");
+    }
+
+
+    private static Duration awaitFirstResponse(final HttpClient client, final HttpRequest request, final long start)
+            throws InterruptedException {
+        final var deadline = start + TimeUnit.SECONDS.toMillis(30);
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                final var response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) {
+                    return Duration.ofMillis(System.currentTimeMillis() - start);
+                }
+            } catch (final IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(1);
+        }
+        throw new AssertionError("The application did not answer within 30 seconds");
+    }
+
+    private static long rssKb(final long pid) throws IOException {
+        return Files.readAllLines(Path.of("/proc", Long.toString(pid), "status"))
+                .stream()
+                .filter(line -> line.startsWith("VmRSS:"))
+                .map(line -> line.replaceAll("\\D", ""))
+                .mapToLong(Long::parseLong)
+                .findFirst()
+                .orElseThrow(() -> new IOException("Could not read the process' RSS"));
+    }
+}
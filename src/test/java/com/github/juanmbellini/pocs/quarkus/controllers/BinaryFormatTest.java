@@ -0,0 +1,142 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.controllers;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufMapper;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchemaLoader;
+import com.github.juanmbellini.pocs.quarkus.models.Photo;
+import org.junit.jupiter.api.Test;
+
+import javax.ws.rs.core.MediaType;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BinaryFormatTest {
+
+    @Test
+    void whenWritingCbor_thenTheCollectionCanBeReadBack() throws IOException {
+        // Given
+        final var photos = photos();
+        final var output = new ByteArrayOutputStream();
+        // When
+        BinaryFormat.CBOR.encoder(new ObjectMapper()).write(photos, output);
+        // Then
+        final var jsonMapper = new ObjectMapper();
+        assertEquals(
+                jsonMapper.readTree(jsonMapper.writeValueAsBytes(photos)),
+                new CBORMapper().readTree(output.toByteArray()),
+                "The CBOR collection is not the expected"
+        );
+    }
+
+    @Test
+    void whenWritingProtobuf_thenEachElementIsALengthDelimitedMessage() throws IOException {
+        // Given
+        final var photos = photos();
+        final var output = new ByteArrayOutputStream();
+        // When
+        BinaryFormat.PROTOBUF.encoder(new ObjectMapper()).write(photos, output);
+        // Then
+        final var schema = ProtobufSchemaLoader.std
+                .loadNative(BinaryFormat.class.getResource(BinaryFormat.PROTOBUF_SCHEMA));
+        final var reader = new ProtobufMapper().readerFor(Photo.class).with(schema.forType("Photo"));
+        final var buffer = ByteBuffer.wrap(output.toByteArray());
+        final var ids = new ArrayList<Long>();
+        while (buffer.hasRemaining()) {
+            final var message = new byte[readVarint(buffer)];
+            buffer.get(message);
+            ids.add(reader.readTree(message).get("id").asLong());
+        }
+        assertEquals(List.of(1L, 2L), ids, "Each photo must be written as a length-delimited message");
+    }
+
+    @Test
+    void whenWritingProtobuf_thenFieldsHaveThePublishedNumbers() throws IOException {
+        // Given
+        final var photo = Photo.builder().id(1L).albumId(2L).build();
+        final var output = new ByteArrayOutputStream();
+        // When
+        BinaryFormat.PROTOBUF.encoder(new ObjectMapper()).write(List.of(photo), output);
+        // Then
+        assertArrayEquals(
+                new byte[]{4, ID_TAG, 1, ALBUM_ID_TAG, 2},
+                output.toByteArray(),
+                "The photo's fields must be written with the numbers of the published schema"
+        );
+    }
+
+    @Test
+    void whenTheObjectMapperIsConfigured_thenTheBinaryFormatsFollowIt() throws IOException {
+        // Given
+        final var objectMapper = new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        final var photo = Photo.builder().id(1L).build();
+        final var output = new ByteArrayOutputStream();
+        // When
+        BinaryFormat.CBOR.encoder(objectMapper).write(List.of(photo), output);
+        // Then
+        final var written = new CBORMapper().readTree(output.toByteArray()).get(0);
+        assertEquals(1L, written.get("id").asLong(), "The photo's id must be written");
+        assertFalse(written.has("title"), "Null properties must be excluded, as configured in the ObjectMapper");
+    }
+
+    @Test
+    void whenMediaTypeIsAWildcard_thenNoFormatIsFound() {
+        // When
+        final var wildcard = BinaryFormat.of(MediaType.WILDCARD_TYPE);
+        final var applicationWildcard = BinaryFormat.of(MediaType.valueOf("application/*"));
+        final var protobuf = BinaryFormat.of(MediaType.valueOf(BinaryFormat.PROTOBUF_TYPE));
+        // Then
+        assertTrue(wildcard.isEmpty(), "A wildcard must not select a binary format");
+        assertTrue(applicationWildcard.isEmpty(), "A wildcard subtype must not select a binary format");
+        assertEquals(BinaryFormat.PROTOBUF, protobuf.orElseThrow(), "The format is not the expected");
+    }
+
+
+    private static List<Photo> photos() {
+        return List.of(
+                Photo.builder().id(1L).albumId(1L).title("accusamus beatae ad facilis cum similique qui sunt").build(),
+                Photo.builder().id(2L).albumId(1L).title("reprehenderit est deserunt velit ipsam").build()
+        );
+    }
+
+    private static int readVarint(final ByteBuffer buffer) {
+        var value = 0;
+        var shift = 0;
+        byte current;
+        do {
+            current = buffer.get();
+            value |= (current & 0x7F) << shift;
+            shift += 7;
+        } while ((current & 0x80) != 0);
+        return value;
+    }
+
+
+    private static final byte ID_TAG = 1 << 3; // Field 1, varint
+    private static final byte ALBUM_ID_TAG = 3 << 3; // Field 3, varint
+}
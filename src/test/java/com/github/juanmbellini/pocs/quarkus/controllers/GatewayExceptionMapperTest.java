@@ -0,0 +1,58 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.controllers;
+
+import com.github.juanmbellini.pocs.quarkus.exceptions.GatewayException;
+import org.junit.jupiter.api.Test;
+
+import javax.ws.rs.core.Response;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GatewayExceptionMapperTest {
+
+    @Test
+    void whenGatewayExceptionCarriesA503_thenA503IsAnswered() {
+        // Given
+        final var exception = new GatewayException(Response.status(Response.Status.SERVICE_UNAVAILABLE).build(), "x");
+        // When
+        final var response = new GatewayExceptionMapper().toResponse(exception);
+        // Then
+        assertEquals(503, response.getStatus(), "Rejected calls must be answered with a 503");
+    }
+
+    @Test
+    void whenGatewayExceptionCarriesNoResponse_thenA500IsAnswered() {
+        // Given
+        final var exception = new GatewayException(new IllegalStateException());
+        // When
+        final var response = new GatewayExceptionMapper().toResponse(exception);
+        // Then
+        assertEquals(500, response.getStatus(), "Other gateway failures must be answered with a 500");
+    }
+
+    @Test
+    void whenGatewayExceptionIsWrapped_thenItsStatusIsResolved() {
+        // Given
+        final var exception = new GatewayException(Response.status(Response.Status.SERVICE_UNAVAILABLE).build(), "x");
+        // When
+        final var status = GatewayExceptionMapper.statusOf(new CompletionException(exception));
+        // Then
+        assertEquals(503, status, "The wrapped GatewayException's status must be resolved");
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.juanmbellini.pocs.quarkus.models.User;
+import com.github.juanmbellini.pocs.quarkus.usecases.GetAlbumsAsync;
+import com.github.juanmbellini.pocs.quarkus.usecases.GetCommentsAsync;
+import com.github.juanmbellini.pocs.quarkus.usecases.GetPhotosAsync;
+import com.github.juanmbellini.pocs.quarkus.usecases.GetPhotosPageAsync;
+import com.github.juanmbellini.pocs.quarkus.usecases.GetUserAlbumsAsync;
+import com.github.juanmbellini.pocs.quarkus.usecases.GetUserPhotosAsync;
+import com.github.juanmbellini.pocs.quarkus.usecases.GetUsersAsync;
+import com.github.juanmbellini.pocs.quarkus.usecases.SearchAsync;
+import org.eclipse.microprofile.health.HealthCheckResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PrewarmReadinessCheckTest {
+
+    @Test
+    void whenPrewarmIsRunning_thenReadinessIsDownUntilItFinishes() throws Exception {
+        // Given
+        final var users = new CompletableFuture<List<User>>();
+        final var prewarm = buildPrewarm(users, Duration.ofSeconds(5));
+        final var readinessCheck = new PrewarmReadinessCheck(prewarm);
+        final var run = CompletableFuture.runAsync(prewarm::run);
+        // When
+        final var whileRunning = readinessCheck.call().getState();
+        users.complete(List.of());
+        run.get(5, TimeUnit.SECONDS);
+        final var afterRunning = readinessCheck.call().getState();
+        // Then
+        assertFalse(run.isCompletedExceptionally(), "The prewarm must not fail");
+        assertEquals(HealthCheckResponse.State.DOWN, whileRunning, "Readiness must be down while prewarming");
+        assertEquals(HealthCheckResponse.State.UP, afterRunning, "Readiness must be up once prewarmed");
+    }
+
+    @Test
+    void whenPrewarmBudgetIsExhausted_thenReadinessIsUp() {
+        // Given
+        final var prewarm = buildPrewarm(new CompletableFuture<>(), Duration.ofMillis(50));
+        final var readinessCheck = new PrewarmReadinessCheck(prewarm);
+        // When
+        prewarm.run();
+        // Then
+        assertEquals(
+                HealthCheckResponse.State.UP,
+                readinessCheck.call().getState(),
+                "Readiness must be up once the budget is exhausted"
+        );
+    }
+
+    @Test
+    void whenPrewarmFails_thenReadinessIsUp() {
+        // Given
+        final var prewarm = buildPrewarm(
+                CompletableFuture.failedFuture(new IllegalStateException("Upstream is down")),
+                Duration.ofSeconds(5)
+        );
+        final var readinessCheck = new PrewarmReadinessCheck(prewarm);
+        // When
+        prewarm.run();
+        // Then
+        assertEquals(
+                HealthCheckResponse.State.UP,
+                readinessCheck.call().getState(),
+                "Readiness must be up once prewarming failed"
+        );
+    }
+
+
+    private static Prewarm buildPrewarm(final CompletableFuture<List<User>> users, final Duration budget) {
+        final var getUsers = mock(GetUsersAsync.class);
+        final var getAlbums = mock(GetAlbumsAsync.class);
+        final var getPhotos = mock(GetPhotosAsync.class);
+        final var getComments = mock(GetCommentsAsync.class);
+        when(getUsers.get()).thenReturn(users);
+        when(getAlbums.get()).thenReturn(CompletableFuture.completedFuture(List.of()));
+        when(getPhotos.get()).thenReturn(CompletableFuture.completedFuture(List.of()));
+        when(getComments.apply(null, null)).thenReturn(CompletableFuture.completedFuture(List.of()));
+        return new Prewarm(
+                getUsers,
+                getAlbums,
+                getPhotos,
+                getComments,
+                mock(GetUserAlbumsAsync.class),
+                mock(GetUserPhotosAsync.class),
+                mock(GetPhotosPageAsync.class),
+                mock(SearchAsync.class),
+                new ObjectMapper(),
+                true,
+                budget,
+                0 // Only the gateways are called
+        );
+    }
+}
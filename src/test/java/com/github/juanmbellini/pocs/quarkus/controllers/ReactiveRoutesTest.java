@@ -0,0 +1,260 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.juanmbellini.pocs.quarkus.exceptions.GatewayException;
+import com.github.juanmbellini.pocs.quarkus.models.Album;
+import com.github.juanmbellini.pocs.quarkus.models.Photo;
+import com.github.juanmbellini.pocs.quarkus.models.User;
+import com.github.juanmbellini.pocs.quarkus.usecases.GetAlbumsAsync;
+import com.github.juanmbellini.pocs.quarkus.usecases.GetCommentsAsync;
+import com.github.juanmbellini.pocs.quarkus.usecases.GetCommentsPageAsync;
+import com.github.juanmbellini.pocs.quarkus.usecases.GetPhotosAsync;
+import com.github.juanmbellini.pocs.quarkus.usecases.GetPhotosPageAsync;
+import com.github.juanmbellini.pocs.quarkus.usecases.GetUserAlbumsAsync;
+import com.github.juanmbellini.pocs.quarkus.usecases.GetUserPhotosAsync;
+import com.github.juanmbellini.pocs.quarkus.usecases.GetUsersAsync;
+import io.vertx.core.Vertx;
+import io.vertx.ext.web.Router;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ReactiveRoutesTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final GetUsersAsync getUsers = mock(GetUsersAsync.class);
+    private final GetPhotosPageAsync getPhotosPage = mock(GetPhotosPageAsync.class);
+    private final GetUserAlbumsAsync getUserAlbums = mock(GetUserAlbumsAsync.class);
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    private Vertx vertx;
+    private int port;
+
+
+    @BeforeEach
+    void startServer() throws Exception {
+        vertx = Vertx.vertx();
+        final var enabledRoutes = buildRoutes(true);
+        final var disabledRoutes = buildRoutes(false);
+        final var router = Router.router(vertx);
+        router.get("/users").produces(MediaType.APPLICATION_JSON).handler(enabledRoutes::getUsers);
+        router.get("/photos").produces(MediaType.APPLICATION_JSON).handler(enabledRoutes::getPhotos);
+        router.get("/users/:id/albums").produces(MediaType.APPLICATION_JSON).handler(enabledRoutes::getUserAlbums);
+        router.get("/disabled/users").handler(disabledRoutes::getUsers);
+        router.route().handler(context -> context.response().end(NEXT)); // Stands for the JAX-RS resources
+        final var listening = new CompletableFuture<Integer>();
+        vertx.createHttpServer().requestHandler(router).listen(0, result -> {
+            if (result.succeeded()) {
+                listening.complete(result.result().actualPort());
+            } else {
+                listening.completeExceptionally(result.cause());
+            }
+        });
+        port = listening.get(5, TimeUnit.SECONDS);
+    }
+
+    @AfterEach
+    void stopServer() {
+        vertx.close();
+    }
+
+
+    @Test
+    void whenClientAcceptsGzip_thenTheCollectionIsCompressed() throws Exception {
+        // Given
+        final var users = List.of(User.builder().id(1L).name("Leanne Graham").build());
+        when(getUsers.get()).thenReturn(CompletableFuture.completedFuture(users));
+        // When
+        final var response = get("/users", HttpHeaders.ACCEPT_ENCODING, "gzip");
+        // Then
+        assertEquals(200, response.statusCode(), "The request must succeed");
+        assertEquals(
+                "gzip",
+                response.headers().firstValue(HttpHeaders.CONTENT_ENCODING).orElse(null),
+                "The response must be compressed"
+        );
+        assertArrayEquals(
+                objectMapper.writeValueAsBytes(users),
+                gunzip(response.body()),
+                "The decompressed body must be the serialized users"
+        );
+    }
+
+    @Test
+    void whenPageIsFull_thenANextLinkIsAdded() throws Exception {
+        // Given
+        final var photos = List.of(Photo.builder().id(1L).build(), Photo.builder().id(2L).build());
+        when(getPhotosPage.apply(any())).thenReturn(CompletableFuture.completedFuture(photos));
+        // When
+        final var response = get("/photos?after=0&limit=2");
+        // Then
+        assertEquals(200, response.statusCode(), "The request must succeed");
+        final var link = response.headers().firstValue(HttpHeaders.LINK).orElse("");
+        assertTrue(link.contains("after=2") && link.contains("limit=2"), "The link must point to the next page");
+        assertTrue(link.contains("rel=\"next\""), "The link must be the next one");
+    }
+
+    @Test
+    void whenIdIsNotNumericOrOutOfRange_thenRequestIsPassedOn() throws Exception {
+        // When
+        final var nonNumeric = get("/users/abc/albums");
+        final var outOfRange = get("/users/99999999999999999999/albums");
+        // Then
+        assertEquals(NEXT, new String(nonNumeric.body()), "Non numeric ids must be passed on");
+        assertEquals(NEXT, new String(outOfRange.body()), "Out of range ids must be passed on");
+    }
+
+    @Test
+    void whenIdIsValid_thenTheUserAlbumsAreServed() throws Exception {
+        // Given
+        final var albums = List.of(Album.builder().id(1L).userId(1L).title("quidem molestiae enim").build());
+        when(getUserAlbums.apply(1L)).thenReturn(CompletableFuture.completedFuture(albums));
+        // When
+        final var response = get("/users/1/albums");
+        // Then
+        assertArrayEquals(objectMapper.writeValueAsBytes(albums), response.body(), "The albums must be served");
+    }
+
+    @Test
+    void whenUserAlbumsAreNotAcceptedAsJson_thenRequestIsPassedOn() throws Exception {
+        // When
+        final var response = get("/users/1/albums", HttpHeaders.ACCEPT, MediaType.APPLICATION_XML);
+        // Then
+        assertEquals(NEXT, new String(response.body()), "Requests not accepting JSON must be passed on");
+        verifyNoInteractions(getUserAlbums);
+    }
+
+    @Test
+    void whenClientPrefersAnotherRepresentation_thenRequestIsPassedOn() throws Exception {
+        // When
+        final var protobuf = get(
+                "/users",
+                HttpHeaders.ACCEPT,
+                BinaryFormat.PROTOBUF_TYPE + ", " + MediaType.APPLICATION_JSON + ";q=0.1"
+        );
+        final var ndjson = get(
+                "/photos",
+                HttpHeaders.ACCEPT,
+                StreamedResponses.NDJSON + ", " + MediaType.APPLICATION_JSON + ";q=0.4"
+        );
+        // Then
+        assertEquals(NEXT, new String(protobuf.body()), "Requests preferring Protobuf must be passed on");
+        assertEquals(NEXT, new String(ndjson.body()), "Requests preferring NDJSON must be passed on");
+        verifyNoInteractions(getUsers, getPhotosPage);
+    }
+
+    @Test
+    void whenClientPrefersJsonAmongOtherRepresentations_thenTheCollectionIsServed() throws Exception {
+        // Given
+        final var users = List.of(User.builder().id(1L).name("Leanne Graham").build());
+        when(getUsers.get()).thenReturn(CompletableFuture.completedFuture(users));
+        // When
+        final var response = get(
+                "/users",
+                HttpHeaders.ACCEPT,
+                BinaryFormat.CBOR_TYPE + ";q=0.9, " + MediaType.APPLICATION_JSON + ";q=0.5"
+        );
+        // Then
+        assertArrayEquals(
+                objectMapper.writeValueAsBytes(users),
+                response.body(),
+                "JSON must be served when its quality times its server quality is the greatest"
+        );
+    }
+
+    @Test
+    void whenRoutesAreDisabled_thenRequestIsPassedOn() throws Exception {
+        // When
+        final var response = get("/disabled/users");
+        // Then
+        assertEquals(NEXT, new String(response.body()), "Requests must be passed on when routes are disabled");
+    }
+
+    @Test
+    void whenGatewayRejectsTheCall_thenServiceUnavailableIsAnswered() throws Exception {
+        // Given
+        final var rejection = new GatewayException(Response.status(Response.Status.SERVICE_UNAVAILABLE).build(), "x");
+        when(getUsers.get()).thenReturn(CompletableFuture.failedFuture(rejection));
+        // When
+        final var response = get("/users");
+        // Then
+        assertEquals(503, response.statusCode(), "Rejected calls must be answered with a 503");
+    }
+
+
+    private ReactiveRoutes buildRoutes(final boolean enabled) {
+        return new ReactiveRoutes(
+                getUsers,
+                mock(GetAlbumsAsync.class),
+                mock(GetPhotosAsync.class),
+                getPhotosPage,
+                mock(GetCommentsAsync.class),
+                mock(GetCommentsPageAsync.class),
+                getUserAlbums,
+                mock(GetUserPhotosAsync.class),
+                new Pagination(20, 100),
+                new SerializedResponses(objectMapper, true),
+                objectMapper,
+                enabled,
+                false
+        );
+    }
+
+    private HttpResponse<byte[]> get(final String path, final String... headers)
+            throws IOException, InterruptedException {
+        final var request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON)
+                .GET();
+        for (var i = 0; i < headers.length; i += 2) {
+            request.setHeader(headers[i], headers[i + 1]);
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static byte[] gunzip(final byte[] bytes) throws IOException {
+        try (final var gzip = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return gzip.readAllBytes();
+        }
+    }
+
+
+    private static final String NEXT = "next";
+}
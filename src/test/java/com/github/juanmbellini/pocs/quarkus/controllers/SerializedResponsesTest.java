@@ -0,0 +1,105 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.juanmbellini.pocs.quarkus.models.User;
+import org.junit.jupiter.api.Test;
+
+import javax.ws.rs.core.HttpHeaders;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SerializedResponsesTest {
+
+    @Test
+    void whenSameCollectionIsRequestedAgain_thenItIsNotSerializedAgain() throws IOException {
+        // Given
+        final var objectMapper = new ObjectMapper();
+        final var serializedResponses = new SerializedResponses(objectMapper, true);
+        final var users = List.of(User.builder().id(1L).name("Leanne Graham").build());
+        // When
+        final var first = serializedResponses.ok("users", users, headers(null));
+        final var second = serializedResponses.ok("users", users, headers(null));
+        // Then
+        assertArrayEquals(
+                objectMapper.writeValueAsBytes(users),
+                (byte[]) first.getEntity(),
+                "The serialized collection is not the expected"
+        );
+        assertSame(first.getEntity(), second.getEntity(), "An unchanged collection must not be serialized again");
+        assertNull(first.getHeaderString(HttpHeaders.CONTENT_ENCODING), "Plain responses must not be encoded");
+    }
+
+    @Test
+    void whenCollectionChanges_thenItIsSerializedAgain() throws IOException {
+        // Given
+        final var objectMapper = new ObjectMapper();
+        final var serializedResponses = new SerializedResponses(objectMapper, true);
+        final var users = List.of(User.builder().id(1L).name("Leanne Graham").build());
+        final var changed = List.of(User.builder().id(1L).name("Ervin Howell").build());
+        // When
+        final var first = serializedResponses.ok("users", users, headers(null));
+        final var second = serializedResponses.ok("users", changed, headers(null));
+        // Then
+        assertNotSame(first.getEntity(), second.getEntity(), "A changed collection must be serialized again");
+        assertArrayEquals(
+                objectMapper.writeValueAsBytes(changed),
+                (byte[]) second.getEntity(),
+                "The serialized collection is not the expected"
+        );
+    }
+
+    @Test
+    void whenClientAcceptsGzip_thenCompressedBytesAreReturned() throws IOException {
+        // Given
+        final var objectMapper = new ObjectMapper();
+        final var serializedResponses = new SerializedResponses(objectMapper, true);
+        final var users = List.of(User.builder().id(1L).name("Leanne Graham").build());
+        // When
+        final var gzipped = serializedResponses.ok("users", users, headers("deflate, gzip;q=0.8"));
+        final var refused = serializedResponses.ok("users", users, headers("gzip;q=0, deflate"));
+        // Then
+        assertEquals("gzip", gzipped.getHeaderString(HttpHeaders.CONTENT_ENCODING), "The encoding is not the expected");
+        try (final var input = new GZIPInputStream(new ByteArrayInputStream((byte[]) gzipped.getEntity()))) {
+            assertArrayEquals(
+                    objectMapper.writeValueAsBytes(users),
+                    input.readAllBytes(),
+                    "The compressed collection is not the expected"
+            );
+        }
+        assertNull(refused.getHeaderString(HttpHeaders.CONTENT_ENCODING), "Gzip must not be used when refused");
+    }
+
+
+    private static HttpHeaders headers(final String acceptEncoding) {
+        final var headers = mock(HttpHeaders.class);
+        when(headers.getRequestHeader(HttpHeaders.ACCEPT_ENCODING))
+                .thenReturn(acceptEncoding == null ? List.of() : List.of(acceptEncoding));
+        return headers;
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.juanmbellini.pocs.quarkus.models.User;
+import org.junit.jupiter.api.Test;
+
+import javax.ws.rs.core.StreamingOutput;
+import javax.ws.rs.sse.OutboundSseEvent;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseEventSink;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StreamedResponsesTest {
+
+    @Test
+    void whenStreamingAsNdjson_thenEachElementIsWrittenInItsOwnLine() throws IOException {
+        // Given
+        final var objectMapper = new ObjectMapper();
+        final var streamedResponses = new StreamedResponses(objectMapper);
+        final var users = List.of(
+                User.builder().id(1L).name("Leanne Graham").build(),
+                User.builder().id(2L).name("Ervin Howell").build()
+        );
+        final var output = new ByteArrayOutputStream();
+        final var expected = objectMapper.writeValueAsString(users.get(0)) + "\n"
+                + objectMapper.writeValueAsString(users.get(1)) + "\n";
+        // When
+        final var response = streamedResponses.ndjson(users::forEach);
+        ((StreamingOutput) response.getEntity()).write(output);
+        // Then
+        assertEquals(StreamedResponses.NDJSON, response.getMediaType().toString(), "The media type is not NDJSON");
+        assertEquals(
+                expected,
+                output.toString(StandardCharsets.UTF_8),
+                "Each element must be written in its own line"
+        );
+    }
+
+    @Test
+    void whenStreamingAsEvents_thenEachElementIsSentAndTheSinkIsClosed() throws IOException {
+        // Given
+        final var objectMapper = new ObjectMapper();
+        final var streamedResponses = new StreamedResponses(objectMapper);
+        final var users = List.of(
+                User.builder().id(1L).name("Leanne Graham").build(),
+                User.builder().id(2L).name("Ervin Howell").build()
+        );
+        final var sink = mock(SseEventSink.class);
+        final var sse = mock(Sse.class);
+        final var first = mock(OutboundSseEvent.class);
+        final var second = mock(OutboundSseEvent.class);
+        when(sse.newEvent(objectMapper.writeValueAsString(users.get(0)))).thenReturn(first);
+        when(sse.newEvent(objectMapper.writeValueAsString(users.get(1)))).thenReturn(second);
+        when(sink.send(any())).thenReturn(CompletableFuture.completedFuture(null));
+        // When
+        streamedResponses.events(sink, sse, users::forEach);
+        // Then
+        final var inOrder = inOrder(sink);
+        inOrder.verify(sink).send(first);
+        inOrder.verify(sink).send(second);
+        inOrder.verify(sink).close();
+    }
+
+    @Test
+    void whenStreamingAsJsonArray_thenTheElementsAreWrittenAsAnArray() throws IOException {
+        // Given
+        final var objectMapper = new ObjectMapper();
+        final var streamedResponses = new StreamedResponses(objectMapper);
+        final var users = List.of(
+                User.builder().id(1L).name("Leanne Graham").build(),
+                User.builder().id(2L).name("Ervin Howell").build()
+        );
+        final var output = new ByteArrayOutputStream();
+        // When
+        streamedResponses.jsonArray(users::forEach).write(output);
+        // Then
+        assertEquals(
+                objectMapper.writeValueAsString(users),
+                output.toString(StandardCharsets.UTF_8),
+                "The elements must be written as a JSON array"
+        );
+    }
+
+    @Test
+    void whenTheOutputFailsMidWrite_thenTheSourceIsStoppedWithoutAnUpstreamFailure() {
+        // Given
+        final var streamedResponses = new StreamedResponses(new ObjectMapper());
+        final var users = List.of(
+                User.builder().id(1L).name("Leanne Graham").build(),
+                User.builder().id(2L).name("Ervin Howell").build(),
+                User.builder().id(3L).name("Clementine Bauch").build()
+        );
+        final var output = new DisconnectingOutputStream(1);
+        final var thrownToSource = new ArrayList<RuntimeException>();
+        final Consumer<Consumer<User>> source = consumer -> {
+            for (final var user : users) {
+                try {
+                    consumer.accept(user);
+                } catch (final RuntimeException e) {
+                    thrownToSource.add(e);
+                    throw e;
+                }
+            }
+        };
+        // When
+        final var response = streamedResponses.ndjson(source);
+        // Then
+        assertDoesNotThrow(
+                () -> ((StreamingOutput) response.getEntity()).write(output),
+                "A disconnected client must not fail the request"
+        );
+        assertEquals(1, thrownToSource.size(), "The source must be stopped once the client disconnected");
+        assertFalse(
+                hasIoCause(thrownToSource.get(0)),
+                "The source must not be stopped with an IOException (i.e what the gateways take as upstream failures)"
+        );
+    }
+
+    @Test
+    void whenTheSinkIsClosed_thenNothingIsSentAndNothingIsThrown() {
+        // Given
+        final var streamedResponses = new StreamedResponses(new ObjectMapper());
+        final var users = List.of(
+                User.builder().id(1L).name("Leanne Graham").build(),
+                User.builder().id(2L).name("Ervin Howell").build()
+        );
+        final var sink = mock(SseEventSink.class);
+        final var sse = mock(Sse.class);
+        when(sink.isClosed()).thenReturn(true);
+        // When
+        streamedResponses.events(sink, sse, users::forEach);
+        // Then
+        verify(sink, never()).send(any());
+        verify(sink).close();
+    }
+
+    @Test
+    void whenSendingFails_thenTheSourceIsStoppedAndNothingIsThrown() {
+        // Given
+        final var streamedResponses = new StreamedResponses(new ObjectMapper());
+        final var users = List.of(
+                User.builder().id(1L).name("Leanne Graham").build(),
+                User.builder().id(2L).name("Ervin Howell").build()
+        );
+        final var sink = mock(SseEventSink.class);
+        final var sse = mock(Sse.class);
+        final var taken = new AtomicInteger();
+        when(sse.newEvent(any(String.class))).thenReturn(mock(OutboundSseEvent.class));
+        when(sink.send(any())).thenReturn(CompletableFuture.failedFuture(new IOException("Connection reset")));
+        // When
+        streamedResponses.events(sink, sse, consumer -> users.forEach(user -> {
+            taken.incrementAndGet();
+            consumer.accept(user);
+        }));
+        // Then
+        assertEquals(1, taken.get(), "The source must be stopped once the client disconnected");
+        verify(sink).close();
+    }
+
+    @Test
+    void whenCollectionFails_thenTheCauseIsThrown() {
+        // Given
+        final var failure = new IllegalStateException("Upstream failed");
+        final Consumer<Consumer<User>> elements = StreamedResponses.each(
+                () -> CompletableFuture.<List<User>>failedFuture(failure)
+        );
+        // When
+        final var thrown = assertThrows(IllegalStateException.class, () -> elements.accept(user -> {
+        }));
+        // Then
+        assertSame(failure, thrown, "The collection's failure must be thrown as is");
+    }
+
+
+    private static boolean hasIoCause(final Throwable throwable) {
+        var cause = throwable;
+        while (cause != null) {
+            if (cause instanceof IOException) {
+                return true;
+            }
+            cause = cause.getCause();
+        }
+        return false;
+    }
+
+
+    /**
+     * An {@link OutputStream} that fails once a given amount of writes were performed (i.e as a disconnected client).
+     */
+    private static final class DisconnectingOutputStream extends OutputStream {
+
+        private int remainingWrites;
+
+
+        private DisconnectingOutputStream(final int writes) {
+            this.remainingWrites = writes;
+        }
+
+
+        @Override
+        public void write(final int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            if (remainingWrites-- <= 0) {
+                throw new IOException("Connection reset by peer");
+            }
+        }
+    }
+}
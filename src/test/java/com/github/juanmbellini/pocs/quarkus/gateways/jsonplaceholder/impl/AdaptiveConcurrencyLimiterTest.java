@@ -0,0 +1,110 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTest {
+
+
+    @Test
+    void whenConcurrentCallsAreSlow_thenLimitIsDecreasedOncePerRoundTrip() {
+        // Given
+        final var clock = new AtomicLong();
+        final var limiter = buildLimiter(clock);
+        establishBaseline(limiter, clock);
+        for (int i = 0; i < INITIAL_LIMIT; i++) {
+            limiter.tryAcquire();
+        }
+        // When
+        clock.addAndGet(SLOW_LATENCY);
+        for (int i = 0; i < INITIAL_LIMIT; i++) {
+            limiter.onSuccess(SLOW_LATENCY);
+        }
+        // Then
+        assertEquals(
+                (int) (INITIAL_LIMIT * BACKOFF_RATIO),
+                limiter.getLimit(),
+                "Calls started before the decrease must not decrease the limit again"
+        );
+    }
+
+    @Test
+    void whenCallsStartedAfterADecreaseAreSlow_thenLimitIsDecreasedAgain() {
+        // Given
+        final var clock = new AtomicLong();
+        final var limiter = buildLimiter(clock);
+        establishBaseline(limiter, clock);
+        limiter.tryAcquire();
+        clock.addAndGet(SLOW_LATENCY);
+        limiter.onFailure(SLOW_LATENCY);
+        final var limitAfterFirstDecrease = limiter.getLimit();
+        // When
+        limiter.tryAcquire();
+        clock.addAndGet(SLOW_LATENCY);
+        limiter.onSuccess(SLOW_LATENCY);
+        // Then
+        assertTrue(limiter.getLimit() < limitAfterFirstDecrease, "The limit must be decreased again");
+    }
+
+    @Test
+    void whenLimitIsReached_thenCallsAreRejected() {
+        // Given
+        final var limiter = buildLimiter(new AtomicLong());
+        for (int i = 0; i < INITIAL_LIMIT; i++) {
+            assertTrue(limiter.tryAcquire(), "Calls must be allowed below the limit");
+        }
+        // When
+        final var allowed = limiter.tryAcquire();
+        // Then
+        assertFalse(allowed, "Calls must be rejected once the limit is reached");
+        assertEquals(INITIAL_LIMIT, limiter.getInFlight(), "The rejected call must not be in flight");
+    }
+
+
+    private static AdaptiveConcurrencyLimiter buildLimiter(final AtomicLong clock) {
+        return new AdaptiveConcurrencyLimiter(
+                INITIAL_LIMIT,
+                MIN_LIMIT,
+                MAX_LIMIT,
+                BACKOFF_RATIO,
+                LATENCY_TOLERANCE,
+                clock::get
+        );
+    }
+
+    private static void establishBaseline(final AdaptiveConcurrencyLimiter limiter, final AtomicLong clock) {
+        limiter.tryAcquire();
+        clock.addAndGet(BASELINE_LATENCY);
+        limiter.onSuccess(BASELINE_LATENCY);
+    }
+
+
+    private static final int INITIAL_LIMIT = 20;
+    private static final int MIN_LIMIT = 1;
+    private static final int MAX_LIMIT = 32;
+    private static final double BACKOFF_RATIO = 0.9;
+    private static final double LATENCY_TOLERANCE = 2.0;
+    private static final long BASELINE_LATENCY = 1_000_000L;
+    private static final long SLOW_LATENCY = 10 * BASELINE_LATENCY;
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.PhotosGateway;
+import com.github.juanmbellini.pocs.quarkus.models.Photo;
+import org.eclipse.microprofile.config.Config;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.only;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachingPhotosGatewayTest {
+
+    @Test
+    void whenAlbumsPhotosAreRequestedAgain_thenTheyAreServedFromTheCache() {
+        // Given
+        final var delegate = mock(PhotosGateway.class);
+        final var albumIds = List.of(1L, 2L);
+        when(delegate.getAlbumsPhotosAsync(albumIds)).thenReturn(CompletableFuture.completedFuture(photos()));
+        final var gateway = new CachingPhotosGateway(delegate, new GatewayCaches(mock(Config.class)));
+        // When
+        final var first = gateway.getAlbumsPhotos(new ArrayList<>(albumIds));
+        final var second = gateway.getAlbumsPhotosAsync(albumIds).toCompletableFuture().join();
+        // Then
+        assertEquals(List.of(1L, 2L), ids(first), "The photos are not the expected");
+        assertEquals(List.of(1L, 2L), ids(second), "The cached photos are not the expected");
+        verify(delegate, times(1)).getAlbumsPhotosAsync(albumIds);
+    }
+
+    @Test
+    void whenPhotosAreCached_thenTheyAreStreamedFromTheCache() {
+        // Given
+        final var delegate = mock(PhotosGateway.class);
+        when(delegate.getPhotosAsync()).thenReturn(CompletableFuture.completedFuture(photos()));
+        final var gateway = new CachingPhotosGateway(delegate, new GatewayCaches(mock(Config.class)));
+        gateway.getPhotos();
+        final var streamed = new ArrayList<Photo>();
+        // When
+        gateway.streamPhotos(streamed::add);
+        // Then
+        assertEquals(List.of(1L, 2L), ids(streamed), "The streamed photos are not the expected");
+        verify(delegate, never()).streamPhotos(any());
+    }
+
+    @Test
+    void whenPhotosAreNotCached_thenTheyAreStreamedFromTheDelegate() {
+        // Given
+        final var delegate = mock(PhotosGateway.class);
+        final var gateway = new CachingPhotosGateway(delegate, new GatewayCaches(mock(Config.class)));
+        final Consumer<Photo> consumer = photo -> {
+        };
+        // When
+        gateway.streamPhotos(consumer);
+        // Then
+        verify(delegate, only()).streamPhotos(consumer);
+    }
+
+
+    private static List<Photo> photos() {
+        return List.of(
+                Photo.builder().id(1L).albumId(1L).title("accusamus beatae ad facilis cum similique qui sunt").build(),
+                Photo.builder().id(2L).albumId(2L).title("reprehenderit est deserunt velit ipsam").build()
+        );
+    }
+
+    private static List<Long> ids(final List<Photo> photos) {
+        final var ids = new ArrayList<Long>();
+        photos.forEach(photo -> ids.add(photo.getId()));
+        return ids;
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.UsersGateway;
+import com.github.juanmbellini.pocs.quarkus.models.User;
+import org.eclipse.microprofile.config.Config;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.only;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachingUsersGatewayTest {
+
+    @Test
+    void whenUsersAreRequestedAgain_thenTheyAreServedFromTheCache() {
+        // Given
+        final var delegate = mock(UsersGateway.class);
+        final var users = List.of(User.builder().id(1L).name("Leanne Graham").build());
+        when(delegate.getUsersAsync()).thenReturn(CompletableFuture.completedFuture(users));
+        final var gateway = new CachingUsersGateway(delegate, new GatewayCaches(mock(Config.class)));
+        // When
+        final var first = gateway.getUsers();
+        final var second = gateway.getUsersAsync().toCompletableFuture().join();
+        // Then
+        assertSame(users, first, "The users are not the expected");
+        assertSame(users, second, "The cached users are not the expected");
+        verify(delegate, only()).getUsersAsync();
+    }
+}
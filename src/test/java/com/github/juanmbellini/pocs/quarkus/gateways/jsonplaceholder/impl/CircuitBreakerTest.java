@@ -0,0 +1,148 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+
+
+    @Test
+    void whenFailureRatioIsReached_thenCircuitOpensAndRejectsCalls() {
+        // Given
+        final var transitions = new ArrayList<CircuitBreaker.State>();
+        final var circuitBreaker = buildCircuitBreaker(new AtomicLong(), transitions);
+        // When
+        for (int i = 0; i < MINIMUM_CALLS; i++) {
+            assertTrue(circuitBreaker.tryAcquire(), "Calls must be allowed while the circuit is closed");
+            circuitBreaker.onFailure();
+        }
+        // Then
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState(), "The circuit must be open");
+        assertFalse(circuitBreaker.tryAcquire(), "Calls must be rejected while the circuit is open");
+        assertEquals(List.of(CircuitBreaker.State.OPEN), transitions, "The transition must be published");
+    }
+
+    @Test
+    void whenFailuresAreBelowMinimumCalls_thenCircuitStaysClosed() {
+        // Given
+        final var circuitBreaker = buildCircuitBreaker(new AtomicLong(), new ArrayList<>());
+        // When
+        for (int i = 0; i < MINIMUM_CALLS - 1; i++) {
+            circuitBreaker.tryAcquire();
+            circuitBreaker.onFailure();
+        }
+        // Then
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState(), "The circuit must stay closed");
+    }
+
+    @Test
+    void whenOpenDelayElapsesAndTrialCallsSucceed_thenCircuitCloses() {
+        // Given
+        final var clock = new AtomicLong();
+        final var transitions = new ArrayList<CircuitBreaker.State>();
+        final var circuitBreaker = buildCircuitBreaker(clock, transitions);
+        openCircuit(circuitBreaker);
+        clock.addAndGet(OPEN_DELAY.toNanos());
+        // When
+        for (int i = 0; i < HALF_OPEN_CALLS; i++) {
+            assertTrue(circuitBreaker.tryAcquire(), "Trial calls must be allowed once the delay elapses");
+        }
+        final var extraCallAllowed = circuitBreaker.tryAcquire();
+        for (int i = 0; i < HALF_OPEN_CALLS; i++) {
+            circuitBreaker.onSuccess();
+        }
+        // Then
+        assertFalse(extraCallAllowed, "Only the configured amount of trial calls must be allowed");
+        assertEquals(
+                List.of(CircuitBreaker.State.OPEN, CircuitBreaker.State.HALF_OPEN, CircuitBreaker.State.CLOSED),
+                transitions,
+                "The transitions are not the expected"
+        );
+    }
+
+    @Test
+    void whenTrialCallFails_thenCircuitOpensAgain() {
+        // Given
+        final var clock = new AtomicLong();
+        final var circuitBreaker = buildCircuitBreaker(clock, new ArrayList<>());
+        openCircuit(circuitBreaker);
+        clock.addAndGet(OPEN_DELAY.toNanos());
+        circuitBreaker.tryAcquire();
+        // When
+        circuitBreaker.onFailure();
+        // Then
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState(), "The circuit must be open again");
+        assertFalse(circuitBreaker.tryAcquire(), "Calls must be rejected until the delay elapses again");
+    }
+
+    @Test
+    void whenLateOutcomesArriveWhileOpen_thenTheyAreIgnored() {
+        // Given
+        final var clock = new AtomicLong();
+        final var transitions = new ArrayList<CircuitBreaker.State>();
+        final var circuitBreaker = buildCircuitBreaker(clock, transitions);
+        openCircuit(circuitBreaker);
+        clock.addAndGet(OPEN_DELAY.toNanos() - 1);
+        // When
+        circuitBreaker.onFailure();
+        circuitBreaker.onSuccess();
+        clock.incrementAndGet();
+        // Then
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState(), "The circuit must still be open");
+        assertEquals(List.of(CircuitBreaker.State.OPEN), transitions, "No transition must be published again");
+        assertTrue(circuitBreaker.tryAcquire(), "The open delay must not be restarted by late outcomes");
+    }
+
+
+    private static CircuitBreaker buildCircuitBreaker(
+            final AtomicLong clock,
+            final List<CircuitBreaker.State> transitions) {
+        return new CircuitBreaker(
+                WINDOW_SIZE,
+                MINIMUM_CALLS,
+                FAILURE_RATIO,
+                OPEN_DELAY,
+                HALF_OPEN_CALLS,
+                clock::get,
+                transitions::add
+        );
+    }
+
+    private static void openCircuit(final CircuitBreaker circuitBreaker) {
+        for (int i = 0; i < MINIMUM_CALLS; i++) {
+            circuitBreaker.tryAcquire();
+            circuitBreaker.onFailure();
+        }
+    }
+
+
+    private static final int WINDOW_SIZE = 10;
+    private static final int MINIMUM_CALLS = 5;
+    private static final double FAILURE_RATIO = 0.5;
+    private static final Duration OPEN_DELAY = Duration.ofSeconds(5);
+    private static final int HALF_OPEN_CALLS = 2;
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.PhotosGateway;
+import com.github.juanmbellini.pocs.quarkus.models.PageRequest;
+import com.github.juanmbellini.pocs.quarkus.models.Photo;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.only;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class DatabasePhotosGatewayTest {
+
+    @Test
+    void whenTableIsNotLoaded_thenCallsGoToTheFallback() throws Exception {
+        // Given
+        final var database = mock(JsonPlaceholderDatabase.class);
+        final var store = mock(JsonPlaceholderStore.class);
+        final var fallback = mock(PhotosGateway.class);
+        final var photos = List.of(Photo.builder().id(1L).albumId(1L).build());
+        final var page = PageRequest.builder().after(0L).limit(10).build();
+        when(database.isLoaded(JsonPlaceholderDatabase.Table.PHOTOS)).thenReturn(false);
+        when(fallback.getPhotosAsync(page)).thenReturn(CompletableFuture.completedFuture(photos));
+        final var gateway = new DatabasePhotosGateway(database, store, fallback);
+        // When
+        final var returned = gateway.getPhotosAsync(page).toCompletableFuture().get(5, TimeUnit.SECONDS);
+        // Then
+        assertSame(photos, returned, "The fallback's photos must be returned");
+        verify(fallback, only()).getPhotosAsync(page);
+        verifyNoInteractions(store);
+    }
+
+    @Test
+    void whenTableIsLoaded_thenCallsAreServedFromTheStoreOnTheDatabaseExecutor() throws Exception {
+        // Given
+        final var database = mock(JsonPlaceholderDatabase.class);
+        final var store = mock(JsonPlaceholderStore.class);
+        final var fallback = mock(PhotosGateway.class);
+        final var photos = List.of(Photo.builder().id(1L).albumId(1L).build());
+        final var page = PageRequest.builder().after(0L).limit(10).build();
+        final var executions = new AtomicInteger();
+        final Executor executor = command -> {
+            executions.incrementAndGet();
+            command.run();
+        };
+        when(database.isLoaded(JsonPlaceholderDatabase.Table.PHOTOS)).thenReturn(true);
+        when(database.getExecutor()).thenReturn(executor);
+        when(store.getPhotos(page)).thenReturn(photos);
+        final var gateway = new DatabasePhotosGateway(database, store, fallback);
+        // When
+        final var returned = gateway.getPhotosAsync(page).toCompletableFuture().get(5, TimeUnit.SECONDS);
+        // Then
+        assertSame(photos, returned, "The store's photos must be returned");
+        assertEquals(1, executions.get(), "The store must be read on the database's executor");
+        verify(store, only()).getPhotos(page);
+        verifyNoInteractions(fallback);
+    }
+
+    @Test
+    void whenAlbumsTableIsNotLoaded_thenUserPhotosAreNotJoined() {
+        // Given
+        final var database = mock(JsonPlaceholderDatabase.class);
+        final var store = mock(JsonPlaceholderStore.class);
+        final var fallback = mock(PhotosGateway.class);
+        when(database.isLoaded(JsonPlaceholderDatabase.Table.ALBUMS)).thenReturn(false);
+        when(database.isLoaded(JsonPlaceholderDatabase.Table.PHOTOS)).thenReturn(true);
+        final var gateway = new DatabasePhotosGateway(database, store, fallback);
+        // When
+        final var returned = gateway.getUserPhotos(1L);
+        // Then
+        assertEquals(Optional.empty(), returned, "User photos must not be joined until albums are loaded");
+        verifyNoInteractions(store, fallback);
+    }
+
+    @Test
+    void whenAlbumsAndPhotosTablesAreLoaded_thenUserPhotosAreJoined() {
+        // Given
+        final var database = mock(JsonPlaceholderDatabase.class);
+        final var store = mock(JsonPlaceholderStore.class);
+        final var fallback = mock(PhotosGateway.class);
+        final var photos = List.of(Photo.builder().id(1L).albumId(1L).build());
+        when(database.isLoaded(JsonPlaceholderDatabase.Table.ALBUMS)).thenReturn(true);
+        when(database.isLoaded(JsonPlaceholderDatabase.Table.PHOTOS)).thenReturn(true);
+        when(store.getUserPhotos(1L)).thenReturn(photos);
+        final var gateway = new DatabasePhotosGateway(database, store, fallback);
+        // When
+        final var returned = gateway.getUserPhotos(1L);
+        // Then
+        assertEquals(Optional.of(photos), returned, "The joined user photos must be returned");
+        verify(store, only()).getUserPhotos(1L);
+        verifyNoInteractions(fallback);
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import io.smallrye.metrics.MetricRegistries;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GatewayHedgingTest {
+
+
+    @Test
+    void whenHedgingIsDisabled_thenOperationIsNotWrapped() {
+        // Given
+        final var hedging = new GatewayHedging(mock(Config.class), METRIC_REGISTRY);
+        final var stage = new CompletableFuture<String>();
+        // When
+        final var returned = hedging.executeAsync("disabled", () -> stage);
+        // Then
+        assertSame(stage, returned, "The operation's stage must be returned as is");
+    }
+
+    @Test
+    void whenCallIsSlowerThanPercentile_thenHedgeIsSentAndWins() throws Exception {
+        // Given
+        final var config = buildEnabledConfig();
+        final var hedging = new GatewayHedging(config, METRIC_REGISTRY);
+        hedging.executeAsync("slow", () -> CompletableFuture.completedFuture("warm-up")).toCompletableFuture().join();
+        final var slow = new CompletableFuture<String>();
+        final var calls = new AtomicInteger();
+        // When
+        final var result = hedging.executeAsync(
+                "slow",
+                () -> calls.getAndIncrement() == 0 ? slow : CompletableFuture.completedFuture("hedge")
+        );
+        // Then
+        assertEquals("hedge", result.toCompletableFuture().get(5, TimeUnit.SECONDS), "The hedge must win");
+        assertEquals(2, calls.get(), "The operation must have been performed twice");
+        assertTrue(slow.isCancelled(), "The losing call must be cancelled");
+    }
+
+    @Test
+    void whenHedgesWin_thenCallLatenciesAreStillTracked() throws Exception {
+        // Given
+        final var config = buildEnabledConfig();
+        when(config.getOptionalValue("jsonplaceholder.hedging.window-size", Integer.class))
+                .thenReturn(Optional.of(8));
+        when(config.getOptionalValue("jsonplaceholder.hedging.percentile", Double.class))
+                .thenReturn(Optional.of(0.5));
+        final var hedging = new GatewayHedging(config, METRIC_REGISTRY);
+        final var slowExecutor = CompletableFuture.delayedExecutor(SLOW_CALL_MILLIS, TimeUnit.MILLISECONDS);
+        hedging.executeAsync("tracked", () -> CompletableFuture.supplyAsync(() -> "warm-up", slowExecutor))
+                .toCompletableFuture()
+                .join();
+        for (int i = 0; i < 2; i++) {
+            final var calls = new AtomicInteger();
+            hedging.executeAsync(
+                    "tracked",
+                    () -> calls.getAndIncrement() == 0
+                            ? new CompletableFuture<>()
+                            : CompletableFuture.completedFuture("hedge")
+            ).toCompletableFuture().get(5, TimeUnit.SECONDS);
+        }
+        final var calls = new AtomicInteger();
+        // When
+        hedging.executeAsync("tracked", () -> {
+            calls.incrementAndGet();
+            return new CompletableFuture<>();
+        });
+        Thread.sleep(SLOW_CALL_MILLIS / 4);
+        // Then
+        assertEquals(1, calls.get(), "The hedge must not be sent before the calls' (not the hedges') percentile");
+    }
+
+    @Test
+    void whenBudgetIsExhausted_thenNoHedgeIsSent() throws Exception {
+        // Given
+        final var config = buildEnabledConfig();
+        when(config.getOptionalValue("jsonplaceholder.hedging.budget.ratio", Double.class))
+                .thenReturn(Optional.of(0d));
+        when(config.getOptionalValue("jsonplaceholder.hedging.budget.max-tokens", Double.class))
+                .thenReturn(Optional.of(0d));
+        final var hedging = new GatewayHedging(config, METRIC_REGISTRY);
+        hedging.executeAsync("budget", () -> CompletableFuture.completedFuture("warm-up")).toCompletableFuture().join();
+        final var calls = new AtomicInteger();
+        final var exhausted = METRIC_REGISTRY.counter(
+                "jsonplaceholder.gateway.hedges",
+                new Tag("endpoint", "budget"),
+                new Tag("kind", "budget-exhausted")
+        );
+        // When
+        final CompletionStage<String> result = hedging.executeAsync("budget", () -> {
+            calls.incrementAndGet();
+            return new CompletableFuture<>();
+        });
+        final var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (exhausted.getCount() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        // Then
+        assertEquals(1, exhausted.getCount(), "The hedge must have been denied by the budget");
+        assertEquals(1, calls.get(), "The operation must have been performed once");
+        assertFalse(result.toCompletableFuture().isDone(), "The call must still be in flight");
+    }
+
+
+    private static Config buildEnabledConfig() {
+        final var config = mock(Config.class);
+        when(config.getOptionalValue("jsonplaceholder.hedging.enabled", Boolean.class))
+                .thenReturn(Optional.of(true));
+        when(config.getOptionalValue("jsonplaceholder.hedging.min-samples", Integer.class))
+                .thenReturn(Optional.of(1));
+        when(config.getOptionalValue("jsonplaceholder.hedging.min-delay-millis", Long.class))
+                .thenReturn(Optional.of(1L));
+        return config;
+    }
+
+
+    private static final long SLOW_CALL_MILLIS = 100;
+    private static final MetricRegistry METRIC_REGISTRY = MetricRegistries.get(MetricRegistry.Type.APPLICATION);
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import com.github.juanmbellini.pocs.quarkus.exceptions.GatewayException;
+import io.smallrye.metrics.MetricRegistries;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GatewayResilienceTest {
+
+
+    @Test
+    void whenUpstreamFailsTransiently_thenCallIsRetried() {
+        // Given
+        final var resilience = new GatewayResilience(buildConfig(), METRIC_REGISTRY);
+        final var calls = new AtomicInteger();
+        // When
+        final var result = resilience.execute("transient", () -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new WebApplicationException(Response.Status.BAD_GATEWAY);
+            }
+            return "value";
+        });
+        // Then
+        assertEquals("value", result, "The result of the retry must be returned");
+        assertEquals(2, calls.get(), "The operation must have been performed twice");
+    }
+
+    @Test
+    void whenUpstreamFailsTransientlyAsync_thenCallIsRetried() throws Exception {
+        // Given
+        final var resilience = new GatewayResilience(buildConfig(), METRIC_REGISTRY);
+        final var calls = new AtomicInteger();
+        // When
+        final var result = resilience.executeAsync(
+                "transient-async",
+                () -> calls.incrementAndGet() == 1 ?
+                        CompletableFuture.<String>failedFuture(new WebApplicationException(Response.Status.BAD_GATEWAY)) :
+                        CompletableFuture.completedFuture("value")
+        );
+        // Then
+        assertEquals("value", result.toCompletableFuture().get(5, TimeUnit.SECONDS), "The retry must succeed");
+        assertEquals(2, calls.get(), "The operation must have been performed twice");
+    }
+
+    @Test
+    void whenUpstreamReturnsClientError_thenCallIsNotRetried() {
+        // Given
+        final var resilience = new GatewayResilience(buildConfig(), METRIC_REGISTRY);
+        final var calls = new AtomicInteger();
+        // When
+        final Executable executable = () -> resilience.execute("client-error", () -> {
+            calls.incrementAndGet();
+            throw new WebApplicationException(Response.Status.NOT_FOUND);
+        });
+        // Then
+        assertThrows(WebApplicationException.class, executable);
+        assertEquals(1, calls.get(), "The operation must have been performed once");
+    }
+
+    @Test
+    void whenRetryBudgetIsExhausted_thenCallIsNotRetried() {
+        // Given
+        final var config = buildConfig();
+        when(config.getOptionalValue("jsonplaceholder.resilience.retry.budget.ratio", Double.class))
+                .thenReturn(Optional.of(0d));
+        when(config.getOptionalValue("jsonplaceholder.resilience.retry.budget.max-tokens", Double.class))
+                .thenReturn(Optional.of(0d));
+        final var resilience = new GatewayResilience(config, METRIC_REGISTRY);
+        final var calls = new AtomicInteger();
+        // When
+        final Executable executable = () -> resilience.execute("exhausted", () -> {
+            calls.incrementAndGet();
+            throw new WebApplicationException(Response.Status.BAD_GATEWAY);
+        });
+        // Then
+        assertThrows(WebApplicationException.class, executable);
+        assertEquals(1, calls.get(), "The operation must have been performed once");
+    }
+
+    @Test
+    void whenCircuitIsOpen_thenCallIsRejectedWithServiceUnavailable() {
+        // Given
+        final var config = buildConfig();
+        when(config.getOptionalValue("jsonplaceholder.resilience.circuit-breaker.minimum-calls", Integer.class))
+                .thenReturn(Optional.of(1));
+        when(config.getOptionalValue("jsonplaceholder.resilience.retry.max-attempts", Integer.class))
+                .thenReturn(Optional.of(1));
+        final var resilience = new GatewayResilience(config, METRIC_REGISTRY);
+        final var calls = new AtomicInteger();
+        assertThrows(WebApplicationException.class, () -> resilience.execute("open", () -> {
+            calls.incrementAndGet();
+            throw new WebApplicationException(Response.Status.INTERNAL_SERVER_ERROR);
+        }));
+        // When
+        final Executable executable = () -> resilience.execute("open", calls::incrementAndGet);
+        // Then
+        final var gatewayException = assertThrows(GatewayException.class, executable);
+        assertEquals(
+                503,
+                gatewayException.getResponse().getStatus(),
+                "The thrown GatewayException must contain a response with status code 503"
+        );
+        assertEquals(1, calls.get(), "The rejected call must not reach upstream");
+    }
+
+
+    private static Config buildConfig() {
+        final var config = mock(Config.class);
+        when(config.getOptionalValue("jsonplaceholder.resilience.retry.base-delay-millis", Long.class))
+                .thenReturn(Optional.of(1L));
+        return config;
+    }
+
+
+    private static final MetricRegistry METRIC_REGISTRY = MetricRegistries.get(MetricRegistry.Type.APPLICATION);
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import com.github.juanmbellini.pocs.quarkus.models.Album;
+import com.github.juanmbellini.pocs.quarkus.models.Comment;
+import com.github.juanmbellini.pocs.quarkus.models.Photo;
+import com.github.juanmbellini.pocs.quarkus.models.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JsonPlaceholderMirrorTest {
+
+    @Test
+    void whenRefreshIsInProgress_thenNoNewOneIsStarted() {
+        // Given
+        final var usersGateway = mock(RestUsersGateway.class);
+        final var albumsGateway = mock(RestAlbumsGateway.class);
+        final var photosGateway = mock(RestPhotosGateway.class);
+        final var commentsGateway = mock(RestCommentsGateway.class);
+        final var users = new CompletableFuture<List<User>>();
+        when(usersGateway.getUsersAsync()).thenReturn(users);
+        when(albumsGateway.getAlbumsAsync()).thenReturn(CompletableFuture.completedFuture(List.<Album>of()));
+        when(photosGateway.getPhotosAsync()).thenReturn(CompletableFuture.completedFuture(List.<Photo>of()));
+        when(commentsGateway.getCommentsAsync(null, null))
+                .thenReturn(CompletableFuture.completedFuture(List.<Comment>of()));
+        final var mirror = new JsonPlaceholderMirror(
+                usersGateway,
+                albumsGateway,
+                photosGateway,
+                commentsGateway,
+                "mirror",
+                Optional.empty()
+        );
+        // When
+        final var first = mirror.refresh();
+        final var second = mirror.refresh();
+        users.complete(List.of(User.builder().id(1L).name("Leanne Graham").build()));
+        // Then
+        assertSame(first, second, "A refresh requested while one is in progress must join it");
+        first.toCompletableFuture().join();
+        verify(usersGateway, times(1)).getUsersAsync();
+        assertEquals(
+                1,
+                mirror.getSnapshot().orElseThrow().getUsers().size(),
+                "The snapshot was not replaced by the refreshed one"
+        );
+        mirror.refresh().toCompletableFuture().join();
+        verify(usersGateway, times(2)).getUsersAsync();
+    }
+
+    @Test
+    void whenRefreshFails_thenTheCurrentSnapshotIsKept() {
+        // Given
+        final var usersGateway = mock(RestUsersGateway.class);
+        final var albumsGateway = mock(RestAlbumsGateway.class);
+        final var photosGateway = mock(RestPhotosGateway.class);
+        final var commentsGateway = mock(RestCommentsGateway.class);
+        when(usersGateway.getUsersAsync())
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Upstream failed")));
+        when(albumsGateway.getAlbumsAsync()).thenReturn(CompletableFuture.completedFuture(List.<Album>of()));
+        when(photosGateway.getPhotosAsync()).thenReturn(CompletableFuture.completedFuture(List.<Photo>of()));
+        when(commentsGateway.getCommentsAsync(null, null))
+                .thenReturn(CompletableFuture.completedFuture(List.<Comment>of()));
+        final var mirror = new JsonPlaceholderMirror(
+                usersGateway,
+                albumsGateway,
+                photosGateway,
+                commentsGateway,
+                "mirror",
+                Optional.empty()
+        );
+        // When
+        mirror.refresh().toCompletableFuture().join();
+        // Then
+        assertTrue(mirror.getSnapshot().isEmpty(), "A failed refresh must not replace the snapshot");
+    }
+}
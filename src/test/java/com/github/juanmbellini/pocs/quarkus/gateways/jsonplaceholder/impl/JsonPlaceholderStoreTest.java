@@ -0,0 +1,94 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import com.github.juanmbellini.pocs.quarkus.models.Album;
+import com.github.juanmbellini.pocs.quarkus.models.PageRequest;
+import com.github.juanmbellini.pocs.quarkus.models.Photo;
+import com.github.juanmbellini.pocs.quarkus.models.User;
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.Test;
+
+import javax.inject.Inject;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@QuarkusTest
+class JsonPlaceholderStoreTest {
+
+    @Inject
+    JsonPlaceholderStore store;
+
+
+    @Test
+    void whenTableIsSavedAgain_thenItsRowsAreReplaced() {
+        // Given
+        store.saveUsers(List.of(user(1L), user(2L)));
+        // When
+        store.saveUsers(List.of(user(2L), user(3L)));
+        // Then
+        assertFalse(store.isEmpty(JsonPlaceholderDatabase.Table.USERS), "The users table must not be empty");
+        assertEquals(
+                List.of(2L, 3L),
+                store.getUsers().stream().map(User::getId).collect(Collectors.toList()),
+                "Users gone upstream must be deleted, and the new ones inserted"
+        );
+    }
+
+    @Test
+    void whenPhotosArePaged_thenThePageStartsAfterTheGivenId() {
+        // Given
+        store.savePhotos(List.of(photo(1L, 1L), photo(2L, 1L), photo(3L, 2L), photo(4L, 2L)));
+        // When
+        final var page = store.getPhotos(PageRequest.builder().after(1L).limit(2).build());
+        // Then
+        assertEquals(List.of(2L, 3L), photoIds(page), "The page is not the expected");
+    }
+
+    @Test
+    void whenRetrievingPhotos_thenTheyFollowTheRequestedAlbumsAndUserAlbums() {
+        // Given
+        store.saveAlbums(List.of(album(1L, 1L), album(2L, 1L), album(3L, 2L)));
+        store.savePhotos(List.of(photo(1L, 1L), photo(2L, 2L), photo(3L, 3L), photo(4L, 1L)));
+        // When
+        final var albumsPhotos = store.getAlbumsPhotos(List.of(2L, 1L));
+        final var userPhotos = store.getUserPhotos(1L);
+        // Then
+        assertEquals(List.of(2L, 1L, 4L), photoIds(albumsPhotos), "Photos must follow the requested albums' order");
+        assertEquals(List.of(1L, 4L, 2L), photoIds(userPhotos), "Photos must be joined with the user's albums");
+    }
+
+
+    private static User user(final long id) {
+        return User.builder().id(id).name("User " + id).build();
+    }
+
+    private static Album album(final long id, final long userId) {
+        return Album.builder().id(id).userId(userId).title("Album " + id).build();
+    }
+
+    private static Photo photo(final long id, final long albumId) {
+        return Photo.builder().id(id).albumId(albumId).title("Photo " + id).build();
+    }
+
+    private static List<Long> photoIds(final List<Photo> photos) {
+        return photos.stream().map(Photo::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LongIntHashMapTest {
+
+
+    @Test
+    void whenKeysAreMissing_thenAbsentIsReturned() {
+        // Given
+        final var map = new LongIntHashMap(4);
+        map.put(1L, 10);
+        // When
+        final var value = map.get(2L);
+        // Then
+        assertEquals(LongIntHashMap.ABSENT, value, "Missing keys must return ABSENT");
+    }
+
+    @Test
+    void whenKeyIsPutTwice_thenValueIsReplaced() {
+        // Given
+        final var map = new LongIntHashMap(4);
+        map.put(1L, 10);
+        // When
+        map.put(1L, 20);
+        // Then
+        assertEquals(20, map.get(1L), "The value must be replaced");
+        assertEquals(1, map.size(), "The size must not change");
+    }
+
+    @Test
+    void whenMapGrowsBeyondExpectedSize_thenEveryEntryIsKept() {
+        // Given
+        final var random = new Random(42);
+        final var expected = new HashMap<Long, Integer>();
+        final var map = new LongIntHashMap(1);
+        // When
+        for (int i = 0; i < 10_000; i++) {
+            final var key = i % 2 == 0 ? random.nextLong() : i; // Both random and sequential keys
+            expected.put(key, i);
+            map.put(key, i);
+        }
+        // Then
+        assertEquals(expected.size(), map.size(), "The size is not the expected");
+        expected.forEach((key, value) -> assertEquals((int) value, map.get(key), "The value is not the expected"));
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import com.github.juanmbellini.pocs.quarkus.models.Album;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongRangeIndexTest {
+
+
+    @Test
+    void whenKeyIsIndexed_thenItsElementsAreReturnedInOrder() {
+        // Given
+        final var albums = List.of(album(1L, 2L), album(2L, 1L), album(3L, 2L), album(4L, null), album(5L, 2L));
+        final var index = LongRangeIndex.build(albums, Album::getUserId);
+        // When
+        final var userAlbums = index.view(albums, 2L);
+        // Then
+        assertEquals(List.of(1L, 3L, 5L), ids(userAlbums), "The returned albums are not the expected");
+        assertEquals(3, index.count(2L), "The count is not the expected");
+    }
+
+    @Test
+    void whenKeyIsNotIndexed_thenNoElementsAreReturned() {
+        // Given
+        final var albums = List.of(album(1L, 1L), album(2L, null));
+        final var index = LongRangeIndex.build(albums, Album::getUserId);
+        // When
+        final var userAlbums = index.view(albums, 2L);
+        // Then
+        assertTrue(userAlbums.isEmpty(), "No albums were expected");
+        assertEquals(0, index.count(2L), "The count is not the expected");
+    }
+
+
+    private static Album album(final Long id, final Long userId) {
+        return Album.builder().id(id).userId(userId).build();
+    }
+
+    private static List<Long> ids(final List<Album> albums) {
+        return albums.stream().map(Album::getId).collect(Collectors.toList());
+    }
+}
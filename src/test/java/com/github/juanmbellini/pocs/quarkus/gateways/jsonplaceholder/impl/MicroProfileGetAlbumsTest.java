@@ -16,22 +16,29 @@
 
 package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.juanmbellini.pocs.quarkus.exceptions.GatewayException;
 import com.github.juanmbellini.pocs.quarkus.models.Album;
+import io.smallrye.metrics.MetricRegistries;
 import io.specto.hoverfly.junit.core.Hoverfly;
 import io.specto.hoverfly.junit.dsl.ResponseBuilder;
 import io.specto.hoverfly.junit5.HoverflyExtension;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.eclipse.microprofile.metrics.MetricRegistry;
 import org.eclipse.microprofile.rest.client.RestClientBuilder;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.function.Executable;
 
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
 import java.net.URI;
 import java.util.Objects;
 import java.util.UUID;
 
 import static io.specto.hoverfly.junit.core.SimulationSource.dsl;
+import static io.specto.hoverfly.junit.dsl.HoverflyDsl.response;
 import static io.specto.hoverfly.junit.dsl.HoverflyDsl.service;
 import static io.specto.hoverfly.junit.dsl.ResponseCreators.serverError;
 import static io.specto.hoverfly.junit.dsl.ResponseCreators.success;
@@ -46,7 +53,12 @@ class MicroProfileGetAlbumsTest {
         // Given
         final var baseUri = buildBaseUri();
         configureHoverfly(hoverfly, baseUri, serverError());
-        final var client = new MicroProfileGetAlbums(buildClient(baseUri));
+        final var client = new MicroProfileGetAlbums(
+                buildClient(baseUri),
+                new ConditionalRequests(new ObjectMapper()),
+                buildGatewayResilience(),
+                buildGatewayHedging()
+        );
         // When
         final Executable executable = client::perform;
         // Then
@@ -64,7 +76,12 @@ class MicroProfileGetAlbumsTest {
         // Given
         final var baseUri = buildBaseUri();
         configureSuccessHoverfly(hoverfly, baseUri, "{This is an invalid Json]");
-        final var client = new MicroProfileGetAlbums(buildClient(baseUri));
+        final var client = new MicroProfileGetAlbums(
+                buildClient(baseUri),
+                new ConditionalRequests(new ObjectMapper()),
+                buildGatewayResilience(),
+                buildGatewayHedging()
+        );
         // When
         final Executable executable = client::perform;
         // Then
@@ -77,7 +94,12 @@ class MicroProfileGetAlbumsTest {
         // Given
         final var baseUri = buildBaseUri();
         configureSuccessHoverfly(hoverfly, baseUri, ALBUMS_RESPONSE);
-        final var getAlbums = new MicroProfileGetAlbums(buildClient(baseUri));
+        final var getAlbums = new MicroProfileGetAlbums(
+                buildClient(baseUri),
+                new ConditionalRequests(new ObjectMapper()),
+                buildGatewayResilience(),
+                buildGatewayHedging()
+        );
         // When
         final var albums = getAlbums.perform();
         // Then
@@ -106,6 +128,46 @@ class MicroProfileGetAlbumsTest {
         hoverfly.verifyAll();
     }
 
+    @Test
+    void whenServiceReturnsNotModified_thenPreviousResultIsReused(final Hoverfly hoverfly) {
+        // Given
+        final var baseUri = buildBaseUri();
+        final var etag = "\"" + UUID.randomUUID() + "\"";
+        hoverfly.simulate(dsl(
+                service(baseUri)
+                        .get("/albums")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag)
+                        .willReturn(response().status(Response.Status.NOT_MODIFIED.getStatusCode()))
+                        .get("/albums")
+                        .willReturn(success(ALBUMS_RESPONSE, MediaType.APPLICATION_JSON).header(HttpHeaders.ETAG, etag))
+        ));
+        final var getAlbums = new MicroProfileGetAlbums(
+                buildClient(baseUri),
+                new ConditionalRequests(new ObjectMapper()),
+                buildGatewayResilience(),
+                buildGatewayHedging()
+        );
+        final var firstAlbums = getAlbums.perform();
+        // When
+        final var secondAlbums = getAlbums.perform();
+        // Then
+        assertSame(firstAlbums, secondAlbums, "The previously deserialized list must be reused");
+        assertThrows(
+                UnsupportedOperationException.class,
+                secondAlbums::clear,
+                "The reused list must not be modifiable by callers"
+        );
+        hoverfly.verify(service(baseUri).get("/albums").header(HttpHeaders.IF_NONE_MATCH, etag));
+    }
+
+
+    private static GatewayResilience buildGatewayResilience() {
+        return new GatewayResilience(ConfigProvider.getConfig(), MetricRegistries.get(MetricRegistry.Type.APPLICATION));
+    }
+
+    private static GatewayHedging buildGatewayHedging() {
+        return new GatewayHedging(ConfigProvider.getConfig(), MetricRegistries.get(MetricRegistry.Type.APPLICATION));
+    }
 
     private static String buildBaseUri() {
         return String.format(BASE_URI_TEMPLATE, UUID.randomUUID().toString());
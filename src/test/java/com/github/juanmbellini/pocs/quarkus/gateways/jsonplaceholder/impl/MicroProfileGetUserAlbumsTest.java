@@ -18,9 +18,12 @@ package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
 
 import com.github.juanmbellini.pocs.quarkus.exceptions.GatewayException;
 import com.github.juanmbellini.pocs.quarkus.models.Album;
+import io.smallrye.metrics.MetricRegistries;
 import io.specto.hoverfly.junit.core.Hoverfly;
 import io.specto.hoverfly.junit.dsl.ResponseBuilder;
 import io.specto.hoverfly.junit5.HoverflyExtension;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.eclipse.microprofile.metrics.MetricRegistry;
 import org.eclipse.microprofile.rest.client.RestClientBuilder;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -48,7 +51,11 @@ class MicroProfileGetUserAlbumsTest {
         final var baseUri = buildBaseUri();
         final var userId = new Random().nextLong();
         configureHoverfly(hoverfly, baseUri, userId, serverError());
-        final var client = new MicroProfileGetUserAlbums(buildClient(baseUri));
+        final var client = new MicroProfileGetUserAlbums(
+                buildClient(baseUri),
+                buildGatewayResilience(),
+                buildGatewayHedging()
+        );
         // When
         final Executable executable = () -> client.perform(userId);
         // Then
@@ -67,7 +74,11 @@ class MicroProfileGetUserAlbumsTest {
         final var userId = new Random().nextLong();
         final var baseUri = buildBaseUri();
         configureSuccessHoverfly(hoverfly, baseUri, userId, "{This is an invalid Json]");
-        final var client = new MicroProfileGetUserAlbums(buildClient(baseUri));
+        final var client = new MicroProfileGetUserAlbums(
+                buildClient(baseUri),
+                buildGatewayResilience(),
+                buildGatewayHedging()
+        );
         // When
         final Executable executable = () -> client.perform(userId);
         // Then
@@ -81,7 +92,11 @@ class MicroProfileGetUserAlbumsTest {
         final var baseUri = buildBaseUri();
         final var userId = new Random().nextLong();
         configureSuccessHoverfly(hoverfly, baseUri, userId, buildAlbumsResponse(userId));
-        final var getUserAlbums = new MicroProfileGetUserAlbums(buildClient(baseUri));
+        final var getUserAlbums = new MicroProfileGetUserAlbums(
+                buildClient(baseUri),
+                buildGatewayResilience(),
+                buildGatewayHedging()
+        );
         // When
         final var albums = getUserAlbums.perform(userId);
         // Then
@@ -111,6 +126,14 @@ class MicroProfileGetUserAlbumsTest {
     }
 
 
+    private static GatewayResilience buildGatewayResilience() {
+        return new GatewayResilience(ConfigProvider.getConfig(), MetricRegistries.get(MetricRegistry.Type.APPLICATION));
+    }
+
+    private static GatewayHedging buildGatewayHedging() {
+        return new GatewayHedging(ConfigProvider.getConfig(), MetricRegistries.get(MetricRegistry.Type.APPLICATION));
+    }
+
     private static String buildBaseUri() {
         return String.format(BASE_URI_TEMPLATE, UUID.randomUUID().toString());
     }
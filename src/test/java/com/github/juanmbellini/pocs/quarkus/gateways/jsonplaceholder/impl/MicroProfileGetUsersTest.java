@@ -16,11 +16,15 @@
 
 package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.juanmbellini.pocs.quarkus.exceptions.GatewayException;
 import com.github.juanmbellini.pocs.quarkus.models.User;
+import io.smallrye.metrics.MetricRegistries;
 import io.specto.hoverfly.junit.core.Hoverfly;
 import io.specto.hoverfly.junit.dsl.ResponseBuilder;
 import io.specto.hoverfly.junit5.HoverflyExtension;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.eclipse.microprofile.metrics.MetricRegistry;
 import org.eclipse.microprofile.rest.client.RestClientBuilder;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -50,7 +54,12 @@ class MicroProfileGetUsersTest {
         // Given
         final var baseUri = buildBaseUri();
         configureHoverfly(hoverfly, baseUri, serverError());
-        final var client = new MicroProfileGetUsers(buildClient(baseUri));
+        final var client = new MicroProfileGetUsers(
+                buildClient(baseUri),
+                new ConditionalRequests(new ObjectMapper()),
+                buildGatewayResilience(),
+                buildGatewayHedging()
+        );
         // When
         final Executable executable = client::perform;
         // Then
@@ -68,7 +77,12 @@ class MicroProfileGetUsersTest {
         // Given
         final var baseUri = buildBaseUri();
         configureSuccessHoverfly(hoverfly, baseUri, "{This is an invalid Json]");
-        final var client = new MicroProfileGetUsers(buildClient(baseUri));
+        final var client = new MicroProfileGetUsers(
+                buildClient(baseUri),
+                new ConditionalRequests(new ObjectMapper()),
+                buildGatewayResilience(),
+                buildGatewayHedging()
+        );
         // When
         final Executable executable = client::perform;
         // Then
@@ -81,7 +95,12 @@ class MicroProfileGetUsersTest {
         // Given
         final var baseUri = buildBaseUri();
         configureSuccessHoverfly(hoverfly, baseUri, USERS_RESPONSE);
-        final var getUsers = new MicroProfileGetUsers(buildClient(baseUri));
+        final var getUsers = new MicroProfileGetUsers(
+                buildClient(baseUri),
+                new ConditionalRequests(new ObjectMapper()),
+                buildGatewayResilience(),
+                buildGatewayHedging()
+        );
         // When
         final var users = getUsers.perform();
         // Then
@@ -129,6 +148,14 @@ class MicroProfileGetUsersTest {
     }
 
 
+    private static GatewayResilience buildGatewayResilience() {
+        return new GatewayResilience(ConfigProvider.getConfig(), MetricRegistries.get(MetricRegistry.Type.APPLICATION));
+    }
+
+    private static GatewayHedging buildGatewayHedging() {
+        return new GatewayHedging(ConfigProvider.getConfig(), MetricRegistries.get(MetricRegistry.Type.APPLICATION));
+    }
+
     private static String buildBaseUri() {
         return String.format(BASE_URI_TEMPLATE, UUID.randomUUID().toString());
     }
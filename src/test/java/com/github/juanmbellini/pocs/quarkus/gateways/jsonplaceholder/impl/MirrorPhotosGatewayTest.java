@@ -0,0 +1,74 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.PhotosGateway;
+import com.github.juanmbellini.pocs.quarkus.models.PageRequest;
+import com.github.juanmbellini.pocs.quarkus.models.Photo;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.only;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class MirrorPhotosGatewayTest {
+
+    @Test
+    void whenMirrorIsNotLoaded_thenCallsGoToTheFallback() {
+        // Given
+        final var mirror = mock(JsonPlaceholderMirror.class);
+        final var fallback = mock(PhotosGateway.class);
+        final var photos = List.of(Photo.builder().id(1L).albumId(1L).build());
+        final var page = PageRequest.builder().after(0L).limit(10).build();
+        when(mirror.getSnapshot()).thenReturn(Optional.empty());
+        when(fallback.getPhotos(page)).thenReturn(photos);
+        final var gateway = new MirrorPhotosGateway(mirror, fallback);
+        // When
+        final var returned = gateway.getPhotos(page);
+        // Then
+        assertSame(photos, returned, "The fallback's photos must be returned");
+        verify(fallback, only()).getPhotos(page);
+    }
+
+    @Test
+    void whenMirrorIsLoaded_thenCallsAreServedFromTheSnapshot() {
+        // Given
+        final var mirror = mock(JsonPlaceholderMirror.class);
+        final var fallback = mock(PhotosGateway.class);
+        final var snapshot = MirrorSnapshot.build(
+                List.of(),
+                List.of(),
+                List.of(Photo.builder().id(1L).albumId(1L).build(), Photo.builder().id(2L).albumId(2L).build()),
+                List.of()
+        );
+        when(mirror.getSnapshot()).thenReturn(Optional.of(snapshot));
+        final var gateway = new MirrorPhotosGateway(mirror, fallback);
+        // When
+        final var albumPhotos = gateway.getAlbumsPhotosAsync(List.of(2L)).toCompletableFuture().join();
+        // Then
+        assertEquals(1, albumPhotos.size(), "The album's photos are not the expected");
+        assertEquals(2L, albumPhotos.get(0).getId(), "The album's photo is not the expected");
+        verifyNoInteractions(fallback);
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import com.github.juanmbellini.pocs.quarkus.models.Address;
+import com.github.juanmbellini.pocs.quarkus.models.Album;
+import com.github.juanmbellini.pocs.quarkus.models.Comment;
+import com.github.juanmbellini.pocs.quarkus.models.Company;
+import com.github.juanmbellini.pocs.quarkus.models.GeoLocation;
+import com.github.juanmbellini.pocs.quarkus.models.Photo;
+import com.github.juanmbellini.pocs.quarkus.models.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MirrorSnapshotFileTest {
+
+    @TempDir
+    Path directory;
+
+
+    @Test
+    void whenSnapshotIsWrittenAndRead_thenEveryValueIsKept() throws IOException {
+        // Given
+        final var path = directory.resolve("mirror.snapshot");
+        final var snapshot = buildSnapshot();
+        // When
+        MirrorSnapshotFile.write(snapshot, path);
+        final var read = MirrorSnapshotFile.read(path);
+        // Then
+        final var user = read.getUsers().get(0);
+        assertEquals(1L, user.getId(), "The user's id is not the expected");
+        assertEquals("Leanne Graham", user.getName(), "The user's name is not the expected");
+        assertNull(user.getPhone(), "A null phone must be kept");
+        assertEquals("Gwenborough", user.getAddress().getCity(), "The user's city is not the expected");
+        assertEquals(-37.3159, user.getAddress().getGeoLocation().getLatitude(), "The latitude is not the expected");
+        assertNull(user.getAddress().getGeoLocation().getLongitude(), "A null longitude must be kept");
+        assertEquals("Romaguera-Crona", user.getCompany().getName(), "The company is not the expected");
+        assertEquals(1, read.getUserAlbums(1L).size(), "The user's albums are not the expected");
+        assertEquals("quidem molestiae enim", read.getAlbums().get(0).getTitle(), "The album is not the expected");
+        final var photo = read.getAlbumsPhotos(List.of(1L)).get(0);
+        assertEquals("https://via.placeholder.com/600/92c952", photo.getUrl(), "The photo is not the expected");
+        final var comment = read.getComments("id labore ex et quam laborum", null).get(0);
+        assertEquals("Eliseo@gardner.biz", comment.getEmail(), "The comment is not the expected");
+        assertEquals(1L, comment.getPostId(), "The comment's post is not the expected");
+    }
+
+    @Test
+    void whenSnapshotIsReadFromMemory_thenItMatchesTheFile() throws IOException {
+        // Given
+        final var path = directory.resolve("mirror.snapshot");
+        MirrorSnapshotFile.write(buildSnapshot(), path);
+        final var bytes = Files.readAllBytes(path);
+        // When
+        final var read = MirrorSnapshotFile.read(ByteBuffer.wrap(bytes));
+        // Then
+        assertEquals(1, read.getUsers().size(), "The users are not the expected");
+        assertEquals(1, read.getAlbums().size(), "The albums are not the expected");
+        assertEquals(1, read.getPhotos().size(), "The photos are not the expected");
+        assertEquals(1, read.getComments().size(), "The comments are not the expected");
+    }
+
+    @Test
+    void whenSnapshotsAreWrittenConcurrently_thenTheFileIsValidAndNoTemporaryFileIsLeft() throws Exception {
+        // Given
+        final var path = directory.resolve("mirror.snapshot");
+        final var snapshot = buildSnapshot();
+        final var executor = Executors.newFixedThreadPool(WRITERS);
+        // When
+        try {
+            final var writes = IntStream.range(0, WRITERS)
+                    .mapToObj(i -> CompletableFuture.runAsync(() -> {
+                        try {
+                            MirrorSnapshotFile.write(snapshot, path);
+                        } catch (final IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }, executor))
+                    .toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(writes).get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdown();
+        }
+        // Then
+        assertEquals(1, MirrorSnapshotFile.read(path).getUsers().size(), "The file must hold a whole snapshot");
+        try (final var files = Files.list(directory)) {
+            assertEquals(List.of(path), files.collect(Collectors.toList()), "No temporary file must be left");
+        }
+    }
+
+    @Test
+    void whenFileIsCorrupted_thenReadingFails() throws IOException {
+        // Given
+        final var path = directory.resolve("mirror.snapshot");
+        MirrorSnapshotFile.write(buildSnapshot(), path);
+        final var bytes = Files.readAllBytes(path);
+        bytes[bytes.length / 2] ^= 0x01;
+        Files.write(path, bytes);
+        // When / Then
+        assertThrows(IOException.class, () -> MirrorSnapshotFile.read(path), "Corruption must be detected");
+    }
+
+    @Test
+    void whenFileIsNotASnapshot_thenReadingFails() throws IOException {
+        // Given
+        final var path = directory.resolve("mirror.snapshot");
+        Files.writeString(path, "[{\"id\": 1}]");
+        // When / Then
+        assertThrows(IOException.class, () -> MirrorSnapshotFile.read(path), "Invalid files must be rejected");
+    }
+
+
+    private static MirrorSnapshot buildSnapshot() {
+        final var user = User.builder()
+                .id(1L)
+                .name("Leanne Graham")
+                .username("Bret")
+                .email("Sincere@april.biz")
+                .website("hildegard.org")
+                .address(Address.builder()
+                        .street("Kulas Light")
+                        .suite("Apt. 556")
+                        .city("Gwenborough")
+                        .zipcode("92998-3874")
+                        .geoLocation(GeoLocation.builder().latitude(-37.3159).build())
+                        .build())
+                .company(Company.builder()
+                        .name("Romaguera-Crona")
+                        .catchPhrase("Multi-layered client-server neural-net")
+                        .bs("harness real-time e-markets")
+                        .build())
+                .build();
+        final var album = Album.builder().id(1L).userId(1L).title("quidem molestiae enim").build();
+        final var photo = Photo.builder()
+                .id(1L)
+                .albumId(1L)
+                .title("accusamus beatae ad facilis cum similique qui sunt")
+                .url("https://via.placeholder.com/600/92c952")
+                .thumbnailUrl("https://via.placeholder.com/150/92c952")
+                .build();
+        final var comment = Comment.builder()
+                .id(1L)
+                .postId(1L)
+                .name("id labore ex et quam laborum")
+                .email("Eliseo@gardner.biz")
+                .body("laudantium enim quasi est quidem magnam voluptate ipsam eos")
+                .build();
+        return MirrorSnapshot.build(List.of(user), List.of(album), List.of(photo), List.of(comment));
+    }
+
+
+    private static final int WRITERS = 8;
+}
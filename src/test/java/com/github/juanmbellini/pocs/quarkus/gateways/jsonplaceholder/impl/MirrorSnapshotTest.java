@@ -0,0 +1,114 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import com.github.juanmbellini.pocs.quarkus.models.Album;
+import com.github.juanmbellini.pocs.quarkus.models.Comment;
+import com.github.juanmbellini.pocs.quarkus.models.PageRequest;
+import com.github.juanmbellini.pocs.quarkus.models.Photo;
+import com.github.juanmbellini.pocs.quarkus.models.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MirrorSnapshotTest {
+
+    @Test
+    void whenUserAlbumsAreRequested_thenOnlyTheUsersAlbumsAreReturned() {
+        // Given
+        final var snapshot = buildSnapshot();
+        // When
+        final var albums = snapshot.getUserAlbums(1L);
+        final var none = snapshot.getUserAlbums(3L);
+        // Then
+        assertEquals(List.of(1L, 3L), ids(albums, Album::getId), "The user's albums are not the expected");
+        assertTrue(none.isEmpty(), "A user without albums must have none");
+    }
+
+    @Test
+    void whenAlbumsPhotosAreRequested_thenTheyAreInRequestOrderWithoutDuplicates() {
+        // Given
+        final var snapshot = buildSnapshot();
+        // When
+        final var photos = snapshot.getAlbumsPhotos(List.of(3L, 1L, 3L));
+        // Then
+        assertEquals(List.of(5L, 1L, 2L), ids(photos, Photo::getId), "The albums' photos are not the expected");
+    }
+
+    @Test
+    void whenPhotosPageIsRequested_thenPhotosAfterTheCursorAreReturned() {
+        // Given
+        final var snapshot = buildSnapshot();
+        // When
+        final var page = snapshot.getPhotos(PageRequest.builder().after(2L).limit(2).build());
+        // Then
+        assertEquals(List.of(3L, 4L), ids(page, Photo::getId), "The page is not the expected");
+    }
+
+    @Test
+    void whenCommentsAreFiltered_thenOnlyExactMatchesAreReturned() {
+        // Given
+        final var snapshot = buildSnapshot();
+        // When
+        final var byEmail = snapshot.getComments(null, "Eliseo@gardner.biz");
+        final var byNameAndEmail = snapshot.getComments("id labore", "Eliseo@gardner.biz");
+        final var page = snapshot.getComments(
+                null,
+                "Eliseo@gardner.biz",
+                PageRequest.builder().after(1L).limit(1).build()
+        );
+        // Then
+        assertEquals(List.of(1L, 3L), ids(byEmail, Comment::getId), "The comments by email are not the expected");
+        assertEquals(List.of(3L), ids(byNameAndEmail, Comment::getId), "The comments by both are not the expected");
+        assertEquals(List.of(3L), ids(page, Comment::getId), "The filtered page is not the expected");
+    }
+
+
+    private static MirrorSnapshot buildSnapshot() {
+        return MirrorSnapshot.build(
+                List.of(User.builder().id(1L).name("Leanne Graham").build()),
+                List.of(album(3L, 1L), album(1L, 1L), album(2L, 2L)),
+                List.of(photo(5L, 3L), photo(1L, 1L), photo(2L, 1L), photo(3L, 2L), photo(4L, 2L)),
+                List.of(
+                        comment(3L, "id labore", "Eliseo@gardner.biz"),
+                        comment(1L, "quo vero", "Eliseo@gardner.biz"),
+                        comment(2L, "id labore", "Jayne_Kuhic@sydney.com")
+                )
+        );
+    }
+
+    private static Album album(final long id, final long userId) {
+        return Album.builder().id(id).userId(userId).title("quidem molestiae enim " + id).build();
+    }
+
+    private static Photo photo(final long id, final long albumId) {
+        return Photo.builder().id(id).albumId(albumId).title("accusamus beatae " + id).build();
+    }
+
+    private static Comment comment(final long id, final String name, final String email) {
+        return Comment.builder().id(id).name(name).email(email).build();
+    }
+
+    private static <T> List<Long> ids(final List<T> elements, final Function<T, Long> idExtractor) {
+        return elements.stream().map(idExtractor).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import com.github.juanmbellini.pocs.quarkus.models.Photo;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class PhotoColumnsTest {
+
+
+    @Test
+    void whenPhotosAreStoredByColumns_thenEveryValueIsKept() {
+        // Given
+        final var photos = List.of(
+                photo(1L, 1L, "accusamus beatae", "https://via.placeholder.com/600/92c952"),
+                photo(2L, 1L, "reprehenderit est", "https://via.placeholder.com/600/771796"),
+                photo(3L, 2L, "accusamus beatae", "https://via.placeholder.com/600/24f355")
+        );
+        // When
+        final var columns = PhotoColumns.of(photos);
+        // Then
+        assertEquals(photos.size(), columns.size(), "The size is not the expected");
+        for (int i = 0; i < photos.size(); i++) {
+            assertPhotoEquals(photos.get(i), columns.get(i));
+        }
+    }
+
+    @Test
+    void whenValuesAreNullOrUnicode_thenTheyAreKept() {
+        // Given
+        final var photos = List.of(
+                Photo.builder().build(),
+                photo(-1L, Long.MAX_VALUE, "ñandú über café", "no-slash")
+        );
+        // When
+        final var columns = PhotoColumns.of(photos);
+        // Then
+        assertNull(columns.get(0).getId(), "A null id must be kept");
+        assertNull(columns.get(0).getAlbumId(), "A null album id must be kept");
+        assertNull(columns.get(0).getTitle(), "A null title must be kept");
+        assertNull(columns.get(0).getUrl(), "A null url must be kept");
+        assertPhotoEquals(photos.get(1), columns.get(1));
+    }
+
+    @Test
+    void whenPhotosAreAlreadyStoredByColumns_thenTheyAreNotCopied() {
+        // Given
+        final var columns = PhotoColumns.of(List.of(photo(1L, 1L, "one", "https://via.placeholder.com/600/1")));
+        // When
+        final var returned = PhotoColumns.of(columns);
+        // Then
+        assertSame(columns, returned, "Columns must not be copied");
+    }
+
+
+    private static Photo photo(final Long id, final Long albumId, final String title, final String url) {
+        return Photo.builder()
+                .id(id)
+                .albumId(albumId)
+                .title(title)
+                .url(url)
+                .thumbnailUrl(url.replace("/600/", "/150/"))
+                .build();
+    }
+
+    private static void assertPhotoEquals(final Photo expected, final Photo actual) {
+        assertEquals(expected.getId(), actual.getId(), "The id is not the expected");
+        assertEquals(expected.getAlbumId(), actual.getAlbumId(), "The album id is not the expected");
+        assertEquals(expected.getTitle(), actual.getTitle(), "The title is not the expected");
+        assertEquals(expected.getUrl(), actual.getUrl(), "The url is not the expected");
+        assertEquals(expected.getThumbnailUrl(), actual.getThumbnailUrl(), "The thumbnail url is not the expected");
+    }
+}
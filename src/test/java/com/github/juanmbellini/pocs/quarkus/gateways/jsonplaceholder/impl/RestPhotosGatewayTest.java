@@ -0,0 +1,96 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.juanmbellini.pocs.quarkus.models.Photo;
+import io.smallrye.metrics.MetricRegistries;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.junit.jupiter.api.Test;
+
+import javax.ws.rs.core.Response;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RestPhotosGatewayTest {
+
+    @Test
+    void whenTheStreamConsumerFails_thenTheFailureIsThrownAsIsAndNotRecordedAgainstUpstream() {
+        // Given
+        final var getPhotos = mock(PhotosRestClient.GetPhotos.class);
+        when(getPhotos.perform(null, null)).thenAnswer(invocation -> photosResponse());
+        final var gateway = new RestPhotosGateway(
+                getPhotos,
+                mock(PhotosRestClient.GetAlbumPhotos.class),
+                mock(PhotosRestClient.GetPhotosPage.class),
+                mock(SingleFlights.class),
+                mock(ConditionalRequests.class),
+                new GatewayResilience(buildConfig(), METRIC_REGISTRY),
+                mock(GatewayHedging.class),
+                new ObjectMapper()
+        );
+        final var failure = new UncheckedIOException(new IOException("Connection reset by peer"));
+        final Consumer<Photo> consumer = photo -> {
+            throw failure;
+        };
+        // When
+        for (var call = 0; call < CALLS; call++) {
+            final var thrown = assertThrows(UncheckedIOException.class, () -> gateway.streamPhotos(consumer));
+            assertSame(failure, thrown, "The consumer's failure must be thrown as is");
+        }
+        // Then
+        verify(getPhotos, times(CALLS)).perform(null, null); // Would be rejected once the circuit opened
+    }
+
+
+    private static Response photosResponse() {
+        final var response = mock(Response.class);
+        final InputStream body = new ByteArrayInputStream(PHOTOS.getBytes(StandardCharsets.UTF_8));
+        when(response.readEntity(InputStream.class)).thenReturn(body);
+        return response;
+    }
+
+    private static Config buildConfig() {
+        final var config = mock(Config.class);
+        when(config.getOptionalValue("jsonplaceholder.resilience.circuit-breaker.minimum-calls", Integer.class))
+                .thenReturn(Optional.of(1));
+        when(config.getOptionalValue("jsonplaceholder.resilience.retry.max-attempts", Integer.class))
+                .thenReturn(Optional.of(1));
+        return config;
+    }
+
+
+    private static final int CALLS = 3;
+
+    private static final String PHOTOS = "[{\"id\":1,\"albumId\":1,\"title\":\"accusamus beatae ad facilis\"}]";
+
+    private static final MetricRegistry METRIC_REGISTRY = MetricRegistries.get(MetricRegistry.Type.APPLICATION);
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import io.smallrye.metrics.MetricRegistries;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightsTest {
+
+    @Test
+    void whenSameCallIsInFlight_thenAsyncCallsAreCoalesced() {
+        // Given
+        final var singleFlights = new SingleFlights(METRIC_REGISTRY);
+        final var upstream = new CompletableFuture<List<String>>();
+        final var calls = new AtomicInteger();
+        final var result = List.of("Leanne Graham");
+        // When
+        final var first = singleFlights.executeAsync("users", () -> {
+            calls.incrementAndGet();
+            return upstream;
+        });
+        final var second = singleFlights.executeAsync("users", () -> {
+            calls.incrementAndGet();
+            return new CompletableFuture<List<String>>();
+        });
+        upstream.complete(result);
+        // Then
+        assertEquals(1, calls.get(), "The operation must have been performed once");
+        assertSame(result, first.toCompletableFuture().join(), "The first call did not get the upstream result");
+        assertSame(result, second.toCompletableFuture().join(), "The coalesced call did not get the upstream result");
+    }
+
+    @Test
+    void whenParamsDiffer_thenCallsAreNotCoalesced() {
+        // Given
+        final var singleFlights = new SingleFlights(METRIC_REGISTRY);
+        final var calls = new AtomicInteger();
+        // When
+        singleFlights.executeAsync("user-albums", () -> {
+            calls.incrementAndGet();
+            return new CompletableFuture<>();
+        }, 1L);
+        singleFlights.executeAsync("user-albums", () -> {
+            calls.incrementAndGet();
+            return new CompletableFuture<>();
+        }, 2L);
+        // Then
+        assertEquals(2, calls.get(), "Calls with different params must each be performed");
+    }
+
+    @Test
+    void whenCallFails_thenItIsRemovedAndTheNextCallIsPerformed() {
+        // Given
+        final var singleFlights = new SingleFlights(METRIC_REGISTRY);
+        final var failure = new IllegalStateException("Upstream failed");
+        final var calls = new AtomicInteger();
+        // When
+        final var thrown = assertThrows(IllegalStateException.class, () -> singleFlights.execute("albums", () -> {
+            calls.incrementAndGet();
+            throw failure;
+        }));
+        final var result = singleFlights.execute("albums", () -> {
+            calls.incrementAndGet();
+            return "albums";
+        });
+        // Then
+        assertSame(failure, thrown, "The failure must be thrown as is");
+        assertEquals("albums", result, "The call after the failure did not get its result");
+        assertEquals(2, calls.get(), "A failed call must not be shared with later calls");
+    }
+
+    @Test
+    void whenBlockingCallIsInFlight_thenAsyncCallIsCoalescedWithIt() throws Exception {
+        // Given
+        final var singleFlights = new SingleFlights(METRIC_REGISTRY);
+        final var started = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        final var calls = new AtomicInteger();
+        final var executor = Executors.newSingleThreadExecutor();
+        try {
+            final var blocking = executor.submit(() -> singleFlights.execute("photos", () -> {
+                calls.incrementAndGet();
+                started.countDown();
+                awaitQuietly(release);
+                return "photos";
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS), "The blocking call did not start");
+            // When
+            final var async = singleFlights.executeAsync("photos", () -> {
+                calls.incrementAndGet();
+                return CompletableFuture.completedFuture("other");
+            }).toCompletableFuture();
+            final var completedBeforeRelease = async.isDone();
+            release.countDown();
+            // Then
+            assertFalse(completedBeforeRelease, "The async call must wait for the in-flight blocking one");
+            assertEquals("photos", async.get(5, TimeUnit.SECONDS), "The async call did not get the shared result");
+            assertEquals("photos", blocking.get(5, TimeUnit.SECONDS), "The blocking call did not get its result");
+            assertEquals(1, calls.get(), "The operation must have been performed once");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+
+    private static void awaitQuietly(final CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    private static final MetricRegistry METRIC_REGISTRY = MetricRegistries.get(MetricRegistry.Type.APPLICATION);
+}
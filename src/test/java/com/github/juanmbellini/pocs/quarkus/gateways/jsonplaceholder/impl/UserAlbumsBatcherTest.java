@@ -0,0 +1,115 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import com.github.juanmbellini.pocs.quarkus.models.Album;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.only;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserAlbumsBatcherTest {
+
+    @Test
+    void whenBatchGetsFull_thenItIsDispatchedAndSlicedPerUser() throws Exception {
+        // Given
+        final var getUserAlbums = mock(MicroProfileGetUserAlbums.class);
+        when(getUserAlbums.performBatchAsync(Set.of(1L, 2L)))
+                .thenReturn(CompletableFuture.completedFuture(List.of(album(10L, 1L), album(20L, 2L), album(11L, 1L))));
+        final var batcher = new UserAlbumsBatcher(getUserAlbums, true, 60_000L, 2);
+        // When
+        final var first = batcher.loadAsync(1L).toCompletableFuture();
+        final var second = batcher.loadAsync(2L).toCompletableFuture();
+        // Then
+        assertEquals(List.of(10L, 11L), ids(first.get(5, TimeUnit.SECONDS)), "User 1's albums are not the expected");
+        assertEquals(List.of(20L), ids(second.get(5, TimeUnit.SECONDS)), "User 2's albums are not the expected");
+        verify(getUserAlbums, only()).performBatchAsync(Set.of(1L, 2L));
+    }
+
+    @Test
+    void whenWindowElapses_thenASingleLookupIsDispatchedOnItsOwn() throws Exception {
+        // Given
+        final var getUserAlbums = mock(MicroProfileGetUserAlbums.class);
+        final var albums = List.of(album(10L, 1L));
+        when(getUserAlbums.performAsync(1L)).thenReturn(CompletableFuture.completedFuture(albums));
+        final var batcher = new UserAlbumsBatcher(getUserAlbums, true, 1L, 50);
+        // When
+        final var result = batcher.loadAsync(1L).toCompletableFuture();
+        // Then
+        assertSame(albums, result.get(5, TimeUnit.SECONDS), "The user's albums are not the expected");
+        verify(getUserAlbums, only()).performAsync(1L);
+    }
+
+    @Test
+    void whenBatchWasDispatchedBecauseItGotFull_thenItsWindowDoesNotFlushTheNextBatch() throws Exception {
+        // Given
+        final var getUserAlbums = mock(MicroProfileGetUserAlbums.class);
+        when(getUserAlbums.performBatchAsync(Set.of(1L, 2L)))
+                .thenReturn(CompletableFuture.completedFuture(List.of(album(10L, 1L), album(20L, 2L))));
+        when(getUserAlbums.performAsync(3L)).thenReturn(CompletableFuture.completedFuture(List.of(album(30L, 3L))));
+        final var batcher = new UserAlbumsBatcher(getUserAlbums, true, 500L, 2);
+        batcher.loadAsync(1L);
+        batcher.loadAsync(2L);
+        Thread.sleep(300);
+        // When
+        final var third = batcher.loadAsync(3L).toCompletableFuture(); // Its window closes ~300ms after the first one
+        Thread.sleep(350);
+        // Then
+        verify(getUserAlbums, never()).performAsync(anyLong());
+        assertEquals(List.of(30L), ids(third.get(5, TimeUnit.SECONDS)), "User 3's albums are not the expected");
+    }
+
+    @Test
+    void whenBatchFails_thenEveryLookupFails() {
+        // Given
+        final var getUserAlbums = mock(MicroProfileGetUserAlbums.class);
+        final var failure = new IllegalStateException("Upstream failed");
+        when(getUserAlbums.performBatchAsync(Set.of(1L, 2L))).thenReturn(CompletableFuture.failedFuture(failure));
+        final var batcher = new UserAlbumsBatcher(getUserAlbums, true, 60_000L, 2);
+        // When
+        final var first = batcher.loadAsync(1L).toCompletableFuture();
+        final var second = batcher.loadAsync(2L).toCompletableFuture();
+        // Then
+        assertSame(failure, assertThrows(CompletionException.class, first::join).getCause(), "User 1's lookup failed");
+        assertSame(failure, assertThrows(CompletionException.class, second::join).getCause(), "User 2's lookup failed");
+        verify(getUserAlbums, timeout(1_000).only()).performBatchAsync(Set.of(1L, 2L));
+    }
+
+
+    private static Album album(final long id, final long userId) {
+        return Album.builder().id(id).userId(userId).title("quidem molestiae enim " + id).build();
+    }
+
+    private static List<Long> ids(final List<Album> albums) {
+        return albums.stream().map(Album::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.PhotosGateway;
+import com.github.juanmbellini.pocs.quarkus.models.PageRequest;
+import com.github.juanmbellini.pocs.quarkus.models.Photo;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.only;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class VirtualThreadPhotosGatewayTest {
+
+    @Test
+    void whenCallingAsync_thenTheDelegatesBlockingCallIsPerformedOnTheExecutor() throws Exception {
+        // Given
+        final var delegate = mock(PhotosGateway.class);
+        final var photos = List.of(Photo.builder().id(1L).albumId(1L).build());
+        final var page = PageRequest.builder().after(0L).limit(10).build();
+        final var executions = new ArrayList<Runnable>();
+        final Executor executor = executions::add;
+        when(delegate.getPhotos(page)).thenReturn(photos);
+        final var gateway = new VirtualThreadPhotosGateway(delegate, executor);
+        // When
+        final var result = gateway.getPhotosAsync(page).toCompletableFuture();
+        final var completedBeforeRunning = result.isDone();
+        executions.forEach(Runnable::run);
+        // Then
+        assertEquals(1, executions.size(), "The call must be handed to the executor");
+        assertFalse(completedBeforeRunning, "The call must not be performed on the calling thread");
+        assertSame(photos, result.get(5, TimeUnit.SECONDS), "The delegate's photos must be returned");
+        verify(delegate, only()).getPhotos(page);
+    }
+
+    @Test
+    void whenCallingBlocking_thenTheDelegateIsCalledDirectly() {
+        // Given
+        final var delegate = mock(PhotosGateway.class);
+        final var photos = List.of(Photo.builder().id(1L).albumId(1L).build());
+        final var executions = new ArrayList<Runnable>();
+        when(delegate.getAlbumsPhotos(List.of(1L))).thenReturn(photos);
+        final var gateway = new VirtualThreadPhotosGateway(delegate, executions::add);
+        // When
+        final var returned = gateway.getAlbumsPhotos(List.of(1L));
+        // Then
+        assertSame(photos, returned, "The delegate's photos must be returned");
+        assertTrue(executions.isEmpty(), "Blocking calls must not be handed to the executor");
+        verify(delegate, only()).getAlbumsPhotos(List.of(1L));
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.impl;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VirtualThreadsTest {
+
+    @Test
+    void whenModeIsDisabled_thenThereIsNoExecutor() {
+        // When
+        final var virtualThreads = new VirtualThreads(false);
+        // Then
+        assertTrue(virtualThreads.getExecutor().isEmpty(), "No executor must be provided when disabled");
+    }
+
+    @Test
+    void whenModeIsEnabled_thenTheExecutorIsOnlyProvidedIfTheJvmHasVirtualThreads() {
+        // When
+        final var virtualThreads = new VirtualThreads(true);
+        // Then
+        try {
+            assertEquals(
+                    hasVirtualThreads(),
+                    virtualThreads.getExecutor().isPresent(),
+                    "The executor must be provided only if the JVM has virtual threads (falling back otherwise)"
+            );
+        } finally {
+            virtualThreads.shutdown();
+        }
+    }
+
+    @Test
+    void whenJvmHasVirtualThreads_thenTasksRunOnVirtualThreads() throws Exception {
+        // Given
+        final var executor = VirtualThreads.newExecutor();
+        assertEquals(hasVirtualThreads(), executor.isPresent(), "Unexpected executor availability");
+        if (executor.isEmpty()) {
+            return; // Nothing else to check on this JVM
+        }
+        // When
+        final var threadIsVirtual = executor.get()
+                .submit(() -> (Boolean) Thread.class.getMethod("isVirtual").invoke(Thread.currentThread()));
+        // Then
+        try {
+            assertTrue(threadIsVirtual.get(), "Tasks must run on virtual threads");
+        } finally {
+            executor.get().shutdown();
+        }
+    }
+
+
+    private static boolean hasVirtualThreads() {
+        return Runtime.version().feature() >= FIRST_VERSION_WITH_VIRTUAL_THREADS;
+    }
+
+
+    private static final int FIRST_VERSION_WITH_VIRTUAL_THREADS = 21;
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.usecases.impl;
+
+import com.github.juanmbellini.pocs.quarkus.exceptions.GatewayException;
+import com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.PhotosGateway;
+import com.github.juanmbellini.pocs.quarkus.models.Photo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.only;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AlbumsPhotosFetcherTest {
+
+
+    @Test
+    void whenAlbumsFitInOneChunk_thenGatewayIsCalledOnce() {
+        // Given
+        final var albumIds = List.of(1L, 2L, 3L);
+        final var list = List.<Photo>of();
+        final var gateway = mock(PhotosGateway.class);
+        when(gateway.getAlbumsPhotos(albumIds)).thenReturn(list);
+        final var fetcher = new AlbumsPhotosFetcher(gateway, 3, 2);
+        // When
+        final var returned = fetcher.fetch(albumIds);
+        // Then
+        assertEquals(list, returned, "The returned list is not the expected");
+        verify(gateway, only()).getAlbumsPhotos(albumIds);
+    }
+
+    @Test
+    void whenAlbumsSpanSeveralChunks_thenPhotosAreMergedInAlbumOrder() {
+        // Given
+        final var albumIds = LongStream.rangeClosed(1, 5).boxed().collect(Collectors.toList());
+        final var gateway = mock(PhotosGateway.class);
+        final var slow = new CompletableFuture<List<Photo>>();
+        when(gateway.getAlbumsPhotosAsync(List.of(1L, 2L))).thenReturn(slow);
+        when(gateway.getAlbumsPhotosAsync(List.of(3L, 4L))).thenReturn(photosOf(3L, 4L));
+        when(gateway.getAlbumsPhotosAsync(List.of(5L))).thenReturn(photosOf(5L));
+        final var fetcher = new AlbumsPhotosFetcher(gateway, 2, 2);
+        // When
+        final var result = fetcher.fetchAsync(albumIds).toCompletableFuture();
+        slow.complete(photosOf(1L, 2L).join()); // The first chunk completes last
+        // Then
+        final var returnedAlbumIds = result.join().stream().map(Photo::getAlbumId).collect(Collectors.toList());
+        assertEquals(albumIds, returnedAlbumIds, "Photos must be merged in album order");
+    }
+
+    @Test
+    void whenSeveralChunksFail_thenTheLowestIndexedFailureIsThrown() {
+        // Given
+        final var albumIds = LongStream.rangeClosed(1, 4).boxed().collect(Collectors.toList());
+        final var gateway = mock(PhotosGateway.class);
+        final var firstFailure = new GatewayException("first");
+        final var secondFailure = new GatewayException("second");
+        final var slowFailure = new CompletableFuture<List<Photo>>();
+        when(gateway.getAlbumsPhotosAsync(List.of(1L))).thenReturn(photosOf(1L));
+        when(gateway.getAlbumsPhotosAsync(List.of(2L))).thenReturn(slowFailure);
+        when(gateway.getAlbumsPhotosAsync(List.of(3L))).thenReturn(CompletableFuture.failedFuture(secondFailure));
+        when(gateway.getAlbumsPhotosAsync(List.of(4L))).thenReturn(photosOf(4L));
+        final var fetcher = new AlbumsPhotosFetcher(gateway, 1, 4);
+        final var result = fetcher.fetchAsync(albumIds).toCompletableFuture();
+        slowFailure.completeExceptionally(firstFailure); // The lowest-indexed chunk fails last
+        // When
+        final Executable executable = result::join;
+        // Then
+        final var exception = assertThrows(RuntimeException.class, executable);
+        assertEquals(firstFailure, exception.getCause(), "The failure of the lowest-indexed chunk must be thrown");
+    }
+
+    @Test
+    void whenChunkSizeOrMaxConcurrencyAreNotPositive_thenFetcherIsRejected() {
+        // Given
+        final var gateway = mock(PhotosGateway.class);
+        // When
+        final Executable zeroChunkSize = () -> new AlbumsPhotosFetcher(gateway, 0, 4);
+        final Executable negativeMaxConcurrency = () -> new AlbumsPhotosFetcher(gateway, 20, -1);
+        // Then
+        assertThrows(IllegalArgumentException.class, zeroChunkSize, "A chunk size of 0 must be rejected");
+        assertThrows(IllegalArgumentException.class, negativeMaxConcurrency, "A negative concurrency must be rejected");
+    }
+
+
+    private static CompletableFuture<List<Photo>> photosOf(final Long... albumIds) {
+        return CompletableFuture.completedFuture(
+                Arrays.stream(albumIds)
+                        .map(albumId -> Photo.builder().id(albumId * 100).albumId(albumId).build())
+                        .collect(Collectors.toList())
+        );
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.usecases.impl;
+
+import com.github.juanmbellini.pocs.quarkus.models.Comment;
+import com.github.juanmbellini.pocs.quarkus.models.CommentMatch;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CommentIndexTest {
+
+    @Test
+    void whenMatchIsExact_thenCaseIsRespected() {
+        // Given
+        final var index = new CommentIndex();
+        index.update(List.of(comment(1L, "Lorem", "a@example.com"), comment(2L, "lorem", "b@example.com")));
+        // When
+        final var returned = index.find("Lorem", null, CommentMatch.EXACT);
+        // Then
+        assertEquals(List.of(1L), ids(returned), "The exact match must be case sensitive");
+    }
+
+    @Test
+    void whenMatchIsCaseInsensitive_thenEveryCaseIsReturnedSortedById() {
+        // Given
+        final var index = new CommentIndex();
+        index.update(List.of(comment(2L, "lorem", "b@example.com"), comment(1L, "LOREM", "a@example.com")));
+        // When
+        final var returned = index.find("Lorem", null, CommentMatch.CASE_INSENSITIVE);
+        // Then
+        assertEquals(List.of(1L, 2L), ids(returned), "The returned comments are not the expected");
+    }
+
+    @Test
+    void whenMatchIsPrefix_thenEveryKeyStartingWithTheFilterIsReturned() {
+        // Given
+        final var index = new CommentIndex();
+        index.update(List.of(
+                comment(1L, "Lorem", "someone@example.com"),
+                comment(2L, "Ipsum", "some.one@example.com"),
+                comment(3L, "Dolor", "other@example.com")
+        ));
+        // When
+        final var returned = index.find(null, "SOME", CommentMatch.PREFIX);
+        // Then
+        assertEquals(List.of(1L, 2L), ids(returned), "The returned comments are not the expected");
+    }
+
+    @Test
+    void whenBothFiltersAreGiven_thenBothMustMatch() {
+        // Given
+        final var index = new CommentIndex();
+        index.update(List.of(comment(1L, "Lorem", "a@example.com"), comment(2L, "Lorem", "b@example.com")));
+        // When
+        final var returned = index.find("Lorem", "b@example.com", CommentMatch.EXACT);
+        // Then
+        assertEquals(List.of(2L), ids(returned), "The returned comments are not the expected");
+    }
+
+    @Test
+    void whenCommentsChange_thenOnlyTheChangesAreReported() {
+        // Given
+        final var index = new CommentIndex();
+        index.update(List.of(
+                comment(1L, "Lorem", "a@example.com"),
+                comment(2L, "Ipsum", "b@example.com"),
+                comment(3L, "Dolor", "c@example.com")
+        ));
+        // When
+        final var changed = index.update(List.of(
+                comment(1L, "Lorem", "a@example.com"),
+                comment(2L, "Sit", "b@example.com"),
+                comment(4L, "Amet", "d@example.com")
+        ));
+        // Then
+        assertEquals(3, changed, "A renamed, a removed and an added comment were expected");
+        assertTrue(index.find("Ipsum", null, CommentMatch.EXACT).isEmpty(), "The old name must not be indexed");
+        assertTrue(index.find(null, "c@example.com", CommentMatch.EXACT).isEmpty(), "Removed comment was found");
+        assertEquals(List.of(2L), ids(index.find("Sit", null, CommentMatch.EXACT)), "Renamed comment not found");
+        assertEquals(List.of(4L), ids(index.find("Amet", null, CommentMatch.EXACT)), "Added comment not found");
+        assertEquals(List.of(1L, 2L, 4L), ids(index.find(null, null, CommentMatch.EXACT)), "Unexpected comments");
+    }
+
+
+    private static Comment comment(final Long id, final String name, final String email) {
+        return Comment.builder().id(id).name(name).email(email).build();
+    }
+
+    private static List<Long> ids(final List<Comment> comments) {
+        return comments.stream().map(Comment::getId).collect(Collectors.toList());
+    }
+}
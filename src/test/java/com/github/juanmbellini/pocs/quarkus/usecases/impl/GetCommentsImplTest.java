@@ -18,17 +18,21 @@ package com.github.juanmbellini.pocs.quarkus.usecases.impl;
 
 import com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.CommentsGateway;
 import com.github.juanmbellini.pocs.quarkus.models.Comment;
+import com.github.juanmbellini.pocs.quarkus.models.CommentMatch;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.only;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 class GetCommentsImplTest {
@@ -40,7 +44,7 @@ class GetCommentsImplTest {
         final var list = List.<Comment>of();
         final var gateway = mock(CommentsGateway.class);
         when(gateway.getComments(null, email)).thenReturn(list);
-        final var useCase = new GetCommentsImpl(gateway);
+        final var useCase = new GetCommentsImpl(new IndexedComments(gateway, true));
         // When
         final var returned = useCase.apply(null, email);
         // Then
@@ -55,7 +59,7 @@ class GetCommentsImplTest {
         final var list = List.<Comment>of();
         final var gateway = mock(CommentsGateway.class);
         when(gateway.getComments(name, null)).thenReturn(list);
-        final var useCase = new GetCommentsImpl(gateway);
+        final var useCase = new GetCommentsImpl(new IndexedComments(gateway, true));
         // When
         final var returned = useCase.apply(name, null);
         // Then
@@ -69,7 +73,7 @@ class GetCommentsImplTest {
         final var list = List.<Comment>of();
         final var gateway = mock(CommentsGateway.class);
         when(gateway.getComments(null, null)).thenReturn(list);
-        final var useCase = new GetCommentsImpl(gateway);
+        final var useCase = new GetCommentsImpl(new IndexedComments(gateway, true));
         // When
         final var returned = useCase.apply(null, null);
         // Then
@@ -85,11 +89,30 @@ class GetCommentsImplTest {
         final var list = List.<Comment>of();
         final var gateway = mock(CommentsGateway.class);
         when(gateway.getComments(name, email)).thenReturn(list);
-        final var useCase = new GetCommentsImpl(gateway);
+        final var useCase = new GetCommentsImpl(new IndexedComments(gateway, true));
         // When
         final var returned = useCase.apply(name, email);
         // Then
         assertEquals(list, returned, "The returned list is not the expected");
         verify(gateway, only()).getComments(eq(name), eq(email));
     }
+
+    @Test
+    void whenIndexIsLoaded_thenFiltersAreAnsweredLocally() {
+        // Given
+        final var matching = Comment.builder().id(1L).name("Lorem Ipsum").email("someone@example.com").build();
+        final var other = Comment.builder().id(2L).name("Dolor").email("another@example.com").build();
+        final var gateway = mock(CommentsGateway.class);
+        when(gateway.getCommentsAsync(null, null))
+                .thenReturn(CompletableFuture.completedFuture(List.of(other, matching)));
+        final var indexedComments = new IndexedComments(gateway, true);
+        indexedComments.refresh().toCompletableFuture().join();
+        final var useCase = new GetCommentsImpl(indexedComments);
+        // When
+        final var returned = useCase.apply("lorem", null, CommentMatch.PREFIX);
+        // Then
+        assertEquals(List.of(matching), returned, "The returned list is not the expected");
+        verify(gateway, times(1)).getCommentsAsync(isNull(), isNull());
+        verifyNoMoreInteractions(gateway);
+    }
 }
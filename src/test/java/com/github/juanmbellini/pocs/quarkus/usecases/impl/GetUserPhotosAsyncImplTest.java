@@ -0,0 +1,134 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.usecases.impl;
+
+import com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.AlbumsGateway;
+import com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.PhotosGateway;
+import com.github.juanmbellini.pocs.quarkus.models.Album;
+import com.github.juanmbellini.pocs.quarkus.models.Photo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.only;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class GetUserPhotosAsyncImplTest {
+
+
+    @Test
+    void whenUserIdIsNull_thenThrowNullPointerException() {
+        // Given
+        final var useCase = new GetUserPhotosAsyncImpl(null, null, null);
+        // When
+        final Executable executable = () -> useCase.apply(null);
+        // Then
+        assertThrows(
+                NullPointerException.class,
+                executable,
+                "When passing a null user id, the use case must throw a NullPointerException"
+        );
+    }
+
+    @Test
+    void whenThereAreNoAlbumsForUser_thenReturnEmptyList() {
+        // Given
+        final var userId = new Random().nextLong();
+        final var albumsGateway = mock(AlbumsGateway.class);
+        when(albumsGateway.getUserAlbumsAsync(userId)).thenReturn(CompletableFuture.completedFuture(List.of()));
+        final var photosGateway = mock(PhotosGateway.class);
+        final var joiningGateway = mock(PhotosGateway.class);
+        when(joiningGateway.getUserPhotosAsync(userId))
+                .thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+        final var useCase = new GetUserPhotosAsyncImpl(
+                albumsGateway,
+                joiningGateway,
+                new AlbumsPhotosFetcher(photosGateway, 20, 4)
+        );
+        // When
+        final var returned = useCase.apply(userId).toCompletableFuture().join();
+        // Then
+        assertEquals(Collections.emptyList(), returned, "The returned list is not the expected");
+        verify(albumsGateway, only()).getUserAlbumsAsync(userId);
+        verifyNoInteractions(photosGateway);
+    }
+
+    @Test
+    void whenUserIdIsNotNull_thenReturnListOfPhotos() {
+        // Given
+        final var userId = new Random().nextLong();
+        final var albums = List.of(getAlbum(), getAlbum(), getAlbum());
+        final var albumsGateway = mock(AlbumsGateway.class);
+        when(albumsGateway.getUserAlbumsAsync(userId)).thenReturn(CompletableFuture.completedFuture(albums));
+        final var photosGateway = mock(PhotosGateway.class);
+        final var albumIds = albums.stream().map(Album::getId).collect(Collectors.toList());
+        final var list = List.<Photo>of();
+        when(photosGateway.getAlbumsPhotosAsync(albumIds)).thenReturn(CompletableFuture.completedFuture(list));
+        final var joiningGateway = mock(PhotosGateway.class);
+        when(joiningGateway.getUserPhotosAsync(userId))
+                .thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+        final var useCase = new GetUserPhotosAsyncImpl(
+                albumsGateway,
+                joiningGateway,
+                new AlbumsPhotosFetcher(photosGateway, 20, 4)
+        );
+        // When
+        final var returned = useCase.apply(userId).toCompletableFuture().join();
+        // Then
+        assertEquals(list, returned, "The returned list is not the expected");
+        verify(albumsGateway, only()).getUserAlbumsAsync(userId);
+        verify(photosGateway, only()).getAlbumsPhotosAsync(albumIds);
+    }
+
+    @Test
+    void whenPhotosGatewayJoinsUserPhotos_thenAlbumsAreNotRetrieved() {
+        // Given
+        final var userId = new Random().nextLong();
+        final var albumsGateway = mock(AlbumsGateway.class);
+        final var photosGateway = mock(PhotosGateway.class);
+        final var list = List.of(Photo.builder().id(new Random().nextLong()).build());
+        when(photosGateway.getUserPhotosAsync(userId))
+                .thenReturn(CompletableFuture.completedFuture(Optional.of(list)));
+        final var useCase = new GetUserPhotosAsyncImpl(
+                albumsGateway,
+                photosGateway,
+                new AlbumsPhotosFetcher(photosGateway, 20, 4)
+        );
+        // When
+        final var returned = useCase.apply(userId).toCompletableFuture().join();
+        // Then
+        assertEquals(list, returned, "The returned list is not the expected");
+        verify(photosGateway, only()).getUserPhotosAsync(userId);
+        verifyNoInteractions(albumsGateway);
+    }
+
+
+    private static Album getAlbum() {
+        return Album.builder().id(new Random().nextLong()).build();
+    }
+}
@@ -25,6 +25,7 @@ import org.junit.jupiter.api.function.Executable;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.Random;
 import java.util.stream.Collectors;
 
@@ -42,7 +43,7 @@ class GetUserPhotosImplTest {
     @Test
     void whenUserIdIsNull_thenThrowNullPointerException() {
         // Given
-        final var useCase = new GetUserPhotosImpl(null, null);
+        final var useCase = new GetUserPhotosImpl(null, null, null);
         // When
         final Executable executable = () -> useCase.apply(null);
         // Then
@@ -60,7 +61,13 @@ class GetUserPhotosImplTest {
         final var albumsGateway = mock(AlbumsGateway.class);
         when(albumsGateway.getUserAlbums(userId)).thenReturn(List.of());
         final var photosGateway = mock(PhotosGateway.class);
-        final var useCase = new GetUserPhotosImpl(albumsGateway, photosGateway);
+        final var joiningGateway = mock(PhotosGateway.class);
+        when(joiningGateway.getUserPhotos(userId)).thenReturn(Optional.empty());
+        final var useCase = new GetUserPhotosImpl(
+                albumsGateway,
+                joiningGateway,
+                new AlbumsPhotosFetcher(photosGateway, 20, 4)
+        );
         // When
         final var returned = useCase.apply(userId);
         // Then
@@ -83,7 +90,13 @@ class GetUserPhotosImplTest {
         final var albumIds = albums.stream().map(Album::getId).collect(Collectors.toList());
         final var list = List.<Photo>of();
         when(photosGateway.getAlbumsPhotos(albumIds)).thenReturn(list);
-        final var useCase = new GetUserPhotosImpl(albumsGateway, photosGateway);
+        final var joiningGateway = mock(PhotosGateway.class);
+        when(joiningGateway.getUserPhotos(userId)).thenReturn(Optional.empty());
+        final var useCase = new GetUserPhotosImpl(
+                albumsGateway,
+                joiningGateway,
+                new AlbumsPhotosFetcher(photosGateway, 20, 4)
+        );
         // When
         final var returned = useCase.apply(userId);
         // Then
@@ -92,6 +105,27 @@ class GetUserPhotosImplTest {
         verify(photosGateway, only()).getAlbumsPhotos(albumIds);
     }
 
+    @Test
+    void whenPhotosGatewayJoinsUserPhotos_thenAlbumsAreNotRetrieved() {
+        // Given
+        final var userId = new Random().nextLong();
+        final var albumsGateway = mock(AlbumsGateway.class);
+        final var photosGateway = mock(PhotosGateway.class);
+        final var list = List.of(Photo.builder().id(new Random().nextLong()).build());
+        when(photosGateway.getUserPhotos(userId)).thenReturn(Optional.of(list));
+        final var useCase = new GetUserPhotosImpl(
+                albumsGateway,
+                photosGateway,
+                new AlbumsPhotosFetcher(photosGateway, 20, 4)
+        );
+        // When
+        final var returned = useCase.apply(userId);
+        // Then
+        assertEquals(list, returned, "The returned list is not the expected");
+        verify(photosGateway, only()).getUserPhotos(userId);
+        verifyNoInteractions(albumsGateway);
+    }
+
 
     private static Album getAlbum() {
         return Album.builder().id(new Random().nextLong()).build();
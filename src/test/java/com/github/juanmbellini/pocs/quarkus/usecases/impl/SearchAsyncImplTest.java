@@ -0,0 +1,70 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.usecases.impl;
+
+import com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.AlbumsGateway;
+import com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.CommentsGateway;
+import com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.PhotosGateway;
+import com.github.juanmbellini.pocs.quarkus.models.Album;
+import com.github.juanmbellini.pocs.quarkus.models.Comment;
+import com.github.juanmbellini.pocs.quarkus.models.Photo;
+import com.github.juanmbellini.pocs.quarkus.models.SearchHit;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.only;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SearchAsyncImplTest {
+
+
+    @Test
+    void whenSearching_thenHitsOfEveryTypeAreReturned() {
+        // Given
+        final var albumsGateway = mock(AlbumsGateway.class);
+        final var photosGateway = mock(PhotosGateway.class);
+        final var commentsGateway = mock(CommentsGateway.class);
+        when(albumsGateway.getAlbumsAsync()).thenReturn(CompletableFuture.completedFuture(List.of(
+                Album.builder().id(1L).title("Quidem molestiae").build()
+        )));
+        when(photosGateway.getPhotosAsync()).thenReturn(CompletableFuture.completedFuture(List.of(
+                Photo.builder().id(2L).title("Accusamus beatae").build()
+        )));
+        when(commentsGateway.getCommentsAsync(null, null)).thenReturn(CompletableFuture.completedFuture(List.of(
+                Comment.builder().id(3L).name("Beatae est").body("Laudantium enim quasi").build()
+        )));
+        final var useCase = new SearchAsyncImpl(new SearchIndex(albumsGateway, photosGateway, commentsGateway, true));
+        // When
+        final var returned = useCase.apply("molestiae beatae", 10).toCompletableFuture().join();
+        // Then
+        assertEquals(3, returned.size(), "Every document matching any term was expected");
+        assertEquals(
+                List.of(SearchHit.Type.ALBUM, SearchHit.Type.PHOTO, SearchHit.Type.COMMENT),
+                List.of(returned.get(0).getType(), returned.get(1).getType(), returned.get(2).getType()),
+                "Hits were expected to be ranked by relevance"
+        );
+        verify(albumsGateway, only()).getAlbumsAsync();
+        verify(photosGateway, only()).getPhotosAsync();
+        verify(commentsGateway, only()).getCommentsAsync(isNull(), isNull());
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.usecases.impl;
+
+import com.github.juanmbellini.pocs.quarkus.gateways.jsonplaceholder.PhotosGateway;
+import com.github.juanmbellini.pocs.quarkus.models.Photo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.only;
+import static org.mockito.Mockito.verify;
+
+class StreamPhotosImplTest {
+
+
+    @Test
+    void whenConsumerIsNull_thenThrowNullPointerException() {
+        // Given
+        final var useCase = new StreamPhotosImpl(null);
+        // When
+        final Executable executable = () -> useCase.accept(null);
+        // Then
+        assertThrows(
+                NullPointerException.class,
+                executable,
+                "When passing a null consumer, the use case must throw a NullPointerException"
+        );
+    }
+
+    @Test
+    void whenConsumerIsNotNull_thenGatewayStreamsPhotos() {
+        // Given
+        final Consumer<Photo> consumer = photo -> {
+        };
+        final var gateway = mock(PhotosGateway.class);
+        final var useCase = new StreamPhotosImpl(gateway);
+        // When
+        useCase.accept(consumer);
+        // Then
+        verify(gateway, only()).streamPhotos(consumer);
+    }
+}
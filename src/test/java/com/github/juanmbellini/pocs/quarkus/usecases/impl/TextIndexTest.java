@@ -0,0 +1,120 @@
+/*
+ * Copyright 2020 Juan Marcos Bellini
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.juanmbellini.pocs.quarkus.usecases.impl;
+
+import com.github.juanmbellini.pocs.quarkus.models.SearchHit;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TextIndexTest {
+
+    @Test
+    void whenTokenizing_thenRunsOfLettersAndDigitsAreLowerCased() {
+        // When
+        final var terms = TextIndex.tokenize("Lorem-ipsum, DOLOR sit 42\namet");
+        // Then
+        assertEquals(List.of("lorem", "ipsum", "dolor", "sit", "42", "amet"), terms, "Unexpected terms");
+    }
+
+    @Test
+    void whenSearching_thenDocumentsWithMoreMatchingTermsRankFirst() {
+        // Given
+        final var index = TextIndex.builder()
+                .add(SearchHit.Type.PHOTO, 1L, "one", "lorem ipsum dolor")
+                .add(SearchHit.Type.PHOTO, 2L, "two", "lorem sit amet")
+                .add(SearchHit.Type.PHOTO, 3L, "three", "consectetur adipiscing elit")
+                .build();
+        // When
+        final var hits = index.search("Lorem dolor", 10);
+        // Then
+        assertEquals(List.of(1L, 2L), ids(hits), "Unexpected hits");
+        assertTrue(hits.get(0).getScore() > hits.get(1).getScore(), "Hits must be sorted by score");
+    }
+
+    @Test
+    void whenSearchingRareTerms_thenTheyWeighMoreThanCommonOnes() {
+        // Given
+        final var builder = TextIndex.builder();
+        IntStream.range(0, 100).forEach(i -> builder.add(SearchHit.Type.COMMENT, i, "common", "common words"));
+        final var index = builder.add(SearchHit.Type.COMMENT, 100L, "rare", "rare words").build();
+        // When
+        final var hits = index.search("common rare", 1);
+        // Then
+        assertEquals(List.of(100L), ids(hits), "The rare term was expected to weigh more");
+    }
+
+    @Test
+    void whenPostingsAreLarge_thenEveryDocumentIsDecoded() {
+        // Given
+        final var builder = TextIndex.builder();
+        IntStream.range(0, 100_000)
+                .forEach(i -> builder.add(SearchHit.Type.PHOTO, i, "photo", i % 1000 == 0 ? "x" : "y"));
+        final var index = builder.build();
+        // When
+        final var hits = index.search("x", 1000);
+        // Then
+        assertEquals(100, hits.size(), "Every matching document was expected");
+        assertEquals(
+                IntStream.range(0, 100).mapToObj(i -> i * 1000L).collect(Collectors.toList()),
+                ids(hits),
+                "Ties must be sorted by insertion order"
+        );
+    }
+
+    @Test
+    void whenDocumentsExceedTheMaximumLength_thenTheyCountAsCappedForTheAverageLength() {
+        // Given
+        final var capped = TextIndex.builder()
+                .add(SearchHit.Type.PHOTO, 1L, "short", "x")
+                .add(SearchHit.Type.PHOTO, 2L, "long", "y ".repeat(255))
+                .build();
+        final var overlong = TextIndex.builder()
+                .add(SearchHit.Type.PHOTO, 1L, "short", "x")
+                .add(SearchHit.Type.PHOTO, 2L, "long", "y ".repeat(10_000))
+                .build();
+        // When
+        final var cappedHits = capped.search("x", 1);
+        final var overlongHits = overlong.search("x", 1);
+        // Then
+        assertEquals(
+                cappedHits.get(0).getScore(),
+                overlongHits.get(0).getScore(),
+                "Lengths past the maximum one must not change the scores"
+        );
+    }
+
+    @Test
+    void whenNoTermMatches_thenNoHitsAreReturned() {
+        // Given
+        final var index = TextIndex.builder().add(SearchHit.Type.ALBUM, 1L, "one", "lorem").build();
+        // When
+        final var hits = index.search("ipsum", 10);
+        // Then
+        assertTrue(hits.isEmpty(), "No hits were expected");
+    }
+
+
+    private static List<Long> ids(final List<SearchHit> hits) {
+        return hits.stream().map(SearchHit::getId).collect(Collectors.toList());
+    }
+}